@@ -0,0 +1,78 @@
+package havis.middleware.reader.rf_r;
+
+import havis.middleware.ale.base.message.Message;
+import havis.middleware.ale.base.operation.port.Port;
+import havis.middleware.ale.base.operation.tag.Tag;
+import havis.middleware.ale.reader.Callback;
+import havis.util.monitor.ReaderEvent;
+
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Callback which hands every report to a JMH {@link Blackhole}.
+ */
+public class BenchmarkCallback implements Callback {
+
+	static final int NETWORK_PORT = 4711;
+
+	private final Blackhole blackhole;
+
+	private long tags;
+
+	/**
+	 * Initializes a new instance of the {@link BenchmarkCallback} class.
+	 *
+	 * @param blackhole
+	 *            the black hole to consume the reports
+	 */
+	public BenchmarkCallback(Blackhole blackhole) {
+		this.blackhole = blackhole;
+	}
+
+	/**
+	 * @return the number of tags reported so far
+	 */
+	public long getTags() {
+		return this.tags;
+	}
+
+	@Override
+	public void notify(long id, Tag tag) {
+		this.tags++;
+		this.blackhole.consume(tag);
+	}
+
+	@Override
+	public void notify(long id, Port port) {
+		this.blackhole.consume(port);
+	}
+
+	@Override
+	public void notify(Message message) {
+		this.blackhole.consume(message);
+	}
+
+	@Override
+	public void notify(ReaderEvent event) {
+		this.blackhole.consume(event);
+	}
+
+	@Override
+	public String getName() {
+		return "benchmark";
+	}
+
+	@Override
+	public int getNetworkPort() {
+		return NETWORK_PORT;
+	}
+
+	@Override
+	public void resetNetwortPort(int port) {
+	}
+
+	@Override
+	public int getReaderCycleDuration() {
+		return 0;
+	}
+}
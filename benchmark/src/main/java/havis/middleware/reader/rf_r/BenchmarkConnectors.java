@@ -0,0 +1,44 @@
+package havis.middleware.reader.rf_r;
+
+import havis.middleware.ale.base.operation.tag.TagOperation;
+
+import de.feig.FedmIscReader;
+
+/**
+ * Prepares connectors for the benchmarks without connecting to a device.
+ */
+public class BenchmarkConnectors {
+
+	static final String HOST = "127.0.0.1";
+
+	/**
+	 * Wires the connector to the given reader and enables the given number of
+	 * identical tag operations.
+	 *
+	 * @param connector
+	 *            the connector
+	 * @param reader
+	 *            the benchmark reader
+	 * @param operations
+	 *            the shape of the tag operations
+	 * @param subscribers
+	 *            the number of enabled tag operations
+	 * @throws Exception
+	 *             if the tag operations could not be enabled
+	 */
+	public static void prepare(RF_RReaderConnector connector, FedmIscReader reader, BenchmarkTags.Operations operations, int subscribers)
+			throws Exception {
+		connector.reader = reader;
+		connector.readerConfiguration.setReader(reader);
+
+		RF_RConnection connection = RF_RConnection.GetTCPConnection(HOST, connector.getDefaultPort());
+		connection.setConnectionProperties(new RF_RProperties());
+		connector.readerConnection = connection;
+
+		TagOperation operation = BenchmarkTags.tagOperation(operations);
+		for (long id = 1; id <= subscribers; id++) {
+			connector.defineTagOperation(id, operation);
+			connector.enableTagOperation(id);
+		}
+	}
+}
@@ -0,0 +1,77 @@
+package havis.middleware.reader.rf_r;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import de.feig.FedmBrmTableItem;
+import de.feig.FedmIscReader;
+import de.feig.TagHandler.FedmIscTagHandler;
+
+/**
+ * Reader used by the benchmarks. It answers inventories and BRM table reads
+ * with a prepared tag population and accepts every protocol without talking
+ * to a device.
+ */
+public class BenchmarkReader extends FedmIscReader {
+
+	private Map<String, FedmIscTagHandler> inventory = new HashMap<>();
+	private FedmBrmTableItem[] brmTable = new FedmBrmTableItem[0];
+
+	/**
+	 * Initializes a new instance of the {@link BenchmarkReader} class.
+	 *
+	 * @throws Exception
+	 *             if the underlying reader could not be created
+	 */
+	public BenchmarkReader() throws Exception {
+		super();
+	}
+
+	/**
+	 * @param inventory
+	 *            the tags returned by each inventory, keyed by UID
+	 */
+	public void setInventory(Map<String, FedmIscTagHandler> inventory) {
+		this.inventory = inventory;
+	}
+
+	/**
+	 * @param brmTable
+	 *            the items returned by each BRM table read
+	 */
+	public void setBrmTable(FedmBrmTableItem[] brmTable) {
+		this.brmTable = brmTable;
+	}
+
+	@Override
+	public HashMap<String, FedmIscTagHandler> tagInventory(boolean all, byte mode, byte antennas) {
+		// the connector merges "more data" results into the returned map
+		return new HashMap<>(this.inventory);
+	}
+
+	@Override
+	public int getLastStatus() {
+		return 0;
+	}
+
+	@Override
+	public int sendProtocol(byte command) {
+		return 0;
+	}
+
+	@Override
+	public String getStringData(String id) {
+		// antenna detection (0x76): all 4 antennas
+		return "0F";
+	}
+
+	@Override
+	public FedmBrmTableItem[] getTable(int table) {
+		return this.brmTable;
+	}
+
+	@Override
+	public int applyConfiguration(boolean eeprom) {
+		return 0;
+	}
+}
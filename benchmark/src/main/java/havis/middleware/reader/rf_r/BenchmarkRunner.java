@@ -0,0 +1,49 @@
+package havis.middleware.reader.rf_r;
+
+import java.util.Collection;
+import java.util.Map.Entry;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the GC profiler and prints the results per tag and
+ * the resulting tag rate.
+ * All arguments are passed to JMH, e.g. <code>-p tags=1000 HostInventory</code>.
+ */
+public class BenchmarkRunner {
+
+	private static final String ALLOCATION = "gc.alloc.rate.norm";
+
+	public static void main(String[] args) throws Exception {
+		Options options = new OptionsBuilder().parent(new CommandLineOptions(args)).addProfiler(GCProfiler.class).build();
+		Collection<RunResult> results = new Runner(options).run();
+
+		System.out.println();
+		System.out.println(String.format("%-60s %8s %12s %12s %12s", "Benchmark", "Tags", "ns/tag", "tags/s", "B/tag"));
+		for (RunResult result : results) {
+			BenchmarkParams params = result.getParams();
+			int tags = Integer.parseInt(params.getParam("tags"));
+
+			StringBuilder name = new StringBuilder(params.getBenchmark().substring(params.getBenchmark().lastIndexOf('.', params.getBenchmark().lastIndexOf('.') - 1) + 1));
+			for (String key : params.getParamsKeys())
+				if (!"tags".equals(key))
+					name.append(' ').append(key).append('=').append(params.getParam(key));
+
+			double nanos = result.getPrimaryResult().getScore() * TimeUnit.NANOSECONDS.convert(1, params.getTimeUnit());
+			double bytes = Double.NaN;
+			for (Entry<String, Result> secondary : result.getSecondaryResults().entrySet())
+				if (secondary.getKey().endsWith(ALLOCATION))
+					bytes = secondary.getValue().getScore();
+
+			System.out.println(String.format("%-60s %8d %12.1f %12.0f %12.1f", name, tags, nanos / tags, tags * 1e9 / nanos, bytes / tags));
+		}
+	}
+}
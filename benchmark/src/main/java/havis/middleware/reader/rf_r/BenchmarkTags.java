@@ -0,0 +1,270 @@
+package havis.middleware.reader.rf_r;
+
+import havis.middleware.ale.base.operation.tag.Field;
+import havis.middleware.ale.base.operation.tag.Operation;
+import havis.middleware.ale.base.operation.tag.OperationType;
+import havis.middleware.ale.base.operation.tag.TagOperation;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import de.feig.FeHexConvert;
+import de.feig.FedmBrmTableItem;
+import de.feig.FedmIscReader;
+import de.feig.FedmIscRssiItem;
+import de.feig.TagHandler.FedmIscTagHandler;
+import de.feig.TagHandler.FedmIscTagHandler_EPC_Class1_Gen2;
+import de.feig.TagHandler.FedmIscTagHandler_Result;
+
+/**
+ * Factory for synthetic tag populations and tag operations used by the
+ * benchmarks. Every tag has a 96 bit EPC, a 64 bit TID and a 32 byte user bank.
+ */
+public class BenchmarkTags {
+
+	/**
+	 * Protocol control as delivered by the reader: the low byte holds the high
+	 * byte of the PC word, 0x30 means 6 words of EPC.
+	 */
+	static final int PROTOCOL_CONTROL = 0x0030;
+
+	static final int EPC_LENGTH = 12;
+	static final int TID_LENGTH = 8;
+	static final int USER_LENGTH = 32;
+
+	/**
+	 * The shape of the tag operations subscribed by the benchmarks.
+	 */
+	public enum Operations {
+		/**
+		 * Read the EPC bank only, nothing has to be read from the tag
+		 */
+		EPC,
+		/**
+		 * Read the EPC bank and the first 4 words of the user bank
+		 */
+		EPC_USER
+	}
+
+	/**
+	 * Creates the raw UIDs (EPC followed by TID) of a population.
+	 *
+	 * @param count
+	 *            the number of tags
+	 * @return the UIDs
+	 */
+	static byte[][] uids(int count) {
+		Random random = new Random(count);
+		byte[][] uids = new byte[count][];
+		for (int i = 0; i < count; i++)
+			uids[i] = uid(random, i);
+		return uids;
+	}
+
+	/**
+	 * Creates a raw UID (EPC followed by TID) which is unique for each serial
+	 * number.
+	 *
+	 * @param random
+	 *            the source of the remaining EPC and TID bytes
+	 * @param serial
+	 *            the serial number
+	 * @return the UID
+	 */
+	static byte[] uid(Random random, int serial) {
+		byte[] uid = new byte[EPC_LENGTH + TID_LENGTH];
+		random.nextBytes(uid);
+		// keep the UIDs unique
+		uid[EPC_LENGTH - 4] = (byte) (serial >> 24);
+		uid[EPC_LENGTH - 3] = (byte) (serial >> 16);
+		uid[EPC_LENGTH - 2] = (byte) (serial >> 8);
+		uid[EPC_LENGTH - 1] = (byte) serial;
+		// TID class E2
+		uid[EPC_LENGTH] = (byte) 0xE2;
+		return uid;
+	}
+
+	static HashMap<Integer, FedmIscRssiItem> rssi(int index) {
+		return rssi(index % 4 + 1, 40 + index % 30);
+	}
+
+	static HashMap<Integer, FedmIscRssiItem> rssi(int antenna, int value) {
+		FedmIscRssiItem item = new FedmIscRssiItem();
+		item.antennaNumber = (byte) antenna;
+		item.antennaStatus = 0;
+		item.RSSI = (byte) value;
+		HashMap<Integer, FedmIscRssiItem> rssi = new HashMap<>();
+		rssi.put(Integer.valueOf(1), item);
+		return rssi;
+	}
+
+	/**
+	 * Creates a host mode inventory result.
+	 *
+	 * @param reader
+	 *            the reader the tag handlers belong to
+	 * @param count
+	 *            the number of tags
+	 * @return the tag handlers keyed by UID
+	 */
+	public static Map<String, FedmIscTagHandler> inventory(FedmIscReader reader, int count) {
+		Map<String, FedmIscTagHandler> inventory = new LinkedHashMap<>();
+		byte[][] uids = uids(count);
+		for (int i = 0; i < count; i++) {
+			Gen2Tag tag = new Gen2Tag(reader, uids[i], rssi(i));
+			inventory.put(tag.getUid(), tag);
+		}
+		return inventory;
+	}
+
+	/**
+	 * Creates a notification mode BRM table.
+	 *
+	 * @param count
+	 *            the number of tags
+	 * @return the BRM table items
+	 */
+	public static FedmBrmTableItem[] brmTable(int count) {
+		FedmBrmTableItem[] table = new FedmBrmTableItem[count];
+		byte[][] uids = uids(count);
+		for (int i = 0; i < count; i++)
+			table[i] = new BrmItem(uids[i], rssi(i));
+		return table;
+	}
+
+	/**
+	 * Creates a tag operation
+	 *
+	 * @param operations
+	 *            the shape of the operation
+	 * @return the tag operation
+	 */
+	public static TagOperation tagOperation(Operations operations) {
+		List<Operation> list = new ArrayList<>();
+		list.add(new Operation(1, OperationType.READ, new Field("epc", 1, 0, 0)));
+		if (operations == Operations.EPC_USER)
+			list.add(new Operation(2, OperationType.READ, new Field("user", 3, 0, 64)));
+		return new TagOperation(list);
+	}
+
+	/**
+	 * Host mode tag handler with fixed content
+	 */
+	static class Gen2Tag extends FedmIscTagHandler_EPC_Class1_Gen2 {
+
+		private final String uid;
+		private final String epc;
+		private final String tid;
+		private final HashMap<Integer, FedmIscRssiItem> rssi;
+		private final byte[] user = new byte[USER_LENGTH];
+
+		Gen2Tag(FedmIscReader reader, byte[] uid, HashMap<Integer, FedmIscRssiItem> rssi) {
+			super(reader, null);
+			this.uid = FeHexConvert.byteArrayToHexString(uid);
+			this.epc = this.uid.substring(0, EPC_LENGTH * 2);
+			this.tid = this.uid.substring(EPC_LENGTH * 2);
+			this.rssi = rssi;
+		}
+
+		@Override
+		public int getTagHandlerType() {
+			return FedmIscTagHandler.TYPE_EPC_CLASS1_GEN2;
+		}
+
+		@Override
+		public String getUid() {
+			return this.uid;
+		}
+
+		@Override
+		public String getEpcOfUid() {
+			return this.epc;
+		}
+
+		@Override
+		public String getTidOfUid() {
+			return this.tid;
+		}
+
+		@Override
+		public int getProtocolControl() {
+			return PROTOCOL_CONTROL;
+		}
+
+		@Override
+		public HashMap<Integer, FedmIscRssiItem> getRSSI() {
+			return this.rssi;
+		}
+
+		@Override
+		public int readCompleteBank(int bank, String password, FedmIscTagHandler_Result result) {
+			result.data = this.user.clone();
+			return 0;
+		}
+
+		@Override
+		public int readMultipleBlocks(int bank, int address, int blocks, String password, FedmIscTagHandler_Result result) {
+			byte[] data = new byte[blocks * 2];
+			System.arraycopy(this.user, address * 2, data, 0, Math.min(data.length, Math.max(0, this.user.length - address * 2)));
+			result.data = data;
+			return 0;
+		}
+	}
+
+	/**
+	 * Notification mode BRM table item with fixed content
+	 */
+	static class BrmItem extends FedmBrmTableItem {
+
+		private final String uidString;
+		private final HashMap<Integer, FedmIscRssiItem> rssi;
+		private final byte[] user = new byte[8];
+
+		BrmItem(byte[] uid, HashMap<Integer, FedmIscRssiItem> rssi) {
+			super();
+			this.uid = uid;
+			this.class1Gen2PC = new byte[] { (byte) PROTOCOL_CONTROL, (byte) (PROTOCOL_CONTROL >> 8) };
+			this.uidString = FeHexConvert.byteArrayToHexString(uid);
+			this.rssi = rssi;
+		}
+
+		@Override
+		public String getUid() {
+			return this.uidString;
+		}
+
+		@Override
+		public String getStringData(int id) {
+			return this.uidString;
+		}
+
+		@Override
+		public int getIntegerData(int id) {
+			return PROTOCOL_CONTROL;
+		}
+
+		@Override
+		public HashMap<Integer, FedmIscRssiItem> getRSSI() {
+			return this.rssi;
+		}
+
+		@Override
+		public byte[] getByteArrayData(int id, int address, int count) {
+			return this.user;
+		}
+
+		@Override
+		public int getBlockAddress() {
+			return 0;
+		}
+
+		@Override
+		public int getBlockCount() {
+			return this.user.length / 2;
+		}
+	}
+}
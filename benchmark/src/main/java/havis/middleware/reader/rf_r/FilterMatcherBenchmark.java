@@ -0,0 +1,120 @@
+package havis.middleware.reader.rf_r;
+
+import havis.middleware.ale.base.operation.tag.Filter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures matching the compiled filters of a tag operation against the EPC
+ * bank and TID of a population, every second tag matches.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FilterMatcherBenchmark {
+
+	/**
+	 * The filters of the tag operation
+	 */
+	public enum Filters {
+		/**
+		 * The first 32 bits of the EPC
+		 */
+		EPC_PREFIX,
+		/**
+		 * 24 bits of the EPC not aligned to a byte
+		 */
+		EPC_UNALIGNED,
+		/**
+		 * The first 32 bits of the EPC and of the TID
+		 */
+		EPC_TID
+	}
+
+	private static final int EPC_OFFSET = 32;
+
+	@Param({ "10", "100", "1000", "5000" })
+	int tags;
+
+	@Param({ "EPC_PREFIX", "EPC_UNALIGNED", "EPC_TID" })
+	Filters filters;
+
+	private byte[][] epcBanks;
+	private byte[][] tids;
+
+	private RF_RFilterMatcher matcher;
+
+	@Setup
+	public void setup() {
+		byte[][] uids = BenchmarkTags.uids(this.tags);
+		this.epcBanks = new byte[this.tags][];
+		this.tids = new byte[this.tags][];
+		for (int i = 0; i < this.tags; i++) {
+			byte[] epcBank = new byte[4 + BenchmarkTags.EPC_LENGTH];
+			epcBank[2] = (byte) BenchmarkTags.PROTOCOL_CONTROL;
+			System.arraycopy(uids[i], 0, epcBank, 4, BenchmarkTags.EPC_LENGTH);
+			byte[] tid = new byte[BenchmarkTags.TID_LENGTH];
+			System.arraycopy(uids[i], BenchmarkTags.EPC_LENGTH, tid, 0, BenchmarkTags.TID_LENGTH);
+			// every second tag shares the start of the EPC and TID with the
+			// first tag
+			if (i % 2 == 0 && i > 0) {
+				System.arraycopy(this.epcBanks[0], 4, epcBank, 4, 6);
+				System.arraycopy(this.tids[0], 0, tid, 0, 4);
+			}
+			this.epcBanks[i] = epcBank;
+			this.tids[i] = tid;
+		}
+
+		List<Filter> list = new ArrayList<>();
+		switch (this.filters) {
+		case EPC_PREFIX:
+			list.add(filter(1, EPC_OFFSET, 32, this.epcBanks[0]));
+			break;
+		case EPC_UNALIGNED:
+			list.add(filter(1, EPC_OFFSET + 13, 24, this.epcBanks[0]));
+			break;
+		case EPC_TID:
+			list.add(filter(1, EPC_OFFSET, 32, this.epcBanks[0]));
+			list.add(filter(2, 0, 32, this.tids[0]));
+			break;
+		}
+		this.matcher = RF_RFilterMatcher.compile(list);
+	}
+
+	/**
+	 * Creates a filter with the bits of the data at the offset as mask
+	 */
+	private static Filter filter(int bank, int offset, int length, byte[] data) {
+		byte[] mask = new byte[(length + 7) / 8];
+		for (int i = 0; i < length; i++)
+			if ((data[(offset + i) / 8] & (0x80 >>> ((offset + i) % 8))) != 0)
+				mask[i / 8] |= 0x80 >>> (i % 8);
+		return new Filter(bank, length, offset, mask);
+	}
+
+	@Benchmark
+	public int matches() {
+		int matches = 0;
+		for (int i = 0; i < this.tags; i++)
+			if (this.matcher.matches(this.epcBanks[i], this.tids[i]))
+				matches++;
+		return matches;
+	}
+}
@@ -0,0 +1,83 @@
+package havis.middleware.reader.rf_r;
+
+import havis.middleware.ale.base.operation.tag.Tag;
+import havis.middleware.ale.base.operation.tag.result.ReadResult;
+import havis.middleware.ale.base.operation.tag.result.ResultState;
+import havis.middleware.reader.rf_r.RF_RReaderConnector.InventoryReport;
+import havis.middleware.reader.rf_r500.HostRF_R500ReaderConnector;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the fan-out of already decoded tags to the subscribed tag
+ * operations.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InventoryReportBenchmark {
+
+	@Param({ "10", "100", "1000", "5000" })
+	int tags;
+
+	@Param({ "1", "20" })
+	int subscribers;
+
+	@Param({ "EPC", "EPC_USER" })
+	BenchmarkTags.Operations operations;
+
+	private HostRF_R500ReaderConnector connector;
+
+	private InventoryReport[] reports;
+
+	private RF_RActiveOperations activeOperations;
+
+	@Setup
+	public void setup(Blackhole blackhole) throws Exception {
+		BenchmarkReader reader = new BenchmarkReader();
+		this.connector = new HostRF_R500ReaderConnector(new BenchmarkCallback(blackhole));
+		BenchmarkConnectors.prepare(this.connector, reader, this.operations, this.subscribers);
+		this.activeOperations = this.connector.getActiveOperations();
+
+		byte[][] uids = BenchmarkTags.uids(this.tags);
+		this.reports = new InventoryReport[this.tags];
+		for (int i = 0; i < this.tags; i++) {
+			byte[] epc = Arrays.copyOf(uids[i], BenchmarkTags.EPC_LENGTH);
+			Tag tag = new Tag(epc);
+			tag.setPc(new byte[] { (byte) BenchmarkTags.PROTOCOL_CONTROL, 0x00 });
+
+			ReadResult[] readResult = new ReadResult[4];
+			byte[] epcData = new byte[4 + epc.length];
+			epcData[2] = (byte) BenchmarkTags.PROTOCOL_CONTROL;
+			System.arraycopy(epc, 0, epcData, 4, epc.length);
+			readResult[1] = new ReadResult(ResultState.SUCCESS, epcData);
+			if (this.operations == BenchmarkTags.Operations.EPC_USER)
+				readResult[3] = new ReadResult(ResultState.SUCCESS, new byte[8]);
+
+			this.reports[i] = this.connector.new InventoryReport(tag, readResult);
+		}
+	}
+
+	@Benchmark
+	public void sendInventoryReport() {
+		for (InventoryReport report : this.reports)
+			this.connector.sendInventoryReport(report, this.activeOperations);
+	}
+}
@@ -0,0 +1,58 @@
+package havis.middleware.reader.rf_r;
+
+import havis.middleware.reader.rf_r500.NotificationRF_R500ReaderConnector;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the processing of one notification, from the BRM table to the
+ * callback.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NotificationBenchmark {
+
+	@Param({ "10", "100", "1000", "5000" })
+	int tags;
+
+	@Param({ "1", "20" })
+	int subscribers;
+
+	@Param({ "EPC", "EPC_USER" })
+	BenchmarkTags.Operations operations;
+
+	private NotificationRF_RReaderConnector connector;
+
+	@Setup
+	public void setup(Blackhole blackhole) throws Exception {
+		BenchmarkReader reader = new BenchmarkReader();
+		reader.setBrmTable(BenchmarkTags.brmTable(this.tags));
+
+		this.connector = new NotificationRF_R500ReaderConnector(new BenchmarkCallback(blackhole));
+		BenchmarkConnectors.prepare(this.connector, reader, this.operations, this.subscribers);
+		// notifications are ignored until the inventory was started
+		this.connector.startInventory();
+	}
+
+	@Benchmark
+	public void onNewNotification() {
+		this.connector.taskListener.onNewNotification(0, BenchmarkConnectors.HOST, BenchmarkCallback.NETWORK_PORT);
+	}
+}
@@ -0,0 +1,133 @@
+package havis.middleware.reader.rf_r;
+
+import java.util.HashMap;
+import java.util.Random;
+
+import de.feig.FedmBrmTableItem;
+import de.feig.FedmIscReader;
+import de.feig.FedmIscRssiItem;
+import de.feig.TagHandler.FedmIscTagHandler;
+
+/**
+ * Scriptable tag population seen by the {@link SimulatedReader}. The
+ * population has a fixed size, each round a share of the tags leaves the
+ * field and is replaced by new tags. Every sighting gets an antenna out of the
+ * requested antennas and a random RSSI value.
+ */
+public class SimulatedPopulation {
+
+	private final Random random;
+	private final byte[][] uids;
+	private int serial;
+
+	private double churn;
+	private int minRssi = 30;
+	private int maxRssi = 70;
+
+	/**
+	 * Initializes a new instance of the {@link SimulatedPopulation} class.
+	 *
+	 * @param size
+	 *            the number of tags in the field
+	 * @param seed
+	 *            the seed of the population, equal seeds create equal
+	 *            populations
+	 */
+	public SimulatedPopulation(int size, long seed) {
+		this.random = new Random(seed);
+		this.uids = new byte[size][];
+		for (; this.serial < size; this.serial++)
+			this.uids[this.serial] = BenchmarkTags.uid(this.random, this.serial);
+	}
+
+	/**
+	 * @return the number of tags in the field
+	 */
+	public int size() {
+		return this.uids.length;
+	}
+
+	/**
+	 * @param churn
+	 *            the share of tags replaced each round, between 0 and 1
+	 */
+	public void setChurn(double churn) {
+		if (churn < 0 || churn > 1)
+			throw new IllegalArgumentException("Churn must be between 0 and 1");
+		this.churn = churn;
+	}
+
+	/**
+	 * @param min
+	 *            the lowest RSSI value reported
+	 * @param max
+	 *            the highest RSSI value reported
+	 */
+	public void setRssi(int min, int max) {
+		if (min > max)
+			throw new IllegalArgumentException("Minimum RSSI must not exceed the maximum RSSI");
+		this.minRssi = min;
+		this.maxRssi = max;
+	}
+
+	/**
+	 * Starts a new round, replaces the share of tags given by the churn
+	 */
+	public void advance() {
+		int replace = (int) Math.round(this.uids.length * this.churn);
+		for (int i = 0; i < replace; i++)
+			this.uids[this.random.nextInt(this.uids.length)] = BenchmarkTags.uid(this.random, this.serial++);
+	}
+
+	/**
+	 * Creates the host mode tag handlers for a range of the population
+	 *
+	 * @param reader
+	 *            the reader the tag handlers belong to
+	 * @param offset
+	 *            the index of the first tag
+	 * @param count
+	 *            the number of tags
+	 * @param antennas
+	 *            the antenna mask of the inventory
+	 * @return the tag handlers keyed by UID
+	 */
+	HashMap<String, FedmIscTagHandler> inventory(FedmIscReader reader, int offset, int count, byte antennas) {
+		HashMap<String, FedmIscTagHandler> inventory = new HashMap<>();
+		for (int i = offset; i < offset + count; i++) {
+			BenchmarkTags.Gen2Tag tag = new BenchmarkTags.Gen2Tag(reader, this.uids[i], rssi(antennas));
+			inventory.put(tag.getUid(), tag);
+		}
+		return inventory;
+	}
+
+	/**
+	 * Creates the BRM table items of the whole population
+	 *
+	 * @param antennas
+	 *            the antenna mask of the inventory
+	 * @return the BRM table items
+	 */
+	FedmBrmTableItem[] brmTable(byte antennas) {
+		FedmBrmTableItem[] table = new FedmBrmTableItem[this.uids.length];
+		for (int i = 0; i < table.length; i++)
+			table[i] = new BenchmarkTags.BrmItem(this.uids[i], rssi(antennas));
+		return table;
+	}
+
+	private HashMap<Integer, FedmIscRssiItem> rssi(byte antennas) {
+		int count = Integer.bitCount(antennas & 0xFF);
+		int antenna = 1;
+		if (count > 0) {
+			// pick one of the set bits
+			int pick = this.random.nextInt(count);
+			for (int mask = antennas & 0xFF; mask != 0; mask &= mask - 1) {
+				if (pick-- == 0) {
+					antenna = Integer.numberOfTrailingZeros(mask) + 1;
+					break;
+				}
+			}
+		}
+		return BenchmarkTags.rssi(antenna, this.minRssi + this.random.nextInt(this.maxRssi - this.minRssi + 1));
+	}
+}
@@ -0,0 +1,339 @@
+package havis.middleware.reader.rf_r;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import de.feig.FeHexConvert;
+import de.feig.FePortDriverException;
+import de.feig.FeReaderDriverException;
+import de.feig.FedmBrmTableItem;
+import de.feig.FedmException;
+import de.feig.FedmIscReader;
+import de.feig.FedmIscReaderConst;
+import de.feig.FedmIscReaderID;
+import de.feig.FedmTaskListener;
+import de.feig.FedmTaskOption;
+import de.feig.FEDM.Core.IScanEventListener;
+import de.feig.TagHandler.FedmIscTagHandler;
+
+/**
+ * Simulated reader answering the calls the connectors make with a
+ * {@link SimulatedPopulation} instead of talking to a device. The simulator
+ * supports
+ * <ul>
+ * <li>host mode inventories (<code>tagInventory</code>) including paging with
+ * status 0x94 (more data)</li>
+ * <li>BRM table reads of notification and scan mode</li>
+ * <li>the protocols 0x6A (RF on/off), 0x72 (outputs), 0x74 (inputs) and 0x76
+ * (antenna detection)</li>
+ * <li>reading and applying the configuration</li>
+ * <li>the notification task, which is driven by {@link #notification()}</li>
+ * <li>latency injection for inventories, BRM table reads and protocols</li>
+ * <li>error injection with the error codes of the FEIG library, e.g. -1211
+ * (connection lost), -4035 (asynchronous connection) and -105 (buffer
+ * insufficiency)</li>
+ * </ul>
+ * The reader is wired to a connector by
+ * {@link BenchmarkConnectors#prepare(RF_RReaderConnector, FedmIscReader, BenchmarkTags.Operations, int)}
+ * .
+ */
+public class SimulatedReader extends FedmIscReader {
+
+	private static final String[] INPUTS = new String[] { FedmIscReaderID.FEDM_ISC_TMP_INP_STATE_IN1, FedmIscReaderID.FEDM_ISC_TMP_INP_STATE_IN2,
+			FedmIscReaderID.FEDM_ISC_TMP_INP_STATE_IN3, FedmIscReaderID.FEDM_ISC_TMP_INP_STATE_IN4, FedmIscReaderID.FEDM_ISC_TMP_INP_STATE_IN5 };
+
+	private final SimulatedPopulation population;
+
+	private final Map<String, Object> data = new HashMap<>();
+	private final Map<Long, Integer> errors = new HashMap<>();
+
+	private int pageSize = Integer.MAX_VALUE;
+	private long inventoryLatency;
+	private long protocolLatency;
+
+	private byte antennaMask = 0x0F;
+	private boolean[] inputs = new boolean[INPUTS.length];
+	private boolean rf;
+	private boolean connected = true;
+
+	private long round;
+	private int offset;
+	private int lastStatus;
+
+	private FedmTaskListener taskListener;
+	private FedmBrmTableItem[] brmTable = new FedmBrmTableItem[0];
+
+	/**
+	 * Initializes a new instance of the {@link SimulatedReader} class.
+	 *
+	 * @param population
+	 *            the tags in the field
+	 * @throws Exception
+	 *             if the underlying reader could not be created
+	 */
+	public SimulatedReader(SimulatedPopulation population) throws Exception {
+		super();
+		this.population = population;
+	}
+
+	/**
+	 * @return the tags in the field
+	 */
+	public SimulatedPopulation getPopulation() {
+		return this.population;
+	}
+
+	/**
+	 * @param pageSize
+	 *            the maximum number of tags returned by one inventory call,
+	 *            more tags are returned with status 0x94 (more data)
+	 */
+	public void setPageSize(int pageSize) {
+		this.pageSize = pageSize;
+	}
+
+	/**
+	 * @param latency
+	 *            the time each inventory and BRM table read takes
+	 * @param unit
+	 *            the unit of the latency
+	 */
+	public void setInventoryLatency(long latency, TimeUnit unit) {
+		this.inventoryLatency = unit.toNanos(latency);
+	}
+
+	/**
+	 * @param latency
+	 *            the time each protocol takes
+	 * @param unit
+	 *            the unit of the latency
+	 */
+	public void setProtocolLatency(long latency, TimeUnit unit) {
+		this.protocolLatency = unit.toNanos(latency);
+	}
+
+	/**
+	 * @param antennaMask
+	 *            the antennas reported as connected by the antenna detection
+	 */
+	public void setAntennaMask(byte antennaMask) {
+		this.antennaMask = antennaMask;
+	}
+
+	/**
+	 * @param input
+	 *            the input, starting with 1
+	 * @param state
+	 *            the state of the input
+	 */
+	public void setInput(int input, boolean state) {
+		this.inputs[input - 1] = state;
+	}
+
+	/**
+	 * @return whether RF is switched on
+	 */
+	public boolean isRf() {
+		return this.rf;
+	}
+
+	/**
+	 * @return the number of inventory rounds started so far
+	 */
+	public long getRound() {
+		return this.round;
+	}
+
+	/**
+	 * Fails the given round with the given error code. The error is thrown by
+	 * the inventory or BRM table read of the round and is reported as error
+	 * code to the notification task. The codes -1200 to -1299 are thrown as
+	 * {@link FePortDriverException}, the codes -4000 to -4999 as
+	 * {@link FeReaderDriverException} and all others as {@link FedmException}.
+	 *
+	 * @param round
+	 *            the round, starting with 1
+	 * @param error
+	 *            the error code
+	 */
+	public void fail(long round, int error) {
+		this.errors.put(Long.valueOf(round), Integer.valueOf(error));
+	}
+
+	/**
+	 * Simulates the reader pushing the tags of a new round to the notification
+	 * task.
+	 *
+	 * @param host
+	 *            the address the notification is sent from
+	 * @param port
+	 *            the port the notification is sent to
+	 */
+	public void notification(String host, int port) {
+		if (this.taskListener == null)
+			return;
+		Integer error = nextRound();
+		this.taskListener.onNewNotification(error != null ? error.intValue() : 0, host, port);
+	}
+
+	/**
+	 * Simulates the reader pushing the tags of a new round to a scan event
+	 * listener.
+	 *
+	 * @param listener
+	 *            the scan event listener
+	 */
+	public void scan(IScanEventListener listener) {
+		nextRound();
+		listener.onNewScanEvent(null);
+	}
+
+	private Integer nextRound() {
+		this.round++;
+		this.population.advance();
+		this.brmTable = this.population.brmTable(this.antennaMask);
+		return this.errors.remove(Long.valueOf(this.round));
+	}
+
+	private void fail(Integer error) throws FePortDriverException, FeReaderDriverException, FedmException {
+		if (error == null)
+			return;
+		int code = error.intValue();
+		String message = "Simulated error " + code;
+		if (code <= -1200 && code >= -1299)
+			throw new FePortDriverException(code, message);
+		if (code <= -4000 && code >= -4999)
+			throw new FeReaderDriverException(code, message);
+		throw new FedmException(code, message);
+	}
+
+	private static void delay(long nanos) {
+		if (nanos > 0)
+			LockSupport.parkNanos(nanos);
+	}
+
+	@Override
+	public HashMap<String, FedmIscTagHandler> tagInventory(boolean all, byte mode, byte antennas) throws FePortDriverException, FeReaderDriverException,
+			FedmException {
+		delay(this.inventoryLatency);
+		if ((mode & 0x80) == 0) {
+			// new inventory, the more data flag is not set
+			this.round++;
+			this.offset = 0;
+			this.population.advance();
+			fail(this.errors.remove(Long.valueOf(this.round)));
+		}
+		int count = Math.min(this.pageSize, this.population.size() - this.offset);
+		HashMap<String, FedmIscTagHandler> inventory = this.population.inventory(this, this.offset, count, antennas);
+		this.offset += count;
+		if (count == 0)
+			this.lastStatus = 0x01;
+		else
+			this.lastStatus = this.offset < this.population.size() ? 0x94 : 0x00;
+		return inventory;
+	}
+
+	@Override
+	public int getLastStatus() {
+		return this.lastStatus;
+	}
+
+	@Override
+	public int sendProtocol(byte command) throws FePortDriverException, FeReaderDriverException, FedmException {
+		delay(this.protocolLatency);
+		if (!this.connected)
+			throw new FePortDriverException(-1211, "Simulated reader is not connected");
+		switch (command) {
+		case 0x6A:
+			this.rf = getByteData(FedmIscReaderID.FEDM_ISC_TMP_RF_ONOFF) != 0;
+			break;
+		case 0x72:
+			// outputs are accepted without effect
+			break;
+		case 0x74:
+			for (int i = 0; i < INPUTS.length; i++)
+				this.data.put(INPUTS[i], Boolean.valueOf(this.inputs[i]));
+			break;
+		case 0x76:
+			this.data.put(FedmIscReaderID.FEDM_ISC_TMP_ANTENNA_OUT, FeHexConvert.byteToHexString(this.antennaMask));
+			break;
+		default:
+			break;
+		}
+		this.lastStatus = 0x00;
+		return this.lastStatus;
+	}
+
+	@Override
+	public void setData(String id, byte value) {
+		this.data.put(id, Byte.valueOf(value));
+	}
+
+	@Override
+	public void setData(String id, int value) {
+		this.data.put(id, Integer.valueOf(value));
+	}
+
+	@Override
+	public byte getByteData(String id) {
+		Object value = this.data.get(id);
+		return value instanceof Number ? ((Number) value).byteValue() : 0;
+	}
+
+	@Override
+	public boolean getBooleanData(String id) {
+		return Boolean.TRUE.equals(this.data.get(id));
+	}
+
+	@Override
+	public String getStringData(String id) {
+		Object value = this.data.get(id);
+		return value != null ? value.toString() : "";
+	}
+
+	@Override
+	public int readCompleteConfiguration(boolean eeprom) {
+		return 0;
+	}
+
+	@Override
+	public int applyConfiguration(boolean eeprom) {
+		return 0;
+	}
+
+	@Override
+	public Object getTable(int table) throws FedmException {
+		if (table != FedmIscReaderConst.BRM_TABLE)
+			throw new FedmException(-101, "Simulated reader has no table " + table);
+		delay(this.inventoryLatency);
+		return this.brmTable;
+	}
+
+	@Override
+	public void startAsyncTask(int id, FedmTaskListener listener, FedmTaskOption option) {
+		this.taskListener = listener;
+	}
+
+	@Override
+	public int cancelAsyncTask() {
+		this.taskListener = null;
+		return 0;
+	}
+
+	@Override
+	public boolean isConnected() {
+		return this.connected;
+	}
+
+	@Override
+	public void disConnect() {
+		this.connected = false;
+	}
+
+	@Override
+	public String getErrorText(int error) {
+		return "Simulated error " + error;
+	}
+}
@@ -0,0 +1,112 @@
+package havis.middleware.reader.rf_r;
+
+import havis.middleware.reader.rf_r.hywear.HyWearRF_RReaderConnector;
+import havis.middleware.reader.rf_r.hywear.HyWearSimulation;
+import havis.middleware.reader.rf_r500.HostRF_R500ReaderConnector;
+import havis.middleware.reader.rf_r500.NotificationRF_R500ReaderConnector;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import de.feig.FedmTaskOption;
+import de.feig.FEDM.Core.IScanEventListener;
+
+/**
+ * Measures complete inventory rounds of the connectors against the
+ * {@link SimulatedReader}, with a changing tag population and reader latency.
+ * The per tag time reported by the {@link BenchmarkRunner} shows whether a
+ * connector keeps up with a given tag rate, e.g. 10000 tags/s require less
+ * than 100000 ns/tag.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SimulatedReaderBenchmark {
+
+	/**
+	 * The connectors driven by the simulation
+	 */
+	public enum Connector {
+		HOST, NOTIFICATION, HYWEAR
+	}
+
+	@Param({ "HOST", "NOTIFICATION", "HYWEAR" })
+	Connector connector;
+
+	@Param({ "1000", "10000" })
+	int tags;
+
+	@Param({ "0", "0.1" })
+	double churn;
+
+	/**
+	 * Latency of each inventory in microseconds
+	 */
+	@Param({ "0", "1000" })
+	int latency;
+
+	private SimulatedReader reader;
+
+	private HostRF_RReaderConnector host;
+
+	private IScanEventListener scanEventListener;
+
+	@Setup
+	public void setup(Blackhole blackhole) throws Exception {
+		SimulatedPopulation population = new SimulatedPopulation(this.tags, this.tags);
+		population.setChurn(this.churn);
+		this.reader = new SimulatedReader(population);
+		this.reader.setInventoryLatency(this.latency, TimeUnit.MICROSECONDS);
+
+		BenchmarkCallback callback = new BenchmarkCallback(blackhole);
+		// EPC only, HyWear reads other banks through the reader module
+		switch (this.connector) {
+		case HOST:
+			this.host = new HostRF_R500ReaderConnector(callback);
+			BenchmarkConnectors.prepare(this.host, this.reader, BenchmarkTags.Operations.EPC, 1);
+			break;
+		case NOTIFICATION:
+			NotificationRF_RReaderConnector notification = new NotificationRF_R500ReaderConnector(callback);
+			BenchmarkConnectors.prepare(notification, this.reader, BenchmarkTags.Operations.EPC, 1);
+			notification.startInventory();
+			this.reader.startAsyncTask(FedmTaskOption.ID_NOTIFICATION, notification.taskListener, new FedmTaskOption());
+			break;
+		case HYWEAR:
+			HyWearRF_RReaderConnector hyWear = new HyWearRF_RReaderConnector(callback);
+			BenchmarkConnectors.prepare(hyWear, this.reader, BenchmarkTags.Operations.EPC, 1);
+			HyWearSimulation.start(hyWear);
+			this.scanEventListener = HyWearSimulation.getScanEventListener(hyWear);
+			break;
+		}
+	}
+
+	@Benchmark
+	public void round() throws Exception {
+		switch (this.connector) {
+		case HOST:
+			this.host.runInventory();
+			break;
+		case NOTIFICATION:
+			this.reader.notification(BenchmarkConnectors.HOST, BenchmarkCallback.NETWORK_PORT);
+			break;
+		case HYWEAR:
+			this.reader.scan(this.scanEventListener);
+			break;
+		}
+	}
+}
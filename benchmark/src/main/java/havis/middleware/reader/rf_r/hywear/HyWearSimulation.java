@@ -0,0 +1,36 @@
+package havis.middleware.reader.rf_r.hywear;
+
+import havis.middleware.ale.base.exception.ImplementationException;
+import havis.middleware.ale.base.exception.ValidationException;
+
+import de.feig.FEDM.Core.IScanEventListener;
+
+/**
+ * Gives the simulation access to the scan mode of the
+ * {@link HyWearRF_RReaderConnector}. The scan event task is started on the
+ * reader module, which can not be simulated, therefore the simulation calls
+ * the scan event listener directly.
+ */
+public class HyWearSimulation {
+
+	/**
+	 * Starts the inventory without starting the scan event task
+	 *
+	 * @param connector
+	 *            the connector
+	 * @throws ValidationException
+	 * @throws ImplementationException
+	 */
+	public static void start(HyWearRF_RReaderConnector connector) throws ValidationException, ImplementationException {
+		connector.startInventory();
+	}
+
+	/**
+	 * @param connector
+	 *            the connector
+	 * @return the scan event listener of the connector
+	 */
+	public static IScanEventListener getScanEventListener(HyWearRF_RReaderConnector connector) {
+		return connector.scanEventListener;
+	}
+}
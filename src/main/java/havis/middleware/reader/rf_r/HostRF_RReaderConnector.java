@@ -1,6 +1,7 @@
 package havis.middleware.reader.rf_r;
 
 import havis.middleware.ale.base.exception.ImplementationException;
+import havis.middleware.ale.base.exception.ValidationException;
 import havis.middleware.ale.base.message.Message;
 import havis.middleware.ale.base.operation.tag.LockType;
 import havis.middleware.ale.base.operation.tag.Operation;
@@ -21,14 +22,24 @@ import havis.middleware.reader.rf_r.RF_RConfiguration.OperatingModeValue;
 import havis.middleware.utils.data.Calculator;
 import havis.middleware.utils.data.Comparison;
 import havis.middleware.utils.data.Converter;
+import havis.util.monitor.Configuration;
+import havis.util.monitor.ConnectType;
 
 import java.lang.reflect.Field;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
@@ -82,6 +93,22 @@ public abstract class HostRF_RReaderConnector extends RF_RReaderConnector {
 	private static final byte FARSENS_DATA_QOS_BEST = (byte) 0xFF;
 	private static final byte FARSENS_DATA_QOS_GOOD = (byte) 0xEE;
 
+	/**
+	 * Table item of the tag handler, used to correct the PC of misconfigured
+	 * tags. Looked up once, null if not available.
+	 */
+	private static final Field TAB_ITEM = getTabItemField();
+
+	private static Field getTabItemField() {
+		try {
+			Field field = FedmIscTagHandler.class.getDeclaredField("tabItem");
+			field.setAccessible(true);
+			return field;
+		} catch (Exception e) {
+			return null;
+		}
+	}
+
 	/**
 	 * Initializes a new instance of the
 	 * Havis.Middleware.Reader.HostRF_RReaderConnector class.
@@ -119,10 +146,15 @@ public abstract class HostRF_RReaderConnector extends RF_RReaderConnector {
 		try {
 			readerLock.lock();
 			try {
-				this.reader.setTableSize(FedmIscReaderConst.ISO_TABLE, (int) this.readerConnection.getConnectionProperties().getTagsInField(),
-						(int) this.readerConnection.getConnectionProperties().getBlockCount(), (int) this.readerConnection.getConnectionProperties()
-								.getBlockSize(), (int) this.readerConnection.getConnectionProperties().getBlockCount(), (int) this.readerConnection
-								.getConnectionProperties().getBlockSize());
+				RF_RTableSizer tableSizer = getTableSizer();
+				if (tableSizer != null) {
+					tableSizer.update(getRequiredDataBlocks(tableSizer));
+					setTableSize(tableSizer);
+				} else
+					this.reader.setTableSize(FedmIscReaderConst.ISO_TABLE, (int) this.readerConnection.getConnectionProperties().getTagsInField(),
+							(int) this.readerConnection.getConnectionProperties().getBlockCount(), (int) this.readerConnection.getConnectionProperties()
+									.getBlockSize(), (int) this.readerConnection.getConnectionProperties().getBlockCount(), (int) this.readerConnection
+									.getConnectionProperties().getBlockSize());
 				return 0;
 			} finally {
 				readerLock.unlock();
@@ -132,12 +164,54 @@ public abstract class HostRF_RReaderConnector extends RF_RReaderConnector {
 		}
 	}
 
+	private void setTableSize(RF_RTableSizer tableSizer) throws FedmException {
+		this.reader.setTableSize(FedmIscReaderConst.ISO_TABLE, tableSizer.getTags(), tableSizer.getDataBlocks(), tableSizer.getBlockSize(),
+				tableSizer.getDataBlocks(), tableSizer.getBlockSize());
+	}
+
+	/**
+	 * Gets the number of data blocks per tag the ISO table has to hold. Bank
+	 * reads other than the user bank and execute operations may access any
+	 * block, user bank reads only the planned blocks.
+	 */
+	private int getRequiredDataBlocks(RF_RTableSizer tableSizer) {
+		RF_RInventoryOperation inventoryOperation = getActiveOperations().getInventoryOperation();
+		if (this.hasPendingExecute() || inventoryOperation.isReserved() || inventoryOperation.isEpc()
+				|| inventoryOperation.isTid())
+			return tableSizer.getMaxDataBlocks();
+		return RF_RTableSizer.getUserDataBlocks(inventoryOperation, tableSizer.getMaxDataBlocks());
+	}
+
+	/**
+	 * Resizes the ISO table before an inventory round if the required data
+	 * blocks or the observed number of tags have changed.
+	 */
+	private void resizeTable() {
+		RF_RTableSizer tableSizer = getTableSizer();
+		if (tableSizer != null && tableSizer.update(getRequiredDataBlocks(tableSizer))) {
+			try {
+				setTableSize(tableSizer);
+			} catch (FedmException e) {
+				this.clientCallback.notify(new Message(Exits.Reader.Controller.Error, "Failed to resize ISO table: " + e.getMessage(), e));
+			}
+		}
+	}
+
 	@Override
 	protected Map<String, Object> setAntennaProperties(Map<String, Object> properties) throws ImplementationException {
 		properties.put(de.feig.ReaderConfig.AirInterface.Multiplexer.Enable, (byte) 0x00);
 		return properties;
 	}
 
+	/**
+	 * The inventory of the host mode is driven by the connector and waits
+	 * for the reader lock, so the antennas can be detected in between rounds.
+	 */
+	@Override
+	protected boolean isBackgroundDetectionSupported() {
+		return true;
+	}
+
 	private Lock inventoryLock = new ReentrantLock();
 	private Condition inventoryCondition = inventoryLock.newCondition();
 
@@ -183,6 +257,153 @@ public abstract class HostRF_RReaderConnector extends RF_RReaderConnector {
 	private Thread inventoryThread;
 	private volatile boolean doInventory;
 
+	/**
+	 * The active commissioning run, null if none
+	 */
+	private volatile RF_RCommissioning commissioning;
+
+	/**
+	 * The number of words per write command accepted by each tag model
+	 */
+	private final RF_RBlockWriteCache blockWriteCache = new RF_RBlockWriteCache();
+
+	/**
+	 * The number of tags found by the last inventory round
+	 */
+	private volatile int lastRoundTags;
+
+	/**
+	 * Method to execute a reader operation. Wakes up the inventory if it waits
+	 * between rounds.
+	 */
+	@Override
+	public void executeTagOperation(long id, TagOperation operation) throws ValidationException, ImplementationException {
+		super.executeTagOperation(id, operation);
+		this.wakeUpInventory();
+	}
+
+	/**
+	 * Method to execute a reader operation on all matching tags found within
+	 * a round or time budget. Wakes up the inventory if it waits between
+	 * rounds.
+	 */
+	@Override
+	public void executeTagOperation(long id, TagOperation operation, int rounds, long timeout) throws ValidationException,
+			ImplementationException {
+		super.executeTagOperation(id, operation, rounds, timeout);
+		this.wakeUpInventory();
+	}
+
+	private void wakeUpInventory() {
+		inventoryLock.lock();
+		try {
+			this.inventoryCondition.signal();
+		} finally {
+			inventoryLock.unlock();
+		}
+	}
+
+	/**
+	 * Starts commissioning unprogrammed tags. Each inventory round assigns
+	 * the next EPCs of the job to the unprogrammed tags found, writes the
+	 * passwords and applies the locks on the tag without a round trip to the
+	 * host application. The inventory keeps running until all EPCs are
+	 * assigned or the run is stopped.
+	 * 
+	 * @param job
+	 *            the settings of the run
+	 * @throws ValidationException
+	 *             if the connector is not connected, a run is already active
+	 *             or the settings are invalid
+	 */
+	public void startCommissioning(RF_RCommissioningJob job) throws ValidationException {
+		if (!isConnected())
+			throw new ValidationException("ReaderConnector was not connected to " + this.devCaps.getModel() + " (" + this.devCaps.getName() + ")!");
+		if (job.getAccessPassword() != null && job.getAccessPassword().length != 4)
+			throw new ValidationException("Access password must be 32 bits long");
+		if (job.getKillPassword() != null && job.getKillPassword().length != 4)
+			throw new ValidationException("Kill password must be 32 bits long");
+		if (job.getMaxAttempts() < 1)
+			throw new ValidationException("Maximum attempts must be at least 1");
+
+		inventoryLock.lock();
+		try {
+			if (this.commissioning != null)
+				throw new ValidationException("Commissioning is already running");
+			this.commissioning = new RF_RCommissioning(job);
+		} finally {
+			inventoryLock.unlock();
+		}
+		this.startInventory();
+	}
+
+	/**
+	 * Stops the commissioning run. No outcome is reported after the method
+	 * returns.
+	 */
+	public void stopCommissioning() {
+		RF_RCommissioning commissioning = this.commissioning;
+		if (commissioning == null)
+			return;
+		readerLock.lock();
+		try {
+			finishCommissioning(commissioning);
+		} finally {
+			readerLock.unlock();
+		}
+	}
+
+	/**
+	 * Ends a commissioning run, notifies its listener and stops the inventory
+	 * if nothing else requires it.
+	 */
+	private void finishCommissioning(RF_RCommissioning commissioning) {
+		inventoryLock.lock();
+		try {
+			if (this.commissioning != commissioning)
+				return;
+			this.commissioning = null;
+		} finally {
+			inventoryLock.unlock();
+		}
+		RF_RCommissioningListener listener = commissioning.getJob().getListener();
+		if (listener != null)
+			listener.finished(commissioning.getConfiguration());
+		if (isConnected() && !isInventoryRequired())
+			this.stopInventory();
+	}
+
+	@Override
+	protected RF_RCommissioning getCommissioning() {
+		return this.commissioning;
+	}
+
+	/**
+	 * Gets the counters of the commissioning run.
+	 * 
+	 * @return the counters, null if no run is active
+	 */
+	public RF_RMonitorConfiguration getCommissioningState() {
+		RF_RCommissioning commissioning = this.commissioning;
+		return commissioning != null ? commissioning.getConfiguration() : null;
+	}
+
+	@Override
+	public void disconnect() throws ImplementationException {
+		stopCommissioning();
+		super.disconnect();
+	}
+
+	@Override
+	protected void addMonitorConfiguration(List<Configuration> configurations) {
+		super.addMonitorConfiguration(configurations);
+		RF_RCommissioning commissioning = this.commissioning;
+		if (commissioning != null)
+			configurations.add(commissioning.getConfiguration());
+		configurations.add(this.getRoundConfiguration());
+		configurations.addAll(this.blockWriteCache.getConfiguration());
+	}
+
 	@Override
 	/**
 	 * Method to stop the inventory.
@@ -190,13 +411,165 @@ public abstract class HostRF_RReaderConnector extends RF_RReaderConnector {
 	protected void stopInventory() {
 		inventoryLock.lock();
 		try {
-			this.doInventory = false;
+			// a commissioning run keeps the inventory running until it ends
+			this.doInventory = this.commissioning != null && isConnected();
 			this.inventoryCondition.signal(); // to check if we are disconnected
 		} finally {
 			inventoryLock.unlock();
 		}
 	}
 
+	private static final int NO_ANTENNA = -1;
+	private static final int UNKNOWN_ANTENNA = 0;
+
+	/**
+	 * The antenna the RF is switched to during the current inventory round,
+	 * {@link #NO_ANTENNA} if the RF has to be switched before the next tag
+	 * access
+	 */
+	private int selectedAntenna = NO_ANTENNA;
+	private int rfSwitches;
+	private volatile int lastRoundRfSwitches;
+	private volatile int maxRoundRfSwitches;
+	private volatile long totalRfSwitches;
+
+	/**
+	 * Chooses the antennas of each round by their yield, null if all enabled
+	 * antennas are used in each round
+	 */
+	private RF_RAntennaScheduler antennaScheduler;
+
+	/**
+	 * The antennas used by the current inventory round
+	 */
+	private byte roundAntennas;
+
+	/**
+	 * Health of the antennas, null if not tracked
+	 */
+	private RF_RAntennaHealth antennaHealth;
+	private RF_RProperties antennaHealthProperties;
+
+	/**
+	 * Gets the antennas held responsible for an RF warning of the current
+	 * round by their return loss, or the antenna of the round if only one is
+	 * used.
+	 * 
+	 * @return the mask of the antennas
+	 */
+	private byte getWarningSuspects() {
+		if (this.antennaHealth == null)
+			return 0;
+		byte suspects = (byte) (this.roundAntennas & ~detectAntennas());
+		if (suspects == 0 && Integer.bitCount(this.roundAntennas & 0xFF) == 1)
+			suspects = this.roundAntennas;
+		return suspects;
+	}
+
+	private void notifyAntennaHealth(List<RF_RAntennaHealth.Transition> transitions) {
+		for (RF_RAntennaHealth.Transition transition : transitions) {
+			if (transition.isFaulty()) {
+				String message = transition.getReason() == RF_RAntennaHealth.Reason.Warning ? "Antenna " + transition.getAntenna()
+						+ " is not connected correctly, please check the antenna cable!" : "Antenna " + transition.getAntenna()
+						+ " did not see any tags while other antennas did, please check the antenna!";
+				this.clientCallback.notify(new Message(Exits.Reader.Controller.Warning, message));
+				this.notifyAntennaErrorOf(message, transition.getAntenna());
+			} else {
+				this.notifyAntennaErrorResolvedOf(transition.getAntenna());
+			}
+		}
+	}
+
+	/**
+	 * Gets the antenna a tag was seen on.
+	 * 
+	 * @param tag
+	 *            the tag
+	 * @return the antenna number, {@link #UNKNOWN_ANTENNA} if the tag has no
+	 *         RSSI values
+	 */
+	private static int getAntenna(FedmIscTagHandler tag) {
+		if (tag instanceof FedmIscTagHandler_EPC_Class1_Gen2) {
+			try {
+				Map<Integer, FedmIscRssiItem> rssi = ((FedmIscTagHandler_EPC_Class1_Gen2) tag).getRSSI();
+				if (rssi != null && rssi.size() > 0)
+					return rssi.values().iterator().next().antennaNumber & 0xFF;
+			} catch (FedmException e) {
+				// no RSSI values
+			}
+		}
+		return UNKNOWN_ANTENNA;
+	}
+
+	/**
+	 * Switches the RF to the antenna the tag was seen on, unless it is already
+	 * switched to it during the current inventory round.
+	 * 
+	 * @param tag
+	 *            the tag to access
+	 */
+	private void selectAntenna(FedmIscTagHandler_EPC_Class1_Gen2 tag) throws FedmException, FePortDriverException, FeReaderDriverException {
+		int antenna = getAntenna(tag);
+		if (this.selectedAntenna != NO_ANTENNA && (antenna == this.selectedAntenna || antenna == UNKNOWN_ANTENNA))
+			return;
+
+		this.selectedAntenna = NO_ANTENNA;
+		reader.setData(FedmIscReaderID.FEDM_ISC_TMP_RF_ONOFF, (byte) 0x01);
+		if (antenna != UNKNOWN_ANTENNA)
+			reader.setData(FedmIscReaderID.FEDM_ISC_TMP_RF_ONOFF_ANT_NR, (byte) antenna);
+		reader.sendProtocol((byte) 0x6A);
+		this.selectedAntenna = antenna;
+		this.rfSwitches++;
+	}
+
+	/**
+	 * Orders the tags of an inventory round by the antenna they were seen on,
+	 * if the tags are accessed after the inventory, so that the RF is switched
+	 * once per antenna.
+	 * 
+	 * @param inventoryTagList
+	 *            the tags of the inventory round
+	 * @return the tags in the order to process them
+	 */
+	private Collection<Entry<String, FedmIscTagHandler>> groupByAntenna(Map<String, FedmIscTagHandler> inventoryTagList) {
+		RF_RInventoryOperation inventoryOperation = getActiveOperations().getInventoryOperation();
+		if (!inventoryOperation.isReserved() && !inventoryOperation.isUser() && (!inventoryOperation.isTid() || Tag.isExtended())
+				&& !this.hasPendingExecute() && this.commissioning == null)
+			return inventoryTagList.entrySet();
+
+		List<Entry<String, FedmIscTagHandler>> entries = new ArrayList<>(inventoryTagList.entrySet());
+		Collections.sort(entries, new Comparator<Entry<String, FedmIscTagHandler>>() {
+			@Override
+			public int compare(Entry<String, FedmIscTagHandler> o1, Entry<String, FedmIscTagHandler> o2) {
+				return Integer.compare(getAntenna(o1.getValue()), getAntenna(o2.getValue()));
+			}
+		});
+		return entries;
+	}
+
+	/**
+	 * Gets the number of RF switches of the last inventory round, one per
+	 * antenna the tags were accessed on.
+	 * 
+	 * @return the number of RF switches
+	 */
+	public int getLastRoundRfSwitches() {
+		return this.lastRoundRfSwitches;
+	}
+
+	/**
+	 * Gets the counters of the inventory rounds.
+	 * 
+	 * @return the counters as monitor configuration
+	 */
+	public RF_RMonitorConfiguration getRoundConfiguration() {
+		long rounds = this.round;
+		return new RF_RMonitorConfiguration(RF_RMonitorConfiguration.Kind.Round, null).set("rounds", Long.valueOf(rounds))
+				.set("tags", Integer.valueOf(this.lastRoundTags)).set("rfSwitches", Integer.valueOf(this.lastRoundRfSwitches))
+				.set("maxRfSwitches", Integer.valueOf(this.maxRoundRfSwitches))
+				.set("averageRfSwitches", Double.valueOf(rounds > 0 ? (double) this.totalRfSwitches / rounds : 0));
+	}
+
 	/**
 	 * Method to read a complete bankfrom a tag.
 	 * 
@@ -213,12 +586,7 @@ public abstract class HostRF_RReaderConnector extends RF_RReaderConnector {
 
 		try {
 
-			reader.setData(FedmIscReaderID.FEDM_ISC_TMP_RF_ONOFF, (byte) 0x01);
-			if (tag.getRSSI() != null && tag.getRSSI().size() > 0) {
-				Entry<Integer, FedmIscRssiItem> rssiEntry = tag.getRSSI().entrySet().iterator().next();
-				reader.setData(FedmIscReaderID.FEDM_ISC_TMP_RF_ONOFF_ANT_NR, rssiEntry.getValue().antennaNumber);
-			}
-			reader.sendProtocol((byte) 0x6a);
+			this.selectAntenna(tag);
 
 			boolean[] dataBlocks = inventoryOperation.getUserDataBlocks();
 			int dataBlocksCount = dataBlocks == null ? 0 : dataBlocks.length;
@@ -242,41 +610,66 @@ public abstract class HostRF_RReaderConnector extends RF_RReaderConnector {
 					readData = new byte[dataBlocksCount * 2];
 				}
 
-				// Starts at the last read data block
-				for (int offset = 0; offset < dataBlocksCount; offset++) {
-					int length = 0;
-					// Skip not required data blocks
-					while (!dataBlocks[offset] && (offset < dataBlocksCount)) {
-						offset++;
-					}
+				RF_RReadPlan readPlan = inventoryOperation.getUserReadPlan();
+				for (int i = 0; i < readPlan.size(); i++) {
+					int offset = readPlan.getOffset(i);
 
-					if (offset < dataBlocksCount) {
-						// Count number of blocks that must be read
-						while ((offset + length < dataBlocksCount) && dataBlocks[offset + length]) {
-							length++;
-						}
+					// execute read operation
+					FedmIscTagHandler_Result result = new FedmIscTagHandler_Result();
+					int readMultipleBlocks = tag.readMultipleBlocks(bank, offset, readPlan.getLength(i), "", result);
+					readResultCode = (RF_RStatus.forValue(readMultipleBlocks));
+					readDataBlocks = result.data;
 
-						// execute read operation
-						FedmIscTagHandler_Result result = new FedmIscTagHandler_Result();
-						int readMultipleBlocks = tag.readMultipleBlocks(bank, offset, length, "", result);
-						readResultCode = (RF_RStatus.forValue(readMultipleBlocks));
-						readDataBlocks = result.data;
-
-						// if read operation was successful the data will be
-						// added to the array
-						if (readResultCode == RF_RStatus.OK) {
-							System.arraycopy(readDataBlocks, 0, readData, offset * 2, readDataBlocks.length);
-							offset += length;
-						}
-					}
+					// if read operation was successful the data will be
+					// added to the array
+					if (readResultCode != RF_RStatus.OK)
+						break;
+					System.arraycopy(readDataBlocks, 0, readData, offset * 2, Math.min(readDataBlocks.length, readData.length - offset * 2));
 				}
 			}
 		} catch (Exception e) {
 			this.logReaderError("Error occurred during read complete bank from tag '" + tag.getEpcOfUid() + "'!" + " \r\n" + "Exception: " + e.getMessage());
+			this.selectedAntenna = NO_ANTENNA;
 			readData = null;
 			readResultCode = RF_RStatus.RF_communication_error;
 		}
 
+		return createReadResult(readData, readResultCode);
+	}
+
+	/**
+	 * Reads data blocks of the user bank from a tag.
+	 * 
+	 * @param tag
+	 *            The tag to read from.
+	 * @param offset
+	 *            The first block to read.
+	 * @param length
+	 *            The number of blocks to read.
+	 * @return {@link ReadResult}
+	 */
+	private ReadResult readUserBlocks(FedmIscTagHandler_EPC_Class1_Gen2 tag, int offset, int length) {
+		byte[] readData = null;
+		RF_RStatus readResultCode = RF_RStatus.RF_communication_error;
+
+		try {
+			this.selectAntenna(tag);
+
+			FedmIscTagHandler_Result result = new FedmIscTagHandler_Result();
+			readResultCode = RF_RStatus.forValue(tag.readMultipleBlocks(FedmIscTagHandler_EPC_Class1_Gen2.BANK_USER, offset, length, "", result));
+			if (readResultCode == RF_RStatus.OK)
+				readData = result.data;
+		} catch (Exception e) {
+			this.logReaderError("Error occurred during read blocks from tag '" + tag.getEpcOfUid() + "'!" + " \r\n" + "Exception: " + e.getMessage());
+			this.selectedAntenna = NO_ANTENNA;
+			readData = null;
+			readResultCode = RF_RStatus.RF_communication_error;
+		}
+
+		return createReadResult(readData, readResultCode);
+	}
+
+	private ReadResult createReadResult(byte[] readData, RF_RStatus readResultCode) {
 		ReadResult readResult;
 		if (readData != null) {
 			for (int i = 0; i < readData.length; i += 2)
@@ -314,30 +707,67 @@ public abstract class HostRF_RReaderConnector extends RF_RReaderConnector {
 		return readResult;
 	}
 
+	/**
+	 * Reads a bank from a tag, or takes the data from the memory cache if
+	 * enabled and the TID of the tag is known.
+	 * 
+	 * @param tag
+	 *            The tag to read a bank from.
+	 * @param uid
+	 *            The UID of the tag.
+	 * @param tid
+	 *            The TID of the tag, null if not known.
+	 * @param bank
+	 *            The bank to read.
+	 * @return {@link ReadResult}
+	 */
+	private ReadResult readBankFromTag(FedmIscTagHandler_EPC_Class1_Gen2 tag, String uid, byte[] tid, int bank,
+			RF_RInventoryOperation inventoryOperation) {
+		RF_RMemoryCache memoryCache = getMemoryCache();
+		if (memoryCache == null || tid == null || tid.length == 0)
+			return this.readBankFromTag(tag, bank, inventoryOperation);
+
+		byte[] data = memoryCache.get(uid, tid, bank, inventoryOperation, System.nanoTime());
+		if (data != null)
+			return new ReadResult(ResultState.SUCCESS, data);
+
+		ReadResult readResult = this.readBankFromTag(tag, bank, inventoryOperation);
+		if (readResult.getState() == ResultState.SUCCESS)
+			memoryCache.put(uid, tid, bank, inventoryOperation, readResult.getData(), System.nanoTime());
+		return readResult;
+	}
+
 	/**
 	 * Method to execute operations on matching tags from the <paramref
 	 * name="executeTag"/> List.
 	 * 
 	 * @param executeTag
 	 *            List of tags to execute operations on.
+	 * @param executeOperation
+	 *            The operation to execute.
 	 * @return A list with results for every operation.
 	 * @throws Exception
 	 */
 	@Override
-	protected Map<Integer, Result> executeOperationOnTag(FedmIscTagHandler_EPC_Class1_Gen2 executeTag) throws Exception {
-
-		reader.setData(FedmIscReaderID.FEDM_ISC_TMP_RF_ONOFF, (byte) 0x01);
-		if (executeTag.getRSSI() != null && executeTag.getRSSI().size() > 0) {
-			Entry<Integer, FedmIscRssiItem> rssiEntry = executeTag.getRSSI().entrySet().iterator().next();
-			reader.setData(FedmIscReaderID.FEDM_ISC_TMP_RF_ONOFF_ANT_NR, rssiEntry.getValue().antennaNumber);
+	protected Map<Integer, Result> executeOperationOnTag(FedmIscTagHandler_EPC_Class1_Gen2 executeTag, TagOperation executeOperation)
+			throws Exception {
+
+		// the memory of the tag may change, the TID is kept for the write
+		// commands
+		RF_RMemoryCache memoryCache = getMemoryCache();
+		byte[] cachedTid = null;
+		if (memoryCache != null) {
+			cachedTid = memoryCache.getTid(executeTag.getUid());
+			memoryCache.invalidate(executeTag.getUid());
 		}
-		reader.sendProtocol((byte) 0x6A);
+
+		this.selectAntenna(executeTag);
 
 		boolean errorOccurred = false;
 
 		Map<Integer, Result> result = new HashMap<>();
 		String password = "";
-		for (Operation op : this.executeTagOperation.getValue().getOperations()) {
+		for (Operation op : executeOperation.getOperations()) {
 			if (errorOccurred) {
 				Result errorResult = null;
 				switch (op.getType()) {
@@ -404,25 +834,8 @@ public abstract class HostRF_RReaderConnector extends RF_RReaderConnector {
 
 				LockType lockType = LockType.values()[op.getData()[0]]; // TODO:
 																		// risky!
-				byte lockmask = 0x02;
-				byte lockaction = 0x00;
-				switch (lockType) {
-				case LOCK:
-					lockaction = 0x02;
-					break;
-				case PERMALOCK:
-					lockmask = 0x03;
-					lockaction = 0x03;
-					break;
-				case PERMAUNLOCK:
-					lockmask = 0x03;
-					lockaction = 0x01;
-					break;
-				case UNLOCK:
-					break;
-				default:
-					break;
-				}
+				byte lockmask = getLockMask(lockType);
+				byte lockaction = getLockAction(lockType);
 
 				switch (op.getField().getBank()) {
 				case 0:
@@ -591,14 +1004,15 @@ public abstract class HostRF_RReaderConnector extends RF_RReaderConnector {
 					RFCUtils.reverseByteArray(writeData, i, 2);
 
 				int length = (int) (op.getField().getLength() > 0 ? op.getField().getLength() : writeData.length * 8);
+				byte[] writeTid = "".equals(executeTag.getTidOfUid()) ? cachedTid : FeHexConvert.hexStringToByteArray(executeTag.getTidOfUid());
 				RF_RStatus writeResultCode;
 				if (op.getField().getBank() == 1 && op.getField().getOffset() < 16) {
 					// Shift Write Data Outside CRC
 					byte[] trunkWriteData = new byte[writeData.length - 2];
 					trunkWriteData = Arrays.copyOfRange(writeData, 2, writeData.length - 2);
 					try {
-						writeResultCode = RF_RStatus.forValue(executeTag.writeMultipleBlocks((int) op.getField().getBank(), 1, (length - 16) / 16, password,
-								trunkWriteData));
+						writeResultCode = RF_RStatus.forValue(this.writeBlocks(executeTag, writeTid, (int) op.getField().getBank(), 1, (length - 16) / 16,
+								password, trunkWriteData));
 					} catch (Exception e) {
 						this.logReaderError("Error occurred during write multiple blocks on tag '" + executeTag.getEpcOfUid() + "'!" + " \r\n" + "Exception: "
 								+ e.getMessage());
@@ -606,7 +1020,7 @@ public abstract class HostRF_RReaderConnector extends RF_RReaderConnector {
 					}
 				} else {
 					try {
-						writeResultCode = RF_RStatus.forValue(executeTag.writeMultipleBlocks((int) op.getField().getBank(),
+						writeResultCode = RF_RStatus.forValue(this.writeBlocks(executeTag, writeTid, (int) op.getField().getBank(),
 								(int) op.getField().getOffset() / 16, length / 16, password, writeData));
 					} catch (Exception e) {
 						this.logReaderError("Error occurred during write multiple blocks on tag '" + executeTag.getEpcOfUid() + "'!" + " \r\n" + "Exception: "
@@ -685,6 +1099,333 @@ public abstract class HostRF_RReaderConnector extends RF_RReaderConnector {
 		return result;
 	}
 
+	/**
+	 * Gets the mask bits of a lock type for a memory area of the lock
+	 * command.
+	 */
+	private static byte getLockMask(LockType lockType) {
+		return lockType == LockType.PERMALOCK || lockType == LockType.PERMAUNLOCK ? (byte) 0x03 : (byte) 0x02;
+	}
+
+	/**
+	 * Gets the action bits of a lock type for a memory area of the lock
+	 * command.
+	 */
+	private static byte getLockAction(LockType lockType) {
+		switch (lockType) {
+		case LOCK:
+			return 0x02;
+		case PERMALOCK:
+			return 0x03;
+		case PERMAUNLOCK:
+			return 0x01;
+		default:
+			return 0x00;
+		}
+	}
+
+	/**
+	 * Commissions a tag of the current inventory round if it is
+	 * unprogrammed: writes and verifies the next EPC, writes the passwords
+	 * and applies the locks. Must be called while holding the reader lock.
+	 * 
+	 * @param commissioning
+	 *            the commissioning run
+	 * @param tag
+	 *            the tag
+	 * @param epcBank
+	 *            the EPC bank data of the tag starting with CRC and PC
+	 * @param tid
+	 *            the TID of the tag, null if not known
+	 * @param deadline
+	 *            the end of the time budget of the round as given by
+	 *            {@link System#nanoTime()}
+	 * @return true if the tag was accessed
+	 */
+	private boolean commission(RF_RCommissioning commissioning, FedmIscTagHandler_EPC_Class1_Gen2 tag, byte[] epcBank, byte[] tid, long deadline) {
+		// the tag is commissioned in the next round
+		if (System.nanoTime() >= deadline || !commissioning.accepts(epcBank, tid))
+			return false;
+
+		RF_RCommissioningListener listener = commissioning.getJob().getListener();
+		byte[] epc;
+		while ((epc = commissioning.next()) != null && !RF_RCommissioning.isValid(epc)) {
+			RF_RCommissioningResult result = commissioning.complete(null, null, epc, RF_RCommissioningResult.State.InvalidEpc, 0);
+			if (listener != null)
+				listener.notify(result);
+		}
+		if (epc == null)
+			return false;
+
+		// the memory of the tag changes
+		RF_RMemoryCache memoryCache = getMemoryCache();
+		if (memoryCache != null)
+			memoryCache.invalidate(tag.getUid());
+
+		long start = System.nanoTime();
+		RF_RCommissioningResult.State state;
+		try {
+			this.selectAntenna(tag);
+			state = commission(commissioning.getJob(), tag, epcBank, tid, epc);
+		} catch (Exception e) {
+			// nothing has been sent to the tag
+			this.logReaderError("Error occurred during commissioning of tag '" + tag.getEpcOfUid() + "'!" + " \r\n" + "Exception: " + e.getMessage());
+			state = RF_RCommissioningResult.State.WriteError;
+		}
+		RF_RCommissioningResult result = commissioning.complete(epcBank, tid, epc, state, System.nanoTime() - start);
+		if (listener != null)
+			listener.notify(result);
+		return true;
+	}
+
+	/**
+	 * Writes and verifies the EPC, writes the passwords and applies the locks
+	 * of a commissioning run to a tag. A failed write of the EPC is only
+	 * reported as {@link RF_RCommissioningResult.State#WriteError} if the EPC
+	 * bank read back is unchanged, as the EPC may have reached the tag
+	 * although the command failed. The tag is addressed by its new EPC for
+	 * all later commands. Any later failure is reported with the state of the
+	 * step that failed.
+	 */
+	RF_RCommissioningResult.State commission(RF_RCommissioningJob job, FedmIscTagHandler_EPC_Class1_Gen2 tag, byte[] epcBank, byte[] tid,
+			byte[] epc) {
+		RF_RCommissioningResult.State state = RF_RCommissioningResult.State.WriteError;
+		try {
+			int words = epc.length / 2;
+			byte pcHigh = epcBank.length > 2 ? epcBank[2] : 0;
+			byte[] writeData;
+			int address;
+			if (((pcHigh & 0xFF) >>> 3) == words) {
+				// length unchanged, the PC is kept
+				writeData = epc.clone();
+				address = 2;
+			} else {
+				pcHigh = (byte) ((words << 3) | (pcHigh & 0x07));
+				writeData = new byte[2 + epc.length];
+				writeData[0] = pcHigh;
+				writeData[1] = epcBank.length > 3 ? epcBank[3] : 0;
+				System.arraycopy(epc, 0, writeData, 2, epc.length);
+				address = 1;
+			}
+			for (int i = 0; i < writeData.length; i += 2)
+				RFCUtils.reverseByteArray(writeData, i, 2);
+			int status;
+			try {
+				status = this.writeBlocks(tag, tid, FedmIscTagHandler_EPC_Class1_Gen2.BANK_EPC, address, writeData.length / 2, "", writeData);
+			} catch (Exception e) {
+				this.logReaderError("Error occurred during commissioning of tag '" + tag.getEpcOfUid() + "'!" + " \r\n" + "Exception: " + e.getMessage());
+				status = RF_RStatus.Tag_Error.getValue();
+			}
+
+			// from here on the EPC is not assigned again
+			state = RF_RCommissioningResult.State.VerifyError;
+			// the tag still answers to the previous EPC if the write did not
+			// reach it
+			if (RF_RStatus.forValue(status) != RF_RStatus.OK && isEpcBankUnchanged(tag, epcBank))
+				return RF_RCommissioningResult.State.WriteError;
+			if (!reselect(tag, epcBank, epc, pcHigh))
+				return state;
+
+			FedmIscTagHandler_Result readResult = new FedmIscTagHandler_Result();
+			if (RF_RStatus.forValue(tag.readMultipleBlocks(FedmIscTagHandler_EPC_Class1_Gen2.BANK_EPC, 2, words, "", readResult)) != RF_RStatus.OK
+					|| readResult.data == null || readResult.data.length < epc.length)
+				return state;
+			byte[] readData = Arrays.copyOf(readResult.data, epc.length);
+			for (int i = 0; i < readData.length; i += 2)
+				RFCUtils.reverseByteArray(readData, i, 2);
+			if (!Arrays.equals(readData, epc))
+				return state;
+
+			state = RF_RCommissioningResult.State.PasswordError;
+			byte[] killPassword = job.getKillPassword();
+			byte[] accessPassword = job.getAccessPassword();
+			if (killPassword != null || accessPassword != null) {
+				byte[] passwords;
+				if (killPassword != null && accessPassword != null)
+					passwords = Calculator.concat(killPassword, accessPassword);
+				else
+					passwords = (killPassword != null ? killPassword : accessPassword).clone();
+				for (int i = 0; i < passwords.length; i += 2)
+					RFCUtils.reverseByteArray(passwords, i, 2);
+				if (RF_RStatus.forValue(this.writeBlocks(tag, tid, FedmIscTagHandler_EPC_Class1_Gen2.BANK_RESERVED, killPassword != null ? 0 : 2,
+						passwords.length / 2, "", passwords)) != RF_RStatus.OK)
+					return state;
+			}
+
+			state = RF_RCommissioningResult.State.LockError;
+			LockType epcLock = job.getEpcLock();
+			LockType passwordLock = job.getPasswordLock();
+			// only the passwords written are locked
+			LockType killLock = killPassword != null ? passwordLock : null;
+			LockType accessLock = accessPassword != null ? passwordLock : null;
+			if (epcLock != null || killLock != null || accessLock != null) {
+				byte killMask = killLock != null ? getLockMask(killLock) : 0;
+				byte killAction = killLock != null ? getLockAction(killLock) : 0;
+				byte accessMask = accessLock != null ? getLockMask(accessLock) : 0;
+				byte accessAction = accessLock != null ? getLockAction(accessLock) : 0;
+				byte epcMask = epcLock != null ? getLockMask(epcLock) : 0;
+				byte epcAction = epcLock != null ? getLockAction(epcLock) : 0;
+				if (RF_RStatus.forValue(tag.lock(accessPassword != null ? FeHexConvert.byteArrayToHexString(accessPassword) : "", killMask,
+						killAction, accessMask, accessAction, epcMask, epcAction, (byte) 0, (byte) 0, (byte) 0, (byte) 0)) != RF_RStatus.OK)
+					return state;
+			}
+			return RF_RCommissioningResult.State.Success;
+		} catch (Exception e) {
+			this.logReaderError("Error occurred during commissioning of tag '" + tag.getEpcOfUid() + "'!" + " \r\n" + "Exception: " + e.getMessage());
+			return state;
+		}
+	}
+
+	/**
+	 * Addresses a tag by the EPC written to it. The tag handler addresses the
+	 * tag by the UID of its table item, which is replaced by the new EPC,
+	 * followed by the TID in extended mode.
+	 *
+	 * @param tag
+	 *            the tag
+	 * @param epcBank
+	 *            the previous EPC bank data of the tag starting with CRC and
+	 *            PC
+	 * @param epc
+	 *            the new EPC
+	 * @param pcHigh
+	 *            the first byte of the new PC
+	 * @return true if the tag is addressed by the new EPC
+	 */
+	private static boolean reselect(FedmIscTagHandler_EPC_Class1_Gen2 tag, byte[] epcBank, byte[] epc, byte pcHigh) {
+		if (TAB_ITEM == null)
+			return false;
+		try {
+			FedmIsoTableItem tabItem = (FedmIsoTableItem) TAB_ITEM.get(tag);
+			if (tabItem == null || tabItem.uid == null)
+				return false;
+			int previousLength = Math.max(0, epcBank.length - 4);
+			int tidLength = Math.max(0, tabItem.uid.length - previousLength);
+			byte[] uid = new byte[epc.length + tidLength];
+			System.arraycopy(epc, 0, uid, 0, epc.length);
+			if (tidLength > 0)
+				System.arraycopy(tabItem.uid, previousLength, uid, epc.length, tidLength);
+			tabItem.uid = uid;
+			if (tabItem.class1Gen2PC != null && tabItem.class1Gen2PC.length > 0)
+				tabItem.class1Gen2PC[0] = pcHigh;
+			return true;
+		} catch (Exception e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Checks whether the PC and EPC of a tag are still the ones seen by the
+	 * inventory, i.e. a failed write did not reach the tag.
+	 *
+	 * @param tag
+	 *            the tag
+	 * @param epcBank
+	 *            the EPC bank data of the tag starting with CRC and PC
+	 * @return true if unchanged, false if changed or not readable
+	 */
+	private boolean isEpcBankUnchanged(FedmIscTagHandler_EPC_Class1_Gen2 tag, byte[] epcBank) throws Exception {
+		if (epcBank.length < 4)
+			return false;
+		int words = (epcBank.length - 2) / 2;
+		FedmIscTagHandler_Result readResult = new FedmIscTagHandler_Result();
+		if (RF_RStatus.forValue(tag.readMultipleBlocks(FedmIscTagHandler_EPC_Class1_Gen2.BANK_EPC, 1, words, "", readResult)) != RF_RStatus.OK
+				|| readResult.data == null || readResult.data.length < words * 2)
+			return false;
+		byte[] readData = Arrays.copyOf(readResult.data, words * 2);
+		for (int i = 0; i < readData.length; i += 2)
+			RFCUtils.reverseByteArray(readData, i, 2);
+		return Arrays.equals(readData, Arrays.copyOfRange(epcBank, 2, 2 + words * 2));
+	}
+
+	/**
+	 * Writes words to a tag with as few commands as the tag model accepts. A
+	 * failed command with more than one word is repeated with fewer words,
+	 * unless the access was denied or the memory does not exist. The model is
+	 * taken from the TID, which is read from the tag if not known. The EPC
+	 * bank is always written with one command, as the tag is addressed by its
+	 * EPC, which changes with the first word written.
+	 *
+	 * @param tag
+	 *            the tag
+	 * @param tid
+	 *            the TID of the tag, null if not known
+	 * @param bank
+	 *            the bank
+	 * @param address
+	 *            the address of the first word
+	 * @param words
+	 *            the number of words
+	 * @param password
+	 *            the access password as hex
+	 * @param data
+	 *            the data with the bytes of each word swapped
+	 * @return the status of the last command
+	 */
+	private int writeBlocks(FedmIscTagHandler_EPC_Class1_Gen2 tag, byte[] tid, int bank, int address, int words, String password, byte[] data)
+			throws Exception {
+		if (words <= 0)
+			return tag.writeMultipleBlocks(bank, address, words, password, data);
+		if (words == 1 || bank == FedmIscTagHandler_EPC_Class1_Gen2.BANK_EPC)
+			return this.writeBlock(tag, RF_RBlockWriteCache.getModel(tid), bank, address, words, password, data);
+
+		String model = RF_RBlockWriteCache.getModel(tid != null && tid.length > 0 ? tid : readModel(tag));
+		int status = RF_RStatus.OK.getValue();
+		int maxWords = words;
+		for (int word = 0; word < words;) {
+			int blockSize = Math.min(maxWords, this.blockWriteCache.getBlockSize(model, words - word));
+			status = this.writeBlock(tag, model, bank, address + word, blockSize, password,
+					Arrays.copyOfRange(data, word * 2, (word + blockSize) * 2));
+			if (status == RF_RStatus.OK.getValue())
+				word += blockSize;
+			else if (blockSize == 1 || !isBlockWriteError(status))
+				return status;
+			else
+				maxWords = this.blockWriteCache.failed(model, blockSize);
+		}
+		return status;
+	}
+
+	/**
+	 * Reads the allocation class, mask designer and model number from the TID
+	 * bank.
+	 *
+	 * @return the first words of the TID, null if not readable
+	 */
+	private static byte[] readModel(FedmIscTagHandler_EPC_Class1_Gen2 tag) throws Exception {
+		FedmIscTagHandler_Result readResult = new FedmIscTagHandler_Result();
+		if (RF_RStatus.forValue(tag.readMultipleBlocks(FedmIscTagHandler_EPC_Class1_Gen2.BANK_TID, 0, 2, "", readResult)) != RF_RStatus.OK
+				|| readResult.data == null || readResult.data.length < 4)
+			return null;
+		byte[] tid = Arrays.copyOf(readResult.data, 4);
+		for (int i = 0; i < tid.length; i += 2)
+			RFCUtils.reverseByteArray(tid, i, 2);
+		return tid;
+	}
+
+	private int writeBlock(FedmIscTagHandler_EPC_Class1_Gen2 tag, String model, int bank, int address, int words, String password, byte[] data)
+			throws Exception {
+		long start = System.nanoTime();
+		int status = tag.writeMultipleBlocks(bank, address, words, password, data);
+		if (status == RF_RStatus.OK.getValue())
+			this.blockWriteCache.written(model, words, System.nanoTime() - start);
+		return status;
+	}
+
+	/**
+	 * Checks whether a failed write command may succeed with single words.
+	 */
+	private boolean isBlockWriteError(int status) {
+		RF_RStatus code = RF_RStatus.forValue(status);
+		if (code == RF_RStatus.Authent_Error)
+			return false;
+		if (code == RF_RStatus.Tag_Error) {
+			byte isoError = this.reader.getByteData(FedmIscReaderID.FEDM_ISC_TMP_B0_ISO_ERROR);
+			return isoError != 0x03 && isoError != 0x04;
+		}
+		return true;
+	}
+
 	private boolean matchesVendorAndModel(byte[] tid, byte[] vendor, byte[] model, int modelOffset) {
 		if (modelOffset < 0x10 || modelOffset > DEFAULT_MODEL_OFFSET)
 			throw new IllegalArgumentException("Model offset must be between 0x10 and 0x16");
@@ -911,12 +1652,54 @@ public abstract class HostRF_RReaderConnector extends RF_RReaderConnector {
 
 	private Map<String, FedmIscTagHandler> tagInventory(boolean moreData) throws FedmException, FePortDriverException, FeReaderDriverException {
 		if (moreData)
-			return this.reader.tagInventory(true, (byte) 0x90, this.antennas);
+			return this.reader.tagInventory(true, (byte) 0x90, this.roundAntennas);
 		else
-			return this.reader.tagInventory(true, (byte) 0x10, this.antennas);
+			return this.reader.tagInventory(true, (byte) 0x10, this.roundAntennas);
+	}
+
+	/**
+	 * Chooses the antennas of the next inventory round. Faulty antennas with
+	 * automatic detection are excluded until they are checked again. Antennas
+	 * explicitly enabled by their connect type are used in each round, the
+	 * other enabled antennas are chosen by the scheduler if configured.
+	 * 
+	 * @return the mask of the antennas
+	 */
+	private byte nextRoundAntennas() {
+		byte antennas = this.antennas;
+		RF_RProperties properties = this.readerConnection.getConnectionProperties();
+		if (properties.getAntennaHealthBackoff() == 0) {
+			this.antennaHealth = null;
+		} else {
+			if (this.antennaHealth == null || this.antennaHealthProperties != properties) {
+				this.antennaHealth = new RF_RAntennaHealth(Math.max(1, properties.getAntennaErrorCount()),
+						properties.getAntennaHealthZeroYieldRounds(), properties.getAntennaHealthBackoff());
+				this.antennaHealthProperties = properties;
+			}
+			byte auto = 0;
+			for (short antennaIndex = 0; antennaIndex < this.connectTypes.size(); antennaIndex++)
+				if (this.connectTypes.get((short) (antennaIndex + 1)) == ConnectType.AUTO)
+					auto = (byte) (auto | (1 << antennaIndex));
+			antennas = this.antennaHealth.filter(antennas, auto, System.nanoTime());
+		}
+
+		int probeInterval = properties.getAntennaSchedulerProbeInterval();
+		if (probeInterval == 0) {
+			this.antennaScheduler = null;
+			return antennas;
+		}
+		if (this.antennaScheduler == null || this.antennaScheduler.getProbeInterval() != probeInterval)
+			this.antennaScheduler = new RF_RAntennaScheduler(probeInterval);
+
+		byte pinned = 0;
+		for (short antennaIndex = 0; antennaIndex < this.connectTypes.size(); antennaIndex++)
+			if (this.connectTypes.get((short) (antennaIndex + 1)) == ConnectType.TRUE)
+				pinned = (byte) (pinned | (1 << antennaIndex));
+		return this.antennaScheduler.next(antennas, pinned);
 	}
 
 	private void inventory() throws Exception {
+		long interval = 0;
 		while (true) {
 			while (this.doInventory) {
 				if (!runInventory()) {
@@ -924,7 +1707,19 @@ public abstract class HostRF_RReaderConnector extends RF_RReaderConnector {
 					inventoryThread = null;
 					return;
 				}
-				Thread.yield(); // to enable other threads to process
+
+				interval = getPacingInterval(interval);
+				if (interval > 0) {
+					inventoryLock.lock();
+					try {
+						if (this.doInventory && !this.hasPendingExecute())
+							inventoryCondition.await(interval, TimeUnit.MILLISECONDS);
+					} finally {
+						inventoryLock.unlock();
+					}
+				} else {
+					Thread.yield(); // to enable other threads to process
+				}
 			}
 
 			// wait for work
@@ -945,16 +1740,354 @@ public abstract class HostRF_RReaderConnector extends RF_RReaderConnector {
 		}
 	}
 
-	private boolean runInventory() throws ImplementationException, Exception, InterruptedException {
+	/**
+	 * Number of rounds a tag with deferred reads may be missing before the
+	 * reads are dropped
+	 */
+	private static final int DEFERRED_ROUNDS = 8;
+
+	private volatile long round;
+	private int roundReads;
+	private long deferredSequence;
+
+	/**
+	 * Reads of tags which did not fit into the time budget of a round, in the
+	 * order they were deferred. Only used by the inventory thread.
+	 */
+	private final Map<String, TagReads> deferredReads = new LinkedHashMap<>();
+
+	/**
+	 * The bank reads of a tag, which can be continued in later rounds
+	 */
+	private class TagReads {
+		private static final int RESERVED = 0;
+		private static final int EPC = 1;
+		private static final int TID = 2;
+		private static final int USER = 3;
+
+		/**
+		 * The order of the reads, the TID first as it is the key of the
+		 * memory cache
+		 */
+		private static final int[] STEPS = { TID, RESERVED, EPC, USER };
+
+		private final String uid;
+		private final RF_RActiveOperations operations;
+		private final RF_RInventoryOperation inventoryOperation;
+		private final byte[] epcBank;
+		private final byte[] knownTid;
+		private final ReadResult[] readResult = new ReadResult[4];
+		private final long sequence = deferredSequence++;
+
+		private FedmIscTagHandler_EPC_Class1_Gen2 tag;
+		private long round;
+		private boolean readSuccess = true;
+		private int step;
+		private byte[] cacheTid;
+		private int userCommand;
+		private byte[] userData;
+
+		private TagReads(String uid, Tag reportTag, RF_RActiveOperations operations) {
+			this.uid = uid;
+			this.operations = operations;
+			this.inventoryOperation = operations.getInventoryOperation();
+			// banks are only read if an operation with matching filters
+			// requires them
+			this.epcBank = getEpcBankData(reportTag);
+			this.knownTid = Tag.isExtended() ? reportTag.getTid() : null;
+		}
+
+		/**
+		 * @return the results known from the inventory
+		 */
+		private ReadResult[] getIdentification() {
+			ReadResult[] identification = new ReadResult[4];
+			if (inventoryOperation.isEpc())
+				identification[EPC] = new ReadResult(ResultState.SUCCESS, epcBank);
+			if (inventoryOperation.isTid() && Tag.isExtended() && knownTid != null && knownTid.length > 0)
+				identification[TID] = new ReadResult(ResultState.SUCCESS, knownTid);
+			return identification;
+		}
+
+		/**
+		 * Reads the banks until all are read or the time budget is exceeded.
+		 * 
+		 * @param deadline
+		 *            the end of the time budget as given by
+		 *            {@link System#nanoTime()}
+		 * @return true if all banks are read
+		 */
+		private boolean read(long deadline) {
+			while (step < STEPS.length) {
+				switch (STEPS[step]) {
+				case TID:
+					if (Tag.isExtended()) {
+						if (inventoryOperation.isTid()) {
+							if (knownTid.length > 0) {
+								readResult[TID] = new ReadResult(ResultState.SUCCESS, knownTid);
+							} else {
+								readResult[TID] = new ReadResult(ResultState.MISC_ERROR_TOTAL, new byte[0]);
+								readSuccess = false;
+							}
+						}
+					} else {
+						boolean required = inventoryOperation.isTid()
+								&& operations.isRequired(FedmIscTagHandler_EPC_Class1_Gen2.BANK_TID, epcBank, knownTid);
+						if (required || isCacheKeyRequired()) {
+							ReadResult tid = readTid(deadline);
+							if (tid == null)
+								return false;
+							if (required) {
+								readResult[TID] = tid;
+								if (tid.getState() != ResultState.SUCCESS)
+									readSuccess = false;
+							}
+						}
+						if (inventoryOperation.isTid() && !required)
+							readResult[TID] = new ReadResult(ResultState.OP_NOT_POSSIBLE_ERROR, new byte[0]);
+					}
+					break;
+				case RESERVED:
+					if (inventoryOperation.isReserved()) {
+						if (!operations.isRequired(FedmIscTagHandler_EPC_Class1_Gen2.BANK_RESERVED, epcBank, knownTid)) {
+							readResult[RESERVED] = new ReadResult(ResultState.OP_NOT_POSSIBLE_ERROR, new byte[0]);
+						} else if (readSuccess) {
+							if (!hasTime(deadline))
+								return false;
+							readResult[RESERVED] = readBankFromTag(tag, uid, getCacheTid(), FedmIscTagHandler_EPC_Class1_Gen2.BANK_RESERVED,
+									inventoryOperation);
+							if (readResult[RESERVED].getState() != ResultState.SUCCESS)
+								readSuccess = false;
+						} else {
+							readResult[RESERVED] = new ReadResult(ResultState.MISC_ERROR_TOTAL, new byte[0]);
+						}
+					}
+					break;
+				case EPC:
+					if (inventoryOperation.isEpc()) {
+						if (readSuccess) {
+							readResult[EPC] = new ReadResult(ResultState.SUCCESS, epcBank);
+						} else {
+							readResult[EPC] = new ReadResult(ResultState.MISC_ERROR_TOTAL, new byte[0]);
+						}
+					}
+					break;
+				case USER:
+					if (inventoryOperation.isUser()) {
+						if (!operations.isRequired(FedmIscTagHandler_EPC_Class1_Gen2.BANK_USER, epcBank, knownTid)) {
+							readResult[USER] = new ReadResult(ResultState.OP_NOT_POSSIBLE_ERROR, new byte[0]);
+						} else if (readSuccess) {
+							if (!readUser(deadline))
+								return false;
+						} else {
+							readResult[USER] = new ReadResult(ResultState.MISC_ERROR_TOTAL, new byte[0]);
+						}
+					}
+					break;
+				}
+				step++;
+			}
+			return true;
+		}
+
+		/**
+		 * @return true if the TID is only read as key of the memory cache for
+		 *         the reserved or user bank
+		 */
+		private boolean isCacheKeyRequired() {
+			return getMemoryCache() != null
+					&& (inventoryOperation.isReserved() && operations.isRequired(FedmIscTagHandler_EPC_Class1_Gen2.BANK_RESERVED, epcBank, knownTid) || inventoryOperation
+							.isUser() && operations.isRequired(FedmIscTagHandler_EPC_Class1_Gen2.BANK_USER, epcBank, knownTid));
+		}
+
+		/**
+		 * Reads the TID bank, from the memory cache if the tag has been read
+		 * before.
+		 * 
+		 * @return the result, null if the time budget is exceeded
+		 */
+		private ReadResult readTid(long deadline) {
+			RF_RMemoryCache memoryCache = getMemoryCache();
+			byte[] data = memoryCache != null ? memoryCache.getTid(uid) : null;
+			if (data != null) {
+				cacheTid = data;
+				return new ReadResult(ResultState.SUCCESS, data);
+			}
+			if (!hasTime(deadline))
+				return null;
+			ReadResult tid = readBankFromTag(tag, FedmIscTagHandler_EPC_Class1_Gen2.BANK_TID, inventoryOperation);
+			if (tid.getState() == ResultState.SUCCESS && tid.getData().length > 0) {
+				cacheTid = tid.getData();
+				if (memoryCache != null)
+					memoryCache.put(uid, cacheTid, FedmIscTagHandler_EPC_Class1_Gen2.BANK_TID, inventoryOperation, cacheTid, System.nanoTime());
+			}
+			return tid;
+		}
+
+		/**
+		 * Reads the user bank. If a time budget is set, the read commands of
+		 * the data blocks are spread across rounds if required.
+		 */
+		private boolean readUser(long deadline) {
+			RF_RReadPlan readPlan = inventoryOperation.getUserReadPlan();
+			if (deadline == Long.MAX_VALUE || inventoryOperation.isForceUserComplete() || readPlan.size() < 2) {
+				if (!hasTime(deadline))
+					return false;
+				readResult[USER] = readBankFromTag(tag, uid, getCacheTid(), FedmIscTagHandler_EPC_Class1_Gen2.BANK_USER, inventoryOperation);
+				if (readResult[USER].getState() != ResultState.SUCCESS)
+					readSuccess = false;
+				return true;
+			}
+
+			RF_RMemoryCache memoryCache = getMemoryCache();
+			if (userData == null) {
+				byte[] data = memoryCache != null ? memoryCache.get(uid, getCacheTid(), FedmIscTagHandler_EPC_Class1_Gen2.BANK_USER,
+						inventoryOperation, System.nanoTime()) : null;
+				if (data != null) {
+					readResult[USER] = new ReadResult(ResultState.SUCCESS, data);
+					return true;
+				}
+				userData = new byte[inventoryOperation.getUserDataBlocks().length * 2];
+			}
+
+			for (; userCommand < readPlan.size(); userCommand++) {
+				if (!hasTime(deadline))
+					return false;
+				int offset = readPlan.getOffset(userCommand);
+				ReadResult blocks = readUserBlocks(tag, offset, readPlan.getLength(userCommand));
+				if (blocks.getState() != ResultState.SUCCESS) {
+					readResult[USER] = blocks;
+					readSuccess = false;
+					return true;
+				}
+				System.arraycopy(blocks.getData(), 0, userData, offset * 2, Math.min(blocks.getData().length, userData.length - offset * 2));
+			}
+			readResult[USER] = new ReadResult(ResultState.SUCCESS, userData);
+			if (memoryCache != null)
+				memoryCache.put(uid, getCacheTid(), FedmIscTagHandler_EPC_Class1_Gen2.BANK_USER, inventoryOperation, userData, System.nanoTime());
+			return true;
+		}
+
+		/**
+		 * Gets the TID identifying the tag in the memory cache, known from the
+		 * inventory in extended mode or read from the tag or the cache.
+		 * 
+		 * @return the TID, null if not known
+		 */
+		private byte[] getCacheTid() {
+			if (knownTid != null && knownTid.length > 0)
+				return knownTid;
+			return cacheTid;
+		}
+
+		/**
+		 * Checks whether a read fits into the time budget, the first read of a
+		 * round is always done to guarantee progress
+		 */
+		private boolean hasTime(long deadline) {
+			if (roundReads > 0 && System.nanoTime() >= deadline)
+				return false;
+			roundReads++;
+			return true;
+		}
+	}
+
+	/**
+	 * Orders the tags of an inventory round, tags with deferred reads first in
+	 * the order they were deferred, then the others grouped by antenna.
+	 * 
+	 * @param inventoryTagList
+	 *            the tags of the inventory round
+	 * @return the tags in the order to process them
+	 */
+	private Collection<Entry<String, FedmIscTagHandler>> getRoundOrder(Map<String, FedmIscTagHandler> inventoryTagList) {
+		Collection<Entry<String, FedmIscTagHandler>> entries = groupByAntenna(inventoryTagList);
+		if (this.deferredReads.isEmpty())
+			return entries;
+
+		List<Entry<String, FedmIscTagHandler>> deferred = new ArrayList<>();
+		List<Entry<String, FedmIscTagHandler>> others = new ArrayList<>(entries.size());
+		for (Entry<String, FedmIscTagHandler> entry : entries) {
+			if (this.deferredReads.containsKey(entry.getValue().getUid()))
+				deferred.add(entry);
+			else
+				others.add(entry);
+		}
+		Collections.sort(deferred, new Comparator<Entry<String, FedmIscTagHandler>>() {
+			@Override
+			public int compare(Entry<String, FedmIscTagHandler> o1, Entry<String, FedmIscTagHandler> o2) {
+				return Long.compare(deferredReads.get(o1.getValue().getUid()).sequence, deferredReads.get(o2.getValue().getUid()).sequence);
+			}
+		});
+		deferred.addAll(others);
+		return deferred;
+	}
+
+	/**
+	 * Drops the deferred reads of tags which left the field
+	 */
+	private void expireDeferredReads() {
+		for (Iterator<TagReads> iterator = this.deferredReads.values().iterator(); iterator.hasNext();)
+			if (this.round - iterator.next().round > DEFERRED_ROUNDS)
+				iterator.remove();
+	}
+
+	/**
+	 * Gets the time to wait before the next inventory round. Rounds without
+	 * tags double the previous interval up to the idle interval, rounds with
+	 * tags, a pending execute operation or a commissioning run start the next
+	 * round immediately.
+	 *
+	 * @param interval
+	 *            the previous interval in milliseconds
+	 * @return the interval in milliseconds, 0 to start immediately
+	 */
+	private long getPacingInterval(long interval) {
+		RF_RProperties properties = this.readerConnection.getConnectionProperties();
+		if (properties.getPacingPolicy() != RF_RProperties.PacingPolicy.Adaptive || this.lastRoundTags > 0
+				|| this.hasPendingExecute() || this.commissioning != null)
+			return 0;
+		if (interval == 0)
+			return properties.getPacingMinInterval();
+		return Math.min(interval * 2, properties.getPacingIdleInterval());
+	}
+
+	/**
+	 * Runs a single inventory round. Package private for the benchmark module
+	 * only, which drives the rounds without the inventory thread, it is not
+	 * part of the connector API.
+	 * 
+	 * @return false if the inventory failed and has to stop
+	 */
+	boolean runInventory() throws ImplementationException, Exception, InterruptedException {
 		try {
 			readerLock.lock();
 			try {
+				int timeBudget = this.readerConnection.getConnectionProperties().getInventoryTimeBudget();
+				long deadline = timeBudget > 0 ? System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeBudget) : Long.MAX_VALUE;
+				this.round++;
+				this.roundReads = 0;
+				this.selectedAntenna = NO_ANTENNA;
+				this.rfSwitches = 0;
+				this.roundAntennas = nextRoundAntennas();
+				// an execute operation arriving during the round may need a
+				// larger table and waits for the next round
+				boolean execute = getTableSizer() == null || this.hasPendingExecute();
+				RF_RCommissioning commissioning = this.commissioning;
+				this.resizeTable();
+				this.applySelection();
 				Map<String, FedmIscTagHandler> inventoryTagList = this.tagInventory(false);
+				byte suspects = 0;
 				RF_RStatus state = RF_RStatus.forValue(this.reader.getLastStatus());
 				if (state == RF_RStatus.Firmware_activation_required)
 					this.logIsoError("An ISO tag is located in the reader field, firmware activation is needed!");
-				else if (state == RF_RStatus.RF_Warning)
-					this.logAntennaError("An antenna is not connected correctly to the reader please check all antenna cables!");
+				else if (state == RF_RStatus.RF_Warning) {
+					suspects = getWarningSuspects();
+					if (suspects == 0) {
+						this.invalidateDetectedAntennas();
+						this.logAntennaError("An antenna is not connected correctly to the reader please check all antenna cables!");
+					}
+				}
 				else if (state == RF_RStatus.Parameter_Range_Error)
 					this.logParameterRangeError("The property '" + RF_RProperties.PropertyName.InventoryAntennas + "' was invalid specified!");
 				else if (state == RF_RStatus.OK || state == RF_RStatus.No_Transponder) {
@@ -973,147 +2106,124 @@ public abstract class HostRF_RReaderConnector extends RF_RReaderConnector {
 						notifyAntennaErrorResolved();
 
 				}
+				int moreData = 0;
 				while (RF_RStatus.forValue(this.reader.getLastStatus()) == RF_RStatus.More_Data) {
+					moreData++;
 					Map<String, FedmIscTagHandler> moreTagList = this.tagInventory(true);
 					for (Entry<String, FedmIscTagHandler> moreEntry : moreTagList.entrySet()) {
 						if (!inventoryTagList.containsKey(moreEntry.getKey()))
 							inventoryTagList.put(moreEntry.getKey(), moreEntry.getValue());
 					}
 				}
+				this.updateAirInterface(inventoryTagList.keySet(), moreData, System.nanoTime() > deadline);
+				if (this.antennaScheduler != null) {
+					for (Entry<String, FedmIscTagHandler> entry : inventoryTagList.entrySet())
+						this.antennaScheduler.seen(entry.getKey(), getAntenna(entry.getValue()));
+					this.antennaScheduler.complete();
+				}
+				if (this.antennaHealth != null) {
+					for (FedmIscTagHandler tag : inventoryTagList.values())
+						this.antennaHealth.seen(getAntenna(tag));
+					notifyAntennaHealth(this.antennaHealth.complete(this.roundAntennas, suspects, System.nanoTime()));
+				}
+				this.lastRoundTags = inventoryTagList.size();
+				RF_RTableSizer tableSizer = getTableSizer();
+				if (tableSizer != null)
+					tableSizer.observe(inventoryTagList.size());
 				if (inventoryTagList.size() > 0) {
 					int tagCount = 0;
 
-					for (Entry<String, FedmIscTagHandler> inventoryEntry : inventoryTagList.entrySet()) {
-						tagCount++;
-						Tag reportTag = null;
-						if (inventoryEntry.getValue().getTagHandlerType() == FedmIscTagHandler.TYPE_EPC_CLASS1_GEN2) {
-							FedmIscTagHandler_EPC_Class1_Gen2 tag = (FedmIscTagHandler_EPC_Class1_Gen2) inventoryEntry.getValue();
+					beginInventoryRound();
+					try {
+						for (Entry<String, FedmIscTagHandler> inventoryEntry : getRoundOrder(inventoryTagList)) {
+							tagCount++;
+							Tag reportTag = null;
+							if (inventoryEntry.getValue().getTagHandlerType() == FedmIscTagHandler.TYPE_EPC_CLASS1_GEN2) {
+								FedmIscTagHandler_EPC_Class1_Gen2 tag = (FedmIscTagHandler_EPC_Class1_Gen2) inventoryEntry.getValue();
 
-							if (this.getIdentifierMode() == RF_RConfiguration.TranspoderIdentifierModeValue.AutomaticMode) {
-								byte pcHigh = (byte) (tag.getProtocolControl() & 0xFF);
-								int length = ((pcHigh & 0xFF) >> 3) * 4;
 								String uid = tag.getUid();
-								// workaround for ETBv1 tag misconfigured in
-								// battery mode
-								if (uid.length() < length) {
-									try {
-										Field field = FedmIscTagHandler.class.getDeclaredField("tabItem");
-										field.setAccessible(true);
-										FedmIsoTableItem tabItem = (FedmIsoTableItem) field.get(tag);
-										byte newLengthBits = (byte) ((uid.length() / 4) << 3);
-										byte indicatorBits = (byte) (pcHigh & 7);
-										byte newPcHigh = (byte) (indicatorBits | newLengthBits);
-										tabItem.class1Gen2PC[0] = newPcHigh;
-										this.logReaderError("Tag \"" + uid + "\" specified an unexpected length of " + length / 2 + " bytes in PC!");
-									} catch (Exception e) {
-										// skip
+								if (this.getIdentifierMode() == RF_RConfiguration.TranspoderIdentifierModeValue.AutomaticMode) {
+									byte pcHigh = (byte) (tag.getProtocolControl() & 0xFF);
+									int length = ((pcHigh & 0xFF) >> 3) * 4;
+									// workaround for ETBv1 tag misconfigured in
+									// battery mode
+									if (uid.length() < length && TAB_ITEM != null) {
+										try {
+											FedmIsoTableItem tabItem = (FedmIsoTableItem) TAB_ITEM.get(tag);
+											byte newLengthBits = (byte) ((uid.length() / 4) << 3);
+											byte indicatorBits = (byte) (pcHigh & 7);
+											byte newPcHigh = (byte) (indicatorBits | newLengthBits);
+											tabItem.class1Gen2PC[0] = newPcHigh;
+											this.logReaderError("Tag \"" + uid + "\" specified an unexpected length of " + length / 2 + " bytes in PC!");
+										} catch (Exception e) {
+											// skip
+										}
 									}
 								}
-							}
 
-							String epc = "";
-							try {
-								epc = tag.getEpcOfUid();
-							} catch (StringIndexOutOfBoundsException ex) {
-
-								/*
-								 * HOTFIX for problem that reader reports OK
-								 * state on ARM platform although an ISO tag is
-								 * in the field
-								 */
-								inventoryTagList.clear();
-								state = RF_RStatus.Firmware_activation_required;
-								this.logIsoError("An ISO tag is located in the reader field, firmware activation is needed!");
-								break;
+								try {
+									reportTag = createReportTag(uid, tag.getProtocolControl());
+								} catch (StringIndexOutOfBoundsException ex) {
 
-							}
+									/*
+									 * HOTFIX for problem that reader reports OK
+									 * state on ARM platform although an ISO tag is
+									 * in the field
+									 */
+									inventoryTagList.clear();
+									state = RF_RStatus.Firmware_activation_required;
+									this.logIsoError("An ISO tag is located in the reader field, firmware activation is needed!");
+									break;
 
-							reportTag = new Tag(epc.length() == 0 ? new byte[0] : FeHexConvert.hexStringToByteArray(epc));
-
-							if (Tag.isExtended())
-								reportTag.setTid("".equals(tag.getTidOfUid()) ? new byte[0] : FeHexConvert.hexStringToByteArray(tag.getTidOfUid()));
-
-							byte[] pc = RFCUtils.shortToBytes((short) tag.getProtocolControl());
-							reportTag.setPc(new byte[] { pc[1], pc[0] });
-
-							if (tag.getRSSI() != null && tag.getRSSI().size() > 0) {
-								Entry<Integer, FedmIscRssiItem> rssiEntry = tag.getRSSI().entrySet().iterator().next();
-								reportTag.setSighting(new Sighting(this.readerConnection.toString(), rssiEntry.getValue().antennaNumber,
-										rssiEntry.getValue().RSSI, reportTag.getFirstTime()));
-							}
-
-							ReadResult[] readResult = new ReadResult[4];
-
-							boolean readSuccess = true;
-							Map<Long, TagOperation> tagOperations = new HashMap<>();
-							RF_RInventoryOperation inventoryOperation = getCurrentOperations(tagOperations);
-
-							if (inventoryOperation.isReserved()) {
-								readResult[0] = this.readBankFromTag(tag, FedmIscTagHandler_EPC_Class1_Gen2.BANK_RESERVED, inventoryOperation);
-								if (readResult[0].getState() != ResultState.SUCCESS)
-									readSuccess = false;
-							}
-							if (inventoryOperation.isEpc()) {
-								if (readSuccess) {
-
-									byte[] epcData = new byte[2 + reportTag.getPc().length + reportTag.getEpc().length];
-									/* CRC */
-									epcData[0] = 0x00;
-									epcData[1] = 0x00;
-
-									/* PC */
-									for (int i = 0; i < reportTag.getPc().length; i++)
-										epcData[2 + i] = reportTag.getPc()[i];
-
-									/* EPC */
-									for (int i = 0; i < reportTag.getEpc().length; i++)
-										epcData[i + 2 + reportTag.getPc().length] = reportTag.getEpc()[i];
-
-									readResult[1] = new ReadResult(ResultState.SUCCESS, epcData);
-
-								} else {
-									readResult[1] = new ReadResult(ResultState.MISC_ERROR_TOTAL, new byte[0]);
 								}
-							}
-							if (inventoryOperation.isTid()) {
-								if (readSuccess) {
-									if (Tag.isExtended()) {
-										if (reportTag.getTid().length > 0) {
-											readResult[2] = new ReadResult(ResultState.SUCCESS, reportTag.getTid());
-										} else {
-											readResult[2] = new ReadResult(ResultState.MISC_ERROR_TOTAL, new byte[0]);
-											readSuccess = false;
-										}
-									} else {
-										readResult[2] = this.readBankFromTag(tag, FedmIscTagHandler_EPC_Class1_Gen2.BANK_TID, inventoryOperation);
-										if (readResult[2].getState() != ResultState.SUCCESS)
-											readSuccess = false;
-									}
-								} else {
-									readResult[2] = new ReadResult(ResultState.MISC_ERROR_TOTAL, new byte[0]);
+
+								if (tag.getRSSI() != null && tag.getRSSI().size() > 0) {
+									Entry<Integer, FedmIscRssiItem> rssiEntry = tag.getRSSI().entrySet().iterator().next();
+									reportTag.setSighting(new Sighting(this.readerConnection.toString(), rssiEntry.getValue().antennaNumber,
+											rssiEntry.getValue().RSSI, reportTag.getFirstTime()));
 								}
-							}
-							if (inventoryOperation.isUser()) {
-								if (readSuccess) {
-									readResult[3] = this.readBankFromTag(tag, FedmIscTagHandler_EPC_Class1_Gen2.BANK_USER, inventoryOperation);
-									if (readResult[3].getState() != ResultState.SUCCESS)
-										readSuccess = false;
+
+								// reads not finished within the time budget of a
+								// round are continued in the next rounds
+								RF_RActiveOperations activeOperations = getActiveOperations();
+								TagReads reads = this.deferredReads.remove(uid);
+								if (reads == null || reads.operations != activeOperations)
+									reads = new TagReads(uid, reportTag, activeOperations);
+								reads.tag = tag;
+								reads.round = this.round;
+
+								boolean complete = reads.read(deadline);
+								if (execute && this.executeOperation(tag, reads.epcBank, reads.knownTid, inventoryTagList.size() - tagCount)) {
+									// memory may have changed
+								} else if (commissioning != null && this.commission(commissioning, tag, reads.epcBank, reads.knownTid, deadline)) {
+									// the tag has a new EPC
+								} else if (complete) {
+									sendInventoryReport(new InventoryReport(reportTag, reads.readResult), activeOperations);
 								} else {
-									readResult[3] = new ReadResult(ResultState.MISC_ERROR_TOTAL, new byte[0]);
+									// the tag operations not reading banks get
+									// the tag in each round it is seen
+									sendInventoryReport(new InventoryReport(reportTag, reads.getIdentification()), activeOperations, false);
+									this.deferredReads.put(uid, reads);
 								}
 							}
-
-							if (!this.executeOperation(tag, inventoryTagList.size() - tagCount))
-								sendInventoryReport(new InventoryReport(reportTag, readResult), tagOperations);
 						}
+					} finally {
+						endInventoryRound();
+						expireDeferredReads();
 					}
 					if (!this.readerErrorOccurred && this.readerErrorCount > 0)
 						this.readerErrorCount--;
-				} else {
-					this.executeOperation(null, 0);
+				} else if (execute) {
+					this.executeOperation(null, null, null, 0);
 				}
+				if (commissioning != null && commissioning.isFinished())
+					this.finishCommissioning(commissioning);
 				notifyConnectionErrorResolved();
 			} finally {
+				this.lastRoundRfSwitches = this.rfSwitches;
+				this.totalRfSwitches += this.rfSwitches;
+				if (this.rfSwitches > this.maxRoundRfSwitches)
+					this.maxRoundRfSwitches = this.rfSwitches;
 				readerLock.unlock();
 			}
 		} catch (FePortDriverException e) {
@@ -97,10 +97,16 @@ public abstract class NotificationRF_RReaderConnector extends RF_RReaderConnecto
 		try {
 			readerLock.lock();
 			try {
-				this.reader.setTableSize(FedmIscReaderConst.BRM_TABLE, this.readerConnection.getConnectionProperties().getTagsInField(),
-						this.readerConnection.getConnectionProperties().getBlockCount(), this.readerConnection.getConnectionProperties()
-								.getBlockSize(), this.readerConnection.getConnectionProperties().getBlockCount(), this.readerConnection
-								.getConnectionProperties().getBlockSize());
+				RF_RTableSizer tableSizer = getTableSizer();
+				if (tableSizer != null) {
+					this.tableDataBlocks = RF_RTableSizer.getUserDataBlocks(getActiveOperations().getInventoryOperation(), tableSizer.getMaxDataBlocks());
+					tableSizer.update(this.tableDataBlocks);
+					setTableSize(tableSizer);
+				} else
+					this.reader.setTableSize(FedmIscReaderConst.BRM_TABLE, this.readerConnection.getConnectionProperties().getTagsInField(),
+							this.readerConnection.getConnectionProperties().getBlockCount(), this.readerConnection.getConnectionProperties()
+									.getBlockSize(), this.readerConnection.getConnectionProperties().getBlockCount(), this.readerConnection
+									.getConnectionProperties().getBlockSize());
 				return 0;
 			} finally {
 				readerLock.unlock();
@@ -110,6 +116,46 @@ public abstract class NotificationRF_RReaderConnector extends RF_RReaderConnecto
 		}
 	}
 
+	/**
+	 * The number of data blocks per tag the BRM table has to hold for the
+	 * current inventory settings
+	 */
+	private volatile int tableDataBlocks;
+
+	private void setTableSize(RF_RTableSizer tableSizer) throws FedmException {
+		this.reader.setTableSize(FedmIscReaderConst.BRM_TABLE, tableSizer.getTags(), tableSizer.getDataBlocks(), tableSizer.getBlockSize(),
+				tableSizer.getDataBlocks(), tableSizer.getBlockSize());
+	}
+
+	/**
+	 * Resizes the BRM table after a notification was processed, if the user
+	 * bank data of the inventory or the observed number of tags have changed.
+	 * 
+	 * @param tags
+	 *            the number of tags of the notification
+	 */
+	private void resizeTable(int tags) {
+		RF_RTableSizer tableSizer = getTableSizer();
+		if (tableSizer == null)
+			return;
+		tableSizer.observe(tags);
+		if (tableSizer.update(this.tableDataBlocks)) {
+			readerLock.lock();
+			try {
+				setTableSize(tableSizer);
+			} catch (FedmException e) {
+				clientCallback.notify(new Message(Exits.Reader.Controller.Error, "Failed to resize BRM table: " + e.getMessage(), e));
+			} finally {
+				readerLock.unlock();
+			}
+		}
+	}
+
+	@Override
+	protected String getTableName() {
+		return "BRM";
+	}
+
 	@Override
 	public void executePortOperation(long id, PortOperation operation) throws ValidationException, ImplementationException {
 		throw new ValidationException("GPIOs are not supported yet");
@@ -193,6 +239,23 @@ public abstract class NotificationRF_RReaderConnector extends RF_RReaderConnecto
 	protected void updateInventorySettings(RF_RInventoryOperation oldInventoryOperation, RF_RInventoryOperation newInventoryOperation)
 			throws ValidationException, ImplementationException {
 		super.updateInventorySettings(oldInventoryOperation, newInventoryOperation);
+		RF_RTableSizer tableSizer = getTableSizer();
+		if (tableSizer != null) {
+			// grow the table before the reader sends more data, shrinking
+			// waits until the notifications with more data are processed
+			int dataBlocks = RF_RTableSizer.getUserDataBlocks(newInventoryOperation, tableSizer.getMaxDataBlocks());
+			this.tableDataBlocks = dataBlocks;
+			if (dataBlocks > tableSizer.getDataBlocks() && tableSizer.update(dataBlocks)) {
+				readerLock.lock();
+				try {
+					setTableSize(tableSizer);
+				} catch (FedmException e) {
+					throw new ImplementationException(e);
+				} finally {
+					readerLock.unlock();
+				}
+			}
+		}
 		Map<String, Object> newProperties = new HashMap<String, Object>();
 		boolean first = firstInventory.compareAndSet(true, false);
 		if (newInventoryOperation.isUser()
@@ -404,12 +467,18 @@ public abstract class NotificationRF_RReaderConnector extends RF_RReaderConnecto
 	}
 
 	@Override
-	protected Map<Integer, Result> executeOperationOnTag(FedmIscTagHandler_EPC_Class1_Gen2 executeTag) throws Exception {
+	protected Map<Integer, Result> executeOperationOnTag(FedmIscTagHandler_EPC_Class1_Gen2 executeTag, TagOperation executeOperation)
+			throws Exception {
 		// execute - for future use
 		throw new UnsupportedOperationException("Executing operations on tag is not supported");
 	}
 
-	private FedmTaskListener taskListener = new FedmTaskListener() {
+	/**
+	 * Receives the notifications of the reader. Package private for the
+	 * benchmark module only, which feeds the notifications directly, it is not
+	 * part of the connector API.
+	 */
+	FedmTaskListener taskListener = new FedmTaskListener() {
 
 		@Override
 		public void onNewTag(int paramInt) {
@@ -446,6 +515,7 @@ public abstract class NotificationRF_RReaderConnector extends RF_RReaderConnecto
 			// process the notification, but leave the callback as fast as
 			// possible
 			FedmBrmTableItem[] brmItems = null;
+			beginInventoryRound();
 			try {
 				brmItems = (FedmBrmTableItem[]) reader.getTable(FedmIscReaderConst.BRM_TABLE);
 
@@ -475,9 +545,8 @@ public abstract class NotificationRF_RReaderConnector extends RF_RReaderConnecto
 							}
 						}
 
-						String epc = "";
 						try {
-							epc = getEpcOfUid(tag);
+							reportTag = createReportTag(getUid(tag), getProtocolControl(tag));
 						} catch (StringIndexOutOfBoundsException ex) {
 							/*
 							 * HOTFIX for problem that reader reports OK state
@@ -489,13 +558,6 @@ public abstract class NotificationRF_RReaderConnector extends RF_RReaderConnecto
 
 						}
 
-						reportTag = new Tag(epc.length() == 0 ? new byte[0] : FeHexConvert.hexStringToByteArray(epc));
-
-						if (Tag.isExtended())
-							reportTag.setTid("".equals(getTidOfUid(tag)) ? new byte[0] : FeHexConvert.hexStringToByteArray(getTidOfUid(tag)));
-
-						byte[] pc = RFCUtils.shortToBytes((short) getProtocolControl(tag));
-						reportTag.setPc(new byte[] { pc[1], pc[0] });
 						try {
 							if (tag.getRSSI() != null && tag.getRSSI().size() > 0) {
 								Entry<Integer, FedmIscRssiItem> rssiEntry = tag.getRSSI().entrySet().iterator().next();
@@ -509,8 +571,8 @@ public abstract class NotificationRF_RReaderConnector extends RF_RReaderConnecto
 						ReadResult[] readResult = new ReadResult[4];
 
 						boolean readSuccess = true;
-						Map<Long, TagOperation> tagOperations = new HashMap<>();
-						RF_RInventoryOperation inventoryOperation = getCurrentOperations(tagOperations);
+						RF_RActiveOperations activeOperations = getActiveOperations();
+						RF_RInventoryOperation inventoryOperation = activeOperations.getInventoryOperation();
 
 						if (inventoryOperation.isReserved()) {
 							// reserved bank - future use
@@ -530,22 +592,7 @@ public abstract class NotificationRF_RReaderConnector extends RF_RReaderConnecto
 						}
 						if (inventoryOperation.isEpc()) {
 							if (readSuccess) {
-
-								byte[] epcData = new byte[2 + reportTag.getPc().length + reportTag.getEpc().length];
-								/* CRC */
-								epcData[0] = 0x00;
-								epcData[1] = 0x00;
-
-								/* PC */
-								for (int i = 0; i < reportTag.getPc().length; i++)
-									epcData[2 + i] = reportTag.getPc()[i];
-
-								/* EPC */
-								for (int i = 0; i < reportTag.getEpc().length; i++)
-									epcData[i + 2 + reportTag.getPc().length] = reportTag.getEpc()[i];
-
-								readResult[1] = new ReadResult(ResultState.SUCCESS, epcData);
-
+								readResult[1] = new ReadResult(ResultState.SUCCESS, getEpcBankData(reportTag));
 							} else {
 								readResult[1] = new ReadResult(ResultState.MISC_ERROR_TOTAL, new byte[0]);
 							}
@@ -603,15 +650,19 @@ public abstract class NotificationRF_RReaderConnector extends RF_RReaderConnecto
 							}
 						}
 
-						sendInventoryReport(new InventoryReport(reportTag, readResult), tagOperations);
+						sendInventoryReport(new InventoryReport(reportTag, readResult), activeOperations);
 					}
 				} else {
-					executeOperation(null, 0);
+					executeOperation(null, null, null, 0);
 				}
 			} catch (FedmException e) {
 				clientCallback.notify(new Message(Exits.Reader.Controller.Error, "Exception occurred during Inventory: " + e.getMessage(), e));
 			} catch (Exception e) {
 				clientCallback.notify(new Message(Exits.Reader.Controller.Error, "Exception occurred during Inventory: " + e.getMessage(), e));
+			} finally {
+				endInventoryRound();
+				// the table can be resized as its content has been processed
+				resizeTable(brmItems != null ? brmItems.length : 0);
 			}
 		}
 
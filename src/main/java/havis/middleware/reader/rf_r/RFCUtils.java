@@ -79,6 +79,37 @@ public class RFCUtils {
 		return result;
 	}
 
+	/**
+	 * Converts a range of the given hexadecimal string to a byte array without
+	 * creating intermediate strings.
+	 *
+	 * @param hexStr
+	 *            a hexadecimal string without separators
+	 * @param offset
+	 *            the index of the first character
+	 * @param length
+	 *            the number of characters, must be even
+	 * @return an array of <code>length / 2</code> bytes
+	 * @throws StringIndexOutOfBoundsException
+	 *             if the range exceeds the hex string
+	 * @throws IllegalArgumentException
+	 *             if the range contains a character which is not hexadecimal
+	 */
+	public static byte[] hexToBytes(String hexStr, int offset, int length) throws StringIndexOutOfBoundsException, IllegalArgumentException {
+		if (offset < 0 || length < 0 || offset + length > hexStr.length())
+			throw new StringIndexOutOfBoundsException("Range " + offset + " to " + (offset + length) + " exceeds length " + hexStr.length());
+
+		byte[] result = new byte[length / 2];
+		for (int i = 0; i < result.length; i++) {
+			int high = Character.digit(hexStr.charAt(offset + 2 * i), 16);
+			int low = Character.digit(hexStr.charAt(offset + 2 * i + 1), 16);
+			if (high < 0 || low < 0)
+				throw new IllegalArgumentException("Invalid hex string '" + hexStr + "'.");
+			result[i] = (byte) ((high << 4) | low);
+		}
+		return result;
+	}
+
 	/**
 	 * Converts an array of bytes to an integer. This array must not contain
 	 * more that 4 bytes (32 bits), to make sure the result can be stored in an
@@ -0,0 +1,233 @@
+package havis.middleware.reader.rf_r;
+
+import havis.middleware.ale.base.operation.tag.Operation;
+import havis.middleware.ale.base.operation.tag.TagOperation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+/**
+ * Immutable snapshot of the enabled tag operations and the resulting inventory
+ * settings. A new snapshot is created whenever a tag operation is enabled,
+ * disabled or undefined, the inventory reads the current snapshot without
+ * locking. The tag operations are grouped by the results they produce, so
+ * that the results of a tag are computed once per group.
+ */
+public class RF_RActiveOperations {
+
+	private final long version;
+	private final RF_RInventoryOperation inventoryOperation;
+	private final Map<Long, TagOperation> tagOperations;
+	private final List<Shape> shapes;
+	private final boolean[] unconditionalBanks = new boolean[4];
+	private final RF_RFilterMatcher[][] bankMatchers = new RF_RFilterMatcher[4][];
+
+	/**
+	 * Group of tag operations which produce the same results
+	 */
+	public static class Shape {
+		private final List<Operation> operations;
+		private final long[] ids;
+		private final boolean readingBanks;
+
+		Shape(List<Operation> operations, long[] ids) {
+			this.operations = operations;
+			this.ids = ids;
+			boolean readingBanks = false;
+			if (operations != null)
+				for (Operation operation : operations)
+					if (operation.getField().getBank() != 1)
+						readingBanks = true;
+			this.readingBanks = readingBanks;
+		}
+
+		/**
+		 * Gets the operations of the first tag operation of the group.
+		 *
+		 * @return the operations, null if the tag operations have none
+		 */
+		public List<Operation> getOperations() {
+			return operations;
+		}
+
+		/**
+		 * Gets whether the tag operations of the group require data of other
+		 * banks than the EPC bank.
+		 *
+		 * @return true if other banks are read
+		 */
+		public boolean isReadingBanks() {
+			return readingBanks;
+		}
+
+		/**
+		 * Gets the IDs of the tag operations of the group.
+		 *
+		 * @return the IDs, must not be changed
+		 */
+		public long[] getIds() {
+			return ids;
+		}
+	}
+
+	/**
+	 * Initializes a new instance of the {@link RF_RActiveOperations} class.
+	 *
+	 * @param version
+	 *            the version of the snapshot, increases with each change
+	 * @param inventoryOperation
+	 *            the inventory settings, must not be changed afterwards
+	 * @param tagOperations
+	 *            the enabled tag operations by ID, will be copied
+	 */
+	public RF_RActiveOperations(long version, RF_RInventoryOperation inventoryOperation, Map<Long, TagOperation> tagOperations) {
+		this.version = version;
+		this.inventoryOperation = inventoryOperation;
+		this.tagOperations = Collections.unmodifiableMap(new LinkedHashMap<>(tagOperations));
+		this.shapes = Collections.unmodifiableList(createShapes(this.tagOperations));
+		createBankMatchers();
+	}
+
+	/**
+	 * Compiles the filters of the tag operations reading each bank, a bank
+	 * read by a tag operation without decidable filters is read from each tag
+	 */
+	private void createBankMatchers() {
+		List<List<RF_RFilterMatcher>> matchers = new ArrayList<>(4);
+		for (int bank = 0; bank < 4; bank++)
+			matchers.add(new ArrayList<RF_RFilterMatcher>());
+
+		for (TagOperation tagOperation : this.tagOperations.values()) {
+			if (tagOperation.getOperations() == null)
+				continue;
+			RF_RFilterMatcher matcher = null;
+			for (Operation operation : tagOperation.getOperations()) {
+				int bank = operation.getField().getBank();
+				if (bank < 0 || bank > 3 || unconditionalBanks[bank])
+					continue;
+				if (matcher == null)
+					matcher = RF_RFilterMatcher.compile(tagOperation.getFilter());
+				if (matcher.isAny())
+					unconditionalBanks[bank] = true;
+				else if (!matchers.get(bank).contains(matcher))
+					matchers.get(bank).add(matcher);
+			}
+		}
+
+		for (int bank = 0; bank < 4; bank++)
+			bankMatchers[bank] = unconditionalBanks[bank] ? new RF_RFilterMatcher[0] : matchers.get(bank).toArray(new RF_RFilterMatcher[0]);
+	}
+
+	private static List<Shape> createShapes(Map<Long, TagOperation> tagOperations) {
+		Map<String, List<Long>> ids = new LinkedHashMap<>();
+		Map<String, List<Operation>> operations = new LinkedHashMap<>();
+		for (Entry<Long, TagOperation> entry : tagOperations.entrySet()) {
+			String key = getShapeKey(entry.getKey().longValue(), entry.getValue().getOperations());
+			List<Long> list = ids.get(key);
+			if (list == null) {
+				ids.put(key, list = new ArrayList<>());
+				operations.put(key, entry.getValue().getOperations());
+			}
+			list.add(entry.getKey());
+		}
+
+		List<Shape> shapes = new ArrayList<>(ids.size());
+		for (Entry<String, List<Long>> entry : ids.entrySet()) {
+			long[] array = new long[entry.getValue().size()];
+			for (int i = 0; i < array.length; i++)
+				array[i] = entry.getValue().get(i).longValue();
+			shapes.add(new Shape(operations.get(entry.getKey()), array));
+		}
+		return shapes;
+	}
+
+	/**
+	 * Creates a key which is equal for operations producing the same results
+	 * from the same inventory data. Only read operations are compared by
+	 * their field, any other operation makes the key unique.
+	 *
+	 * @param id
+	 *            the ID of the tag operation
+	 * @param operations
+	 *            the operations of the tag operation
+	 * @return the key
+	 */
+	private static String getShapeKey(long id, List<Operation> operations) {
+		if (operations == null)
+			return "";
+		StringBuilder key = new StringBuilder();
+		for (Operation operation : operations) {
+			switch (operation.getType()) {
+			case READ:
+				key.append(operation.getId()).append(':').append(operation.getField().getBank()).append(':')
+						.append(operation.getField().getOffset()).append(':').append(operation.getField().getLength()).append(';');
+				break;
+			default:
+				return "#" + id;
+			}
+		}
+		return key.toString();
+	}
+
+	/**
+	 * Gets the version of the snapshot, increases with each change.
+	 *
+	 * @return the version
+	 */
+	public long getVersion() {
+		return version;
+	}
+
+	/**
+	 * Gets the inventory settings required by the enabled tag operations. The
+	 * returned instance is shared and must not be changed.
+	 *
+	 * @return the inventory settings
+	 */
+	public RF_RInventoryOperation getInventoryOperation() {
+		return inventoryOperation;
+	}
+
+	/**
+	 * Checks whether a bank has to be read from a tag, because a tag operation
+	 * reading the bank has filters which may match the tag.
+	 *
+	 * @param bank
+	 *            the bank
+	 * @param epcBank
+	 *            the EPC bank data of the tag starting with CRC and PC
+	 * @param tid
+	 *            the TID of the tag, null if not known
+	 * @return true if the bank has to be read
+	 */
+	public boolean isRequired(int bank, byte[] epcBank, byte[] tid) {
+		if (unconditionalBanks[bank])
+			return true;
+		for (RF_RFilterMatcher matcher : bankMatchers[bank])
+			if (matcher.matches(epcBank, tid))
+				return true;
+		return false;
+	}
+
+	/**
+	 * Gets the enabled tag operations by ID.
+	 *
+	 * @return unmodifiable map of the tag operations
+	 */
+	public Map<Long, TagOperation> getTagOperations() {
+		return tagOperations;
+	}
+
+	/**
+	 * Gets the tag operations grouped by the results they produce.
+	 *
+	 * @return unmodifiable list of the groups
+	 */
+	public List<Shape> getShapes() {
+		return shapes;
+	}
+}
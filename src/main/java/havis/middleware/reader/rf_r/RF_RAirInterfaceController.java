@@ -0,0 +1,154 @@
+package havis.middleware.reader.rf_r;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * Adapts the Gen2 session to the tag population observed by the inventory
+ * rounds. The population is estimated by the number of distinct tags seen
+ * within the last rounds, as tags in a session other than 0 do not reply in
+ * each round. A crowded field, indicated by a large population, further data
+ * to be fetched from the reader or rounds exceeding their time budget, raises
+ * the session, so that tags already inventoried stay silent. A sparse field
+ * lowers the session again. The session is only changed if the state of the
+ * field persists for a number of rounds and stays within the given bounds.
+ */
+public class RF_RAirInterfaceController {
+
+	private final int minSession;
+	private final int maxSession;
+	private final int lowPopulation;
+	private final int highPopulation;
+	private final int hysteresis;
+
+	/**
+	 * The round each tag was last seen in by UID
+	 */
+	private final LinkedHashMap<String, Long> seen = new LinkedHashMap<>();
+
+	private long round;
+	private int session;
+	private int crowdedRounds;
+	private int sparseRounds;
+	private int changes;
+
+	/**
+	 * Initializes a new instance of the {@link RF_RAirInterfaceController}
+	 * class.
+	 *
+	 * @param minSession
+	 *            the lowest session
+	 * @param maxSession
+	 *            the highest session
+	 * @param lowPopulation
+	 *            the number of tags up to which the field is sparse
+	 * @param highPopulation
+	 *            the number of tags from which on the field is crowded
+	 * @param hysteresis
+	 *            the number of rounds the state of the field has to persist
+	 *            before the session is changed, also the number of rounds the
+	 *            population is estimated over
+	 * @param session
+	 *            the current session, will be limited to the bounds
+	 */
+	public RF_RAirInterfaceController(int minSession, int maxSession, int lowPopulation, int highPopulation, int hysteresis, int session) {
+		if (minSession < 0 || maxSession > 3 || minSession > maxSession)
+			throw new IllegalArgumentException("Sessions must be within 0 and 3");
+		if (lowPopulation < 0 || highPopulation <= lowPopulation)
+			throw new IllegalArgumentException("High population must be greater than low population");
+		if (hysteresis < 1)
+			throw new IllegalArgumentException("Hysteresis must be at least 1");
+		this.minSession = minSession;
+		this.maxSession = maxSession;
+		this.lowPopulation = lowPopulation;
+		this.highPopulation = highPopulation;
+		this.hysteresis = hysteresis;
+		this.session = Math.max(minSession, Math.min(maxSession, session));
+	}
+
+	/**
+	 * Updates the estimation with the result of an inventory round.
+	 *
+	 * @param uids
+	 *            the UIDs of the tags found by the round
+	 * @param moreData
+	 *            the number of times further data had to be fetched from the
+	 *            reader
+	 * @param overrun
+	 *            true if the inventory exceeded the time budget of the round
+	 * @return true if the session has changed
+	 */
+	public synchronized boolean update(Collection<String> uids, int moreData, boolean overrun) {
+		round++;
+		for (String uid : uids) {
+			seen.remove(uid);
+			seen.put(uid, Long.valueOf(round));
+		}
+		// the tags are ordered by the round they were last seen in
+		for (Iterator<Long> iterator = seen.values().iterator(); iterator.hasNext();) {
+			if (round - iterator.next().longValue() < hysteresis)
+				break;
+			iterator.remove();
+		}
+
+		int population = seen.size();
+		if (population >= highPopulation || moreData > 0 || overrun) {
+			sparseRounds = 0;
+			if (++crowdedRounds >= hysteresis && session < maxSession)
+				return change(session + 1);
+		} else if (population <= lowPopulation) {
+			crowdedRounds = 0;
+			if (++sparseRounds >= hysteresis && session > minSession)
+				return change(session - 1);
+		} else {
+			crowdedRounds = 0;
+			sparseRounds = 0;
+		}
+		return false;
+	}
+
+	private boolean change(int session) {
+		this.session = session;
+		this.crowdedRounds = 0;
+		this.sparseRounds = 0;
+		this.changes++;
+		return true;
+	}
+
+	/**
+	 * @return the chosen session
+	 */
+	public synchronized int getSession() {
+		return session;
+	}
+
+	/**
+	 * @return the estimated number of tags in the field
+	 */
+	public synchronized int getPopulation() {
+		return seen.size();
+	}
+
+	/**
+	 * @return the number of times the session was changed
+	 */
+	public synchronized int getChanges() {
+		return changes;
+	}
+
+	/**
+	 * @return the current state as monitor configuration
+	 */
+	public synchronized RF_RMonitorConfiguration getConfiguration() {
+		return new RF_RMonitorConfiguration(RF_RMonitorConfiguration.Kind.AirInterface, null).set("session", Integer.valueOf(session))
+				.set("minSession", Integer.valueOf(minSession)).set("maxSession", Integer.valueOf(maxSession))
+				.set("population", Integer.valueOf(seen.size())).set("changes", Integer.valueOf(changes));
+	}
+
+	@Override
+	public synchronized String toString() {
+		return "RF_RAirInterfaceController [session=" + session + ", population=" + seen.size() + ", changes=" + changes + "]";
+	}
+
+}
@@ -0,0 +1,203 @@
+package havis.middleware.reader.rf_r;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tracks the health of each antenna by the rounds it is used in. An antenna is
+ * faulty if it is held responsible for an RF warning in consecutive rounds, or
+ * if it sees no tags in consecutive rounds while other antennas do. Faulty
+ * antennas with automatic detection are excluded from the inventory and used
+ * again after a backoff time, which doubles each time the antenna is still
+ * faulty.
+ */
+public class RF_RAntennaHealth {
+
+	private static final int ANTENNAS = 8;
+	private static final int MAX_BACKOFF_FACTOR = 64;
+
+	/**
+	 * Reason an antenna is faulty
+	 */
+	public enum Reason {
+		Warning, ZeroYield
+	}
+
+	/**
+	 * Change of the health of an antenna
+	 */
+	public static class Transition {
+		private final short antenna;
+		private final Reason reason;
+
+		Transition(short antenna, Reason reason) {
+			this.antenna = antenna;
+			this.reason = reason;
+		}
+
+		/**
+		 * @return the antenna starting at 1
+		 */
+		public short getAntenna() {
+			return antenna;
+		}
+
+		/**
+		 * @return true if the antenna became faulty, false if it recovered
+		 */
+		public boolean isFaulty() {
+			return reason != null;
+		}
+
+		/**
+		 * @return the reason the antenna became faulty, null if it recovered
+		 */
+		public Reason getReason() {
+			return reason;
+		}
+	}
+
+	private final int warningLimit;
+	private final int zeroYieldLimit;
+	private final long backoff;
+
+	private final int[] warnings = new int[ANTENNAS];
+	private final int[] zeroYields = new int[ANTENNAS];
+	private final int[] tags = new int[ANTENNAS];
+	private final Reason[] reasons = new Reason[ANTENNAS];
+	private final long[] rechecks = new long[ANTENNAS];
+	private final int[] factors = new int[ANTENNAS];
+
+	/**
+	 * Initializes a new instance of the {@link RF_RAntennaHealth} class.
+	 *
+	 * @param warningLimit
+	 *            the number of consecutive rounds with an RF warning after which
+	 *            an antenna is faulty
+	 * @param zeroYieldLimit
+	 *            the number of consecutive rounds without tags while other
+	 *            antennas see tags after which an antenna is faulty, 0 to ignore
+	 *            the yield
+	 * @param backoff
+	 *            the time in milliseconds a faulty antenna is excluded before it
+	 *            is used again
+	 */
+	public RF_RAntennaHealth(int warningLimit, int zeroYieldLimit, long backoff) {
+		if (warningLimit < 1)
+			throw new IllegalArgumentException("Warning limit must be at least 1");
+		if (zeroYieldLimit < 0)
+			throw new IllegalArgumentException("Zero yield limit must not be negative");
+		if (backoff <= 0)
+			throw new IllegalArgumentException("Backoff must be greater than 0");
+		this.warningLimit = warningLimit;
+		this.zeroYieldLimit = zeroYieldLimit;
+		this.backoff = TimeUnit.MILLISECONDS.toNanos(backoff);
+	}
+
+	/**
+	 * Removes the faulty antennas with automatic detection, unless they are
+	 * due to be checked again, and starts the next round.
+	 *
+	 * @param enabled
+	 *            the mask of the enabled antennas
+	 * @param auto
+	 *            the mask of the antennas with automatic detection
+	 * @param time
+	 *            the current time in nanoseconds as given by
+	 *            {@link System#nanoTime()}
+	 * @return the mask of the antennas to use
+	 */
+	public synchronized byte filter(byte enabled, byte auto, long time) {
+		for (int i = 0; i < ANTENNAS; i++)
+			tags[i] = 0;
+
+		int mask = enabled;
+		for (int i = 0; i < ANTENNAS; i++)
+			if (reasons[i] != null && (auto & (1 << i)) != 0 && time - rechecks[i] < 0)
+				mask &= ~(1 << i);
+		return (byte) mask;
+	}
+
+	/**
+	 * Records a tag found by the current round.
+	 *
+	 * @param antenna
+	 *            the antenna the tag was seen on starting at 1, 0 if unknown
+	 */
+	public synchronized void seen(int antenna) {
+		if (antenna > 0 && antenna <= ANTENNAS)
+			tags[antenna - 1]++;
+	}
+
+	/**
+	 * Completes the current round and updates the health of the antennas
+	 * used.
+	 *
+	 * @param used
+	 *            the mask of the antennas used by the round
+	 * @param suspects
+	 *            the mask of the antennas held responsible for an RF warning
+	 * @param time
+	 *            the current time in nanoseconds as given by
+	 *            {@link System#nanoTime()}
+	 * @return the antennas which became faulty or recovered
+	 */
+	public synchronized List<Transition> complete(byte used, byte suspects, long time) {
+		int total = 0;
+		for (int i = 0; i < ANTENNAS; i++)
+			total += tags[i];
+
+		List<Transition> transitions = null;
+		for (int i = 0; i < ANTENNAS; i++) {
+			int bit = 1 << i;
+			if ((used & bit) == 0)
+				continue;
+
+			boolean warned = (suspects & bit) != 0;
+			warnings[i] = warned ? warnings[i] + 1 : 0;
+			if (tags[i] > 0)
+				zeroYields[i] = 0;
+			else if (total > 0)
+				zeroYields[i]++;
+
+			Transition transition = null;
+			if (reasons[i] == null) {
+				Reason reason = warnings[i] >= warningLimit ? Reason.Warning
+						: zeroYieldLimit > 0 && zeroYields[i] >= zeroYieldLimit ? Reason.ZeroYield : null;
+				if (reason != null) {
+					reasons[i] = reason;
+					factors[i] = 1;
+					rechecks[i] = time + backoff;
+					transition = new Transition((short) (i + 1), reason);
+				}
+			} else if (reasons[i] == Reason.Warning ? !warned : tags[i] > 0) {
+				reasons[i] = null;
+				warnings[i] = 0;
+				zeroYields[i] = 0;
+				transition = new Transition((short) (i + 1), null);
+			} else if (time - rechecks[i] >= 0) {
+				// checked again and still faulty
+				factors[i] = Math.min(MAX_BACKOFF_FACTOR, factors[i] * 2);
+				rechecks[i] = time + backoff * factors[i];
+			}
+
+			if (transition != null) {
+				if (transitions == null)
+					transitions = new ArrayList<>();
+				transitions.add(transition);
+			}
+		}
+		return transitions != null ? transitions : Collections.<Transition> emptyList();
+	}
+
+	/**
+	 * @param antenna
+	 *            the antenna starting at 1
+	 * @return the reason the antenna is faulty, null if it is healthy
+	 */
+	public synchronized Reason getReason(int antenna) {
+		return reasons[antenna - 1];
+	}
+}
@@ -0,0 +1,159 @@
+package havis.middleware.reader.rf_r;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * Chooses the antennas of each inventory round by their recent yield. The
+ * yield of an antenna is the smoothed number of tags it has seen per round, in
+ * which tags not seen before count more. Each antenna accumulates a credit by
+ * its yield relative to the best antenna and is used whenever the credit
+ * reaches one round, so that the best antenna is used in each round and quiet
+ * antennas are still probed at a minimum rate. Pinned antennas are used in
+ * each round.
+ */
+public class RF_RAntennaScheduler {
+
+	private static final int ANTENNAS = 8;
+	private static final double SMOOTHING = 0.25;
+	private static final int NEW_TAG_WEIGHT = 2;
+
+	private final int probeInterval;
+	private final double minWeight;
+	private final long knownRounds;
+
+	private final double[] yields = new double[ANTENNAS];
+	private final double[] credits = new double[ANTENNAS];
+	private final int[] tags = new int[ANTENNAS];
+	private final int[] newTags = new int[ANTENNAS];
+
+	/**
+	 * The round each tag was last seen in by UID
+	 */
+	private final LinkedHashMap<String, Long> known = new LinkedHashMap<>();
+
+	private long round;
+	private byte selected;
+
+	/**
+	 * Initializes a new instance of the {@link RF_RAntennaScheduler} class.
+	 *
+	 * @param probeInterval
+	 *            the maximum number of rounds between two rounds an antenna is
+	 *            used in
+	 */
+	public RF_RAntennaScheduler(int probeInterval) {
+		if (probeInterval < 1)
+			throw new IllegalArgumentException("Probe interval must be at least 1");
+		this.probeInterval = probeInterval;
+		this.minWeight = 1.0 / probeInterval;
+		this.knownRounds = 4L * probeInterval;
+	}
+
+	/**
+	 * @return the maximum number of rounds between two rounds an antenna is
+	 *         used in
+	 */
+	public int getProbeInterval() {
+		return probeInterval;
+	}
+
+	/**
+	 * Starts the next round and chooses its antennas.
+	 *
+	 * @param enabled
+	 *            the mask of the enabled antennas
+	 * @param pinned
+	 *            the mask of the antennas to use in each round
+	 * @return the mask of the antennas to use
+	 */
+	public synchronized byte next(byte enabled, byte pinned) {
+		round++;
+		for (int i = 0; i < ANTENNAS; i++) {
+			tags[i] = 0;
+			newTags[i] = 0;
+		}
+
+		double maxYield = 0;
+		for (int i = 0; i < ANTENNAS; i++)
+			if ((enabled & (1 << i)) != 0)
+				maxYield = Math.max(maxYield, yields[i]);
+
+		int mask = 0;
+		for (int i = 0; i < ANTENNAS; i++) {
+			int bit = 1 << i;
+			if ((enabled & bit) == 0)
+				continue;
+			if ((pinned & bit) != 0) {
+				mask |= bit;
+				continue;
+			}
+			double weight = maxYield > 0 ? Math.max(minWeight, yields[i] / maxYield) : 1;
+			credits[i] = Math.min(1, credits[i] + weight);
+			if (credits[i] >= 1) {
+				credits[i] -= 1;
+				mask |= bit;
+			}
+		}
+		this.selected = (byte) mask;
+		return this.selected;
+	}
+
+	/**
+	 * Records a tag found by the current round.
+	 *
+	 * @param uid
+	 *            the UID of the tag
+	 * @param antenna
+	 *            the antenna the tag was seen on starting at 1, 0 if unknown
+	 */
+	public synchronized void seen(String uid, int antenna) {
+		Long last = known.remove(uid);
+		known.put(uid, Long.valueOf(round));
+
+		int index = antenna - 1;
+		if (index < 0 && Integer.bitCount(selected & 0xFF) == 1)
+			index = Integer.numberOfTrailingZeros(selected & 0xFF);
+		if (index < 0 || index >= ANTENNAS)
+			return;
+		tags[index]++;
+		if (last == null)
+			newTags[index]++;
+	}
+
+	/**
+	 * Completes the current round and updates the yield of the antennas used.
+	 */
+	public synchronized void complete() {
+		for (int i = 0; i < ANTENNAS; i++)
+			if ((selected & (1 << i)) != 0)
+				yields[i] += SMOOTHING * (tags[i] + NEW_TAG_WEIGHT * newTags[i] - yields[i]);
+
+		// the tags are ordered by the round they were last seen in
+		for (Iterator<Long> iterator = known.values().iterator(); iterator.hasNext();) {
+			if (round - iterator.next().longValue() < knownRounds)
+				break;
+			iterator.remove();
+		}
+	}
+
+	/**
+	 * @param antenna
+	 *            the antenna starting at 1
+	 * @return the recent yield of the antenna
+	 */
+	public synchronized double getYield(int antenna) {
+		return yields[antenna - 1];
+	}
+
+	@Override
+	public synchronized String toString() {
+		StringBuilder builder = new StringBuilder("RF_RAntennaScheduler [");
+		for (int i = 0; i < ANTENNAS; i++) {
+			if (i > 0)
+				builder.append(", ");
+			builder.append(i + 1).append('=').append(String.format("%.1f", Double.valueOf(yields[i])));
+		}
+		return builder.append(']').toString();
+	}
+}
@@ -0,0 +1,25 @@
+package havis.middleware.reader.rf_r;
+
+import havis.middleware.ale.base.operation.tag.Tag;
+import havis.middleware.ale.reader.Callback;
+
+import java.util.List;
+
+/**
+ * Callback which accepts all tags of one inventory round for a tag operation
+ * at once. The connectors use it if batch delivery is enabled by the property
+ * {@link RF_RProperties.PropertyName#BatchDelivery}, other callbacks receive
+ * each tag individually.
+ */
+public interface RF_RBatchCallback extends Callback {
+
+	/**
+	 * Notifies about all tags of one inventory round for a tag operation.
+	 *
+	 * @param id
+	 *            the ID of the tag operation
+	 * @param tags
+	 *            the tags in the order of the inventory, not empty
+	 */
+	void notify(long id, List<Tag> tags);
+}
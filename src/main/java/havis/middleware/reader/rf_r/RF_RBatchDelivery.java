@@ -0,0 +1,45 @@
+package havis.middleware.reader.rf_r;
+
+import havis.middleware.ale.base.operation.tag.Tag;
+import havis.middleware.ale.reader.Callback;
+
+import java.util.List;
+
+/**
+ * Delivers all tags of one inventory round for a tag operation with one call
+ * to a callback which opted in by implementing {@link RF_RBatchCallback}.
+ * Other callbacks, e.g. the callback of a connector running in a separate
+ * process, receive each tag individually.
+ */
+public class RF_RBatchDelivery {
+
+	private final RF_RBatchCallback callback;
+
+	private RF_RBatchDelivery(RF_RBatchCallback callback) {
+		this.callback = callback;
+	}
+
+	/**
+	 * Gets the batch delivery of a callback.
+	 *
+	 * @param callback
+	 *            the client callback, may be null
+	 * @return the batch delivery, null if the callback does not implement
+	 *         {@link RF_RBatchCallback}
+	 */
+	public static RF_RBatchDelivery forCallback(Callback callback) {
+		return callback instanceof RF_RBatchCallback ? new RF_RBatchDelivery((RF_RBatchCallback) callback) : null;
+	}
+
+	/**
+	 * Delivers all tags of one inventory round for a tag operation.
+	 *
+	 * @param id
+	 *            the ID of the tag operation
+	 * @param tags
+	 *            the tags in the order of the inventory, not empty
+	 */
+	public void notify(long id, List<Tag> tags) {
+		callback.notify(id, tags);
+	}
+}
@@ -0,0 +1,157 @@
+package havis.middleware.reader.rf_r;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Write capability of a tag model, keyed by the mask designer and model number
+ * of the TID. A model is written with one command for all words until a
+ * command with more than one word fails, then the number of words per command
+ * is halved for the model until a command succeeds, down to one word. A size
+ * which has been written successfully with one command is not given up, so
+ * that a transient error does not reduce it. The time spent on writing is
+ * recorded per model.
+ */
+public class RF_RBlockWriteCache {
+
+	private static final int MAX_MODELS = 256;
+
+	/**
+	 * Write capability and statistics of a tag model
+	 */
+	private static class Model {
+		/**
+		 * The maximum number of words per command, 0 if not limited, 1 if
+		 * written word by word
+		 */
+		private int limit;
+		/**
+		 * The largest number of words written successfully with one command
+		 */
+		private int supported;
+		private long writes;
+		private long words;
+		private long fallbacks;
+		private long duration;
+	}
+
+	private final Map<String, Model> models = new LinkedHashMap<String, Model>(16, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, Model> eldest) {
+			return size() > MAX_MODELS;
+		}
+	};
+
+	/**
+	 * Gets the key of a tag model.
+	 *
+	 * @param tid
+	 *            the TID of the tag, may be null
+	 * @return the mask designer and model number as hex, null if the TID is
+	 *         not known or has no Gen2 allocation class
+	 */
+	public static String getModel(byte[] tid) {
+		if (tid == null || tid.length < 4 || (tid[0] & 0xFF) != 0xE2)
+			return null;
+		int designer = ((tid[1] & 0x1F) << 4) | ((tid[2] & 0xF0) >>> 4);
+		int model = ((tid[2] & 0x0F) << 8) | (tid[3] & 0xFF);
+		return String.format("%03X-%03X", Integer.valueOf(designer), Integer.valueOf(model));
+	}
+
+	/**
+	 * Gets the number of words to write per command.
+	 *
+	 * @param model
+	 *            the tag model, null if not known
+	 * @param words
+	 *            the number of words to write
+	 * @return the number of words per command
+	 */
+	public synchronized int getBlockSize(String model, int words) {
+		Model entry = model != null ? models.get(model) : null;
+		return entry != null && entry.limit > 0 ? Math.min(entry.limit, words) : words;
+	}
+
+	/**
+	 * Records a successful write command.
+	 *
+	 * @param model
+	 *            the tag model, null if not known
+	 * @param words
+	 *            the number of words written
+	 * @param duration
+	 *            the time in nanoseconds the command took
+	 */
+	public synchronized void written(String model, int words, long duration) {
+		Model entry = get(model);
+		if (entry == null)
+			return;
+		entry.writes++;
+		entry.words += words;
+		entry.duration += duration;
+		if (words > entry.supported)
+			entry.supported = words;
+	}
+
+	/**
+	 * Records a failed write command with more than one word, which is
+	 * repeated with fewer words. The model is written with at most half the
+	 * words per command from now on, but not with fewer words than it has
+	 * written with one command before.
+	 *
+	 * @param model
+	 *            the tag model, null if not known
+	 * @param words
+	 *            the number of words of the command
+	 * @return the number of words to repeat the command with, less than the
+	 *         number of words of the failed command
+	 */
+	public synchronized int failed(String model, int words) {
+		int half = Math.max(1, words / 2);
+		Model entry = get(model);
+		if (entry == null)
+			return half;
+		entry.fallbacks++;
+		// a transient error of a size known to work
+		if (entry.supported >= words)
+			return half;
+		int limit = Math.max(half, entry.supported);
+		if (entry.limit == 0 || limit < entry.limit)
+			entry.limit = limit;
+		return entry.limit;
+	}
+
+	private Model get(String model) {
+		if (model == null)
+			return null;
+		Model entry = models.get(model);
+		if (entry == null)
+			models.put(model, entry = new Model());
+		return entry;
+	}
+
+	/**
+	 * @return the write capability and statistics of each tag model as
+	 *         monitor configuration
+	 */
+	public synchronized List<RF_RMonitorConfiguration> getConfiguration() {
+		List<RF_RMonitorConfiguration> configurations = new ArrayList<>(models.size());
+		for (Map.Entry<String, Model> entry : models.entrySet()) {
+			Model model = entry.getValue();
+			configurations.add(new RF_RMonitorConfiguration(RF_RMonitorConfiguration.Kind.BlockWrite, entry.getKey())
+					.set("blockSize", Integer.valueOf(model.limit)).set("supportedBlockSize", Integer.valueOf(model.supported))
+					.set("writes", Long.valueOf(model.writes)).set("fallbacks", Long.valueOf(model.fallbacks))
+					.set("averageWordDuration", Double.valueOf(model.words > 0 ? model.duration / 1e6 / model.words : 0)));
+		}
+		return configurations;
+	}
+
+	@Override
+	public synchronized String toString() {
+		return "RF_RBlockWriteCache [models=" + models.size() + "]";
+	}
+}
@@ -0,0 +1,172 @@
+package havis.middleware.reader.rf_r;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * State of a commissioning run. Decides which tags of an inventory round are
+ * unprogrammed, hands out the EPCs of the job and counts the outcomes. A tag
+ * is identified by its TID if known, otherwise by its EPC, so that tags
+ * already commissioned or given up are skipped in later rounds.
+ */
+public class RF_RCommissioning {
+
+	private static final int MAX_EPC_LENGTH = 62;
+
+	private final RF_RCommissioningJob job;
+	private final RF_RFilterMatcher matcher;
+	private final Iterator<byte[]> epcs;
+
+	/**
+	 * EPC which was not written and is assigned to the next tag
+	 */
+	private byte[] retry;
+
+	private final Set<String> handled = new HashSet<>();
+	private final Map<String, Integer> attempts = new HashMap<>();
+
+	private final long start = System.nanoTime();
+	private long commissioned;
+	private long failed;
+	private long duration;
+
+	/**
+	 * Initializes a new instance of the {@link RF_RCommissioning} class.
+	 *
+	 * @param job
+	 *            the settings of the run
+	 */
+	public RF_RCommissioning(RF_RCommissioningJob job) {
+		this.job = job;
+		this.matcher = RF_RFilterMatcher.compile(job.getFilter());
+		this.epcs = job.getEpcs();
+	}
+
+	/**
+	 * @return the settings of the run
+	 */
+	public RF_RCommissioningJob getJob() {
+		return job;
+	}
+
+	/**
+	 * Checks whether a tag is unprogrammed and has not been handled yet.
+	 *
+	 * @param epcBank
+	 *            the EPC bank data of the tag starting with CRC and PC
+	 * @param tid
+	 *            the TID of the tag, null if not known
+	 * @return true if the tag is to be commissioned
+	 */
+	public synchronized boolean accepts(byte[] epcBank, byte[] tid) {
+		return !handled.contains(getKey(getEpc(epcBank), tid)) && matcher.matches(epcBank, tid);
+	}
+
+	/**
+	 * Gets the next EPC to assign.
+	 *
+	 * @return the EPC, null if all EPCs are assigned
+	 */
+	public synchronized byte[] next() {
+		byte[] epc = retry;
+		retry = null;
+		if (epc == null && epcs.hasNext())
+			epc = epcs.next();
+		return epc;
+	}
+
+	/**
+	 * Checks whether an EPC can be written to the EPC bank.
+	 *
+	 * @param epc
+	 *            the EPC
+	 * @return true if the EPC is valid
+	 */
+	public static boolean isValid(byte[] epc) {
+		return epc != null && epc.length % 2 == 0 && epc.length <= MAX_EPC_LENGTH;
+	}
+
+	/**
+	 * Records the outcome of commissioning a tag.
+	 *
+	 * @param epcBank
+	 *            the EPC bank data of the tag before it was commissioned,
+	 *            null if no tag was accessed
+	 * @param tid
+	 *            the TID of the tag, null if not known
+	 * @param epc
+	 *            the EPC assigned to the tag
+	 * @param state
+	 *            the state
+	 * @param duration
+	 *            the time in nanoseconds spent on the tag
+	 * @return the outcome
+	 */
+	public synchronized RF_RCommissioningResult complete(byte[] epcBank, byte[] tid, byte[] epc, RF_RCommissioningResult.State state, long duration) {
+		byte[] previousEpc = epcBank != null ? getEpc(epcBank) : null;
+		this.duration += duration;
+		if (state == RF_RCommissioningResult.State.Success) {
+			commissioned++;
+			handled.add(getKey(epc, tid));
+			if (previousEpc != null)
+				attempts.remove(getKey(previousEpc, tid));
+		} else {
+			failed++;
+			if (state == RF_RCommissioningResult.State.WriteError)
+				// nothing has been written
+				retry = epc;
+			else if (previousEpc != null && (tid == null || tid.length == 0))
+				// the tag may carry the EPC and is not recognized by its
+				// previous EPC, a tag with a TID is retried with a new EPC
+				handled.add(getKey(epc, tid));
+
+			if (previousEpc != null) {
+				String key = getKey(previousEpc, tid);
+				Integer count = attempts.get(key);
+				int value = count != null ? count.intValue() + 1 : 1;
+				if (value >= job.getMaxAttempts()) {
+					attempts.remove(key);
+					handled.add(key);
+				} else {
+					attempts.put(key, Integer.valueOf(value));
+				}
+			}
+		}
+		return new RF_RCommissioningResult(epc, previousEpc, tid, state, duration);
+	}
+
+	/**
+	 * @return true if all EPCs have been assigned
+	 */
+	public synchronized boolean isFinished() {
+		return retry == null && !epcs.hasNext();
+	}
+
+	/**
+	 * @return the current counters as monitor configuration
+	 */
+	public synchronized RF_RMonitorConfiguration getConfiguration() {
+		long elapsed = System.nanoTime() - start;
+		long tags = commissioned + failed;
+		return new RF_RMonitorConfiguration(RF_RMonitorConfiguration.Kind.Commissioning, null).set("commissioned", Long.valueOf(commissioned))
+				.set("failed", Long.valueOf(failed)).set("tagsPerSecond", Double.valueOf(elapsed > 0 ? commissioned * 1e9 / elapsed : 0))
+				.set("averageDuration", Double.valueOf(tags > 0 ? duration / 1e6 / tags : 0));
+	}
+
+	private static byte[] getEpc(byte[] epcBank) {
+		return epcBank.length > 4 ? Arrays.copyOfRange(epcBank, 4, epcBank.length) : new byte[0];
+	}
+
+	private static String getKey(byte[] epc, byte[] tid) {
+		return tid != null && tid.length > 0 ? "T" + RFCUtils.bytesToHex(tid) : "E" + RFCUtils.bytesToHex(epc);
+	}
+
+	@Override
+	public synchronized String toString() {
+		return "RF_RCommissioning [commissioned=" + commissioned + ", failed=" + failed + "]";
+	}
+}
@@ -0,0 +1,155 @@
+package havis.middleware.reader.rf_r;
+
+import havis.middleware.ale.base.operation.tag.Filter;
+import havis.middleware.ale.base.operation.tag.LockType;
+
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Settings of a commissioning run, which assigns EPCs to unprogrammed tags.
+ */
+public class RF_RCommissioningJob {
+
+	private final Iterator<byte[]> epcs;
+	private List<Filter> filter;
+	private byte[] accessPassword;
+	private byte[] killPassword;
+	private LockType epcLock;
+	private LockType passwordLock;
+	private int maxAttempts = 3;
+	private RF_RCommissioningListener listener;
+
+	/**
+	 * Initializes a new instance of the {@link RF_RCommissioningJob} class.
+	 *
+	 * @param epcs
+	 *            the EPCs to assign in the given order, e.g. a
+	 *            {@link RF_RSerialRange}. The iterator is only used by the
+	 *            inventory thread and may generate the EPCs on demand.
+	 */
+	public RF_RCommissioningJob(Iterator<byte[]> epcs) {
+		if (epcs == null)
+			throw new IllegalArgumentException("EPCs must not be null");
+		this.epcs = epcs;
+	}
+
+	/**
+	 * @return the EPCs to assign
+	 */
+	public Iterator<byte[]> getEpcs() {
+		return epcs;
+	}
+
+	/**
+	 * @return the filters unprogrammed tags match, null if each tag not
+	 *         commissioned by this job is unprogrammed
+	 */
+	public List<Filter> getFilter() {
+		return filter;
+	}
+
+	/**
+	 * @param filter
+	 *            the filters unprogrammed tags match, e.g. the EPC of the
+	 *            manufacturer, null if each tag not commissioned by this job
+	 *            is unprogrammed
+	 */
+	public void setFilter(List<Filter> filter) {
+		this.filter = filter;
+	}
+
+	/**
+	 * @return the access password to write, null to keep it
+	 */
+	public byte[] getAccessPassword() {
+		return accessPassword;
+	}
+
+	/**
+	 * @param accessPassword
+	 *            the access password to write, null to keep it
+	 */
+	public void setAccessPassword(byte[] accessPassword) {
+		this.accessPassword = accessPassword;
+	}
+
+	/**
+	 * @return the kill password to write, null to keep it
+	 */
+	public byte[] getKillPassword() {
+		return killPassword;
+	}
+
+	/**
+	 * @param killPassword
+	 *            the kill password to write, null to keep it
+	 */
+	public void setKillPassword(byte[] killPassword) {
+		this.killPassword = killPassword;
+	}
+
+	/**
+	 * @return the lock applied to the EPC bank, null to keep it
+	 */
+	public LockType getEpcLock() {
+		return epcLock;
+	}
+
+	/**
+	 * @param epcLock
+	 *            the lock applied to the EPC bank, null to keep it
+	 */
+	public void setEpcLock(LockType epcLock) {
+		this.epcLock = epcLock;
+	}
+
+	/**
+	 * @return the lock applied to the access and kill password, null to keep
+	 *         it
+	 */
+	public LockType getPasswordLock() {
+		return passwordLock;
+	}
+
+	/**
+	 * @param passwordLock
+	 *            the lock applied to the access and kill password, null to
+	 *            keep it
+	 */
+	public void setPasswordLock(LockType passwordLock) {
+		this.passwordLock = passwordLock;
+	}
+
+	/**
+	 * @return the number of times commissioning a tag is tried before the tag
+	 *         is skipped. The default value is 3.
+	 */
+	public int getMaxAttempts() {
+		return maxAttempts;
+	}
+
+	/**
+	 * @param maxAttempts
+	 *            the number of times commissioning a tag is tried before the
+	 *            tag is skipped
+	 */
+	public void setMaxAttempts(int maxAttempts) {
+		this.maxAttempts = maxAttempts;
+	}
+
+	/**
+	 * @return the listener for the outcome of each tag, may be null
+	 */
+	public RF_RCommissioningListener getListener() {
+		return listener;
+	}
+
+	/**
+	 * @param listener
+	 *            the listener for the outcome of each tag, may be null
+	 */
+	public void setListener(RF_RCommissioningListener listener) {
+		this.listener = listener;
+	}
+}
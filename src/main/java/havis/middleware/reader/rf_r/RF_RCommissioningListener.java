@@ -0,0 +1,25 @@
+package havis.middleware.reader.rf_r;
+
+/**
+ * Listener for the progress of a commissioning run. The methods are called by
+ * the inventory thread and should return quickly.
+ */
+public interface RF_RCommissioningListener {
+
+	/**
+	 * Notifies about the outcome of commissioning a tag.
+	 *
+	 * @param result
+	 *            the outcome
+	 */
+	void notify(RF_RCommissioningResult result);
+
+	/**
+	 * Notifies that the run has ended, because all EPCs have been assigned or
+	 * it was stopped.
+	 *
+	 * @param state
+	 *            the final counters
+	 */
+	void finished(RF_RMonitorConfiguration state);
+}
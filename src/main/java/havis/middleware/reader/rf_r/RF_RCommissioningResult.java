@@ -0,0 +1,97 @@
+package havis.middleware.reader.rf_r;
+
+import java.util.Arrays;
+
+/**
+ * Outcome of commissioning a tag
+ */
+public class RF_RCommissioningResult {
+
+	/**
+	 * State of a commissioned tag
+	 */
+	public enum State {
+		/**
+		 * EPC written and verified, passwords written and locks applied
+		 */
+		Success,
+		/**
+		 * EPC could not be written and the EPC bank of the tag is unchanged,
+		 * the EPC is assigned to the next tag
+		 */
+		WriteError,
+		/**
+		 * EPC read back differs from the EPC written or the write failed and
+		 * the EPC bank of the tag changed, the EPC is not assigned again
+		 */
+		VerifyError,
+		/**
+		 * Passwords could not be written
+		 */
+		PasswordError,
+		/**
+		 * Locks could not be applied
+		 */
+		LockError,
+		/**
+		 * EPC given by the job can not be written, as its length is not a
+		 * multiple of 16 bits or exceeds 496 bits
+		 */
+		InvalidEpc
+	}
+
+	private final byte[] epc;
+	private final byte[] previousEpc;
+	private final byte[] tid;
+	private final State state;
+	private final long duration;
+
+	RF_RCommissioningResult(byte[] epc, byte[] previousEpc, byte[] tid, State state, long duration) {
+		this.epc = epc;
+		this.previousEpc = previousEpc;
+		this.tid = tid;
+		this.state = state;
+		this.duration = duration;
+	}
+
+	/**
+	 * @return the EPC assigned to the tag
+	 */
+	public byte[] getEpc() {
+		return epc;
+	}
+
+	/**
+	 * @return the EPC of the tag before it was commissioned, null if no tag
+	 *         was accessed
+	 */
+	public byte[] getPreviousEpc() {
+		return previousEpc;
+	}
+
+	/**
+	 * @return the TID of the tag, null if not known
+	 */
+	public byte[] getTid() {
+		return tid;
+	}
+
+	/**
+	 * @return the state
+	 */
+	public State getState() {
+		return state;
+	}
+
+	/**
+	 * @return the time in nanoseconds spent on the tag
+	 */
+	public long getDuration() {
+		return duration;
+	}
+
+	@Override
+	public String toString() {
+		return "RF_RCommissioningResult [epc=" + Arrays.toString(epc) + ", state=" + state + ", duration=" + duration + "]";
+	}
+}
@@ -230,6 +230,28 @@ public abstract class RF_RConfiguration {
 		property.getValue().add(data + "");
 	}
 
+	/**
+	 * Method to get byte parameter from the RAM of the reader, which differs
+	 * from the EEPROM for settings changed at runtime.
+	 * 
+	 * @param location The location of the parameter.
+	 * @return The requested parameter.
+	 * @throws ImplementationException
+	 */
+	public byte getVolatileByte(String location) throws ImplementationException {
+		if (this.eeprom) {
+			int status;
+			try {
+				status = this.reader.readCompleteConfiguration(false);
+			} catch (FePortDriverException | FeReaderDriverException | FedmException e) {
+				throw new ImplementationException(e);
+			}
+			if (status != 0)
+				throw new ImplementationException(status > 0 ? reader.getStatusText((byte) status) : reader.getErrorText(status));
+		}
+		return reader.getConfigParaAsByte(location, false);
+	}
+
 	/**
 	 * Returns the reader configuration.
 	 * 
@@ -332,9 +354,26 @@ public abstract class RF_RConfiguration {
 	 * @throws ImplementationException
 	 */
 	public void applyReaderConfig(Map<String, Object> configuration) throws ValidationException, ImplementationException {
-		setConfigParams(configuration);
+		applyReaderConfig(configuration, this.eeprom);
+	}
+
+	/**
+	 * Applies the configuration to the RAM of the reader only, without
+	 * resetting the RF controller. Used for settings which are changed at
+	 * runtime, the EEPROM keeps the persistent configuration.
+	 * 
+	 * @param configuration The configuration with parsed parameter values
+	 * @throws ValidationException
+	 * @throws ImplementationException
+	 */
+	public void applyVolatileReaderConfig(Map<String, Object> configuration) throws ValidationException, ImplementationException {
+		applyReaderConfig(configuration, false);
+	}
+
+	private void applyReaderConfig(Map<String, Object> configuration, boolean eeprom) throws ValidationException, ImplementationException {
+		setConfigParams(configuration, eeprom);
 		try {
-			this.reader.applyConfiguration(this.eeprom);
+			this.reader.applyConfiguration(eeprom);
 		} catch (FePortDriverException | FeReaderDriverException | FedmException e) {
 			throw new ImplementationException(e);
 		}
@@ -342,28 +381,36 @@ public abstract class RF_RConfiguration {
 	}
 
 	private void setConfigParams(Map<String, Object> configuration) {
+		setConfigParams(configuration, this.eeprom);
+	}
+
+	private void setConfigParams(Map<String, Object> configuration, boolean eeprom) {
 		for (Entry<String, Object> configParam : configuration.entrySet()) {
 			if (configParam.getValue() instanceof Boolean)
-				reader.setConfigPara(configParam.getKey(), ((Boolean) configParam.getValue()).booleanValue(), this.eeprom);
+				reader.setConfigPara(configParam.getKey(), ((Boolean) configParam.getValue()).booleanValue(), eeprom);
 			else if (configParam.getValue() instanceof Byte)
-				reader.setConfigPara(configParam.getKey(), ((Byte) configParam.getValue()).byteValue(), this.eeprom);
+				reader.setConfigPara(configParam.getKey(), ((Byte) configParam.getValue()).byteValue(), eeprom);
 			else if (configParam.getValue() instanceof byte[])
-				reader.setConfigPara(configParam.getKey(), (byte[]) configParam.getValue(), this.eeprom);
+				reader.setConfigPara(configParam.getKey(), (byte[]) configParam.getValue(), eeprom);
 			else if (configParam.getValue() instanceof Long)
-				reader.setConfigPara(configParam.getKey(), ((Long) configParam.getValue()).longValue(), this.eeprom);
+				reader.setConfigPara(configParam.getKey(), ((Long) configParam.getValue()).longValue(), eeprom);
 			else if (configParam.getValue() instanceof String)
-				setStringParameter(configParam.getKey(), (String) configParam.getValue());
+				setStringParameter(configParam.getKey(), (String) configParam.getValue(), eeprom);
 			else if (configParam.getValue() instanceof Integer)
-				reader.setConfigPara(configParam.getKey(), ((Integer) configParam.getValue()).intValue(), this.eeprom);
+				reader.setConfigPara(configParam.getKey(), ((Integer) configParam.getValue()).intValue(), eeprom);
 		}
 	}
 
 	public int setStringParameter(String key, String value) {
-		byte[] currentValue = reader.getConfigParaAsByteArray(key, this.eeprom);
+		return setStringParameter(key, value, this.eeprom);
+	}
+
+	private int setStringParameter(String key, String value, boolean eeprom) {
+		byte[] currentValue = reader.getConfigParaAsByteArray(key, eeprom);
 		byte[] data = new byte[currentValue.length];
 		byte[] newValue = value.getBytes();
 		System.arraycopy(newValue, 0, data, 0, Math.min(data.length, newValue.length));
-		return reader.setConfigPara(key, data, this.eeprom);
+		return reader.setConfigPara(key, data, eeprom);
 	}
 
 	public String getStringParameter(String key) {
@@ -9,6 +9,10 @@ public class RF_RConnection {
 	private int deviceID;
 	private int timeout = 5000;
 	private RF_RProperties connectionProperties;
+	/**
+	 * Cached string representation, reported as host of each sighting
+	 */
+	private String name;
 	
 	
 	/**
@@ -25,6 +29,7 @@ public class RF_RConnection {
      */
 	public void setConnectionType(RF_RConnectionType connectionType) {
 		this.connectionType = connectionType;
+		this.name = null;
 	}
 
 	/**
@@ -41,6 +46,7 @@ public class RF_RConnection {
 	 */
 	public void setHost(String host) {
 		this.host = host;
+		this.name = null;
 	}
 
 	/**
@@ -57,6 +63,7 @@ public class RF_RConnection {
 	 */
 	public void setPort(int port) {
 		this.port = port;
+		this.name = null;
 	}
 
 	/**
@@ -72,6 +79,7 @@ public class RF_RConnection {
  */
 	public void setDeviceID(int deviceID) {
 		this.deviceID = deviceID;
+		this.name = null;
 	}
 
 	/**
@@ -195,6 +203,14 @@ public class RF_RConnection {
      */
     @Override
 	public String toString()
+    {
+        String name = this.name;
+        if (name == null)
+            this.name = name = createName();
+        return name;
+    }
+
+    private String createName()
     {
         switch (this.connectionType)
         {
@@ -0,0 +1,403 @@
+package havis.middleware.reader.rf_r;
+
+import havis.middleware.ale.base.message.Message;
+import havis.middleware.ale.base.operation.tag.Tag;
+import havis.middleware.ale.exit.Exits;
+import havis.middleware.ale.reader.Callback;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded dispatch stage between the inventory and the client callback. Tag
+ * reports are stored in a preallocated ring buffer by the inventory and
+ * delivered to the callback by a separate thread, so that a slow consumer does
+ * not stall the reader. A batch of tags of one inventory round counts as one
+ * report.
+ */
+public class RF_RDispatcher {
+
+	/**
+	 * Behavior if a report is dispatched while the buffer is full
+	 */
+	public enum OverflowPolicy {
+		/**
+		 * Wait until the consumer has taken a report
+		 */
+		Block,
+		/**
+		 * Drop the oldest report
+		 */
+		DropOldest,
+		/**
+		 * Drop the oldest report of the same tag for the same operation, drop
+		 * the oldest report if there is none
+		 */
+		DropDuplicatesFirst
+	}
+
+	private final Lock lock = new ReentrantLock();
+	private final Condition notEmpty = lock.newCondition();
+	private final Condition notFull = lock.newCondition();
+
+	private final long[] ids;
+	private final Tag[] tags;
+	private final List<Tag>[] batches;
+	private final long[] times;
+	private int head;
+	private int count;
+
+	private final OverflowPolicy policy;
+	private final long slowConsumerThreshold;
+	private volatile Callback callback;
+	private volatile RF_RBatchDelivery batchDelivery;
+	private volatile boolean running = true;
+	private final Thread thread;
+
+	private boolean slowConsumer;
+
+	private int maxDepth;
+	private long delivered;
+	private long dropped;
+	private long totalLatency;
+	private long maxLatency;
+
+	/**
+	 * Initializes a new instance of the {@link RF_RDispatcher} class and starts
+	 * the delivering thread.
+	 *
+	 * @param callback
+	 *            the client callback
+	 * @param name
+	 *            the name of the connector, used to name the thread
+	 * @param capacity
+	 *            the number of reports the buffer can hold
+	 * @param policy
+	 *            the behavior if the buffer is full
+	 * @param slowConsumerThreshold
+	 *            the time in milliseconds a report may wait before the consumer
+	 *            is reported as slow
+	 */
+	@SuppressWarnings("unchecked")
+	public RF_RDispatcher(Callback callback, String name, int capacity, OverflowPolicy policy, long slowConsumerThreshold) {
+		if (capacity < 1)
+			throw new IllegalArgumentException("Capacity must be at least 1");
+		this.callback = callback;
+		this.batchDelivery = RF_RBatchDelivery.forCallback(callback);
+		this.ids = new long[capacity];
+		this.tags = new Tag[capacity];
+		this.batches = new List[capacity];
+		this.times = new long[capacity];
+		this.policy = policy;
+		this.slowConsumerThreshold = TimeUnit.MILLISECONDS.toNanos(slowConsumerThreshold);
+		this.thread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				deliver();
+			}
+		}, "dispatchThread " + name);
+		this.thread.setDaemon(true);
+		this.thread.start();
+	}
+
+	/**
+	 * Sets the client callback.
+	 *
+	 * @param callback
+	 *            the client callback
+	 */
+	public void setCallback(Callback callback) {
+		this.callback = callback;
+		this.batchDelivery = RF_RBatchDelivery.forCallback(callback);
+	}
+
+	/**
+	 * Dispatches a tag report to the callback.
+	 *
+	 * @param id
+	 *            the ID of the tag operation
+	 * @param tag
+	 *            the tag
+	 * @throws InterruptedException
+	 *             if interrupted while waiting for free space
+	 */
+	public void dispatch(long id, Tag tag) throws InterruptedException {
+		if (enqueue(id, tag, null))
+			return;
+		// deliver directly after close, outside the lock
+		callback.notify(id, tag);
+	}
+
+	/**
+	 * Dispatches all tags of one inventory round for a tag operation to the
+	 * callback.
+	 *
+	 * @param id
+	 *            the ID of the tag operation
+	 * @param batch
+	 *            the tags, not empty
+	 * @throws InterruptedException
+	 *             if interrupted while waiting for free space
+	 */
+	public void dispatch(long id, List<Tag> batch) throws InterruptedException {
+		if (!enqueue(id, null, batch))
+			// deliver directly after close, outside the lock
+			deliver(id, null, batch);
+	}
+
+	/**
+	 * @return false if closed
+	 */
+	private boolean enqueue(long id, Tag tag, List<Tag> batch) throws InterruptedException {
+		lock.lock();
+		try {
+			if (count == tags.length) {
+				switch (policy) {
+				case Block:
+					while (count == tags.length && running)
+						notFull.await();
+					break;
+				case DropDuplicatesFirst:
+					remove(indexOfDuplicate(id, tag));
+					break;
+				case DropOldest:
+				default:
+					remove(0);
+					break;
+				}
+			}
+			if (running) {
+				int index = (head + count) % tags.length;
+				ids[index] = id;
+				tags[index] = tag;
+				batches[index] = batch;
+				times[index] = System.nanoTime();
+				count++;
+				if (count > maxDepth)
+					maxDepth = count;
+				notEmpty.signal();
+				return true;
+			}
+			return false;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * @return the position relative to the head of the oldest report for the
+	 *         same tag and operation, or 0 if there is none
+	 */
+	private int indexOfDuplicate(long id, Tag tag) {
+		for (int i = 0; i < count; i++) {
+			int index = (head + i) % tags.length;
+			if (ids[index] == id && tags[index] != null && tag != null && Arrays.equals(tags[index].getEpc(), tag.getEpc()))
+				return i;
+		}
+		return 0;
+	}
+
+	/**
+	 * Removes the report at the given position relative to the head, the
+	 * following reports are moved up
+	 */
+	private void remove(int position) {
+		for (int i = position; i < count - 1; i++) {
+			int index = (head + i) % tags.length;
+			int next = (index + 1) % tags.length;
+			ids[index] = ids[next];
+			tags[index] = tags[next];
+			batches[index] = batches[next];
+			times[index] = times[next];
+		}
+		tags[(head + count - 1) % tags.length] = null;
+		batches[(head + count - 1) % tags.length] = null;
+		count--;
+		dropped++;
+	}
+
+	private void deliver() {
+		while (true) {
+			long id;
+			Tag tag;
+			List<Tag> batch;
+			long time;
+			lock.lock();
+			try {
+				while (count == 0 && running)
+					notEmpty.awaitUninterruptibly();
+				if (count == 0)
+					return;
+				id = ids[head];
+				tag = tags[head];
+				batch = batches[head];
+				time = times[head];
+				tags[head] = null;
+				batches[head] = null;
+				head = (head + 1) % tags.length;
+				count--;
+				notFull.signal();
+			} finally {
+				lock.unlock();
+			}
+
+			long latency = System.nanoTime() - time;
+			deliver(id, tag, batch);
+			update(latency);
+		}
+	}
+
+	private void deliver(long id, Tag tag, List<Tag> batch) {
+		try {
+			if (batch == null) {
+				callback.notify(id, tag);
+			} else {
+				RF_RBatchDelivery batchDelivery = this.batchDelivery;
+				if (batchDelivery != null) {
+					batchDelivery.notify(id, batch);
+				} else {
+					for (Tag t : batch)
+						callback.notify(id, t);
+				}
+			}
+		} catch (Exception e) {
+			callback.notify(new Message(Exits.Reader.Controller.Error, "Delivering tag report failed: " + e.getMessage(), e));
+		}
+	}
+
+	private void update(long latency) {
+		String message;
+		lock.lock();
+		try {
+			delivered++;
+			totalLatency += latency;
+			if (latency > maxLatency)
+				maxLatency = latency;
+			if (!slowConsumer && latency > slowConsumerThreshold) {
+				slowConsumer = true;
+				message = "Slow consumer, tag reports are delayed by " + TimeUnit.NANOSECONDS.toMillis(latency) + "ms with " + count + " reports queued!";
+			} else if (slowConsumer && latency <= slowConsumerThreshold / 2) {
+				slowConsumer = false;
+				message = "Slow consumer recovered, tag reports are delivered without delay again.";
+			} else {
+				return;
+			}
+		} finally {
+			lock.unlock();
+		}
+
+		// reported as warning, a slow consumer is no connection problem of the
+		// reader
+		callback.notify(new Message(Exits.Reader.Controller.Warning, message));
+	}
+
+	/**
+	 * Stops the delivering thread after all queued reports were delivered.
+	 * Reports dispatched afterwards are delivered directly.
+	 *
+	 * @throws InterruptedException
+	 *             if interrupted while waiting for the delivering thread
+	 */
+	public void close() throws InterruptedException {
+		lock.lock();
+		try {
+			running = false;
+			notEmpty.signalAll();
+			notFull.signalAll();
+		} finally {
+			lock.unlock();
+		}
+		if (Thread.currentThread() != thread)
+			thread.join();
+	}
+
+	/**
+	 * @return the number of queued reports
+	 */
+	public int getDepth() {
+		lock.lock();
+		try {
+			return count;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * @return the maximum number of queued reports
+	 */
+	public int getMaxDepth() {
+		lock.lock();
+		try {
+			return maxDepth;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * @return the number of delivered reports
+	 */
+	public long getDelivered() {
+		lock.lock();
+		try {
+			return delivered;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * @return the number of dropped reports
+	 */
+	public long getDropped() {
+		lock.lock();
+		try {
+			return dropped;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * @return the average time in milliseconds a report was queued
+	 */
+	public double getAverageLatency() {
+		lock.lock();
+		try {
+			return delivered == 0 ? 0 : (double) totalLatency / delivered / TimeUnit.MILLISECONDS.toNanos(1);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * @return the maximum time in milliseconds a report was queued
+	 */
+	public double getMaxLatency() {
+		lock.lock();
+		try {
+			return (double) maxLatency / TimeUnit.MILLISECONDS.toNanos(1);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * @return the queue metrics as monitor configuration
+	 */
+	public RF_RMonitorConfiguration getConfiguration() {
+		lock.lock();
+		try {
+			return new RF_RMonitorConfiguration(RF_RMonitorConfiguration.Kind.Dispatch, null).set("depth", Integer.valueOf(count))
+					.set("maxDepth", Integer.valueOf(maxDepth)).set("delivered", Long.valueOf(delivered)).set("dropped", Long.valueOf(dropped))
+					.set("averageLatency", Double.valueOf(getAverageLatency())).set("maxLatency", Double.valueOf(getMaxLatency()));
+		} finally {
+			lock.unlock();
+		}
+	}
+}
@@ -0,0 +1,267 @@
+package havis.middleware.reader.rf_r;
+
+import havis.middleware.ale.base.operation.tag.result.ReadResult;
+import havis.middleware.ale.base.operation.tag.result.ResultState;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Suppresses repeated reports of the same tag to the same tag operation
+ * within a time window. The state of each tag and operation is stored as a
+ * packed record in one byte buffer, which can be allocated outside of the
+ * heap, and found by an open addressing hash table of record offsets. Records of tags not seen within the window are discarded
+ * when the buffer is compacted.
+ */
+public class RF_RDuplicateFilter {
+
+	/**
+	 * Record layout: time (8 bytes), operation ID (8 bytes), RSSI (4 bytes),
+	 * antenna (2 bytes), key length (2 bytes), key
+	 */
+	private static final int TIME = 0;
+	private static final int ID = 8;
+	private static final int RSSI = 16;
+	private static final int ANTENNA = 20;
+	private static final int LENGTH = 22;
+	private static final int KEY = 24;
+
+	private static final int INITIAL_SLOTS = 1024;
+	private static final int INITIAL_RECORD_SIZE = KEY + 12;
+
+	private final long window;
+	private final boolean antennaChange;
+	private final int rssiDelta;
+	private final boolean offHeap;
+
+	private int[] offsets;
+	private int[] hashes;
+	private int size;
+	private ByteBuffer buffer;
+
+	private long suppressed;
+
+	/**
+	 * Initializes a new instance of the {@link RF_RDuplicateFilter} class.
+	 *
+	 * @param window
+	 *            the time in milliseconds a tag is not reported again
+	 * @param antennaChange
+	 *            true to report a tag again if it is seen on another antenna
+	 * @param rssiDelta
+	 *            the minimum change of the RSSI to report a tag again, 0 to
+	 *            ignore the RSSI
+	 * @param offHeap
+	 *            true to store the records outside of the heap
+	 */
+	public RF_RDuplicateFilter(long window, boolean antennaChange, int rssiDelta, boolean offHeap) {
+		if (window <= 0)
+			throw new IllegalArgumentException("Window must be greater than 0");
+		if (rssiDelta < 0)
+			throw new IllegalArgumentException("RSSI delta must not be negative");
+		this.window = TimeUnit.MILLISECONDS.toNanos(window);
+		this.antennaChange = antennaChange;
+		this.rssiDelta = rssiDelta;
+		this.offHeap = offHeap;
+		this.offsets = newSlots(INITIAL_SLOTS);
+		this.hashes = new int[INITIAL_SLOTS];
+		this.buffer = allocate(INITIAL_SLOTS * INITIAL_RECORD_SIZE);
+	}
+
+	private static int[] newSlots(int length) {
+		int[] slots = new int[length];
+		Arrays.fill(slots, -1);
+		return slots;
+	}
+
+	private ByteBuffer allocate(int capacity) {
+		return offHeap ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+	}
+
+	/**
+	 * Checks whether a tag has to be reported to a tag operation and remembers
+	 * the report.
+	 *
+	 * @param id
+	 *            the ID of the tag operation
+	 * @param epc
+	 *            the EPC of the tag
+	 * @param tid
+	 *            the TID of the tag, null or empty if not part of the key
+	 * @param antenna
+	 *            the antenna the tag was seen on, 0 if unknown
+	 * @param rssi
+	 *            the RSSI of the tag, 0 if unknown
+	 * @param time
+	 *            the current time in nanoseconds as given by
+	 *            {@link System#nanoTime()}
+	 * @return true if the tag has to be reported, false if the report is a
+	 *         duplicate
+	 */
+	public synchronized boolean accept(long id, byte[] epc, byte[] tid, short antenna, int rssi, long time) {
+		int tidLength = tid == null ? 0 : tid.length;
+		int hash = hash(id, epc, tid);
+		int mask = offsets.length - 1;
+		for (int slot = hash & mask;; slot = (slot + 1) & mask) {
+			int offset = offsets[slot];
+			if (offset < 0) {
+				insert(slot, hash, id, epc, tid, antenna, rssi, time);
+				return true;
+			}
+			if (hashes[slot] == hash && equals(offset, id, epc, tid, tidLength)) {
+				if (time - buffer.getLong(offset + TIME) >= window
+						|| (antennaChange && antenna != buffer.getShort(offset + ANTENNA))
+						|| (rssiDelta > 0 && Math.abs(rssi - buffer.getInt(offset + RSSI)) >= rssiDelta)) {
+					buffer.putLong(offset + TIME, time);
+					buffer.putInt(offset + RSSI, rssi);
+					buffer.putShort(offset + ANTENNA, antenna);
+					return true;
+				}
+				suppressed++;
+				return false;
+			}
+		}
+	}
+
+	private static int hash(long id, byte[] epc, byte[] tid) {
+		int hash = (Long.hashCode(id) * 31 + Arrays.hashCode(epc)) * 31 + (tid == null ? 0 : Arrays.hashCode(tid));
+		return hash ^ (hash >>> 16);
+	}
+
+	private boolean equals(int offset, long id, byte[] epc, byte[] tid, int tidLength) {
+		if (buffer.getLong(offset + ID) != id || (buffer.getShort(offset + LENGTH) & 0xFFFF) != epc.length + tidLength)
+			return false;
+		int position = offset + KEY;
+		for (int i = 0; i < epc.length; i++)
+			if (buffer.get(position++) != epc[i])
+				return false;
+		for (int i = 0; i < tidLength; i++)
+			if (buffer.get(position++) != tid[i])
+				return false;
+		return true;
+	}
+
+	private void insert(int slot, int hash, long id, byte[] epc, byte[] tid, short antenna, int rssi, long time) {
+		int tidLength = tid == null ? 0 : tid.length;
+		int length = KEY + epc.length + tidLength;
+		if (buffer.remaining() < length || (size + 1) * 4 > offsets.length * 3) {
+			compact(time, length);
+			slot = find(hash);
+		}
+
+		int offset = buffer.position();
+		buffer.putLong(time);
+		buffer.putLong(id);
+		buffer.putInt(rssi);
+		buffer.putShort(antenna);
+		buffer.putShort((short) (epc.length + tidLength));
+		buffer.put(epc);
+		if (tidLength > 0)
+			buffer.put(tid);
+		offsets[slot] = offset;
+		hashes[slot] = hash;
+		size++;
+	}
+
+	private int find(int hash) {
+		int mask = offsets.length - 1;
+		int slot = hash & mask;
+		while (offsets[slot] >= 0)
+			slot = (slot + 1) & mask;
+		return slot;
+	}
+
+	/**
+	 * Discards the records of tags not seen within the window and grows the
+	 * table and the buffer if still required
+	 */
+	private void compact(long time, int required) {
+		int live = 0;
+		int bytes = 0;
+		for (int offset : offsets) {
+			if (offset >= 0 && time - buffer.getLong(offset + TIME) < window) {
+				live++;
+				bytes += KEY + (buffer.getShort(offset + LENGTH) & 0xFFFF);
+			}
+		}
+
+		int slots = offsets.length;
+		while ((live + 1) * 2 > slots)
+			slots <<= 1;
+		int capacity = buffer.capacity();
+		while (bytes + required > capacity / 2)
+			capacity <<= 1;
+
+		int[] oldOffsets = offsets;
+		int[] oldHashes = hashes;
+		ByteBuffer oldBuffer = buffer;
+		offsets = newSlots(slots);
+		hashes = new int[slots];
+		buffer = allocate(capacity);
+		size = 0;
+		for (int i = 0; i < oldOffsets.length; i++) {
+			int offset = oldOffsets[i];
+			if (offset >= 0 && time - oldBuffer.getLong(offset + TIME) < window) {
+				int length = KEY + (oldBuffer.getShort(offset + LENGTH) & 0xFFFF);
+				int slot = find(oldHashes[i]);
+				offsets[slot] = buffer.position();
+				hashes[slot] = oldHashes[i];
+				ByteBuffer record = oldBuffer.duplicate();
+				record.limit(offset + length).position(offset);
+				buffer.put(record);
+				size++;
+			}
+		}
+	}
+
+	/**
+	 * Removes all records.
+	 */
+	public synchronized void clear() {
+		Arrays.fill(offsets, -1);
+		buffer.clear();
+		size = 0;
+	}
+
+	/**
+	 * @return the number of tracked tags, including tags not seen within the
+	 *         window which were not discarded yet
+	 */
+	public synchronized int size() {
+		return size;
+	}
+
+	/**
+	 * @return the number of suppressed reports
+	 */
+	public synchronized long getSuppressed() {
+		return suppressed;
+	}
+
+	/**
+	 * Checks whether a bank of a report could not be read. Such a report must
+	 * not be remembered, so that the report of a later successful read is not
+	 * suppressed. Banks not read as no operation with matching filters
+	 * requires them are not failed reads.
+	 *
+	 * @param readResult
+	 *            the results of the banks, null if none are read
+	 * @return true if a read failed on the air interface
+	 */
+	public static boolean hasFailedRead(ReadResult[] readResult) {
+		if (readResult != null)
+			for (ReadResult result : readResult)
+				if (result != null && result.getState() != ResultState.SUCCESS && result.getState() != ResultState.OP_NOT_POSSIBLE_ERROR)
+					return true;
+		return false;
+	}
+
+	/**
+	 * @return the counters as monitor configuration
+	 */
+	public synchronized RF_RMonitorConfiguration getConfiguration() {
+		return new RF_RMonitorConfiguration(RF_RMonitorConfiguration.Kind.Dedupe, null).set("tags", Integer.valueOf(size))
+				.set("suppressed", Long.valueOf(suppressed));
+	}
+}
@@ -0,0 +1,335 @@
+package havis.middleware.reader.rf_r;
+
+import havis.middleware.ale.base.operation.tag.Tag;
+import havis.middleware.ale.base.operation.tag.TagOperation;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Pending execute operations in the order they were defined. Each inventory
+ * round is matched against all pending operations, an operation is removed as
+ * soon as it has been executed on a tag, has failed or was aborted. The number
+ * of rounds an operation did not find its tag is counted per operation. An
+ * operation for multiple tags is executed on each matching tag once and
+ * collects the results until its round or time budget is exhausted.
+ */
+public class RF_RExecuteQueue {
+
+	/**
+	 * Pending execute operation
+	 */
+	public static class Entry {
+		private final long id;
+		private final TagOperation operation;
+		private final RF_RFilterMatcher matcher;
+		private int attempts;
+
+		private final boolean multiple;
+		private final int rounds;
+		private final long deadline;
+		private Set<String> handled;
+		private List<Tag> results;
+
+		Entry(long id, TagOperation operation) {
+			this.id = id;
+			this.operation = operation;
+			this.matcher = RF_RFilterMatcher.compile(operation.getFilter());
+			this.multiple = false;
+			this.rounds = 0;
+			this.deadline = 0;
+		}
+
+		Entry(long id, TagOperation operation, int rounds, long deadline) {
+			this.id = id;
+			this.operation = operation;
+			this.matcher = RF_RFilterMatcher.compile(operation.getFilter());
+			this.multiple = true;
+			this.rounds = rounds;
+			this.deadline = deadline;
+			this.handled = new HashSet<>();
+			this.results = new ArrayList<>();
+		}
+
+		/**
+		 * @return the unique id of the operation
+		 */
+		public long getId() {
+			return id;
+		}
+
+		/**
+		 * @return the operation
+		 */
+		public TagOperation getOperation() {
+			return operation;
+		}
+
+		/**
+		 * @return the compiled filters of the operation
+		 */
+		public RF_RFilterMatcher getMatcher() {
+			return matcher;
+		}
+
+		/**
+		 * @return the number of rounds the operation did not find its tag,
+		 *         or the number of rounds an operation for multiple tags has
+		 *         run
+		 */
+		public int getAttempts() {
+			return attempts;
+		}
+
+		/**
+		 * @return true if the operation is executed on all matching tags
+		 */
+		public boolean isMultiple() {
+			return multiple;
+		}
+
+		/**
+		 * Checks whether an operation for multiple tags has been executed on
+		 * a tag.
+		 *
+		 * @param key
+		 *            the key identifying the tag across changes of its UID,
+		 *            usually the TID
+		 * @return true if the tag has been handled
+		 */
+		public synchronized boolean isHandled(String key) {
+			return handled.contains(key);
+		}
+
+		/**
+		 * Adds the result of an operation for multiple tags.
+		 *
+		 * @param key
+		 *            the key identifying the tag
+		 * @param tag
+		 *            the tag with the results
+		 */
+		public synchronized void addResult(String key, Tag tag) {
+			handled.add(key);
+			results.add(tag);
+		}
+
+		/**
+		 * @return the results of an operation for multiple tags in the order
+		 *         the tags were handled
+		 */
+		public synchronized List<Tag> getResults() {
+			return results != null ? new ArrayList<>(results) : Collections.<Tag> emptyList();
+		}
+
+		private boolean isExhausted(int attempts, long time) {
+			if (!multiple)
+				return this.attempts >= attempts;
+			return rounds > 0 && this.attempts >= rounds || deadline != Long.MAX_VALUE && time - deadline >= 0;
+		}
+	}
+
+	private final LinkedHashMap<Long, Entry> entries = new LinkedHashMap<>();
+	private final Map<String, String> keys = new HashMap<>();
+
+	private int maxDepth;
+	private long executed;
+	private long failed;
+	private long aborted;
+	private long modifications;
+
+	/**
+	 * Adds an operation to the end of the queue. An operation with the id of a
+	 * pending operation is rejected.
+	 *
+	 * @param id
+	 *            the unique id of the operation
+	 * @param operation
+	 *            the operation
+	 * @return true if the operation was added, false if the id is pending
+	 */
+	public synchronized boolean add(long id, TagOperation operation) {
+		return add(new Entry(id, operation));
+	}
+
+	/**
+	 * Adds an operation for all matching tags to the end of the queue. An
+	 * operation with the id of a pending operation is rejected.
+	 *
+	 * @param id
+	 *            the unique id of the operation
+	 * @param operation
+	 *            the operation
+	 * @param rounds
+	 *            the number of inventory rounds the operation runs, 0 for no
+	 *            limit
+	 * @param deadline
+	 *            the time the operation ends as given by
+	 *            {@link System#nanoTime()}, {@link Long#MAX_VALUE} for no limit
+	 * @return true if the operation was added, false if the id is pending
+	 */
+	public synchronized boolean add(long id, TagOperation operation, int rounds, long deadline) {
+		return add(new Entry(id, operation, rounds, deadline));
+	}
+
+	private boolean add(Entry entry) {
+		Long id = Long.valueOf(entry.getId());
+		if (entries.containsKey(id))
+			return false;
+		entries.put(id, entry);
+		maxDepth = Math.max(maxDepth, entries.size());
+		modifications++;
+		return true;
+	}
+
+	/**
+	 * @return the pending operations in the order they were added
+	 */
+	public synchronized Collection<Entry> getEntries() {
+		return new ArrayList<>(entries.values());
+	}
+
+	/**
+	 * Removes an operation which has been executed on a tag.
+	 *
+	 * @param id
+	 *            the unique id of the operation
+	 */
+	public synchronized void executed(long id) {
+		if (remove(id))
+			executed++;
+	}
+
+	/**
+	 * Removes an operation which has failed.
+	 *
+	 * @param id
+	 *            the unique id of the operation
+	 */
+	public synchronized void failed(long id) {
+		if (remove(id))
+			failed++;
+	}
+
+	/**
+	 * Removes an operation which was aborted.
+	 *
+	 * @param id
+	 *            the unique id of the operation
+	 * @return the operation, null if it was not pending
+	 */
+	public synchronized Entry abort(long id) {
+		Entry entry = entries.remove(Long.valueOf(id));
+		if (entry == null)
+			return null;
+		removed();
+		aborted++;
+		return entry;
+	}
+
+	private boolean remove(long id) {
+		if (entries.remove(Long.valueOf(id)) == null)
+			return false;
+		removed();
+		return true;
+	}
+
+	private void removed() {
+		modifications++;
+		if (entries.isEmpty())
+			keys.clear();
+	}
+
+	/**
+	 * Gets the key of a tag for operations for multiple tags, so that the
+	 * key is not read from the tag again in each round.
+	 *
+	 * @param uid
+	 *            the UID of the tag
+	 * @return the key, null if the tag has not been keyed while operations
+	 *         are pending
+	 */
+	public synchronized String getKey(String uid) {
+		return keys.get(uid);
+	}
+
+	/**
+	 * Remembers the key of a tag until no operation is pending.
+	 *
+	 * @param uid
+	 *            the UID of the tag
+	 * @param key
+	 *            the key identifying the tag, usually the TID
+	 */
+	public synchronized void putKey(String uid, String key) {
+		keys.put(uid, key);
+	}
+
+	/**
+	 * Completes an inventory round and counts an attempt for each pending
+	 * operation.
+	 *
+	 * @param attempts
+	 *            the number of attempts after which an operation fails
+	 * @param time
+	 *            the current time as given by {@link System#nanoTime()}
+	 * @return the operations which reached the number of attempts, and the
+	 *         operations for multiple tags which exhausted their budget
+	 */
+	public synchronized List<Entry> complete(int attempts, long time) {
+		List<Entry> exhausted = null;
+		for (Entry entry : entries.values()) {
+			entry.attempts++;
+			if (entry.isExhausted(attempts, time)) {
+				if (exhausted == null)
+					exhausted = new ArrayList<>();
+				exhausted.add(entry);
+			}
+		}
+		return exhausted != null ? exhausted : Collections.<Entry> emptyList();
+	}
+
+	/**
+	 * @return the number of pending operations
+	 */
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	/**
+	 * @return true if no operation is pending
+	 */
+	public synchronized boolean isEmpty() {
+		return entries.isEmpty();
+	}
+
+	/**
+	 * @return the number of times an operation was added or removed, to
+	 *         detect changes of the pending operations
+	 */
+	public synchronized long getModifications() {
+		return modifications;
+	}
+
+	/**
+	 * @return the current state as monitor configuration
+	 */
+	public synchronized RF_RMonitorConfiguration getConfiguration() {
+		return new RF_RMonitorConfiguration(RF_RMonitorConfiguration.Kind.Execute, null).set("depth", Integer.valueOf(entries.size()))
+				.set("maxDepth", Integer.valueOf(maxDepth)).set("executed", Long.valueOf(executed)).set("failed", Long.valueOf(failed))
+				.set("aborted", Long.valueOf(aborted));
+	}
+
+	@Override
+	public synchronized String toString() {
+		return "RF_RExecuteQueue [depth=" + entries.size() + ", maxDepth=" + maxDepth + ", executed=" + executed + ", failed=" + failed
+				+ ", aborted=" + aborted + "]";
+	}
+}
@@ -0,0 +1,172 @@
+package havis.middleware.reader.rf_r;
+
+import havis.middleware.ale.base.operation.tag.Filter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compiled filters of a tag operation, which are evaluated bit by bit against
+ * the raw data of the memory banks known from the inventory. The filters are
+ * compiled once, so that matching a tag neither converts nor allocates data.
+ * Filters on banks which are not known for a tag can not be decided and are
+ * considered to match.
+ */
+public class RF_RFilterMatcher {
+
+	private static final RF_RFilterMatcher ANY = new RF_RFilterMatcher(new int[0], new int[0], new int[0], new byte[0][]);
+
+	private final int[] banks;
+	private final int[] offsets;
+	private final int[] lengths;
+	private final byte[][] masks;
+
+	/**
+	 * The first byte, the bit shift within the byte, the number of whole
+	 * bytes and the mask of the remaining bits of each filter
+	 */
+	private final int[] starts;
+	private final int[] shifts;
+	private final int[] bytes;
+	private final int[] rests;
+
+	private RF_RFilterMatcher(int[] banks, int[] offsets, int[] lengths, byte[][] masks) {
+		this.banks = banks;
+		this.offsets = offsets;
+		this.lengths = lengths;
+		this.masks = masks;
+		this.starts = new int[banks.length];
+		this.shifts = new int[banks.length];
+		this.bytes = new int[banks.length];
+		this.rests = new int[banks.length];
+		for (int i = 0; i < banks.length; i++) {
+			starts[i] = offsets[i] >>> 3;
+			shifts[i] = offsets[i] & 7;
+			bytes[i] = lengths[i] >>> 3;
+			rests[i] = (0xFF << (8 - (lengths[i] & 7))) & 0xFF;
+		}
+	}
+
+	/**
+	 * Compiles the filters of a tag operation.
+	 *
+	 * @param filters
+	 *            the filters, may be null
+	 * @return the matcher
+	 */
+	public static RF_RFilterMatcher compile(List<Filter> filters) {
+		if (filters == null || filters.isEmpty())
+			return ANY;
+
+		List<Filter> decidable = new ArrayList<>(filters.size());
+		for (Filter filter : filters)
+			if (filter != null && filter.getBank() >= 0 && filter.getBank() <= 3 && filter.getMask() != null && filter.getLength() > 0
+					&& filter.getOffset() >= 0 && filter.getMask().length * 8 >= filter.getLength())
+				decidable.add(filter);
+		if (decidable.isEmpty())
+			return ANY;
+
+		int[] banks = new int[decidable.size()];
+		int[] offsets = new int[banks.length];
+		int[] lengths = new int[banks.length];
+		byte[][] masks = new byte[banks.length][];
+		for (int i = 0; i < banks.length; i++) {
+			Filter filter = decidable.get(i);
+			banks[i] = filter.getBank();
+			offsets[i] = filter.getOffset();
+			lengths[i] = filter.getLength();
+			masks[i] = filter.getMask().clone();
+		}
+		return new RF_RFilterMatcher(banks, offsets, lengths, masks);
+	}
+
+	/**
+	 * @return true if all filters match any tag
+	 */
+	public boolean isAny() {
+		return banks.length == 0;
+	}
+
+	/**
+	 * Checks whether the tag may match the filters.
+	 *
+	 * @param epcBank
+	 *            the EPC bank data starting with CRC and PC
+	 * @param tid
+	 *            the TID, null if not known
+	 * @return false if a filter does not match, true otherwise
+	 */
+	public boolean matches(byte[] epcBank, byte[] tid) {
+		return matches(null, epcBank, tid, null);
+	}
+
+	/**
+	 * Checks whether the tag may match the filters.
+	 *
+	 * @param reserved
+	 *            the reserved bank data, null if not known
+	 * @param epcBank
+	 *            the EPC bank data starting with CRC and PC, null if not known
+	 * @param tid
+	 *            the TID bank data, null if not known
+	 * @param user
+	 *            the user bank data, null if not known
+	 * @return false if a filter does not match, true otherwise
+	 */
+	public boolean matches(byte[] reserved, byte[] epcBank, byte[] tid, byte[] user) {
+		for (int i = 0; i < banks.length; i++) {
+			byte[] data;
+			switch (banks[i]) {
+			case 0:
+				data = reserved;
+				break;
+			case 1:
+				data = epcBank;
+				break;
+			case 2:
+				data = tid;
+				break;
+			default:
+				data = user;
+				break;
+			}
+			if (data != null && !matches(i, data))
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Compares the bits of the data starting at the bit offset of the filter
+	 * with the first bits of its mask
+	 */
+	private boolean matches(int filter, byte[] data) {
+		if (offsets[filter] + lengths[filter] > data.length * 8)
+			return false;
+
+		byte[] mask = masks[filter];
+		int shift = shifts[filter];
+		int start = starts[filter];
+		int bytes = this.bytes[filter];
+		if (shift == 0) {
+			for (int i = 0; i < bytes; i++)
+				if (data[start + i] != mask[i])
+					return false;
+		} else {
+			for (int i = 0; i < bytes; i++)
+				if ((byte) ((data[start + i] << shift) | ((data[start + i + 1] & 0xFF) >>> (8 - shift))) != mask[i])
+					return false;
+		}
+
+		int rest = rests[filter];
+		if (rest != 0) {
+			int index = start + bytes;
+			int value = data[index] << shift;
+			if (shift + (lengths[filter] & 7) > 8)
+				value |= (data[index + 1] & 0xFF) >>> (8 - shift);
+			if (((value ^ mask[bytes]) & rest) != 0)
+				return false;
+		}
+		return true;
+	}
+}
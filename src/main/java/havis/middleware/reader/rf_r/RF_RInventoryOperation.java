@@ -11,6 +11,7 @@ public class RF_RInventoryOperation implements Cloneable {
 	private boolean tid;
 	private UserReadMode user;
 	private boolean[] userDataBlocks;
+	private RF_RReadPlan userReadPlan;
 
 	public enum UserReadMode {
 		OFF, ON, ON_COMPLETE
@@ -123,6 +124,25 @@ public class RF_RInventoryOperation implements Cloneable {
 		this.userDataBlocks = userDataBlocks;
 	}
 
+	/**
+	 * Gets the read commands for the data blocks of user bank. The read
+	 * commands are derived from the data blocks and not part of the equality.
+	 * 
+	 * @return userReadPlan
+	 */
+	public RF_RReadPlan getUserReadPlan() {
+		return userReadPlan;
+	}
+
+	/**
+	 * Sets the read commands for the data blocks of user bank.
+	 * 
+	 * @param userReadPlan
+	 */
+	public void setUserReadPlan(RF_RReadPlan userReadPlan) {
+		this.userReadPlan = userReadPlan;
+	}
+
 	@Override
 	protected RF_RInventoryOperation clone() {
 		try {
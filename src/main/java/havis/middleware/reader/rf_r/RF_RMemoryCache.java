@@ -0,0 +1,208 @@
+package havis.middleware.reader.rf_r;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache for the memory banks read from tags across inventory rounds. The tags
+ * are identified by their UID and their TID, as the UID only contains the EPC
+ * outside of extended mode and tags may share an EPC. Data is only cached and
+ * returned if the TID of the tag is known. TID bank data is also found by the
+ * UID alone, so that the key is not read from the tag again in each round. It
+ * stays valid until the tag is evicted, reserved and user bank data expires
+ * after a time to live. The least recently seen tag is evicted if the cache is
+ * full.
+ */
+public class RF_RMemoryCache {
+
+	private static final int RESERVED = 0;
+	private static final int TID = 2;
+	private static final int USER = 3;
+
+	private static class Entry {
+		private final byte[] tid;
+		private final byte[][] data = new byte[4][];
+		private final long[] times = new long[4];
+		private boolean[] userDataBlocks;
+		private boolean userComplete;
+
+		private Entry(byte[] tid) {
+			this.tid = tid;
+		}
+	}
+
+	private final long timeToLive;
+	private final LinkedHashMap<String, Entry> entries;
+
+	private long hits;
+	private long misses;
+
+	/**
+	 * Initializes a new instance of the {@link RF_RMemoryCache} class.
+	 *
+	 * @param capacity
+	 *            the maximum number of tags
+	 * @param timeToLive
+	 *            the time in milliseconds reserved and user bank data stays
+	 *            valid
+	 */
+	public RF_RMemoryCache(final int capacity, long timeToLive) {
+		if (capacity < 1)
+			throw new IllegalArgumentException("Capacity must be at least 1");
+		this.timeToLive = TimeUnit.MILLISECONDS.toNanos(timeToLive);
+		this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+				return size() > capacity;
+			}
+		};
+	}
+
+	/**
+	 * Gets the cached data of a memory bank.
+	 *
+	 * @param uid
+	 *            the UID of the tag
+	 * @param tid
+	 *            the TID of the tag, null if not known
+	 * @param bank
+	 *            the memory bank
+	 * @param inventoryOperation
+	 *            the inventory settings, the cached user bank data is only
+	 *            valid for the same data blocks
+	 * @param time
+	 *            the current time in nanoseconds as given by
+	 *            {@link System#nanoTime()}
+	 * @return the data, null if not cached or the TID is not known
+	 */
+	public synchronized byte[] get(String uid, byte[] tid, int bank, RF_RInventoryOperation inventoryOperation, long time) {
+		if (tid == null || tid.length == 0)
+			return null;
+		Entry entry = entries.get(uid);
+		byte[] data = null;
+		if (entry != null && Arrays.equals(entry.tid, tid) && entry.data[bank] != null && isValid(entry, bank, inventoryOperation, time))
+			data = entry.data[bank];
+		if (data != null)
+			hits++;
+		else
+			misses++;
+		return data;
+	}
+
+	/**
+	 * Gets the cached TID bank data of a tag by its UID. Outside of extended
+	 * mode tags sharing an EPC share the UID and are addressed as one tag by
+	 * the reader anyway.
+	 *
+	 * @param uid
+	 *            the UID of the tag
+	 * @return the TID, null if not cached
+	 */
+	public synchronized byte[] getTid(String uid) {
+		Entry entry = entries.get(uid);
+		byte[] data = entry != null ? entry.data[TID] : null;
+		if (data != null)
+			hits++;
+		else
+			misses++;
+		return data;
+	}
+
+	private boolean isValid(Entry entry, int bank, RF_RInventoryOperation inventoryOperation, long time) {
+		switch (bank) {
+		case TID:
+			return true;
+		case USER:
+			if (entry.userComplete != inventoryOperation.isForceUserComplete()
+					|| !Arrays.equals(entry.userDataBlocks, inventoryOperation.getUserDataBlocks()))
+				return false;
+			// fall through
+		case RESERVED:
+			return time - entry.times[bank] < timeToLive;
+		default:
+			return false;
+		}
+	}
+
+	/**
+	 * Puts the data of a memory bank to the cache. The data of another tag
+	 * with the same UID is replaced.
+	 *
+	 * @param uid
+	 *            the UID of the tag
+	 * @param tid
+	 *            the TID of the tag, the data is not cached if null
+	 * @param bank
+	 *            the memory bank
+	 * @param inventoryOperation
+	 *            the inventory settings the data was read with
+	 * @param data
+	 *            the data
+	 * @param time
+	 *            the current time in nanoseconds as given by
+	 *            {@link System#nanoTime()}
+	 */
+	public synchronized void put(String uid, byte[] tid, int bank, RF_RInventoryOperation inventoryOperation, byte[] data, long time) {
+		if (bank != RESERVED && bank != TID && bank != USER || tid == null || tid.length == 0)
+			return;
+		Entry entry = entries.get(uid);
+		if (entry == null || !Arrays.equals(entry.tid, tid))
+			entries.put(uid, entry = new Entry(tid.clone()));
+		entry.data[bank] = data;
+		entry.times[bank] = time;
+		if (bank == USER) {
+			entry.userDataBlocks = inventoryOperation.getUserDataBlocks();
+			entry.userComplete = inventoryOperation.isForceUserComplete();
+		}
+	}
+
+	/**
+	 * Removes the cached data of a tag.
+	 *
+	 * @param uid
+	 *            the UID of the tag
+	 */
+	public synchronized void invalidate(String uid) {
+		entries.remove(uid);
+	}
+
+	/**
+	 * Removes all cached data.
+	 */
+	public synchronized void clear() {
+		entries.clear();
+	}
+
+	/**
+	 * @return the number of cached tags
+	 */
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	/**
+	 * @return the number of requests answered from the cache
+	 */
+	public synchronized long getHits() {
+		return hits;
+	}
+
+	/**
+	 * @return the number of requests not answered from the cache
+	 */
+	public synchronized long getMisses() {
+		return misses;
+	}
+
+	/**
+	 * @return the counters as monitor configuration
+	 */
+	public synchronized RF_RMonitorConfiguration getConfiguration() {
+		return new RF_RMonitorConfiguration(RF_RMonitorConfiguration.Kind.Cache, null).set("tags", Integer.valueOf(entries.size()))
+				.set("hits", Long.valueOf(hits)).set("misses", Long.valueOf(misses));
+	}
+}
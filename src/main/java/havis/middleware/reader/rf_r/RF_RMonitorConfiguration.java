@@ -0,0 +1,155 @@
+package havis.middleware.reader.rf_r;
+
+import havis.util.monitor.Configuration;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Counters of a component of the connector as monitor configuration. The
+ * component is given by the kind and the counters by their name, so that
+ * further counters do not require a further configuration type.
+ */
+public class RF_RMonitorConfiguration extends Configuration {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Component the counters belong to
+	 */
+	public enum Kind {
+		/**
+		 * Air interface parameters chosen by the
+		 * {@link RF_RAirInterfaceController}: session, minSession, maxSession,
+		 * population and changes
+		 */
+		AirInterface,
+		/**
+		 * Allocation of a table of the reader library chosen by the
+		 * {@link RF_RTableSizer}, named by the table: tags, dataBlocks,
+		 * blockSize, highWater and resizes
+		 */
+		Table,
+		/**
+		 * State of the {@link RF_RExecuteQueue}: depth, maxDepth, executed,
+		 * failed and aborted
+		 */
+		Execute,
+		/**
+		 * Queue metrics of the {@link RF_RDispatcher}: depth, maxDepth,
+		 * delivered, dropped, averageLatency and maxLatency in milliseconds
+		 */
+		Dispatch,
+		/**
+		 * Counters of the host mode inventory rounds: rounds, tags,
+		 * rfSwitches, maxRfSwitches and averageRfSwitches
+		 */
+		Round,
+		/**
+		 * Write statistics of a tag model of the {@link RF_RBlockWriteCache},
+		 * named by the mask designer and model number of the TID as hex:
+		 * blockSize negotiated (0 if not limited), supportedBlockSize,
+		 * writes, fallbacks and averageWordDuration in milliseconds
+		 */
+		BlockWrite,
+		/**
+		 * Counters of a commissioning run: commissioned, failed,
+		 * tagsPerSecond and averageDuration in milliseconds
+		 */
+		Commissioning,
+		/**
+		 * Counters of the {@link RF_RDuplicateFilter}: tags tracked and
+		 * suppressed reports
+		 */
+		Dedupe,
+		/**
+		 * Counters of the {@link RF_RMemoryCache}: tags cached, hits and
+		 * misses
+		 */
+		Cache
+	}
+
+	private Kind kind;
+	private String name;
+	private Map<String, Number> counters = new LinkedHashMap<>();
+
+	public RF_RMonitorConfiguration() {
+	}
+
+	/**
+	 * Initializes a new instance of the {@link RF_RMonitorConfiguration}
+	 * class.
+	 *
+	 * @param kind
+	 *            the component
+	 * @param name
+	 *            the name of the instance of the component, null if there is
+	 *            only one
+	 */
+	public RF_RMonitorConfiguration(Kind kind, String name) {
+		this.kind = kind;
+		this.name = name;
+	}
+
+	/**
+	 * @return the component the counters belong to
+	 */
+	public Kind getKind() {
+		return kind;
+	}
+
+	public void setKind(Kind kind) {
+		this.kind = kind;
+	}
+
+	/**
+	 * @return the name of the instance of the component, null if there is
+	 *         only one
+	 */
+	public String getName() {
+		return name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	/**
+	 * @return the counters by name
+	 */
+	public Map<String, Number> getCounters() {
+		return counters;
+	}
+
+	public void setCounters(Map<String, Number> counters) {
+		this.counters = counters;
+	}
+
+	/**
+	 * @param counter
+	 *            the name of the counter
+	 * @return the value of the counter, null if unknown
+	 */
+	public Number get(String counter) {
+		return counters.get(counter);
+	}
+
+	/**
+	 * Sets a counter.
+	 *
+	 * @param counter
+	 *            the name of the counter
+	 * @param value
+	 *            the value
+	 * @return this instance
+	 */
+	public RF_RMonitorConfiguration set(String counter, Number value) {
+		counters.put(counter, value);
+		return this;
+	}
+
+	@Override
+	public String toString() {
+		return "RF_RMonitorConfiguration [kind=" + kind + (name != null ? ", name=" + name : "") + ", counters=" + counters + "]";
+	}
+}
@@ -2,11 +2,30 @@ package havis.middleware.reader.rf_r;
 
 import havis.middleware.ale.reader.Prefix;
 
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
 /**
  * Class that represents a set of properties for all RF_R reader connector
  * types.
  */
 public class RF_RProperties {
+	/**
+	 * Pacing of the inventory rounds in host mode
+	 */
+	public enum PacingPolicy {
+		/**
+		 * Start the next round immediately
+		 */
+		Continuous,
+		/**
+		 * Wait progressively longer after rounds without tags, up to the idle
+		 * interval
+		 */
+		Adaptive
+	}
+
 	/**
 	 * Static class that hold all property names for RF_R reader connector.
 	 */
@@ -58,6 +77,215 @@ public class RF_RProperties {
 		 */
 		public final static String InputDelay = Prefix.Connector + "Input.Delay";
 
+		/**
+		 * Describe the number of tag reports buffered between the inventory
+		 * and the callback, 0 delivers the reports directly.
+		 */
+		public final static String DispatchCapacity = Prefix.Connector + "Dispatch.Capacity";
+
+		/**
+		 * Describe the behavior if the dispatch buffer is full.
+		 */
+		public final static String DispatchOverflowPolicy = Prefix.Connector + "Dispatch.OverflowPolicy";
+
+		/**
+		 * Describe the time in milliseconds a tag report may be buffered before
+		 * the consumer is reported as slow.
+		 */
+		public final static String DispatchSlowConsumerThreshold = Prefix.Connector + "Dispatch.SlowConsumerThreshold";
+
+		/**
+		 * Describe whether the tags of an inventory round are delivered as one
+		 * batch to callbacks implementing {@link RF_RBatchCallback}.
+		 */
+		public final static String BatchDelivery = Prefix.Connector + "BatchDelivery";
+
+		/**
+		 * Describe the time in milliseconds a tag is not reported again after
+		 * it was reported, 0 reports each round.
+		 */
+		public final static String DedupeWindow = Prefix.Connector + "Dedupe.Window";
+
+		/**
+		 * Describe whether a tag is reported again within the window if it is
+		 * seen on another antenna.
+		 */
+		public final static String DedupeAntennaChange = Prefix.Connector + "Dedupe.AntennaChange";
+
+		/**
+		 * Describe the minimum change of the RSSI to report a tag again within
+		 * the window, 0 ignores the RSSI.
+		 */
+		public final static String DedupeRssiDelta = Prefix.Connector + "Dedupe.RssiDelta";
+
+		/**
+		 * Describe whether the state of the tags is stored outside of the heap.
+		 */
+		public final static String DedupeOffHeap = Prefix.Connector + "Dedupe.OffHeap";
+
+		/**
+		 * Describe the pacing of the inventory rounds in host mode.
+		 */
+		public final static String PacingPolicy = Prefix.Connector + "Pacing.Policy";
+
+		/**
+		 * Describe the time in milliseconds to wait after the first round
+		 * without tags.
+		 */
+		public final static String PacingMinInterval = Prefix.Connector + "Pacing.MinInterval";
+
+		/**
+		 * Describe the maximum time in milliseconds to wait between rounds
+		 * without tags.
+		 */
+		public final static String PacingIdleInterval = Prefix.Connector + "Pacing.IdleInterval";
+
+		/**
+		 * Describe the maximum number of not required data blocks between two
+		 * ranges of user bank which are read by one command.
+		 */
+		public final static String ReadPlanMaxGap = Prefix.Connector + "ReadPlan.MaxGap";
+
+		/**
+		 * Describe the maximum number of tags of which the memory banks are
+		 * cached across inventory rounds, 0 disables the cache.
+		 */
+		public final static String CacheCapacity = Prefix.Connector + "Cache.Capacity";
+
+		/**
+		 * Describe the time in milliseconds cached reserved and user bank data
+		 * stays valid.
+		 */
+		public final static String CacheTimeToLive = Prefix.Connector + "Cache.TimeToLive";
+
+		/**
+		 * Describe the time in milliseconds an inventory round in host mode
+		 * may spend, bank reads exceeding it are continued in the next rounds.
+		 * 0 does not limit the round.
+		 */
+		public final static String InventoryTimeBudget = Prefix.Connector + "Inventory.TimeBudget";
+
+		/**
+		 * Describe whether the filters of the tag operations are applied to
+		 * the RAM of the reader as selection masks, which overrides configured
+		 * selection masks until the reader is reset.
+		 */
+		public final static String SelectionPushDown = Prefix.Connector + "Selection.PushDown";
+
+		/**
+		 * Describe whether the Gen2 session is adapted to the tag population
+		 * in host mode.
+		 */
+		public final static String AirInterfaceAdaptive = Prefix.Connector + "AirInterface.Adaptive";
+
+		/**
+		 * Describe the lowest Gen2 session chosen by the adaptation.
+		 */
+		public final static String AirInterfaceMinSession = Prefix.Connector + "AirInterface.MinSession";
+
+		/**
+		 * Describe the highest Gen2 session chosen by the adaptation.
+		 */
+		public final static String AirInterfaceMaxSession = Prefix.Connector + "AirInterface.MaxSession";
+
+		/**
+		 * Describe the number of tags up to which the field is considered
+		 * sparse by the adaptation.
+		 */
+		public final static String AirInterfaceLowPopulation = Prefix.Connector + "AirInterface.LowPopulation";
+
+		/**
+		 * Describe the number of tags from which on the field is considered
+		 * crowded by the adaptation.
+		 */
+		public final static String AirInterfaceHighPopulation = Prefix.Connector + "AirInterface.HighPopulation";
+
+		/**
+		 * Describe the number of rounds the state of the field has to persist
+		 * before the adaptation changes the session.
+		 */
+		public final static String AirInterfaceHysteresis = Prefix.Connector + "AirInterface.Hysteresis";
+
+		/**
+		 * Describe the maximum number of host mode rounds between two rounds
+		 * an antenna with a low yield is used in, 0 uses all antennas in each
+		 * round.
+		 */
+		public final static String AntennaSchedulerProbeInterval = Prefix.Connector + "AntennaScheduler.ProbeInterval";
+
+		/**
+		 * Describe whether the tables of the reader library are sized by the
+		 * observed number of tags and the data blocks actually read, starting
+		 * with TagsInField and limited to BlockCount data blocks.
+		 */
+		public final static String TableSizeAdaptive = Prefix.Connector + "TableSize.Adaptive";
+
+		/**
+		 * Describe the time in milliseconds a faulty antenna with automatic
+		 * detection is excluded from the host mode inventory before it is
+		 * checked again, 0 disables the tracking of the antenna health.
+		 */
+		public final static String AntennaHealthBackoff = Prefix.Connector + "AntennaHealth.Backoff";
+
+		/**
+		 * Describe the number of consecutive rounds without tags while other
+		 * antennas see tags after which an antenna is faulty, 0 ignores the
+		 * yield.
+		 */
+		public final static String AntennaHealthZeroYieldRounds = Prefix.Connector + "AntennaHealth.ZeroYieldRounds";
+
+		/**
+		 * Describe the time in milliseconds the automatically detected
+		 * antennas are cached before they are detected again, in the
+		 * background in host mode or when the inventory starts in
+		 * notification mode, 0 detects them each time the inventory starts.
+		 */
+		public final static String AntennaDetectionRefreshInterval = Prefix.Connector + "AntennaDetection.RefreshInterval";
+
+		/**
+		 * Describe the number of execute operations which can be pending at
+		 * the same time, further operations wait until one is finished.
+		 */
+		public final static String ExecuteQueueCapacity = Prefix.Connector + "Execute.QueueCapacity";
+
+		/**
+		 * Describe the number of inventory rounds an execute operation is
+		 * applied to all matching tags, 0 to execute it on the first matching
+		 * tag only unless a timeout is given.
+		 */
+		public final static String ExecuteMultipleRounds = Prefix.Connector + "Execute.MultipleRounds";
+
+		/**
+		 * Describe the time in milliseconds an execute operation is applied to
+		 * all matching tags, 0 to execute it on the first matching tag only
+		 * unless a number of rounds is given.
+		 */
+		public final static String ExecuteMultipleTimeout = Prefix.Connector + "Execute.MultipleTimeout";
+
+		/**
+		 * All property names, a new property has to be added here to be
+		 * accepted by the connector.
+		 */
+		private final static Set<String> names = new HashSet<>(Arrays.asList(
+				InventoryAntennas, InventoryAttempts, TagsInField, BlockSize, BlockCount, ReaderErrorCount, IsoErrorCount, AntennaErrorCount,
+				MaxNoOfDataBlocksRead, InputDelay, DispatchCapacity, DispatchOverflowPolicy, DispatchSlowConsumerThreshold, BatchDelivery,
+				DedupeWindow, DedupeAntennaChange, DedupeRssiDelta, DedupeOffHeap, PacingPolicy, PacingMinInterval, PacingIdleInterval,
+				ReadPlanMaxGap, CacheCapacity, CacheTimeToLive, InventoryTimeBudget, SelectionPushDown, AirInterfaceAdaptive, AirInterfaceMinSession,
+				AirInterfaceMaxSession, AirInterfaceLowPopulation, AirInterfaceHighPopulation, AirInterfaceHysteresis, AntennaSchedulerProbeInterval,
+				TableSizeAdaptive, AntennaHealthBackoff, AntennaHealthZeroYieldRounds, AntennaDetectionRefreshInterval, ExecuteQueueCapacity,
+				ExecuteMultipleRounds, ExecuteMultipleTimeout));
+
+		/**
+		 * Describes whether the name is a property of the RF_R reader
+		 * connector.
+		 * 
+		 * @param name
+		 *            the property name
+		 * @return true if known, false otherwise
+		 */
+		public static boolean isKnown(String name) {
+			return names.contains(name);
+		}
 	}
 
 	private Byte inventoryAntennas = null;
@@ -70,6 +298,36 @@ public class RF_RProperties {
 	private short antennaErrorCount = 3;
 	private short maxNoOfDataBlocksRead = 128;
 	private short inputDelay = 100;
+	private int dispatchCapacity = 0;
+	private RF_RDispatcher.OverflowPolicy dispatchOverflowPolicy = RF_RDispatcher.OverflowPolicy.Block;
+	private int dispatchSlowConsumerThreshold = 1000;
+	private boolean batchDelivery = false;
+	private int dedupeWindow = 0;
+	private boolean dedupeAntennaChange = false;
+	private int dedupeRssiDelta = 0;
+	private boolean dedupeOffHeap = false;
+	private PacingPolicy pacingPolicy = PacingPolicy.Adaptive;
+	private int pacingMinInterval = 1;
+	private int pacingIdleInterval = 100;
+	private int readPlanMaxGap = 4;
+	private int cacheCapacity = 0;
+	private int cacheTimeToLive = 1000;
+	private int inventoryTimeBudget = 0;
+	private boolean selectionPushDown = false;
+	private boolean airInterfaceAdaptive = false;
+	private int airInterfaceMinSession = 0;
+	private int airInterfaceMaxSession = 1;
+	private int airInterfaceLowPopulation = 16;
+	private int airInterfaceHighPopulation = 64;
+	private int airInterfaceHysteresis = 5;
+	private int antennaSchedulerProbeInterval = 0;
+	private boolean tableSizeAdaptive = false;
+	private int antennaHealthBackoff = 0;
+	private int antennaHealthZeroYieldRounds = 0;
+	private int antennaDetectionRefreshInterval = 0;
+	private int executeQueueCapacity = 16;
+	private int executeMultipleRounds = 0;
+	private int executeMultipleTimeout = 0;
 
 	/**
 	 * Gets the antenna ids that are used for an inventory.
@@ -268,4 +526,622 @@ public class RF_RProperties {
 		this.inputDelay = inputDelay;
 	}
 
+	/**
+	 * Gets the number of tag reports buffered between the inventory and the
+	 * callback. The default value is 0, the reports are delivered directly.
+	 * 
+	 * @return Dispatch capacity
+	 */
+	public int getDispatchCapacity() {
+		return dispatchCapacity;
+	}
+
+	/**
+	 * Sets the number of tag reports buffered between the inventory and the
+	 * callback. The default value is 0, the reports are delivered directly.
+	 * 
+	 * @param dispatchCapacity
+	 */
+	public void setDispatchCapacity(int dispatchCapacity) {
+		this.dispatchCapacity = dispatchCapacity;
+	}
+
+	/**
+	 * Gets the behavior if the dispatch buffer is full. The default value is
+	 * {@link RF_RDispatcher.OverflowPolicy#Block}.
+	 * 
+	 * @return Overflow policy
+	 */
+	public RF_RDispatcher.OverflowPolicy getDispatchOverflowPolicy() {
+		return dispatchOverflowPolicy;
+	}
+
+	/**
+	 * Sets the behavior if the dispatch buffer is full. The default value is
+	 * {@link RF_RDispatcher.OverflowPolicy#Block}.
+	 * 
+	 * @param dispatchOverflowPolicy
+	 */
+	public void setDispatchOverflowPolicy(RF_RDispatcher.OverflowPolicy dispatchOverflowPolicy) {
+		this.dispatchOverflowPolicy = dispatchOverflowPolicy;
+	}
+
+	/**
+	 * Gets the time in milliseconds a tag report may be buffered before the
+	 * consumer is reported as slow. The default value is 1000.
+	 * 
+	 * @return Slow consumer threshold
+	 */
+	public int getDispatchSlowConsumerThreshold() {
+		return dispatchSlowConsumerThreshold;
+	}
+
+	/**
+	 * Sets the time in milliseconds a tag report may be buffered before the
+	 * consumer is reported as slow. The default value is 1000.
+	 * 
+	 * @param dispatchSlowConsumerThreshold
+	 */
+	public void setDispatchSlowConsumerThreshold(int dispatchSlowConsumerThreshold) {
+		this.dispatchSlowConsumerThreshold = dispatchSlowConsumerThreshold;
+	}
+
+	/**
+	 * Gets whether the tags of an inventory round are delivered as one batch
+	 * to callbacks implementing {@link RF_RBatchCallback}, other callbacks
+	 * receive each tag individually. The default value is false.
+	 * 
+	 * @return Batch delivery
+	 */
+	public boolean isBatchDelivery() {
+		return batchDelivery;
+	}
+
+	/**
+	 * Sets whether the tags of an inventory round are delivered as one batch
+	 * to callbacks implementing {@link RF_RBatchCallback}, other callbacks
+	 * receive each tag individually. The default value is false.
+	 * 
+	 * @param batchDelivery
+	 */
+	public void setBatchDelivery(boolean batchDelivery) {
+		this.batchDelivery = batchDelivery;
+	}
+
+	/**
+	 * Gets the time in milliseconds a tag is not reported again after it was
+	 * reported. The default value is 0, which reports each round.
+	 * 
+	 * @return Dedupe window
+	 */
+	public int getDedupeWindow() {
+		return dedupeWindow;
+	}
+
+	/**
+	 * Sets the time in milliseconds a tag is not reported again after it was
+	 * reported. The default value is 0, which reports each round.
+	 * 
+	 * @param dedupeWindow
+	 */
+	public void setDedupeWindow(int dedupeWindow) {
+		this.dedupeWindow = dedupeWindow;
+	}
+
+	/**
+	 * Gets whether a tag is reported again within the dedupe window if it is
+	 * seen on another antenna. The default value is false.
+	 * 
+	 * @return Dedupe on antenna change
+	 */
+	public boolean isDedupeAntennaChange() {
+		return dedupeAntennaChange;
+	}
+
+	/**
+	 * Sets whether a tag is reported again within the dedupe window if it is
+	 * seen on another antenna. The default value is false.
+	 * 
+	 * @param dedupeAntennaChange
+	 */
+	public void setDedupeAntennaChange(boolean dedupeAntennaChange) {
+		this.dedupeAntennaChange = dedupeAntennaChange;
+	}
+
+	/**
+	 * Gets the minimum change of the RSSI to report a tag again within the
+	 * dedupe window. The default value is 0, which ignores the RSSI.
+	 * 
+	 * @return Dedupe RSSI delta
+	 */
+	public int getDedupeRssiDelta() {
+		return dedupeRssiDelta;
+	}
+
+	/**
+	 * Sets the minimum change of the RSSI to report a tag again within the
+	 * dedupe window. The default value is 0, which ignores the RSSI.
+	 * 
+	 * @param dedupeRssiDelta
+	 */
+	public void setDedupeRssiDelta(int dedupeRssiDelta) {
+		this.dedupeRssiDelta = dedupeRssiDelta;
+	}
+
+	/**
+	 * Gets whether the dedupe state of the tags is stored outside of the heap.
+	 * The default value is false.
+	 * 
+	 * @return Dedupe off heap
+	 */
+	public boolean isDedupeOffHeap() {
+		return dedupeOffHeap;
+	}
+
+	/**
+	 * Sets whether the dedupe state of the tags is stored outside of the heap.
+	 * The default value is false.
+	 * 
+	 * @param dedupeOffHeap
+	 */
+	public void setDedupeOffHeap(boolean dedupeOffHeap) {
+		this.dedupeOffHeap = dedupeOffHeap;
+	}
+
+	/**
+	 * Gets the pacing of the inventory rounds in host mode. The default value
+	 * is {@link PacingPolicy#Adaptive}.
+	 * 
+	 * @return Pacing policy
+	 */
+	public PacingPolicy getPacingPolicy() {
+		return pacingPolicy;
+	}
+
+	/**
+	 * Sets the pacing of the inventory rounds in host mode. The default value
+	 * is {@link PacingPolicy#Adaptive}.
+	 * 
+	 * @param pacingPolicy
+	 */
+	public void setPacingPolicy(PacingPolicy pacingPolicy) {
+		this.pacingPolicy = pacingPolicy;
+	}
+
+	/**
+	 * Gets the time in milliseconds to wait after the first round without
+	 * tags. The default value is 1.
+	 * 
+	 * @return Pacing minimum interval
+	 */
+	public int getPacingMinInterval() {
+		return pacingMinInterval;
+	}
+
+	/**
+	 * Sets the time in milliseconds to wait after the first round without
+	 * tags. The default value is 1.
+	 * 
+	 * @param pacingMinInterval
+	 */
+	public void setPacingMinInterval(int pacingMinInterval) {
+		this.pacingMinInterval = pacingMinInterval;
+	}
+
+	/**
+	 * Gets the maximum time in milliseconds to wait between rounds without
+	 * tags. The default value is 100.
+	 * 
+	 * @return Pacing idle interval
+	 */
+	public int getPacingIdleInterval() {
+		return pacingIdleInterval;
+	}
+
+	/**
+	 * Sets the maximum time in milliseconds to wait between rounds without
+	 * tags. The default value is 100.
+	 * 
+	 * @param pacingIdleInterval
+	 */
+	public void setPacingIdleInterval(int pacingIdleInterval) {
+		this.pacingIdleInterval = pacingIdleInterval;
+	}
+
+	/**
+	 * Gets the maximum number of not required data blocks between two ranges
+	 * of user bank which are read by one command. The default value is 4.
+	 * 
+	 * @return Read plan maximum gap
+	 */
+	public int getReadPlanMaxGap() {
+		return readPlanMaxGap;
+	}
+
+	/**
+	 * Sets the maximum number of not required data blocks between two ranges
+	 * of user bank which are read by one command. The default value is 4.
+	 * 
+	 * @param readPlanMaxGap
+	 */
+	public void setReadPlanMaxGap(int readPlanMaxGap) {
+		this.readPlanMaxGap = readPlanMaxGap;
+	}
+
+	/**
+	 * Gets the maximum number of tags of which the memory banks are cached
+	 * across inventory rounds. The default value is 0, which disables the
+	 * cache.
+	 * 
+	 * @return Cache capacity
+	 */
+	public int getCacheCapacity() {
+		return cacheCapacity;
+	}
+
+	/**
+	 * Sets the maximum number of tags of which the memory banks are cached
+	 * across inventory rounds. The default value is 0, which disables the
+	 * cache.
+	 * 
+	 * @param cacheCapacity
+	 */
+	public void setCacheCapacity(int cacheCapacity) {
+		this.cacheCapacity = cacheCapacity;
+	}
+
+	/**
+	 * Gets the time in milliseconds cached reserved and user bank data stays
+	 * valid. The default value is 1000.
+	 * 
+	 * @return Cache time to live
+	 */
+	public int getCacheTimeToLive() {
+		return cacheTimeToLive;
+	}
+
+	/**
+	 * Sets the time in milliseconds cached reserved and user bank data stays
+	 * valid. The default value is 1000.
+	 * 
+	 * @param cacheTimeToLive
+	 */
+	public void setCacheTimeToLive(int cacheTimeToLive) {
+		this.cacheTimeToLive = cacheTimeToLive;
+	}
+
+	/**
+	 * Gets the time in milliseconds an inventory round in host mode may spend.
+	 * The default value is 0, which does not limit the round.
+	 * 
+	 * @return Inventory time budget
+	 */
+	public int getInventoryTimeBudget() {
+		return inventoryTimeBudget;
+	}
+
+	/**
+	 * Sets the time in milliseconds an inventory round in host mode may spend.
+	 * The default value is 0, which does not limit the round.
+	 * 
+	 * @param inventoryTimeBudget
+	 */
+	public void setInventoryTimeBudget(int inventoryTimeBudget) {
+		this.inventoryTimeBudget = inventoryTimeBudget;
+	}
+
+	/**
+	 * Gets whether the filters of the tag operations are applied to the reader
+	 * as selection masks. The default value is false.
+	 * 
+	 * @return Selection push down
+	 */
+	public boolean isSelectionPushDown() {
+		return selectionPushDown;
+	}
+
+	/**
+	 * Sets whether the filters of the tag operations are applied to the reader
+	 * as selection masks. The default value is false.
+	 * 
+	 * @param selectionPushDown
+	 */
+	public void setSelectionPushDown(boolean selectionPushDown) {
+		this.selectionPushDown = selectionPushDown;
+	}
+
+	/**
+	 * Gets whether the Gen2 session is adapted to the tag population in host mode.
+	 * The default value is false.
+	 * 
+	 * @return Air interface adaptive
+	 */
+	public boolean isAirInterfaceAdaptive() {
+		return airInterfaceAdaptive;
+	}
+
+	/**
+	 * Sets whether the Gen2 session is adapted to the tag population in host mode.
+	 * The default value is false.
+	 * 
+	 * @param airInterfaceAdaptive
+	 */
+	public void setAirInterfaceAdaptive(boolean airInterfaceAdaptive) {
+		this.airInterfaceAdaptive = airInterfaceAdaptive;
+	}
+
+	/**
+	 * Gets the lowest Gen2 session chosen by the adaptation. The default value is
+	 * 0.
+	 * 
+	 * @return Air interface min session
+	 */
+	public int getAirInterfaceMinSession() {
+		return airInterfaceMinSession;
+	}
+
+	/**
+	 * Sets the lowest Gen2 session chosen by the adaptation. The default value is
+	 * 0.
+	 * 
+	 * @param airInterfaceMinSession
+	 */
+	public void setAirInterfaceMinSession(int airInterfaceMinSession) {
+		this.airInterfaceMinSession = airInterfaceMinSession;
+	}
+
+	/**
+	 * Gets the highest Gen2 session chosen by the adaptation. The default value is
+	 * 1.
+	 * 
+	 * @return Air interface max session
+	 */
+	public int getAirInterfaceMaxSession() {
+		return airInterfaceMaxSession;
+	}
+
+	/**
+	 * Sets the highest Gen2 session chosen by the adaptation. The default value is
+	 * 1.
+	 * 
+	 * @param airInterfaceMaxSession
+	 */
+	public void setAirInterfaceMaxSession(int airInterfaceMaxSession) {
+		this.airInterfaceMaxSession = airInterfaceMaxSession;
+	}
+
+	/**
+	 * Gets the number of tags up to which the field is considered sparse by the
+	 * adaptation. The default value is 16.
+	 * 
+	 * @return Air interface low population
+	 */
+	public int getAirInterfaceLowPopulation() {
+		return airInterfaceLowPopulation;
+	}
+
+	/**
+	 * Sets the number of tags up to which the field is considered sparse by the
+	 * adaptation. The default value is 16.
+	 * 
+	 * @param airInterfaceLowPopulation
+	 */
+	public void setAirInterfaceLowPopulation(int airInterfaceLowPopulation) {
+		this.airInterfaceLowPopulation = airInterfaceLowPopulation;
+	}
+
+	/**
+	 * Gets the number of tags from which on the field is considered crowded by the
+	 * adaptation. The default value is 64.
+	 * 
+	 * @return Air interface high population
+	 */
+	public int getAirInterfaceHighPopulation() {
+		return airInterfaceHighPopulation;
+	}
+
+	/**
+	 * Sets the number of tags from which on the field is considered crowded by the
+	 * adaptation. The default value is 64.
+	 * 
+	 * @param airInterfaceHighPopulation
+	 */
+	public void setAirInterfaceHighPopulation(int airInterfaceHighPopulation) {
+		this.airInterfaceHighPopulation = airInterfaceHighPopulation;
+	}
+
+	/**
+	 * Gets the number of rounds the state of the field has to persist before the
+	 * adaptation changes the session. The default value is 5.
+	 * 
+	 * @return Air interface hysteresis
+	 */
+	public int getAirInterfaceHysteresis() {
+		return airInterfaceHysteresis;
+	}
+
+	/**
+	 * Sets the number of rounds the state of the field has to persist before the
+	 * adaptation changes the session. The default value is 5.
+	 * 
+	 * @param airInterfaceHysteresis
+	 */
+	public void setAirInterfaceHysteresis(int airInterfaceHysteresis) {
+		this.airInterfaceHysteresis = airInterfaceHysteresis;
+	}
+
+	/**
+	 * Gets the maximum number of host mode rounds between two rounds an
+	 * antenna with a low yield is used in. The default value is 0, which uses
+	 * all antennas in each round.
+	 * 
+	 * @return Antenna scheduler probe interval
+	 */
+	public int getAntennaSchedulerProbeInterval() {
+		return antennaSchedulerProbeInterval;
+	}
+
+	/**
+	 * Sets the maximum number of host mode rounds between two rounds an
+	 * antenna with a low yield is used in. The default value is 0, which uses
+	 * all antennas in each round.
+	 * 
+	 * @param antennaSchedulerProbeInterval
+	 */
+	public void setAntennaSchedulerProbeInterval(int antennaSchedulerProbeInterval) {
+		this.antennaSchedulerProbeInterval = antennaSchedulerProbeInterval;
+	}
+
+	/**
+	 * Gets whether the tables of the reader library are sized by the observed
+	 * number of tags and the data blocks actually read. The default value is
+	 * false.
+	 * 
+	 * @return Table size adaptive
+	 */
+	public boolean isTableSizeAdaptive() {
+		return tableSizeAdaptive;
+	}
+
+	/**
+	 * Sets whether the tables of the reader library are sized by the observed
+	 * number of tags and the data blocks actually read. The default value is
+	 * false.
+	 * 
+	 * @param tableSizeAdaptive
+	 */
+	public void setTableSizeAdaptive(boolean tableSizeAdaptive) {
+		this.tableSizeAdaptive = tableSizeAdaptive;
+	}
+
+	/**
+	 * Gets the time in milliseconds a faulty antenna with automatic detection
+	 * is excluded from the host mode inventory before it is checked again. The
+	 * default value is 0, which disables the tracking of the antenna health.
+	 * 
+	 * @return Antenna health backoff
+	 */
+	public int getAntennaHealthBackoff() {
+		return antennaHealthBackoff;
+	}
+
+	/**
+	 * Sets the time in milliseconds a faulty antenna with automatic detection
+	 * is excluded from the host mode inventory before it is checked again. The
+	 * default value is 0, which disables the tracking of the antenna health.
+	 * 
+	 * @param antennaHealthBackoff
+	 */
+	public void setAntennaHealthBackoff(int antennaHealthBackoff) {
+		this.antennaHealthBackoff = antennaHealthBackoff;
+	}
+
+	/**
+	 * Gets the number of consecutive rounds without tags while other antennas
+	 * see tags after which an antenna is faulty. The default value is 0, which
+	 * ignores the yield.
+	 * 
+	 * @return Antenna health zero yield rounds
+	 */
+	public int getAntennaHealthZeroYieldRounds() {
+		return antennaHealthZeroYieldRounds;
+	}
+
+	/**
+	 * Sets the number of consecutive rounds without tags while other antennas
+	 * see tags after which an antenna is faulty. The default value is 0, which
+	 * ignores the yield.
+	 * 
+	 * @param antennaHealthZeroYieldRounds
+	 */
+	public void setAntennaHealthZeroYieldRounds(int antennaHealthZeroYieldRounds) {
+		this.antennaHealthZeroYieldRounds = antennaHealthZeroYieldRounds;
+	}
+
+	/**
+	 * Gets the time in milliseconds the automatically detected antennas are
+	 * cached before they are detected again, in the background in host mode
+	 * or when the inventory starts in notification mode. The default value is
+	 * 0, which detects them each time the inventory starts.
+	 * 
+	 * @return Antenna detection refresh interval
+	 */
+	public int getAntennaDetectionRefreshInterval() {
+		return antennaDetectionRefreshInterval;
+	}
+
+	/**
+	 * Sets the time in milliseconds the automatically detected antennas are
+	 * cached before they are detected again, in the background in host mode
+	 * or when the inventory starts in notification mode. The default value is
+	 * 0, which detects them each time the inventory starts.
+	 * 
+	 * @param antennaDetectionRefreshInterval
+	 */
+	public void setAntennaDetectionRefreshInterval(int antennaDetectionRefreshInterval) {
+		this.antennaDetectionRefreshInterval = antennaDetectionRefreshInterval;
+	}
+
+	/**
+	 * Gets the number of execute operations which can be pending at the same
+	 * time. The default value is 16.
+	 * 
+	 * @return Execute queue capacity
+	 */
+	public int getExecuteQueueCapacity() {
+		return executeQueueCapacity;
+	}
+
+	/**
+	 * Sets the number of execute operations which can be pending at the same
+	 * time. The default value is 16.
+	 * 
+	 * @param executeQueueCapacity
+	 */
+	public void setExecuteQueueCapacity(int executeQueueCapacity) {
+		this.executeQueueCapacity = executeQueueCapacity;
+	}
+
+	/**
+	 * Gets the number of inventory rounds an execute operation is applied to
+	 * all matching tags. The default value is 0, which executes an operation
+	 * on the first matching tag only unless a timeout is given.
+	 * 
+	 * @return Execute multiple rounds
+	 */
+	public int getExecuteMultipleRounds() {
+		return executeMultipleRounds;
+	}
+
+	/**
+	 * Sets the number of inventory rounds an execute operation is applied to
+	 * all matching tags. The default value is 0.
+	 * 
+	 * @param executeMultipleRounds
+	 */
+	public void setExecuteMultipleRounds(int executeMultipleRounds) {
+		this.executeMultipleRounds = executeMultipleRounds;
+	}
+
+	/**
+	 * Gets the time in milliseconds an execute operation is applied to all
+	 * matching tags. The default value is 0, which executes an operation on
+	 * the first matching tag only unless a number of rounds is given.
+	 * 
+	 * @return Execute multiple timeout
+	 */
+	public int getExecuteMultipleTimeout() {
+		return executeMultipleTimeout;
+	}
+
+	/**
+	 * Sets the time in milliseconds an execute operation is applied to all
+	 * matching tags. The default value is 0.
+	 * 
+	 * @param executeMultipleTimeout
+	 */
+	public void setExecuteMultipleTimeout(int executeMultipleTimeout) {
+		this.executeMultipleTimeout = executeMultipleTimeout;
+	}
+
 }
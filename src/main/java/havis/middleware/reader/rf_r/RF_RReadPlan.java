@@ -0,0 +1,145 @@
+package havis.middleware.reader.rf_r;
+
+import java.util.Arrays;
+
+/**
+ * Read commands for the data blocks of a memory bank. Runs of required blocks
+ * are merged if the gap between them is small enough, so that a gap is read
+ * with the surrounding blocks instead of issuing another command, and split if
+ * they exceed the number of blocks one command may read.
+ */
+public class RF_RReadPlan {
+
+	private static final int[] EMPTY = new int[0];
+
+	private final int[] offsets;
+	private final int[] lengths;
+
+	private RF_RReadPlan(int[] offsets, int[] lengths) {
+		this.offsets = offsets;
+		this.lengths = lengths;
+	}
+
+	/**
+	 * Creates the read commands for the required data blocks.
+	 *
+	 * @param dataBlocks
+	 *            the required data blocks, may be null
+	 * @param maxGap
+	 *            the maximum number of not required blocks between two runs
+	 *            which are read by one command
+	 * @param maxBlocks
+	 *            the maximum number of blocks read by one command
+	 * @return the read commands
+	 */
+	public static RF_RReadPlan create(boolean[] dataBlocks, int maxGap, int maxBlocks) {
+		if (maxGap < 0)
+			throw new IllegalArgumentException("Maximum gap must not be negative");
+		if (maxBlocks < 1)
+			throw new IllegalArgumentException("Maximum blocks must be at least 1");
+		if (dataBlocks == null || dataBlocks.length == 0)
+			return new RF_RReadPlan(EMPTY, EMPTY);
+
+		long[] set = new long[(dataBlocks.length + 63) >>> 6];
+		for (int i = 0; i < dataBlocks.length; i++)
+			if (dataBlocks[i])
+				set[i >>> 6] |= 1L << i;
+
+		int[] offsets = new int[4];
+		int[] lengths = new int[4];
+		int count = 0;
+
+		int start = nextSet(set, 0);
+		while (start >= 0) {
+			int end = nextClear(set, start);
+			// merge following runs as long as the gap is small enough
+			int next = nextSet(set, end);
+			while (next >= 0 && next - end <= maxGap && nextClear(set, next) - start <= maxBlocks) {
+				end = nextClear(set, next);
+				next = nextSet(set, end);
+			}
+
+			// split runs exceeding the maximum number of blocks
+			for (int offset = start; offset < end; offset += maxBlocks) {
+				if (count == offsets.length) {
+					offsets = Arrays.copyOf(offsets, count * 2);
+					lengths = Arrays.copyOf(lengths, count * 2);
+				}
+				offsets[count] = offset;
+				lengths[count] = Math.min(maxBlocks, end - offset);
+				count++;
+			}
+			start = next;
+		}
+		return new RF_RReadPlan(Arrays.copyOf(offsets, count), Arrays.copyOf(lengths, count));
+	}
+
+	/**
+	 * @return the index of the first set bit at or after the index, -1 if
+	 *         there is none
+	 */
+	private static int nextSet(long[] set, int index) {
+		int word = index >>> 6;
+		if (word >= set.length)
+			return -1;
+		long bits = set[word] & (-1L << index);
+		while (bits == 0) {
+			if (++word == set.length)
+				return -1;
+			bits = set[word];
+		}
+		return (word << 6) + Long.numberOfTrailingZeros(bits);
+	}
+
+	/**
+	 * @return the index of the first clear bit at or after the index
+	 */
+	private static int nextClear(long[] set, int index) {
+		int word = index >>> 6;
+		if (word >= set.length)
+			return index;
+		long bits = ~set[word] & (-1L << index);
+		while (bits == 0) {
+			if (++word == set.length)
+				return word << 6;
+			bits = ~set[word];
+		}
+		return (word << 6) + Long.numberOfTrailingZeros(bits);
+	}
+
+	/**
+	 * @return the number of read commands
+	 */
+	public int size() {
+		return offsets.length;
+	}
+
+	/**
+	 * @param index
+	 *            the index of the read command
+	 * @return the first block to read
+	 */
+	public int getOffset(int index) {
+		return offsets[index];
+	}
+
+	/**
+	 * @param index
+	 *            the index of the read command
+	 * @return the number of blocks to read
+	 */
+	public int getLength(int index) {
+		return lengths[index];
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder("RF_RReadPlan [");
+		for (int i = 0; i < offsets.length; i++) {
+			if (i > 0)
+				builder.append(", ");
+			builder.append(offsets[i]).append('+').append(lengths[i]);
+		}
+		return builder.append(']').toString();
+	}
+}
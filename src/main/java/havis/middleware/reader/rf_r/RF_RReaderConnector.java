@@ -1,6 +1,5 @@
 package havis.middleware.reader.rf_r;
 
-import havis.middleware.ale.base.KeyValuePair;
 import havis.middleware.ale.base.exception.ImplementationException;
 import havis.middleware.ale.base.exception.ValidationException;
 import havis.middleware.ale.base.message.Message;
@@ -46,13 +45,18 @@ import java.net.DatagramSocket;
 import java.net.InetAddress;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Hashtable;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -127,6 +131,78 @@ public abstract class RF_RReaderConnector implements ReaderConnector {
 	private Object syncTagObserverList = new Object();
 	private List<Long> tagObserverList = new ArrayList<>();
 
+	/**
+	 * Dispatcher between inventory and callback, null if the tag reports are
+	 * delivered directly.
+	 */
+	private volatile RF_RDispatcher dispatcher;
+
+	/**
+	 * Tag reports of the current inventory round by tag operation ID, null if
+	 * batch delivery is not used. Only filled by the thread running the round.
+	 */
+	private volatile Map<Long, List<Tag>> batch;
+
+	/**
+	 * Delivery of batches to the client callback, null if the callback does
+	 * not support batches
+	 */
+	private volatile RF_RBatchDelivery batchDelivery;
+
+	/**
+	 * Filter for repeated tag reports, null if each report is delivered
+	 */
+	private volatile RF_RDuplicateFilter duplicateFilter;
+
+	/**
+	 * Cache for the memory banks read from tags, null if disabled
+	 */
+	private volatile RF_RMemoryCache memoryCache;
+
+	/**
+	 * Selection masks applied to the reader, null if not known
+	 */
+	private RF_RSelection selection;
+
+	/**
+	 * Tag operations, execute operation and commissioning run the selection
+	 * masks were last checked for
+	 */
+	private RF_RActiveOperations selectionOperations;
+	private long selectionExecuteModifications = -1;
+	private RF_RCommissioning selectionCommissioning;
+
+	/**
+	 * Adaptation of the Gen2 session, null if disabled
+	 */
+	private volatile RF_RAirInterfaceController airInterfaceController;
+
+	/**
+	 * Session applied to the reader, -1 if not known
+	 */
+	private int airInterfaceSession = -1;
+
+	/**
+	 * Sizing of the table of the reader library, null if the configured size
+	 * is used
+	 */
+	private volatile RF_RTableSizer tableSizer;
+
+	/**
+	 * Antennas detected by the reader and the time of the detection, 0 if not
+	 * detected since the connect
+	 */
+	private volatile byte detectedAntennas;
+	private volatile long detectionTime;
+	private volatile boolean detectionValid;
+	private final AtomicBoolean detectionRefreshing = new AtomicBoolean();
+
+	/**
+	 * Snapshot of the enabled tag operations, replaced on each change.
+	 */
+	private volatile RF_RActiveOperations activeOperations = new RF_RActiveOperations(0, new RF_RInventoryOperation(),
+			Collections.<Long, TagOperation> emptyMap());
+
 	// Properties for PortOperations
 	private Object syncPortObservationList = new Object();
 	private Map<Long, PortObservation> portObservationList = new Hashtable<>();
@@ -137,19 +213,12 @@ public abstract class RF_RReaderConnector implements ReaderConnector {
 	 * Lock object to sync execute operations.
 	 */
 	private Lock syncExecuteTagOperation = new ReentrantLock(true);
-	private boolean executeAbort = false;
-	private Semaphore executeEvent = new Semaphore(1);
-
-	/**
-	 * Represents the current execute reader operation.
-	 */
-	protected KeyValuePair<Long, TagOperation> executeTagOperation = new KeyValuePair<>();
+	private Condition executeQueueSpace = syncExecuteTagOperation.newCondition();
 
 	/**
-	 * A counter which represents the number of inventory attempts for the
-	 * current <see cref="executeTagOperation"/>.
+	 * The pending execute reader operations.
 	 */
-	private int inventoryAttempts;
+	private final RF_RExecuteQueue executeQueue = new RF_RExecuteQueue();
 
 	/**
 	 * The device capabilities containing the name, type, manufacturer and firmware version of the reader. 
@@ -194,6 +263,7 @@ public abstract class RF_RReaderConnector implements ReaderConnector {
 	public RF_RReaderConnector(Callback callback) {
 		this();
 		this.clientCallback = callback;
+		this.batchDelivery = RF_RBatchDelivery.forCallback(callback);
 		
 		this.connectTypes = initAntennas();
 		
@@ -356,6 +426,7 @@ public abstract class RF_RReaderConnector implements ReaderConnector {
 							}
 						});
 
+				this.startTableSizer();
 				int readerTableSizeResult = this.setReaderTableSize();
 				if (readerTableSizeResult != 0) {
 					if (readerTableSizeResult > 0)
@@ -366,6 +437,17 @@ public abstract class RF_RReaderConnector implements ReaderConnector {
 								+ this.readerConnection.toString() + ")!");
 				}
 
+				// the complete configuration restores the configured masks
+				this.selection = null;
+				this.selectionOperations = null;
+				this.detectionTime = 0;
+				this.detectionValid = false;
+
+				this.startDispatcher();
+				this.startDuplicateFilter();
+				this.startMemoryCache();
+				this.startAirInterfaceController();
+
 				synchronized (syncTagObserverList) {
 					if (this.tagObserverList.size() > 0)
 						this.startInventory();
@@ -442,6 +524,12 @@ public abstract class RF_RReaderConnector implements ReaderConnector {
 			if (this.portObserverList.size() > 0)
 				this.stopPortObservation();
 
+			this.stopDispatcher();
+			this.duplicateFilter = null;
+			this.memoryCache = null;
+			this.airInterfaceController = null;
+			this.tableSizer = null;
+
 			readerLock.lock();
 			try {
 				while (this.reader.isConnected())
@@ -517,8 +605,11 @@ public abstract class RF_RReaderConnector implements ReaderConnector {
 			if (this.tagObserverList.contains(id))
 				this.disableTagOperation(id);
 
-			synchronized (this.syncTagOperationList) {
-				this.tagOperationList.remove(id);
+			synchronized (this.syncTagObserverList) {
+				synchronized (this.syncTagOperationList) {
+					this.tagOperationList.remove(id);
+				}
+				publishActiveOperations();
 			}
 		} catch (ImplementationException e) {
 			throw e;
@@ -527,20 +618,32 @@ public abstract class RF_RReaderConnector implements ReaderConnector {
 		}
 	}
 	
-	protected RF_RInventoryOperation getCurrentOperations(Map<Long, TagOperation> tagOperations) {
-		RF_RInventoryOperation inventoryOperation;
-		synchronized (this.syncTagObserverList) {
-			inventoryOperation = this.inventoryOperation.clone();
-			synchronized (this.syncTagOperationList) {
-				for (Long id : this.tagObserverList) {
-					TagOperation op = tagOperationList.get(id);
-					if (op != null) {
-						tagOperations.put(id, op);
-					}
+	/**
+	 * Gets the snapshot of the enabled tag operations. The snapshot is
+	 * immutable and can be read without locking, it is replaced whenever a tag
+	 * operation is enabled, disabled or undefined.
+	 * 
+	 * @return the current snapshot
+	 */
+	protected RF_RActiveOperations getActiveOperations() {
+		return this.activeOperations;
+	}
+
+	/**
+	 * Publishes a new snapshot of the enabled tag operations, must be called
+	 * while holding the lock of the tag observer list.
+	 */
+	private void publishActiveOperations() {
+		Map<Long, TagOperation> tagOperations = new LinkedHashMap<>();
+		synchronized (this.syncTagOperationList) {
+			for (Long id : this.tagObserverList) {
+				TagOperation op = tagOperationList.get(id);
+				if (op != null) {
+					tagOperations.put(id, op);
 				}
 			}
 		}
-		return inventoryOperation;
+		this.activeOperations = new RF_RActiveOperations(this.activeOperations.getVersion() + 1, this.inventoryOperation, tagOperations);
 	}
 
 	/**
@@ -567,6 +670,7 @@ public abstract class RF_RReaderConnector implements ReaderConnector {
 					updateInventorySettings(this.inventoryOperation, newInventoryOperation);
 					this.inventoryOperation = newInventoryOperation;
 				}
+				publishActiveOperations();
 			}
 
 			if (this.isConnected && this.tagObserverList.size() == 1) {
@@ -605,6 +709,7 @@ public abstract class RF_RReaderConnector implements ReaderConnector {
 					updateInventorySettings(this.inventoryOperation, newInventoryOperation);
 					this.inventoryOperation = newInventoryOperation;
 				}
+				publishActiveOperations();
 			}
 			if (this.isConnected && this.tagObserverList.size() == 0)
 				this.stopInventory();
@@ -616,38 +721,88 @@ public abstract class RF_RReaderConnector implements ReaderConnector {
 	}
 
 	/**
-	 * Method to define a reader operation and execute it once.
+	 * Method to define a reader operation and execute it once. If the
+	 * connector properties {@link RF_RProperties.PropertyName#ExecuteMultipleRounds}
+	 * or {@link RF_RProperties.PropertyName#ExecuteMultipleTimeout} give a
+	 * budget, the operation is executed on all matching tags as by
+	 * {@link #executeTagOperation(long, TagOperation, int, long)}.
 	 *
 	 * @param id
 	 *            The unique id to identify the operation
 	 * @param operation
 	 *            The reader operation to execute
 	 * @throws ValidationException
+	 *             if an operation with the id is already pending
 	 * @throws ImplementationException
 	 *             if connector was not connected to the reader.
 	 */
 	@Override
 	public void executeTagOperation(long id, TagOperation operation)
 			throws ValidationException, ImplementationException {
+		RF_RConnection connection = this.readerConnection;
+		RF_RProperties properties = connection != null ? connection.getConnectionProperties() : null;
+		if (properties != null && (properties.getExecuteMultipleRounds() > 0 || properties.getExecuteMultipleTimeout() > 0))
+			this.queueTagOperation(id, operation, true, properties.getExecuteMultipleRounds(), properties.getExecuteMultipleTimeout());
+		else
+			this.queueTagOperation(id, operation, false, 0, 0);
+	}
+
+	/**
+	 * Method to define a reader operation and execute it on all matching tags
+	 * found within a round or time budget. Each tag is accessed once, tags are
+	 * identified by their TID. The results are reported in one batch when the
+	 * budget is exhausted, with one call if the callback implements
+	 * {@link RF_RBatchCallback}, otherwise one report per tag. If no tag was
+	 * found an error report is sent.
+	 *
+	 * @param id
+	 *            The unique id to identify the operation
+	 * @param operation
+	 *            The reader operation to execute
+	 * @param rounds
+	 *            The number of inventory rounds, 0 for no limit
+	 * @param timeout
+	 *            The time in milliseconds, 0 for no limit
+	 * @throws ValidationException
+	 *             if neither a round nor a time budget is given, or an
+	 *             operation with the id is already pending
+	 * @throws ImplementationException
+	 *             if connector was not connected to the reader.
+	 */
+	public void executeTagOperation(long id, TagOperation operation, int rounds, long timeout)
+			throws ValidationException, ImplementationException {
+		if (rounds < 0 || timeout < 0 || rounds == 0 && timeout == 0)
+			throw new ValidationException("A round or time budget is required to execute an operation on multiple tags ("
+					+ this.devCaps.getName() + ")!");
+		this.queueTagOperation(id, operation, true, rounds, timeout);
+	}
+
+	private void queueTagOperation(long id, TagOperation operation, boolean multiple, int rounds, long timeout)
+			throws ValidationException, ImplementationException {
 		if (!this.isConnected)
 			throw new ValidationException("ReaderConnector was not connected to " + this.devCaps.getModel() + " ("
 					+ devCaps.getName() + ")!");
 
 		try {
-			executeEvent.acquire();
 			boolean validExecute = true;
 
 			this.syncExecuteTagOperation.lock();
 			try {
-				this.executeAbort = false;
-
-				this.executeTagOperation = new KeyValuePair<Long, TagOperation>(id, operation);
-				this.inventoryAttempts = 0;
-
 				Map<Integer, havis.middleware.ale.base.operation.tag.result.Result> errorList = this.validateExecuteOperation(operation);
 				if (errorList.size() > 0) {
 					validExecute = false;
-					this.sendExecuteErrorReport(errorList);
+					this.sendExecuteErrorReport(id, operation, errorList);
+				} else {
+					while (this.executeQueue.size() >= this.readerConnection.getConnectionProperties().getExecuteQueueCapacity())
+						this.executeQueueSpace.await();
+					boolean added;
+					if (multiple)
+						added = this.executeQueue.add(id, operation, rounds,
+								timeout > 0 ? System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout) : Long.MAX_VALUE);
+					else
+						added = this.executeQueue.add(id, operation);
+					if (!added)
+						throw new ValidationException("An operation with id " + id + " is already pending (" + this.devCaps.getName() + ")!");
 				}
 			} finally {
 				this.syncExecuteTagOperation.unlock();
@@ -656,6 +811,8 @@ public abstract class RF_RReaderConnector implements ReaderConnector {
 			if (validExecute && this.tagObserverList.size() == 0)
 				this.startInventory();
 
+		} catch (ValidationException e) {
+			throw e;
 		} catch (Exception e) {
 			e.printStackTrace();
 			throw new ImplementationException(e.getMessage() + " (" + this.devCaps.getName() + ")!");
@@ -663,7 +820,9 @@ public abstract class RF_RReaderConnector implements ReaderConnector {
 	}
 
 	/**
-	 * Method to abort a running reader operation.
+	 * Method to abort a pending reader operation. Other pending operations are
+	 * not affected. The results an operation for multiple tags has collected
+	 * so far are reported.
 	 *
 	 * @param id
 	 *            The unique id of the reader operation.
@@ -673,7 +832,12 @@ public abstract class RF_RReaderConnector implements ReaderConnector {
 	public void abortTagOperation(long id) throws ImplementationException {
 		this.syncExecuteTagOperation.lock();
 		try {
-			this.executeAbort = true;
+			RF_RExecuteQueue.Entry entry = this.executeQueue.abort(id);
+			if (entry != null) {
+				if (entry.isMultiple() && entry.getResults().size() > 0)
+					this.deliverExecuteResults(id, entry.getResults());
+				this.executeFinished();
+			}
 		} finally {
 			this.syncExecuteTagOperation.unlock();
 		}
@@ -926,6 +1090,10 @@ public abstract class RF_RReaderConnector implements ReaderConnector {
 	@Override
 	public void setCallback(Callback callback) {
 		this.clientCallback = callback;
+		this.batchDelivery = RF_RBatchDelivery.forCallback(callback);
+		RF_RDispatcher dispatcher = this.dispatcher;
+		if (dispatcher != null)
+			dispatcher.setCallback(callback);
 		this.devCaps.setName(callback.getName());
 	}
 
@@ -979,6 +1147,46 @@ public abstract class RF_RReaderConnector implements ReaderConnector {
 		this.notifyEvent(this.lastAntError);
 	}
 
+	/**
+	 * Antenna errors by antenna ID which are not resolved yet
+	 */
+	protected Map<Short, AntennaError> antennaErrors = new HashMap<>();
+
+	/**
+	 * Notifies an error of a specific antenna, unless it is already notified.
+	 * 
+	 * @param msg
+	 *            the message
+	 * @param antennaId
+	 *            the ID of the antenna starting at 1
+	 */
+	protected void notifyAntennaErrorOf(String msg, short antennaId) {
+		synchronized (this.antennaErrors) {
+			if (this.antennaErrors.containsKey(Short.valueOf(antennaId)))
+				return;
+			AntennaError error = new AntennaError(new Date(), true, msg, antennaId);
+			this.antennaErrors.put(Short.valueOf(antennaId), error);
+			this.notifyEvent(error);
+		}
+	}
+
+	/**
+	 * Notifies that the error of a specific antenna is resolved.
+	 * 
+	 * @param antennaId
+	 *            the ID of the antenna starting at 1
+	 */
+	protected void notifyAntennaErrorResolvedOf(short antennaId) {
+		synchronized (this.antennaErrors) {
+			AntennaError error = this.antennaErrors.remove(Short.valueOf(antennaId));
+			if (error != null) {
+				error.setTimestamp(new Date());
+				error.setState(false);
+				notifyEvent(error);
+			}
+		}
+	}
+
 	protected void notifyConnectionError(String msg) {
 		this.lastConError = new ConnectionError(new Date(), true, msg);
 		this.notifyEvent(this.lastConError);
@@ -1066,26 +1274,8 @@ public abstract class RF_RReaderConnector implements ReaderConnector {
 				break;
 			case Property.Connector.Timeout:
 				break;
-			case RF_RProperties.PropertyName.InventoryAntennas:
-				break;
-			case RF_RProperties.PropertyName.InventoryAttempts:
-				break;
-			case RF_RProperties.PropertyName.TagsInField:
-				break;
-			case RF_RProperties.PropertyName.BlockSize:
-				break;
-			case RF_RProperties.PropertyName.BlockCount:
-				break;
-			case RF_RProperties.PropertyName.ReaderErrorCount:
-				break;
-			case RF_RProperties.PropertyName.IsoErrorCount:
-				break;
-			case RF_RProperties.PropertyName.AntennaErrorCount:
-				break;
-			case RF_RProperties.PropertyName.InputDelay:
-				break;
 			default:
-				if (property.getKey().startsWith(Prefix.Connector)) {
+				if (property.getKey().startsWith(Prefix.Connector) && !RF_RProperties.PropertyName.isKnown(property.getKey())) {
 					throw new ValidationException("Connector property '" + property.getKey()
 							+ "' is not recognized for " + this.devCaps.getModel() + "!");
 				}
@@ -1189,6 +1379,170 @@ public abstract class RF_RReaderConnector implements ReaderConnector {
 					connection.getConnectionProperties()
 							.setInputDelay(Short.parseShort(properties.get(property)));
 
+				if (properties.containsKey(property = RF_RProperties.PropertyName.DispatchCapacity)) {
+					connection.getConnectionProperties().setDispatchCapacity(Integer.parseInt(properties.get(property)));
+					if (connection.getConnectionProperties().getDispatchCapacity() < 0)
+						throw new IllegalArgumentException();
+				}
+
+				if (properties.containsKey(property = RF_RProperties.PropertyName.DispatchOverflowPolicy))
+					connection.getConnectionProperties()
+							.setDispatchOverflowPolicy(RF_RDispatcher.OverflowPolicy.valueOf(properties.get(property)));
+
+				if (properties.containsKey(property = RF_RProperties.PropertyName.DispatchSlowConsumerThreshold))
+					connection.getConnectionProperties()
+							.setDispatchSlowConsumerThreshold(Integer.parseInt(properties.get(property)));
+
+				if (properties.containsKey(property = RF_RProperties.PropertyName.BatchDelivery))
+					connection.getConnectionProperties().setBatchDelivery(parseBoolean(properties.get(property)));
+
+				if (properties.containsKey(property = RF_RProperties.PropertyName.DedupeWindow)) {
+					connection.getConnectionProperties().setDedupeWindow(Integer.parseInt(properties.get(property)));
+					if (connection.getConnectionProperties().getDedupeWindow() < 0)
+						throw new IllegalArgumentException();
+				}
+
+				if (properties.containsKey(property = RF_RProperties.PropertyName.DedupeAntennaChange))
+					connection.getConnectionProperties().setDedupeAntennaChange(parseBoolean(properties.get(property)));
+
+				if (properties.containsKey(property = RF_RProperties.PropertyName.DedupeRssiDelta)) {
+					connection.getConnectionProperties().setDedupeRssiDelta(Integer.parseInt(properties.get(property)));
+					if (connection.getConnectionProperties().getDedupeRssiDelta() < 0)
+						throw new IllegalArgumentException();
+				}
+
+				if (properties.containsKey(property = RF_RProperties.PropertyName.DedupeOffHeap))
+					connection.getConnectionProperties().setDedupeOffHeap(parseBoolean(properties.get(property)));
+
+				if (properties.containsKey(property = RF_RProperties.PropertyName.PacingPolicy))
+					connection.getConnectionProperties()
+							.setPacingPolicy(RF_RProperties.PacingPolicy.valueOf(properties.get(property)));
+
+				if (properties.containsKey(property = RF_RProperties.PropertyName.PacingMinInterval)) {
+					connection.getConnectionProperties().setPacingMinInterval(Integer.parseInt(properties.get(property)));
+					if (connection.getConnectionProperties().getPacingMinInterval() < 1)
+						throw new IllegalArgumentException();
+				}
+
+				if (properties.containsKey(property = RF_RProperties.PropertyName.PacingIdleInterval))
+					connection.getConnectionProperties().setPacingIdleInterval(Integer.parseInt(properties.get(property)));
+				if (connection.getConnectionProperties().getPacingIdleInterval() < connection.getConnectionProperties().getPacingMinInterval())
+					throw new IllegalArgumentException();
+
+				if (properties.containsKey(property = RF_RProperties.PropertyName.MaxNoOfDataBlocksRead)) {
+					connection.getConnectionProperties().setMaxNoOfDataBlocksRead(Short.parseShort(properties.get(property)));
+					if (connection.getConnectionProperties().getMaxNoOfDataBlocksRead() < 1)
+						throw new IllegalArgumentException();
+				}
+
+				if (properties.containsKey(property = RF_RProperties.PropertyName.ReadPlanMaxGap)) {
+					connection.getConnectionProperties().setReadPlanMaxGap(Integer.parseInt(properties.get(property)));
+					if (connection.getConnectionProperties().getReadPlanMaxGap() < 0)
+						throw new IllegalArgumentException();
+				}
+
+				if (properties.containsKey(property = RF_RProperties.PropertyName.CacheCapacity)) {
+					connection.getConnectionProperties().setCacheCapacity(Integer.parseInt(properties.get(property)));
+					if (connection.getConnectionProperties().getCacheCapacity() < 0)
+						throw new IllegalArgumentException();
+				}
+
+				if (properties.containsKey(property = RF_RProperties.PropertyName.CacheTimeToLive)) {
+					connection.getConnectionProperties().setCacheTimeToLive(Integer.parseInt(properties.get(property)));
+					if (connection.getConnectionProperties().getCacheTimeToLive() < 0)
+						throw new IllegalArgumentException();
+				}
+
+				if (properties.containsKey(property = RF_RProperties.PropertyName.InventoryTimeBudget)) {
+					connection.getConnectionProperties().setInventoryTimeBudget(Integer.parseInt(properties.get(property)));
+					if (connection.getConnectionProperties().getInventoryTimeBudget() < 0)
+						throw new IllegalArgumentException();
+				}
+
+				if (properties.containsKey(property = RF_RProperties.PropertyName.SelectionPushDown)) {
+					connection.getConnectionProperties().setSelectionPushDown(parseBoolean(properties.get(property)));
+				}
+
+				if (properties.containsKey(property = RF_RProperties.PropertyName.AirInterfaceAdaptive)) {
+					connection.getConnectionProperties().setAirInterfaceAdaptive(parseBoolean(properties.get(property)));
+				}
+
+				if (properties.containsKey(property = RF_RProperties.PropertyName.AirInterfaceMinSession)) {
+					connection.getConnectionProperties().setAirInterfaceMinSession(Integer.parseInt(properties.get(property)));
+					if (connection.getConnectionProperties().getAirInterfaceMinSession() < 0
+							|| connection.getConnectionProperties().getAirInterfaceMinSession() > 3)
+						throw new IllegalArgumentException();
+				}
+
+				if (properties.containsKey(property = RF_RProperties.PropertyName.AirInterfaceMaxSession))
+					connection.getConnectionProperties().setAirInterfaceMaxSession(Integer.parseInt(properties.get(property)));
+				if (connection.getConnectionProperties().getAirInterfaceMaxSession() < connection.getConnectionProperties().getAirInterfaceMinSession()
+						|| connection.getConnectionProperties().getAirInterfaceMaxSession() > 3)
+					throw new IllegalArgumentException();
+
+				if (properties.containsKey(property = RF_RProperties.PropertyName.AirInterfaceLowPopulation)) {
+					connection.getConnectionProperties().setAirInterfaceLowPopulation(Integer.parseInt(properties.get(property)));
+					if (connection.getConnectionProperties().getAirInterfaceLowPopulation() < 0)
+						throw new IllegalArgumentException();
+				}
+
+				if (properties.containsKey(property = RF_RProperties.PropertyName.AirInterfaceHighPopulation))
+					connection.getConnectionProperties().setAirInterfaceHighPopulation(Integer.parseInt(properties.get(property)));
+				if (connection.getConnectionProperties().getAirInterfaceHighPopulation() <= connection.getConnectionProperties().getAirInterfaceLowPopulation())
+					throw new IllegalArgumentException();
+
+				if (properties.containsKey(property = RF_RProperties.PropertyName.AirInterfaceHysteresis)) {
+					connection.getConnectionProperties().setAirInterfaceHysteresis(Integer.parseInt(properties.get(property)));
+					if (connection.getConnectionProperties().getAirInterfaceHysteresis() < 1)
+						throw new IllegalArgumentException();
+				}
+
+				if (properties.containsKey(property = RF_RProperties.PropertyName.AntennaSchedulerProbeInterval)) {
+					connection.getConnectionProperties().setAntennaSchedulerProbeInterval(Integer.parseInt(properties.get(property)));
+					if (connection.getConnectionProperties().getAntennaSchedulerProbeInterval() < 0)
+						throw new IllegalArgumentException();
+				}
+
+				if (properties.containsKey(property = RF_RProperties.PropertyName.TableSizeAdaptive)) {
+					connection.getConnectionProperties().setTableSizeAdaptive(parseBoolean(properties.get(property)));
+				}
+
+				if (properties.containsKey(property = RF_RProperties.PropertyName.AntennaHealthBackoff)) {
+					connection.getConnectionProperties().setAntennaHealthBackoff(Integer.parseInt(properties.get(property)));
+					if (connection.getConnectionProperties().getAntennaHealthBackoff() < 0)
+						throw new IllegalArgumentException();
+				}
+
+				if (properties.containsKey(property = RF_RProperties.PropertyName.AntennaHealthZeroYieldRounds)) {
+					connection.getConnectionProperties().setAntennaHealthZeroYieldRounds(Integer.parseInt(properties.get(property)));
+					if (connection.getConnectionProperties().getAntennaHealthZeroYieldRounds() < 0)
+						throw new IllegalArgumentException();
+				}
+
+				if (properties.containsKey(property = RF_RProperties.PropertyName.AntennaDetectionRefreshInterval)) {
+					connection.getConnectionProperties().setAntennaDetectionRefreshInterval(Integer.parseInt(properties.get(property)));
+					if (connection.getConnectionProperties().getAntennaDetectionRefreshInterval() < 0)
+						throw new IllegalArgumentException();
+				}
+
+				if (properties.containsKey(property = RF_RProperties.PropertyName.ExecuteQueueCapacity)) {
+					connection.getConnectionProperties().setExecuteQueueCapacity(Integer.parseInt(properties.get(property)));
+					if (connection.getConnectionProperties().getExecuteQueueCapacity() < 1)
+						throw new IllegalArgumentException();
+				}
+
+				if (properties.containsKey(property = RF_RProperties.PropertyName.ExecuteMultipleRounds)) {
+					connection.getConnectionProperties().setExecuteMultipleRounds(Integer.parseInt(properties.get(property)));
+					if (connection.getConnectionProperties().getExecuteMultipleRounds() < 0)
+						throw new IllegalArgumentException();
+				}
+
+				if (properties.containsKey(property = RF_RProperties.PropertyName.ExecuteMultipleTimeout)) {
+					connection.getConnectionProperties().setExecuteMultipleTimeout(Integer.parseInt(properties.get(property)));
+					if (connection.getConnectionProperties().getExecuteMultipleTimeout() < 0)
+						throw new IllegalArgumentException();
+				}
+
 			} catch (Exception e) {
 				bResult = false;
 				break;
@@ -1201,6 +1555,12 @@ public abstract class RF_RReaderConnector implements ReaderConnector {
 					"Missing or wrong connector property '" + property + "' for " + this.devCaps.getModel() + "!");
 	}
 
+	private static boolean parseBoolean(String value) {
+		if (!"true".equalsIgnoreCase(value) && !"false".equalsIgnoreCase(value))
+			throw new IllegalArgumentException();
+		return Boolean.parseBoolean(value);
+	}
+
 	protected int getDefaultPort() {
 		return 10001;
 	}
@@ -1328,30 +1688,54 @@ public abstract class RF_RReaderConnector implements ReaderConnector {
 				}
 			}
 			inventoryOperation.setUserDataBlocks(dataBlocks);
+			RF_RProperties properties = this.readerConnection != null ? this.readerConnection.getConnectionProperties() : new RF_RProperties();
+			inventoryOperation.setUserReadPlan(RF_RReadPlan.create(dataBlocks, properties.getReadPlanMaxGap(), properties.getMaxNoOfDataBlocksRead()));
 		}
 		return inventoryOperation;
 	}
 
-	protected boolean executeOperation(FedmIscTagHandler_EPC_Class1_Gen2 executeTag, int inventoryTagsLeft)
-			throws ImplementationException {
+	/**
+	 * Executes the first pending operation the tag matches, each tag is
+	 * accessed by one operation per round as its memory may change. An
+	 * operation for multiple tags skips the tags it has already been executed
+	 * on. Counts an attempt for each operation still pending after the last
+	 * tag of a round.
+	 *
+	 * @param executeTag
+	 *            the tag, null if the round has not found any tag
+	 * @param epcBank
+	 *            the EPC bank data of the tag starting with CRC and PC
+	 * @param tid
+	 *            the TID of the tag, null if not known
+	 * @param inventoryTagsLeft
+	 *            the number of tags of the round left after this tag
+	 * @return true if an operation was executed on the tag
+	 * @throws ImplementationException
+	 */
+	protected boolean executeOperation(FedmIscTagHandler_EPC_Class1_Gen2 executeTag, byte[] epcBank, byte[] tid,
+			int inventoryTagsLeft) throws ImplementationException {
 		boolean executed = false;
 		this.syncExecuteTagOperation.lock();
 		try {
-			if (this.executeTagOperation.getValue() != null) {
-				if (this.executeAbort) {
-					this.executeTagOperation = new KeyValuePair<>();
-					if (this.isConnected && this.tagObserverList.size() == 0)
-						this.stopInventory();
-
-					if (executeEvent.availablePermits() == 0)
-						executeEvent.release();
-					return false;
+			if (executeTag != null) {
+				RF_RExecuteQueue.Entry match = null;
+				String tagKey = null;
+				for (RF_RExecuteQueue.Entry entry : this.executeQueue.getEntries()) {
+					if (entry.getMatcher().matches(epcBank, tid)) {
+						if (entry.isMultiple()) {
+							if (tagKey == null)
+								tagKey = this.getExecuteKey(executeTag, tid);
+							if (entry.isHandled(tagKey))
+								continue;
+						}
+						match = entry;
+						break;
+					}
 				}
 
-				if (executeTag != null && this.executeFilterMatch(
-						this.executeTagOperation.getValue().getFilter().toArray(new Filter[0]), executeTag)) {
+				if (match != null) {
 					Map<Integer, havis.middleware.ale.base.operation.tag.result.Result> executeResult = this
-							.executeOperationOnTag(executeTag);
+							.executeOperationOnTag(executeTag, match.getOperation());
 					Tag reportTag;
 					if (executeTag.getEpcOfUid() == "")
 						reportTag = new Tag(new byte[0]);
@@ -1391,15 +1775,22 @@ public abstract class RF_RReaderConnector implements ReaderConnector {
 							reportTag.setSighting(new Sighting(readerConnection.toString(), number[0], rssi[0], reportTag.getFirstTime()));
 					}
 					reportTag.setResult(executeResult);
-					this.sendExecuteReport(reportTag);
+					if (match.isMultiple())
+						match.addResult(tagKey, reportTag);
+					else
+						this.sendExecuteReport(match.getId(), reportTag);
 					executed = true;
 				}
+			}
 
-				if (!executed && inventoryTagsLeft == 0) {
-					this.inventoryAttempts++;
-					if (this.inventoryAttempts == this.readerConnection.getConnectionProperties()
-							.getInventoryAttempts())
-						this.sendExecuteErrorReport(
+			if (inventoryTagsLeft == 0) {
+				for (RF_RExecuteQueue.Entry entry : this.executeQueue.complete(this.readerConnection.getConnectionProperties()
+						.getInventoryAttempts(), System.nanoTime())) {
+					List<Tag> results = entry.getResults();
+					if (results.size() > 0)
+						this.sendExecuteReport(entry.getId(), results);
+					else
+						this.sendExecuteErrorReport(entry.getId(), entry.getOperation(),
 								new HashMap<Integer, havis.middleware.ale.base.operation.tag.result.Result>());
 				}
 			}
@@ -1411,36 +1802,73 @@ public abstract class RF_RReaderConnector implements ReaderConnector {
 		return executed;
 	}
 
-	protected boolean executeFilterMatch(Filter[] filters, FedmIscTagHandler_EPC_Class1_Gen2 tag) {
-		if (filters == null || filters.length == 0)
-			return true;
+	/**
+	 * Gets the key identifying a tag for an operation for multiple tags. The
+	 * TID is taken from the inventory, the memory cache or the key of a
+	 * previous round, it is only read from the tag if the tag has not been
+	 * keyed yet, as tags may share the EPC. The EPC is used if the TID can not
+	 * be read.
+	 *
+	 * @param executeTag
+	 *            the tag
+	 * @param tid
+	 *            the TID of the tag, null if not known
+	 * @return the key
+	 */
+	private String getExecuteKey(FedmIscTagHandler_EPC_Class1_Gen2 executeTag, byte[] tid) {
+		if (tid != null && tid.length > 0)
+			return "T" + RFCUtils.bytesToHex(tid);
+		String uid = executeTag.getUid();
+		String key = this.executeQueue.getKey(uid);
+		if (key != null)
+			return key;
+
+		RF_RMemoryCache memoryCache = this.memoryCache;
+		byte[] data = memoryCache != null ? memoryCache.getTid(uid) : null;
+		if (data == null) {
+			RF_RInventoryOperation inventoryOperation = this.getActiveOperations().getInventoryOperation();
+			havis.middleware.ale.base.operation.tag.result.ReadResult result = this.readBankFromTag(executeTag,
+					FedmIscTagHandler_EPC_Class1_Gen2.BANK_TID, inventoryOperation);
+			if (result.getState() != havis.middleware.ale.base.operation.tag.result.ResultState.SUCCESS || result.getData() == null
+					|| result.getData().length == 0)
+				return "E" + uid;
+			data = result.getData();
+			if (memoryCache != null)
+				memoryCache.put(uid, data, FedmIscTagHandler_EPC_Class1_Gen2.BANK_TID, inventoryOperation, data, System.nanoTime());
+		}
+		key = "T" + RFCUtils.bytesToHex(data);
+		this.executeQueue.putKey(uid, key);
+		return key;
+	}
 
-		if (filters.length > 0 && filters[0].getBank() == 1 && filters[0].getOffset() == 32) {
-			byte[] epcArray;
-			if (tag.getEpcOfUid() == "")
-				epcArray = new byte[0];
-			else
-				epcArray = FeHexConvert.hexStringToByteArray(tag.getEpcOfUid());
-			if (epcArray.length != filters[0].getMask().length)
-				return false;
-			for (int i = 0; i < filters[0].getMask().length; i++)
-				if (filters[0].getMask()[i] != epcArray[i])
-					return false;
-		}
-		if (Tag.isExtended() && (filters.length > 1 && filters[1].getBank() == 2 && filters[1].getOffset() == 0)) {
-			byte[] tidArray;
-			if (tag.getTidOfUid() == "")
-				tidArray = new byte[0];
-			else
-				tidArray = FeHexConvert.hexStringToByteArray(tag.getTidOfUid());
-			if (tidArray.length != filters[1].getMask().length)
-				return false;
+	/**
+	 * Checks whether an execute operation is pending.
+	 *
+	 * @return true if an execute operation is pending
+	 */
+	protected boolean hasPendingExecute() {
+		return !this.executeQueue.isEmpty();
+	}
 
-			for (int i = 0; i < filters[1].getMask().length; i++)
-				if (filters[1].getMask()[i] != tidArray[i])
-					return false;
-		}
-		return true;
+	/**
+	 * Checks whether the inventory is required by a tag observer or a pending
+	 * execute operation.
+	 *
+	 * @return true if the inventory is required
+	 */
+	protected boolean isInventoryRequired() {
+		return this.tagObserverList.size() > 0 || this.hasPendingExecute();
+	}
+
+	/**
+	 * Stops the inventory if no execute operation is pending and no tag
+	 * observer is defined, and wakes up a caller waiting for space in the
+	 * execute queue. Must be called while holding the execute lock.
+	 */
+	private void executeFinished() {
+		if (this.isConnected && this.tagObserverList.size() == 0 && this.executeQueue.isEmpty())
+			this.stopInventory();
+		this.executeQueueSpace.signal();
 	}
 
 	public class InventoryReport {
@@ -1484,38 +1912,383 @@ public abstract class RF_RReaderConnector implements ReaderConnector {
 	}
 
 	/**
-	 * Method to send an inventory report to callback
+	 * Checks whether a tag has to be reported to a tag operation or is
+	 * suppressed by the duplicate filter.
 	 */
-	protected void sendInventoryReport(InventoryReport report, Map<Long, TagOperation> operations) {
-		for (Entry<Long, TagOperation> entry : operations.entrySet()) {
-			Map<Integer, havis.middleware.ale.base.operation.tag.result.Result> opResultList;
-			if (entry.getValue().getOperations() != null)
-				opResultList = ReaderUtils.toResult(report.readResult, entry.getValue().getOperations());
-			else
-				opResultList = new HashMap<Integer, havis.middleware.ale.base.operation.tag.result.Result>();
+	private boolean isNewReport(RF_RDuplicateFilter duplicateFilter, long id, Tag tag, long time) {
+		Sighting sighting = tag.getSighting();
+		return duplicateFilter.accept(id, tag.getEpc(), Tag.isExtended() ? tag.getTid() : null, sighting != null ? sighting.getAntenna() : 0,
+				sighting != null ? sighting.getStrength() : 0, time);
+	}
+
+	/**
+	 * Gets the filter for repeated tag reports.
+	 *
+	 * @return the filter, null if each report is delivered
+	 */
+	protected RF_RDuplicateFilter getDuplicateFilter() {
+		return this.duplicateFilter;
+	}
+
+	/**
+	 * Gets the cache for the memory banks read from tags.
+	 *
+	 * @return the cache, null if disabled
+	 */
+	protected RF_RMemoryCache getMemoryCache() {
+		return this.memoryCache;
+	}
+
+	/**
+	 * Gets the active commissioning run, whose filters are part of the
+	 * selection.
+	 *
+	 * @return the commissioning run, null if none is active
+	 */
+	protected RF_RCommissioning getCommissioning() {
+		return null;
+	}
+
+	/**
+	 * Applies the filters of the enabled tag operations, of the pending
+	 * execute operation and of the unprogrammed tags of a commissioning run to
+	 * the RAM of the reader as selection masks, if enabled and changed since
+	 * the last call. The filters are still evaluated
+	 * on the host, if they can not be expressed by the masks no tag is
+	 * deselected.
+	 * Must be called while holding the reader lock.
+	 */
+	protected void applySelection() {
+		if (!this.readerConnection.getConnectionProperties().isSelectionPushDown())
+			return;
+
+		RF_RActiveOperations operations = this.activeOperations;
+		Collection<RF_RExecuteQueue.Entry> executeEntries;
+		long executeModifications;
+		this.syncExecuteTagOperation.lock();
+		try {
+			executeEntries = this.executeQueue.getEntries();
+			executeModifications = this.executeQueue.getModifications();
+		} finally {
+			this.syncExecuteTagOperation.unlock();
+		}
+		RF_RCommissioning commissioning = getCommissioning();
+		if (operations == this.selectionOperations && executeModifications == this.selectionExecuteModifications
+				&& commissioning == this.selectionCommissioning)
+			return;
+		this.selectionOperations = operations;
+		this.selectionExecuteModifications = executeModifications;
+		this.selectionCommissioning = commissioning;
+
+		List<List<Filter>> filters = new ArrayList<>();
+		for (TagOperation tagOperation : operations.getTagOperations().values())
+			filters.add(tagOperation.getFilter());
+		for (RF_RExecuteQueue.Entry entry : executeEntries)
+			filters.add(entry.getOperation().getFilter());
+		if (commissioning != null)
+			filters.add(commissioning.getJob().getFilter());
+		RF_RSelection selection = RF_RSelection.create(filters);
+		if (selection.equals(this.selection))
+			return;
+
+		try {
+			this.readerConfiguration.applyVolatileReaderConfig(selection.toConfiguration());
+			this.selection = selection;
+		} catch (ValidationException | ImplementationException e) {
+			this.selection = null;
+			this.clientCallback.notify(new Message(Exits.Reader.Controller.Error, "Failed to apply selection masks: " + e.getMessage(), e));
+		}
+	}
+
+	/**
+	 * Updates the adaptation of the Gen2 session with the result of an
+	 * inventory round and applies the session to the RAM of the reader if it
+	 * has changed. Must be called while holding the reader lock.
+	 *
+	 * @param uids
+	 *            the UIDs of the tags found by the round
+	 * @param moreData
+	 *            the number of times further data had to be fetched from the
+	 *            reader
+	 * @param overrun
+	 *            true if the inventory exceeded the time budget of the round
+	 */
+	protected void updateAirInterface(Collection<String> uids, int moreData, boolean overrun) {
+		RF_RAirInterfaceController airInterfaceController = this.airInterfaceController;
+		if (airInterfaceController == null)
+			return;
+
+		airInterfaceController.update(uids, moreData, overrun);
+		int session = airInterfaceController.getSession();
+		if (session == this.airInterfaceSession)
+			return;
+
+		Map<String, Object> properties = new HashMap<>();
+		properties.put(de.feig.ReaderConfig.Transponder.UHF.EPC_Class1Gen2.Anticollision.Session, (byte) session);
+		try {
+			this.readerConfiguration.applyVolatileReaderConfig(properties);
+		} catch (ValidationException | ImplementationException e) {
+			this.clientCallback.notify(new Message(Exits.Reader.Controller.Error, "Failed to apply session " + session + ": " + e.getMessage(), e));
+		}
+		// do not retry each round if the reader refuses the session
+		this.airInterfaceSession = session;
+	}
+
+	private void startAirInterfaceController() {
+		RF_RProperties properties = this.readerConnection.getConnectionProperties();
+		if (properties.isAirInterfaceAdaptive()) {
+			Object session = this.configurationProperties != null
+					? this.configurationProperties.get(de.feig.ReaderConfig.Transponder.UHF.EPC_Class1Gen2.Anticollision.Session) : null;
+			if (session instanceof Number) {
+				this.airInterfaceSession = ((Number) session).intValue();
+			} else {
+				// start with the session the reader currently uses
+				try {
+					this.airInterfaceSession = this.readerConfiguration
+							.getVolatileByte(de.feig.ReaderConfig.Transponder.UHF.EPC_Class1Gen2.Anticollision.Session) & 0x03;
+				} catch (ImplementationException e) {
+					this.airInterfaceSession = -1;
+					this.clientCallback.notify(new Message(Exits.Reader.Controller.Warning, "Failed to get session: " + e.getMessage(), e));
+				}
+			}
+			this.airInterfaceController = new RF_RAirInterfaceController(properties.getAirInterfaceMinSession(),
+					properties.getAirInterfaceMaxSession(), properties.getAirInterfaceLowPopulation(),
+					properties.getAirInterfaceHighPopulation(), properties.getAirInterfaceHysteresis(), Math.max(0, this.airInterfaceSession));
+		}
+	}
+
+	/**
+	 * Gets the sizing of the table of the reader library.
+	 *
+	 * @return the sizing, null if the configured size is used
+	 */
+	protected RF_RTableSizer getTableSizer() {
+		return this.tableSizer;
+	}
+
+	/**
+	 * Gets the name of the table of the reader library used by the connector,
+	 * which is reported with its allocation.
+	 *
+	 * @return the name of the table
+	 */
+	protected String getTableName() {
+		return "ISO";
+	}
+
+	private void startTableSizer() {
+		RF_RProperties properties = this.readerConnection.getConnectionProperties();
+		this.tableSizer = properties.isTableSizeAdaptive() ? new RF_RTableSizer(properties.getTagsInField(), properties.getBlockCount(),
+				properties.getBlockSize()) : null;
+	}
+
+	private void startMemoryCache() {
+		RF_RProperties properties = this.readerConnection.getConnectionProperties();
+		if (properties.getCacheCapacity() > 0)
+			this.memoryCache = new RF_RMemoryCache(properties.getCacheCapacity(), properties.getCacheTimeToLive());
+	}
 
+	private void startDuplicateFilter() {
+		RF_RProperties properties = this.readerConnection.getConnectionProperties();
+		if (properties.getDedupeWindow() > 0)
+			this.duplicateFilter = new RF_RDuplicateFilter(properties.getDedupeWindow(), properties.isDedupeAntennaChange(),
+					properties.getDedupeRssiDelta(), properties.isDedupeOffHeap());
+	}
+
+	/**
+	 * Method to send an inventory report to callback. The results are computed
+	 * once for each group of tag operations producing the same results, the
+	 * tags reported to the tag operations of a group share the results.
+	 */
+	protected void sendInventoryReport(InventoryReport report, RF_RActiveOperations operations) {
+		for (RF_RActiveOperations.Shape shape : operations.getShapes())
+			sendInventoryReport(report, shape);
+	}
+
+	/**
+	 * Method to send an inventory report to the tag operations which read
+	 * banks or to the others only. Used if the bank reads of a tag are
+	 * deferred, the report without bank data is sent to the tag operations not
+	 * reading banks in each round the tag is seen, the report with bank data
+	 * is sent to all tag operations once the reads are complete.
+	 * 
+	 * @param report
+	 *            the inventory report
+	 * @param operations
+	 *            the active operations
+	 * @param readingBanks
+	 *            true to send the report to the tag operations reading banks,
+	 *            false to send it to the others
+	 */
+	protected void sendInventoryReport(InventoryReport report, RF_RActiveOperations operations, boolean readingBanks) {
+		for (RF_RActiveOperations.Shape shape : operations.getShapes())
+			if (shape.isReadingBanks() == readingBanks)
+				sendInventoryReport(report, shape);
+	}
+
+	/**
+	 * Sends a report to the tag operations of a shape, repeated reports are
+	 * suppressed per tag operation by the duplicate filter.
+	 */
+	private void sendInventoryReport(InventoryReport report, RF_RActiveOperations.Shape shape) {
+		RF_RDuplicateFilter duplicateFilter = RF_RDuplicateFilter.hasFailedRead(report.readResult) ? null : this.duplicateFilter;
+		long time = System.nanoTime();
+		Map<Integer, havis.middleware.ale.base.operation.tag.result.Result> opResultList = null;
+		for (long id : shape.getIds()) {
+			if (duplicateFilter != null && !isNewReport(duplicateFilter, id, report.tag, time))
+				continue;
+			if (opResultList == null) {
+				if (shape.getOperations() != null)
+					opResultList = ReaderUtils.toResult(report.readResult, shape.getOperations());
+				else
+					opResultList = new HashMap<Integer, havis.middleware.ale.base.operation.tag.result.Result>();
+			}
 			Tag tag = report.tag.clone();
 			tag.setResult(opResultList);
-			this.clientCallback.notify(entry.getKey().longValue(), tag);
+			this.notifyTag(id, tag);
+		}
+	}
+
+	/**
+	 * Starts an inventory round. If batch delivery is enabled and the callback
+	 * implements {@link RF_RBatchCallback}, the tag reports are collected until
+	 * the round ends. Must be called by the thread sending the inventory
+	 * reports.
+	 */
+	protected void beginInventoryRound() {
+		if (this.batchDelivery != null && this.readerConnection != null
+				&& this.readerConnection.getConnectionProperties().isBatchDelivery())
+			this.batch = new LinkedHashMap<>();
+	}
+
+	/**
+	 * Ends an inventory round and delivers the collected tag reports, one
+	 * batch per tag operation. The batches are delivered through the
+	 * dispatcher if enabled, so that the inventory does not wait for the
+	 * callback.
+	 */
+	protected void endInventoryRound() {
+		Map<Long, List<Tag>> batch = this.batch;
+		if (batch == null)
+			return;
+		this.batch = null;
+		for (Entry<Long, List<Tag>> entry : batch.entrySet()) {
+			try {
+				dispatchReports(entry.getKey().longValue(), entry.getValue());
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} catch (Exception e) {
+				this.clientCallback.notify(new Message(Exits.Reader.Controller.Error, "Delivering tag reports failed: " + e.getMessage(), e));
+			}
+		}
+	}
+
+	/**
+	 * Delivers a tag report to the callback. During an inventory round with
+	 * batch delivery the report is collected, otherwise it is delivered
+	 * through the dispatcher if enabled.
+	 *
+	 * @param id
+	 *            the ID of the tag operation
+	 * @param tag
+	 *            the tag
+	 */
+	protected void notifyTag(long id, Tag tag) {
+		Map<Long, List<Tag>> batch = this.batch;
+		if (batch != null) {
+			List<Tag> tags = batch.get(Long.valueOf(id));
+			if (tags == null)
+				batch.put(Long.valueOf(id), tags = new ArrayList<>());
+			tags.add(tag);
+			return;
+		}
+		dispatchReport(id, tag);
+	}
+
+	/**
+	 * Delivers a tag report through the dispatcher if enabled, otherwise
+	 * directly. Inventory and execute reports take the same way, so that they
+	 * keep their order.
+	 *
+	 * @param id
+	 *            the ID of the tag operation
+	 * @param tag
+	 *            the tag
+	 */
+	private void dispatchReport(long id, Tag tag) {
+		RF_RDispatcher dispatcher = this.dispatcher;
+		if (dispatcher != null) {
+			try {
+				dispatcher.dispatch(id, tag);
+				return;
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		this.clientCallback.notify(id, tag);
+	}
+
+	/**
+	 * Delivers the tag reports of a tag operation through the dispatcher if
+	 * enabled, otherwise directly as one batch if supported by the callback or
+	 * tag by tag.
+	 *
+	 * @param id
+	 *            the ID of the tag operation
+	 * @param tags
+	 *            the tags, not empty
+	 * @throws InterruptedException
+	 *             if interrupted while waiting for the dispatcher
+	 */
+	private void dispatchReports(long id, List<Tag> tags) throws InterruptedException {
+		RF_RDispatcher dispatcher = this.dispatcher;
+		RF_RBatchDelivery batchDelivery = this.batchDelivery;
+		if (dispatcher != null)
+			dispatcher.dispatch(id, tags);
+		else if (batchDelivery != null)
+			batchDelivery.notify(id, tags);
+		else
+			for (Tag tag : tags)
+				this.clientCallback.notify(id, tag);
+	}
+
+	/**
+	 * Gets the dispatcher between inventory and callback.
+	 *
+	 * @return the dispatcher, null if the tag reports are delivered directly
+	 */
+	protected RF_RDispatcher getDispatcher() {
+		return this.dispatcher;
+	}
+
+	private void startDispatcher() {
+		RF_RProperties properties = this.readerConnection.getConnectionProperties();
+		if (this.dispatcher == null && properties.getDispatchCapacity() > 0)
+			this.dispatcher = new RF_RDispatcher(this.clientCallback, this.devCaps.getName(), properties.getDispatchCapacity(),
+					properties.getDispatchOverflowPolicy(), properties.getDispatchSlowConsumerThreshold());
+	}
+
+	private void stopDispatcher() throws InterruptedException {
+		RF_RDispatcher dispatcher = this.dispatcher;
+		if (dispatcher != null) {
+			this.dispatcher = null;
+			dispatcher.close();
 		}
 	}
 
 	/**
 	 * Method to send an execute report to callback
 	 *
+	 * @param id
+	 *            the unique id of the executed operation
 	 * @param executeTag
 	 */
-	protected void sendExecuteReport(Tag executeTag) {
+	protected void sendExecuteReport(long id, Tag executeTag) {
 		this.syncExecuteTagOperation.lock();
 		try {
-			this.clientCallback.notify(this.executeTagOperation.getKey(), executeTag);
-			this.executeTagOperation = new KeyValuePair<>();
-			if (this.isConnected && this.tagObserverList.size() == 0)
-				this.stopInventory();
-
-			if (executeEvent.availablePermits() == 0)
-				executeEvent.release();
-
+			this.executeQueue.executed(id);
+			this.dispatchReport(id, executeTag);
+			this.executeFinished();
 		} catch (Exception e) {
 			this.clientCallback.notify(new Message(Exits.Reader.Controller.Error, "Sending execute report failed: " + e.getMessage(), e));
 		} finally {
@@ -1523,17 +2296,54 @@ public abstract class RF_RReaderConnector implements ReaderConnector {
 		}
 	}
 
+	/**
+	 * Method to send the results of an operation for multiple tags to
+	 * callback
+	 *
+	 * @param id
+	 *            the unique id of the executed operation
+	 * @param executeTags
+	 *            the tags the operation was executed on, not empty
+	 */
+	protected void sendExecuteReport(long id, List<Tag> executeTags) {
+		this.syncExecuteTagOperation.lock();
+		try {
+			this.executeQueue.executed(id);
+			this.deliverExecuteResults(id, executeTags);
+			this.executeFinished();
+		} finally {
+			this.syncExecuteTagOperation.unlock();
+		}
+	}
+
+	/**
+	 * Delivers the results of an operation for multiple tags like the
+	 * inventory reports
+	 */
+	private void deliverExecuteResults(long id, List<Tag> executeTags) {
+		try {
+			dispatchReports(id, executeTags);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (Exception e) {
+			this.clientCallback.notify(new Message(Exits.Reader.Controller.Error, "Sending execute report failed: " + e.getMessage(), e));
+		}
+	}
+
 	/**
 	 * Method to send an execute error report to callback
 	 *
+	 * @param id
+	 *            the unique id of the failed operation
+	 * @param operation
+	 *            the failed operation
 	 * @param resultList
 	 */
-	protected void sendExecuteErrorReport(
+	protected void sendExecuteErrorReport(long id, TagOperation operation,
 			Map<Integer, havis.middleware.ale.base.operation.tag.result.Result> resultList) {
 		this.syncExecuteTagOperation.lock();
 		try {
-			for (havis.middleware.ale.base.operation.tag.Operation op : this.executeTagOperation.getValue()
-					.getOperations()) {
+			for (havis.middleware.ale.base.operation.tag.Operation op : operation.getOperations()) {
 				if (resultList.containsKey(op.getId()))
 					continue;
 
@@ -1569,15 +2379,9 @@ public abstract class RF_RReaderConnector implements ReaderConnector {
 			Tag tag = new Tag((byte[]) null);
 			tag.setResult(resultList);
 
-			this.clientCallback.notify(this.executeTagOperation.getKey(), tag);
-			this.executeTagOperation = new KeyValuePair<>();
-
-			if (this.isConnected && this.tagObserverList.size() == 0)
-				this.stopInventory();
-
-			if (executeEvent.availablePermits() == 0)
-				executeEvent.release();
-
+			this.executeQueue.failed(id);
+			this.dispatchReport(id, tag);
+			this.executeFinished();
 		} catch (Exception e) {
 			this.clientCallback.notify(new Message(Exits.Reader.Controller.Error, "Sending execute error report failed: " + e.getMessage(), e));
 		} finally {
@@ -1600,8 +2404,12 @@ public abstract class RF_RReaderConnector implements ReaderConnector {
 	 */
 	protected boolean[] relayPortState;
 
+	protected String getUid(FedmBrmTableItem tag) {
+		return tag.getStringData(134217730);
+	}
+
 	protected String getEpcOfUid(FedmBrmTableItem tag) {
-		String str1 = tag.getStringData(134217730);
+		String str1 = getUid(tag);
 		if (str1.length() == 0) {
 			return "";
 		}
@@ -1615,7 +2423,7 @@ public abstract class RF_RReaderConnector implements ReaderConnector {
 	}
 
 	protected String getTidOfUid(FedmBrmTableItem tag) {
-		String str1 = tag.getStringData(134217730);
+		String str1 = getUid(tag);
 		if (str1.length() == 0) {
 			return "";
 		}
@@ -1636,6 +2444,49 @@ public abstract class RF_RReaderConnector implements ReaderConnector {
 		return tag.transponderType == -62;
 	}
 
+	/**
+	 * Creates the report tag of a transponder. The UID is decoded once, EPC and
+	 * TID are decoded directly from the hexadecimal UID into the byte arrays of
+	 * the tag. The TID is only decoded in extended mode.
+	 *
+	 * @param uid
+	 *            the UID as delivered by the reader, EPC followed by TID
+	 * @param protocolControl
+	 *            the protocol control as delivered by the reader, the low byte
+	 *            holds the high byte of the PC word
+	 * @return the report tag
+	 * @throws StringIndexOutOfBoundsException
+	 *             if the UID is shorter than the EPC length specified by the
+	 *             protocol control
+	 */
+	protected Tag createReportTag(String uid, int protocolControl) throws StringIndexOutOfBoundsException {
+		// EPC length in hexadecimal characters
+		int epcLength = ((protocolControl & 0xF8) >> 3) * 4;
+		Tag reportTag = new Tag(uid.length() == 0 || epcLength == 0 ? new byte[0] : RFCUtils.hexToBytes(uid, 0, epcLength));
+
+		if (Tag.isExtended())
+			reportTag.setTid(epcLength < uid.length() ? RFCUtils.hexToBytes(uid, epcLength, uid.length() - epcLength) : new byte[0]);
+
+		reportTag.setPc(new byte[] { (byte) protocolControl, (byte) (protocolControl >> 8) });
+		return reportTag;
+	}
+
+	/**
+	 * Creates the content of the EPC bank of the given report tag
+	 *
+	 * @param reportTag
+	 *            the report tag
+	 * @return CRC (always zero), PC and EPC
+	 */
+	protected byte[] getEpcBankData(Tag reportTag) {
+		byte[] pc = reportTag.getPc();
+		byte[] epc = reportTag.getEpc();
+		byte[] epcData = new byte[2 + pc.length + epc.length];
+		System.arraycopy(pc, 0, epcData, 2, pc.length);
+		System.arraycopy(epc, 0, epcData, 2 + pc.length, epc.length);
+		return epcData;
+	}
+
 	/**
 	 * Method to get the initial GPIO State.
 	 *
@@ -1911,10 +2762,12 @@ public abstract class RF_RReaderConnector implements ReaderConnector {
 	 *
 	 * @param executeTag
 	 *            List of tags to execute operations on.
+	 * @param executeOperation
+	 *            The operation to execute.
 	 * @return A list with results for every operation.
 	 */
 	protected abstract Map<Integer, havis.middleware.ale.base.operation.tag.result.Result> executeOperationOnTag(
-			FedmIscTagHandler_EPC_Class1_Gen2 executeTag) throws Exception;
+			FedmIscTagHandler_EPC_Class1_Gen2 executeTag, TagOperation executeOperation) throws Exception;
 
 	/**
 	 * Template method to start the port observation using the different reader
@@ -1938,10 +2791,44 @@ public abstract class RF_RReaderConnector implements ReaderConnector {
 		
 		for (Entry<Short, ConnectType> e : connectTypes.entrySet())
 			ret.add(new AntennaConfiguration(e.getKey(), e.getValue()));
+
+		if (arg0 != ConfigurationType.ANTENNA_CONFIGURATION)
+			addMonitorConfiguration(ret);
 		
 		return ret;
 	}
 
+	/**
+	 * Adds the counters of the components as instances of the
+	 * {@link RF_RMonitorConfiguration} class.
+	 * 
+	 * @param configurations
+	 *            the configurations to add to
+	 */
+	protected void addMonitorConfiguration(List<Configuration> configurations) {
+		RF_RAirInterfaceController airInterfaceController = this.airInterfaceController;
+		if (airInterfaceController != null)
+			configurations.add(airInterfaceController.getConfiguration());
+
+		RF_RTableSizer tableSizer = this.tableSizer;
+		if (tableSizer != null)
+			configurations.add(tableSizer.getConfiguration(getTableName()));
+
+		configurations.add(this.executeQueue.getConfiguration());
+
+		RF_RDispatcher dispatcher = this.dispatcher;
+		if (dispatcher != null)
+			configurations.add(dispatcher.getConfiguration());
+
+		RF_RDuplicateFilter duplicateFilter = this.duplicateFilter;
+		if (duplicateFilter != null)
+			configurations.add(duplicateFilter.getConfiguration());
+
+		RF_RMemoryCache memoryCache = this.memoryCache;
+		if (memoryCache != null)
+			configurations.add(memoryCache.getConfiguration());
+	}
+
 	@Override
 	public void setConfiguration(List<Configuration> configs) {
 		if (isDisposed)
@@ -1957,10 +2844,97 @@ public abstract class RF_RReaderConnector implements ReaderConnector {
 				}
 			}
 		}
+		invalidateDetectedAntennas();
 	}
 
 	protected abstract byte checkAntennas();
 
+	/**
+	 * Detects the connected antennas and caches the result.
+	 * 
+	 * @return the mask of the detected antennas
+	 */
+	protected byte detectAntennas() {
+		byte antennas = checkAntennas();
+		this.detectedAntennas = antennas;
+		this.detectionTime = System.nanoTime() | 1;
+		this.detectionValid = true;
+		return antennas;
+	}
+
+	/**
+	 * Invalidates the cached antennas, e.g. after an RF warning. They are
+	 * detected again in the background if supported, the inventory keeps
+	 * using the cached antennas until then. Otherwise they are detected when
+	 * the inventory starts the next time.
+	 */
+	protected void invalidateDetectedAntennas() {
+		this.detectionValid = false;
+		if (this.isConnected && this.detectionTime != 0 && this.connectTypes.containsValue(ConnectType.AUTO)
+				&& this.readerConnection.getConnectionProperties().getAntennaDetectionRefreshInterval() > 0 && isBackgroundDetectionSupported())
+			refreshDetectedAntennas();
+	}
+
+	/**
+	 * Describes whether the antennas can be detected in the background while
+	 * the inventory is running. A reader running its own inventory must not
+	 * be interrupted by the detection.
+	 * 
+	 * @return true if supported, false otherwise
+	 */
+	protected boolean isBackgroundDetectionSupported() {
+		return false;
+	}
+
+	/**
+	 * Gets the detected antennas. Detects them if not cached or the cache is
+	 * disabled, otherwise a stale or invalidated cache is refreshed in the
+	 * background if supported or detected again.
+	 */
+	private byte getDetectedAntennas() {
+		int refreshInterval = this.readerConnection.getConnectionProperties().getAntennaDetectionRefreshInterval();
+		if (refreshInterval == 0 || this.detectionTime == 0)
+			return detectAntennas();
+		if (!this.detectionValid || System.nanoTime() - this.detectionTime >= TimeUnit.MILLISECONDS.toNanos(refreshInterval)) {
+			if (!isBackgroundDetectionSupported())
+				return detectAntennas();
+			refreshDetectedAntennas();
+		}
+		return this.detectedAntennas;
+	}
+
+	/**
+	 * Detects the antennas with a low priority thread, unless a detection is
+	 * already running, and updates the antenna mask afterwards
+	 */
+	private void refreshDetectedAntennas() {
+		if (!this.detectionRefreshing.compareAndSet(false, true))
+			return;
+		Thread thread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					readerLock.lock();
+					try {
+						if (isConnected) {
+							detectAntennas();
+							setAntennas();
+						}
+					} finally {
+						readerLock.unlock();
+					}
+				} catch (Exception e) {
+					clientCallback.notify(new Message(Exits.Reader.Controller.Error, "Antenna detection failed: " + e.getMessage(), e));
+				} finally {
+					detectionRefreshing.set(false);
+				}
+			}
+		}, "antennaDetectionThread");
+		thread.setPriority(Thread.MIN_PRIORITY);
+		thread.setDaemon(true);
+		thread.start();
+	}
+
 	/**
 	 * Sets the antenna mask based on the given connect types as controlled
 	 * by instances of the {@link AntennaConfiguration} class or the the reader 
@@ -1975,7 +2949,7 @@ public abstract class RF_RReaderConnector implements ReaderConnector {
 		byte antennas = 0;
 		
 		if (this.connectTypes.containsValue(ConnectType.AUTO)) 
-			antennas = checkAntennas();
+			antennas = getDetectedAntennas();
 				
 		/* for all 4 antennas */
 		for (short antennaIndex = 0; antennaIndex < this.connectTypes.size(); antennaIndex++) {
@@ -0,0 +1,200 @@
+package havis.middleware.reader.rf_r;
+
+import havis.middleware.ale.base.operation.tag.Filter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import de.feig.ReaderConfig.Transponder.UHF.EPC_Class1Gen2.SelectionMask;
+
+/**
+ * Selection masks of the reader created from the filters of tag operations.
+ * The reader only singulates tags matching the masks, so that irrelevant tags
+ * are not inventoried at all. The masks select at least the tags matching the
+ * filters, the filters are still evaluated on the host. If the filters can not
+ * be expressed by the masks of the reader, no tags are deselected.
+ */
+public class RF_RSelection {
+
+	/**
+	 * Selection which does not deselect any tag
+	 */
+	public static final RF_RSelection NONE = new RF_RSelection(new Filter[0], false);
+
+	private static final int MAX_MASKS = 3;
+	private static final int MAX_MASK_LENGTH = 255;
+
+	private static final byte LOGIC_AND = 0;
+	private static final byte LOGIC_OR = 1;
+
+	private final Filter[] masks;
+	private final boolean or;
+
+	private RF_RSelection(Filter[] masks, boolean or) {
+		this.masks = masks;
+		this.or = or;
+	}
+
+	/**
+	 * Creates the selection for the filters of tag operations. A tag is
+	 * selected if it matches all filters of any of the tag operations. As the
+	 * filters are still evaluated on the host, the selection may be wider than
+	 * the filters: if a tag operation has more filters than the reader has
+	 * masks, or filters which can not be expressed by a mask, only the other
+	 * filters are used.
+	 *
+	 * @param filters
+	 *            the filters of each tag operation, null or empty if the tag
+	 *            operation has no filters
+	 * @return the selection, {@link #NONE} if any tag operation has no filters
+	 *         which can be expressed or the filters require too many masks
+	 */
+	public static RF_RSelection create(Collection<List<Filter>> filters) {
+		if (filters.isEmpty())
+			return NONE;
+
+		List<List<Filter>> distinct = new ArrayList<>(filters.size());
+		for (List<Filter> list : filters) {
+			List<Filter> expressible = new ArrayList<>();
+			if (list != null)
+				for (Filter filter : list)
+					if (isExpressible(filter) && !contains(expressible, filter))
+						expressible.add(filter);
+			if (expressible.isEmpty())
+				return NONE;
+			if (!containsAll(distinct, expressible))
+				distinct.add(expressible);
+		}
+
+		if (distinct.size() == 1) {
+			// all tag operations have the same filters, the masks are combined
+			List<Filter> list = distinct.get(0);
+			return new RF_RSelection(list.subList(0, Math.min(MAX_MASKS, list.size())).toArray(new Filter[0]), false);
+		}
+
+		// the tag operations have different filters, one filter of each tag
+		// operation is used and the masks are alternatives
+		List<Filter> alternatives = new ArrayList<>(MAX_MASKS);
+		for (List<Filter> list : distinct) {
+			if (!contains(alternatives, list.get(0))) {
+				if (alternatives.size() == MAX_MASKS)
+					return NONE;
+				alternatives.add(list.get(0));
+			}
+		}
+		return new RF_RSelection(alternatives.toArray(new Filter[0]), alternatives.size() > 1);
+	}
+
+	/**
+	 * Checks whether the filter can be expressed by a mask. The reserved bank
+	 * can not be selected.
+	 */
+	private static boolean isExpressible(Filter filter) {
+		return filter.getBank() >= 1 && filter.getBank() <= 3 && filter.getOffset() >= 0 && filter.getLength() > 0
+				&& filter.getLength() <= MAX_MASK_LENGTH && filter.getMask() != null && filter.getMask().length * 8 >= filter.getLength();
+	}
+
+	private static boolean equals(Filter filter, Filter other) {
+		if (filter.getBank() != other.getBank() || filter.getOffset() != other.getOffset() || filter.getLength() != other.getLength())
+			return false;
+		int bytes = (filter.getLength() + 7) >>> 3;
+		return Arrays.equals(Arrays.copyOf(filter.getMask(), bytes), Arrays.copyOf(other.getMask(), bytes));
+	}
+
+	private static boolean contains(List<Filter> list, Filter filter) {
+		for (Filter other : list)
+			if (equals(filter, other))
+				return true;
+		return false;
+	}
+
+	private static boolean containsAll(List<List<Filter>> lists, List<Filter> filters) {
+		for (List<Filter> list : lists) {
+			if (list.size() != filters.size())
+				continue;
+			boolean equal = true;
+			for (Filter filter : filters)
+				if (!contains(list, filter))
+					equal = false;
+			if (equal)
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * @return true if no tag is deselected
+	 */
+	public boolean isNone() {
+		return masks.length == 0;
+	}
+
+	/**
+	 * Creates the reader configuration parameters of the selection masks.
+	 * Masks not used are disabled by a mask length of 0.
+	 *
+	 * @return the configuration parameters
+	 */
+	public Map<String, Object> toConfiguration() {
+		Map<String, Object> configuration = new HashMap<>();
+		putMask(configuration, 0, SelectionMask.No1.BankNo, SelectionMask.No1.MaskLength, SelectionMask.No1.FirstBit, SelectionMask.No1.Mask);
+		putMask(configuration, 1, SelectionMask.No2.BankNo, SelectionMask.No2.MaskLength, SelectionMask.No2.FirstBit, SelectionMask.No2.Mask);
+		putMask(configuration, 2, SelectionMask.No3.BankNo, SelectionMask.No3.MaskLength, SelectionMask.No3.FirstBit, SelectionMask.No3.Mask);
+		byte logic = or ? LOGIC_OR : LOGIC_AND;
+		configuration.put(SelectionMask.No2.Logic, logic);
+		configuration.put(SelectionMask.No2.Negation, (byte) 0);
+		configuration.put(SelectionMask.No3.Logic, logic);
+		configuration.put(SelectionMask.No3.Negation, (byte) 0);
+		return configuration;
+	}
+
+	private void putMask(Map<String, Object> configuration, int index, String bankNo, String maskLength, String firstBit, String mask) {
+		if (index < masks.length) {
+			Filter filter = masks[index];
+			configuration.put(bankNo, Integer.valueOf(filter.getBank()));
+			configuration.put(maskLength, (byte) filter.getLength());
+			configuration.put(firstBit, Integer.valueOf(filter.getOffset()));
+			configuration.put(mask, Arrays.copyOf(filter.getMask(), (filter.getLength() + 7) >>> 3));
+		} else {
+			configuration.put(maskLength, (byte) 0);
+		}
+	}
+
+	@Override
+	public int hashCode() {
+		int result = or ? 1 : 0;
+		for (Filter filter : masks)
+			result = 31 * result + filter.getBank() * 65536 + filter.getOffset() * 256 + filter.getLength();
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (!(obj instanceof RF_RSelection))
+			return false;
+		RF_RSelection other = (RF_RSelection) obj;
+		if (or != other.or || masks.length != other.masks.length)
+			return false;
+		for (int i = 0; i < masks.length; i++)
+			if (!equals(masks[i], other.masks[i]))
+				return false;
+		return true;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder("RF_RSelection [");
+		for (int i = 0; i < masks.length; i++) {
+			if (i > 0)
+				builder.append(or ? " OR " : " AND ");
+			builder.append(masks[i].getBank()).append(':').append(masks[i].getOffset()).append(':').append(masks[i].getLength());
+		}
+		return builder.append(']').toString();
+	}
+}
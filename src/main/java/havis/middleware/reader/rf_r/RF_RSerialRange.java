@@ -0,0 +1,104 @@
+package havis.middleware.reader.rf_r;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Generates EPCs from a template by counting up a serial number field, for
+ * example the serial numbers of an SGTIN range.
+ */
+public class RF_RSerialRange implements Iterator<byte[]> {
+
+	/**
+	 * Bit offset of the serial number within an SGTIN-96
+	 */
+	public static final int SGTIN_96_SERIAL_OFFSET = 58;
+
+	/**
+	 * Bit length of the serial number of an SGTIN-96
+	 */
+	public static final int SGTIN_96_SERIAL_LENGTH = 38;
+
+	private final byte[] template;
+	private final int offset;
+	private final int length;
+	private final long last;
+	private long serial;
+
+	/**
+	 * Initializes a new instance of the {@link RF_RSerialRange} class.
+	 *
+	 * @param template
+	 *            the EPC the serial number is written into
+	 * @param offset
+	 *            the bit offset of the serial number within the EPC
+	 * @param length
+	 *            the bit length of the serial number
+	 * @param first
+	 *            the first serial number
+	 * @param count
+	 *            the number of EPCs to generate
+	 */
+	public RF_RSerialRange(byte[] template, int offset, int length, long first, long count) {
+		if (template == null)
+			throw new IllegalArgumentException("Template must not be null");
+		if (length < 1 || length > 62 || offset < 0 || offset + length > template.length * 8)
+			throw new IllegalArgumentException("Serial number must be within the template and at most 62 bits long");
+		if (first < 0 || count < 0 || first + count > 1L << length)
+			throw new IllegalArgumentException("Serial numbers must fit into " + length + " bits");
+		this.template = template.clone();
+		this.offset = offset;
+		this.length = length;
+		this.serial = first;
+		this.last = first + count;
+	}
+
+	/**
+	 * Creates a range of SGTIN-96 serial numbers.
+	 *
+	 * @param template
+	 *            the SGTIN-96 with header, filter, partition, company prefix
+	 *            and item reference
+	 * @param first
+	 *            the first serial number
+	 * @param count
+	 *            the number of EPCs to generate
+	 * @return the range
+	 */
+	public static RF_RSerialRange sgtin96(byte[] template, long first, long count) {
+		return new RF_RSerialRange(template, SGTIN_96_SERIAL_OFFSET, SGTIN_96_SERIAL_LENGTH, first, count);
+	}
+
+	@Override
+	public boolean hasNext() {
+		return serial < last;
+	}
+
+	@Override
+	public byte[] next() {
+		if (serial >= last)
+			throw new NoSuchElementException();
+		byte[] epc = template.clone();
+		long value = serial++;
+		for (int i = offset + length - 1; i >= offset; i--, value >>>= 1) {
+			int bit = 0x80 >>> (i & 7);
+			if ((value & 1) != 0)
+				epc[i >>> 3] |= bit;
+			else
+				epc[i >>> 3] &= ~bit;
+		}
+		return epc;
+	}
+
+	@Override
+	public void remove() {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * @return the number of EPCs left
+	 */
+	public long getRemaining() {
+		return last - serial;
+	}
+}
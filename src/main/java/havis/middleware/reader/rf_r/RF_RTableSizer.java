@@ -0,0 +1,164 @@
+package havis.middleware.reader.rf_r;
+
+/**
+ * Sizes the table of the reader library, which stores the tags of an
+ * inventory round or notification. The number of tags grows as soon as a
+ * round fills most of the table and shrinks if the largest round within the
+ * last rounds only uses a small part of it. The number of data blocks per tag
+ * is limited to the blocks the operations actually store in the table.
+ */
+public class RF_RTableSizer {
+
+	private static final int MIN_TAGS = 16;
+	private static final int MAX_TAGS = 8192;
+	private static final int WINDOW = 64;
+
+	private final int maxDataBlocks;
+	private final int blockSize;
+
+	/**
+	 * The sizes of the last rounds
+	 */
+	private final int[] rounds = new int[WINDOW];
+	private int round;
+
+	private int tags;
+	private int targetTags;
+	private int dataBlocks;
+	private int resizes;
+
+	/**
+	 * Initializes a new instance of the {@link RF_RTableSizer} class.
+	 *
+	 * @param tags
+	 *            the initial number of tags
+	 * @param maxDataBlocks
+	 *            the maximum number of data blocks per tag
+	 * @param blockSize
+	 *            the size of a data block
+	 */
+	public RF_RTableSizer(int tags, int maxDataBlocks, int blockSize) {
+		if (tags < 1)
+			throw new IllegalArgumentException("Tags must be at least 1");
+		if (maxDataBlocks < 1)
+			throw new IllegalArgumentException("Data blocks must be at least 1");
+		this.tags = tags;
+		this.targetTags = tags;
+		this.maxDataBlocks = maxDataBlocks;
+		this.blockSize = blockSize;
+		this.dataBlocks = maxDataBlocks;
+	}
+
+	/**
+	 * Gets the number of data blocks the user bank data of the inventory
+	 * occupies in the table. The data is stored at the index of its block, so
+	 * that the table has to hold all blocks up to the last one read.
+	 *
+	 * @param inventoryOperation
+	 *            the inventory settings, may be null
+	 * @param maxDataBlocks
+	 *            the maximum number of data blocks per tag
+	 * @return the number of data blocks, at least 1
+	 */
+	public static int getUserDataBlocks(RF_RInventoryOperation inventoryOperation, int maxDataBlocks) {
+		if (inventoryOperation == null || !inventoryOperation.isUser())
+			return 1;
+		if (inventoryOperation.isForceUserComplete())
+			return maxDataBlocks;
+		RF_RReadPlan readPlan = inventoryOperation.getUserReadPlan();
+		if (readPlan == null || readPlan.size() == 0)
+			return maxDataBlocks;
+		int last = readPlan.size() - 1;
+		return Math.max(1, Math.min(maxDataBlocks, readPlan.getOffset(last) + readPlan.getLength(last)));
+	}
+
+	/**
+	 * Records the number of tags of a round.
+	 *
+	 * @param tags
+	 *            the number of tags
+	 */
+	public synchronized void observe(int tags) {
+		rounds[round++ % WINDOW] = tags;
+		if (tags * 4 >= this.tags * 3) {
+			targetTags = Math.max(targetTags, Math.min(MAX_TAGS, Integer.highestOneBit(Math.max(1, tags * 2 - 1)) << 1));
+		} else if (round >= WINDOW) {
+			int highWater = getHighWater();
+			int size = Math.max(MIN_TAGS, Integer.highestOneBit(Math.max(1, highWater * 2 - 1)) << 1);
+			if (size * 2 <= this.tags && highWater * 4 <= this.tags)
+				targetTags = size;
+		}
+	}
+
+	/**
+	 * Updates the size of the table.
+	 *
+	 * @param dataBlocks
+	 *            the number of data blocks per tag required from now on, will
+	 *            be limited to the maximum
+	 * @return true if the table has to be resized
+	 */
+	public synchronized boolean update(int dataBlocks) {
+		dataBlocks = Math.max(1, Math.min(maxDataBlocks, dataBlocks));
+		if (dataBlocks == this.dataBlocks && targetTags == this.tags)
+			return false;
+		this.dataBlocks = dataBlocks;
+		this.tags = targetTags;
+		this.resizes++;
+		return true;
+	}
+
+	/**
+	 * @return the number of tags the table holds
+	 */
+	public synchronized int getTags() {
+		return tags;
+	}
+
+	/**
+	 * @return the number of data blocks per tag
+	 */
+	public synchronized int getDataBlocks() {
+		return dataBlocks;
+	}
+
+	/**
+	 * @return the size of a data block
+	 */
+	public int getBlockSize() {
+		return blockSize;
+	}
+
+	/**
+	 * @return the maximum number of data blocks per tag
+	 */
+	public int getMaxDataBlocks() {
+		return maxDataBlocks;
+	}
+
+	/**
+	 * @return the largest number of tags within the last rounds
+	 */
+	public synchronized int getHighWater() {
+		int highWater = 0;
+		for (int i = Math.min(round, WINDOW) - 1; i >= 0; i--)
+			highWater = Math.max(highWater, rounds[i]);
+		return highWater;
+	}
+
+	/**
+	 * @param table
+	 *            the name of the table
+	 * @return the current allocation as monitor configuration
+	 */
+	public synchronized RF_RMonitorConfiguration getConfiguration(String table) {
+		return new RF_RMonitorConfiguration(RF_RMonitorConfiguration.Kind.Table, table).set("tags", Integer.valueOf(tags))
+				.set("dataBlocks", Integer.valueOf(dataBlocks)).set("blockSize", Integer.valueOf(blockSize))
+				.set("highWater", Integer.valueOf(getHighWater())).set("resizes", Integer.valueOf(resizes));
+	}
+
+	@Override
+	public synchronized String toString() {
+		return "RF_RTableSizer [tags=" + tags + ", dataBlocks=" + dataBlocks + ", blockSize=" + blockSize + ", resizes=" + resizes + "]";
+	}
+}
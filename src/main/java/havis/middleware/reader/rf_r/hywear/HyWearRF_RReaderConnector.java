@@ -13,9 +13,10 @@ import havis.middleware.ale.base.operation.tag.result.ResultState;
 import havis.middleware.ale.exit.Exits;
 import havis.middleware.ale.reader.Callback;
 import havis.middleware.ale.reader.Property;
-import havis.middleware.reader.rf_r.RFCUtils;
+import havis.middleware.reader.rf_r.RF_RActiveOperations;
 import havis.middleware.reader.rf_r.RF_RConfiguration.OperatingModeValue;
 import havis.middleware.reader.rf_r.RF_RInventoryOperation;
+import havis.middleware.reader.rf_r.RF_RReadPlan;
 import havis.middleware.reader.rf_r.RF_RReaderConnector;
 import havis.middleware.reader.rf_r.RF_RStatus;
 import havis.util.monitor.Capabilities;
@@ -234,22 +235,27 @@ public class HyWearRF_RReaderConnector extends RF_RReaderConnector {
 		return 0;
 	}
 
-	private IScanEventListener scanEventListener = new IScanEventListener() {
+	IScanEventListener scanEventListener = new IScanEventListener() {
 		@Override
 		public HashMap<Integer, OutputSetting> onNewScanEvent(BrmTableItem tableItem) {
 			boolean success = false;
 			if (inventoryStarted) {
 				AtomicBoolean inHostMode = new AtomicBoolean(false);
+				beginInventoryRound();
 				try {
 					FedmBrmTableItem[] brmItems = (FedmBrmTableItem[]) reader.getTable(FedmIscReaderConst.BRM_TABLE);
 					for (FedmBrmTableItem tag : brmItems) {
 						boolean barcode = isBarcode(tag);
-						String epc = "";
+						Tag reportTag;
 						if (barcode) {
-							epc = tag.getUid();
+							String epc = tag.getUid();
+							reportTag = new Tag(epc.length() == 0 ? new byte[0] : FeHexConvert.hexStringToByteArray(epc));
+							// for barcodes also write EPC to TID in extended mode
+							if (Tag.isExtended())
+								reportTag.setTid(reportTag.getEpc());
 						} else {
 							try {
-								epc = getEpcOfUid(tag);
+								reportTag = createReportTag(getUid(tag), getProtocolControl(tag));
 							} catch (StringIndexOutOfBoundsException ex) {
 								/*
 								 * HOTFIX for problem that reader reports OK state on ARM platform although an
@@ -260,26 +266,11 @@ public class HyWearRF_RReaderConnector extends RF_RReaderConnector {
 
 							}
 						}
-						Tag reportTag = new Tag(epc.length() == 0 ? new byte[0] : FeHexConvert.hexStringToByteArray(epc));
-
-						if (Tag.isExtended()) {
-							if (!barcode)
-								reportTag.setTid("".equals(getTidOfUid(tag)) ? new byte[0] : FeHexConvert.hexStringToByteArray(getTidOfUid(tag)));
-							else {
-								// for barcodes also write EPC to TID in extended mode
-								reportTag.setTid(reportTag.getEpc());
-							}
-						}
-
-						if (!barcode) {
-							byte[] pc = RFCUtils.shortToBytes((short) getProtocolControl(tag));
-							reportTag.setPc(new byte[] { pc[1], pc[0] });
-						}
 
 						ReadResult[] readResult = new ReadResult[4];
 
-						Map<Long, TagOperation> tagOperations = new HashMap<>();
-						RF_RInventoryOperation inventoryOperation = getCurrentOperations(tagOperations);
+						RF_RActiveOperations activeOperations = getActiveOperations();
+						RF_RInventoryOperation inventoryOperation = activeOperations.getInventoryOperation();
 
 						if (inventoryOperation.isReserved()) {
 							readResult[0] = new ReadResult(ResultState.OP_NOT_POSSIBLE_ERROR, new byte[0]);
@@ -288,21 +279,7 @@ public class HyWearRF_RReaderConnector extends RF_RReaderConnector {
 							if (barcode) {
 								readResult[1] = new ReadResult(ResultState.SUCCESS, reportTag.getEpc());
 							} else {
-
-								byte[] epcData = new byte[2 + reportTag.getPc().length + reportTag.getEpc().length];
-								/* CRC */
-								epcData[0] = 0x00;
-								epcData[1] = 0x00;
-
-								/* PC */
-								for (int i = 0; i < reportTag.getPc().length; i++)
-									epcData[2 + i] = reportTag.getPc()[i];
-
-								/* EPC */
-								for (int i = 0; i < reportTag.getEpc().length; i++)
-									epcData[i + 2 + reportTag.getPc().length] = reportTag.getEpc()[i];
-
-								readResult[1] = new ReadResult(ResultState.SUCCESS, epcData);
+								readResult[1] = new ReadResult(ResultState.SUCCESS, getEpcBankData(reportTag));
 							}
 						}
 						if (inventoryOperation.isTid()) {
@@ -339,12 +316,13 @@ public class HyWearRF_RReaderConnector extends RF_RReaderConnector {
 								readResult[3] = new ReadResult(ResultState.OP_NOT_POSSIBLE_ERROR, new byte[0]);
 						}
 
-						sendInventoryReport(new InventoryReport(reportTag, readResult), tagOperations);
+						sendInventoryReport(new InventoryReport(reportTag, readResult), activeOperations);
 						success = true;
 					}
 				} catch (Exception e) {
 					clientCallback.notify(new Message(Exits.Reader.Controller.Error, "Exception occurred during Inventory: " + e.getMessage(), e));
 				} finally {
+					endInventoryRound();
 					if (inHostMode.compareAndSet(true, false)) {
 						try {
 							// back to scan mode
@@ -380,30 +358,16 @@ public class HyWearRF_RReaderConnector extends RF_RReaderConnector {
 				byte[] readDataBlocks;
 				readData = new byte[dataBlocksCount * 2];
 
-				for (int offset = 0; offset < dataBlocksCount; offset++) {
-					int length = 0;
-					// Skip not required data blocks
-					while (!dataBlocks[offset] && (offset < dataBlocksCount)) {
-						offset++;
-					}
-
-					if (offset < dataBlocksCount) {
-						// Count number of blocks that must be read
-						while ((offset + length < dataBlocksCount) && dataBlocks[offset + length]) {
-							length++;
-						}
+				RF_RReadPlan readPlan = inventoryOperation.getUserReadPlan();
+				for (int i = 0; i < readPlan.size(); i++) {
+					int offset = readPlan.getOffset(i);
 
-						// execute read operation
-						readDataBlocks = readBankWhileScanning(epc, FedmIscTagHandler_EPC_Class1_Gen2.BANK_USER, offset, length, password, inHostMode);
-						readResultCode = RF_RStatus.OK;
+					// execute read operation
+					readDataBlocks = readBankWhileScanning(epc, FedmIscTagHandler_EPC_Class1_Gen2.BANK_USER, offset, readPlan.getLength(i), password, inHostMode);
+					readResultCode = RF_RStatus.OK;
 
-						// if read operation was successful the data will be
-						// added to the array
-						if (readResultCode == RF_RStatus.OK) {
-							System.arraycopy(readDataBlocks, 0, readData, offset * 2, readDataBlocks.length);
-							offset += length;
-						}
-					}
+					// the data will be added to the array
+					System.arraycopy(readDataBlocks, 0, readData, offset * 2, Math.min(readDataBlocks.length, readData.length - offset * 2));
 				}
 			}
 		} catch (Exception e) {
@@ -561,7 +525,8 @@ public class HyWearRF_RReaderConnector extends RF_RReaderConnector {
 	}
 
 	@Override
-	protected Map<Integer, Result> executeOperationOnTag(FedmIscTagHandler_EPC_Class1_Gen2 executeTag) throws Exception {
+	protected Map<Integer, Result> executeOperationOnTag(FedmIscTagHandler_EPC_Class1_Gen2 executeTag, TagOperation executeOperation)
+			throws Exception {
 		throw new UnsupportedOperationException("Executing operations on tag is not supported");
 	}
 
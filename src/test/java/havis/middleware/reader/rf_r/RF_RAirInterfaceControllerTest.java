@@ -0,0 +1,132 @@
+package havis.middleware.reader.rf_r;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+public class RF_RAirInterfaceControllerTest {
+
+	private static final Collection<String> NONE = Collections.emptyList();
+
+	private static List<String> uids(int count) {
+		List<String> uids = new ArrayList<>();
+		for (int i = 0; i < count; i++)
+			uids.add("E" + i);
+		return uids;
+	}
+
+	@Test
+	public void session() {
+		assertEquals(1, new RF_RAirInterfaceController(1, 2, 2, 10, 1, 0).getSession());
+		assertEquals(2, new RF_RAirInterfaceController(1, 2, 2, 10, 1, 3).getSession());
+		assertEquals(2, new RF_RAirInterfaceController(0, 3, 2, 10, 1, 2).getSession());
+	}
+
+	@Test
+	public void crowded() {
+		RF_RAirInterfaceController controller = new RF_RAirInterfaceController(0, 2, 2, 10, 2, 0);
+		assertFalse(controller.update(uids(10), 0, false));
+		assertTrue(controller.update(uids(10), 0, false));
+		assertEquals(1, controller.getSession());
+		// the hysteresis starts again
+		assertFalse(controller.update(uids(10), 0, false));
+		assertTrue(controller.update(uids(10), 0, false));
+		assertEquals(2, controller.getSession());
+		// limited to the highest session
+		assertFalse(controller.update(uids(10), 0, false));
+		assertFalse(controller.update(uids(10), 0, false));
+		assertEquals(2, controller.getSession());
+		assertEquals(2, controller.getChanges());
+	}
+
+	@Test
+	public void crowdedByReader() {
+		RF_RAirInterfaceController controller = new RF_RAirInterfaceController(0, 2, 2, 10, 1, 0);
+		assertTrue(controller.update(uids(3), 1, false));
+		assertEquals(1, controller.getSession());
+		assertTrue(controller.update(uids(3), 0, true));
+		assertEquals(2, controller.getSession());
+	}
+
+	@Test
+	public void sparse() {
+		RF_RAirInterfaceController controller = new RF_RAirInterfaceController(1, 3, 2, 10, 2, 3);
+		assertFalse(controller.update(uids(2), 0, false));
+		assertTrue(controller.update(NONE, 0, false));
+		assertEquals(2, controller.getSession());
+		assertFalse(controller.update(NONE, 0, false));
+		assertTrue(controller.update(NONE, 0, false));
+		assertEquals(1, controller.getSession());
+		// limited to the lowest session
+		assertFalse(controller.update(NONE, 0, false));
+		assertFalse(controller.update(NONE, 0, false));
+		assertEquals(1, controller.getSession());
+	}
+
+	@Test
+	public void moderate() {
+		RF_RAirInterfaceController controller = new RF_RAirInterfaceController(0, 2, 2, 10, 2, 0);
+		assertFalse(controller.update(uids(3), 1, false));
+		// a round in between resets the hysteresis
+		assertFalse(controller.update(uids(3), 0, false));
+		assertFalse(controller.update(uids(3), 1, false));
+		assertTrue(controller.update(uids(3), 1, false));
+		assertEquals(1, controller.getChanges());
+	}
+
+	@Test
+	public void population() {
+		RF_RAirInterfaceController controller = new RF_RAirInterfaceController(0, 3, 0, 10, 3, 0);
+		controller.update(Arrays.asList("A", "B"), 0, false);
+		assertEquals(2, controller.getPopulation());
+		controller.update(Arrays.asList("C"), 0, false);
+		assertEquals(3, controller.getPopulation());
+		controller.update(NONE, 0, false);
+		assertEquals(3, controller.getPopulation());
+		// tags not seen within the last rounds have left the field
+		controller.update(NONE, 0, false);
+		assertEquals(1, controller.getPopulation());
+		controller.update(Arrays.asList("A"), 0, false);
+		assertEquals(1, controller.getPopulation());
+	}
+
+	@Test
+	public void configuration() {
+		RF_RAirInterfaceController controller = new RF_RAirInterfaceController(0, 2, 2, 10, 1, 0);
+		controller.update(uids(10), 0, false);
+		RF_RMonitorConfiguration configuration = controller.getConfiguration();
+		assertEquals(RF_RMonitorConfiguration.Kind.AirInterface, configuration.getKind());
+		assertEquals(Integer.valueOf(1), configuration.get("session"));
+		assertEquals(Integer.valueOf(0), configuration.get("minSession"));
+		assertEquals(Integer.valueOf(2), configuration.get("maxSession"));
+		assertEquals(Integer.valueOf(10), configuration.get("population"));
+		assertEquals(Integer.valueOf(1), configuration.get("changes"));
+	}
+
+	@Test
+	public void invalidArguments() {
+		assertInvalid(-1, 2, 2, 10, 1);
+		assertInvalid(0, 4, 2, 10, 1);
+		assertInvalid(2, 1, 2, 10, 1);
+		assertInvalid(0, 2, -1, 10, 1);
+		assertInvalid(0, 2, 10, 10, 1);
+		assertInvalid(0, 2, 2, 10, 0);
+	}
+
+	private static void assertInvalid(int minSession, int maxSession, int lowPopulation, int highPopulation, int hysteresis) {
+		try {
+			new RF_RAirInterfaceController(minSession, maxSession, lowPopulation, highPopulation, hysteresis, 0);
+			fail("Expected IllegalArgumentException");
+		} catch (IllegalArgumentException e) {
+		}
+	}
+}
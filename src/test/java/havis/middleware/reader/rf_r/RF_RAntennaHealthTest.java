@@ -0,0 +1,126 @@
+package havis.middleware.reader.rf_r;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.List;
+
+import org.junit.Test;
+
+public class RF_RAntennaHealthTest {
+
+	private static final long BACKOFF = 1000000;
+
+	private static List<RF_RAntennaHealth.Transition> round(RF_RAntennaHealth health, int suspects, long time, int... antennas) {
+		health.filter((byte) 0x03, (byte) 0x03, time);
+		for (int antenna : antennas)
+			health.seen(antenna);
+		return health.complete((byte) 0x03, (byte) suspects, time);
+	}
+
+	@Test
+	public void warning() {
+		RF_RAntennaHealth health = new RF_RAntennaHealth(2, 0, 1);
+		assertTrue(round(health, 0x01, 0).isEmpty());
+		List<RF_RAntennaHealth.Transition> transitions = round(health, 0x01, 0);
+		assertEquals(1, transitions.size());
+		assertEquals(1, transitions.get(0).getAntenna());
+		assertTrue(transitions.get(0).isFaulty());
+		assertEquals(RF_RAntennaHealth.Reason.Warning, transitions.get(0).getReason());
+		assertEquals(RF_RAntennaHealth.Reason.Warning, health.getReason(1));
+		assertNull(health.getReason(2));
+
+		// excluded until it is checked again
+		assertEquals(0x02, health.filter((byte) 0x03, (byte) 0x03, 1));
+		assertEquals(0x02, health.filter((byte) 0x03, (byte) 0x03, BACKOFF - 1));
+		// antennas without automatic detection are not excluded
+		assertEquals(0x03, health.filter((byte) 0x03, (byte) 0x02, 1));
+		assertEquals(0x03, health.filter((byte) 0x03, (byte) 0x03, BACKOFF));
+	}
+
+	@Test
+	public void warningInterrupted() {
+		RF_RAntennaHealth health = new RF_RAntennaHealth(2, 0, 1);
+		round(health, 0x01, 0);
+		round(health, 0x00, 0);
+		assertTrue(round(health, 0x01, 0).isEmpty());
+		assertNull(health.getReason(1));
+	}
+
+	@Test
+	public void recover() {
+		RF_RAntennaHealth health = new RF_RAntennaHealth(1, 0, 1);
+		round(health, 0x01, 0);
+		List<RF_RAntennaHealth.Transition> transitions = round(health, 0x00, BACKOFF);
+		assertEquals(1, transitions.size());
+		assertEquals(1, transitions.get(0).getAntenna());
+		assertFalse(transitions.get(0).isFaulty());
+		assertNull(transitions.get(0).getReason());
+		assertNull(health.getReason(1));
+		assertEquals(0x03, health.filter((byte) 0x03, (byte) 0x03, BACKOFF + 1));
+	}
+
+	@Test
+	public void backoffDoubles() {
+		RF_RAntennaHealth health = new RF_RAntennaHealth(1, 0, 1);
+		round(health, 0x01, 0);
+		// checked again and still faulty
+		assertTrue(round(health, 0x01, BACKOFF).isEmpty());
+		assertEquals(0x02, health.filter((byte) 0x03, (byte) 0x03, 3 * BACKOFF - 1));
+		assertEquals(0x03, health.filter((byte) 0x03, (byte) 0x03, 3 * BACKOFF));
+		round(health, 0x01, 3 * BACKOFF);
+		assertEquals(0x02, health.filter((byte) 0x03, (byte) 0x03, 7 * BACKOFF - 1));
+		assertEquals(0x03, health.filter((byte) 0x03, (byte) 0x03, 7 * BACKOFF));
+	}
+
+	@Test
+	public void unusedAntennas() {
+		RF_RAntennaHealth health = new RF_RAntennaHealth(1, 0, 1);
+		health.filter((byte) 0x01, (byte) 0x03, 0);
+		assertEquals(1, health.complete((byte) 0x01, (byte) 0x03, 0).size());
+		assertNull(health.getReason(2));
+	}
+
+	@Test
+	public void zeroYield() {
+		RF_RAntennaHealth health = new RF_RAntennaHealth(5, 2, 1);
+		assertTrue(round(health, 0x00, 0, 2).isEmpty());
+		// rounds without any tag are not counted
+		assertTrue(round(health, 0x00, 0).isEmpty());
+		List<RF_RAntennaHealth.Transition> transitions = round(health, 0x00, 0, 2, 2);
+		assertEquals(1, transitions.size());
+		assertEquals(1, transitions.get(0).getAntenna());
+		assertEquals(RF_RAntennaHealth.Reason.ZeroYield, transitions.get(0).getReason());
+
+		// recovers as soon as it sees tags again
+		transitions = round(health, 0x00, 1, 1);
+		assertEquals(1, transitions.size());
+		assertFalse(transitions.get(0).isFaulty());
+	}
+
+	@Test
+	public void zeroYieldIgnored() {
+		RF_RAntennaHealth health = new RF_RAntennaHealth(5, 0, 1);
+		for (int i = 0; i < 10; i++)
+			assertTrue(round(health, 0x00, 0, 2).isEmpty());
+		assertNull(health.getReason(1));
+	}
+
+	@Test
+	public void invalidArguments() {
+		assertInvalid(0, 0, 1);
+		assertInvalid(1, -1, 1);
+		assertInvalid(1, 0, 0);
+	}
+
+	private static void assertInvalid(int warningLimit, int zeroYieldLimit, long backoff) {
+		try {
+			new RF_RAntennaHealth(warningLimit, zeroYieldLimit, backoff);
+			fail("Expected IllegalArgumentException");
+		} catch (IllegalArgumentException e) {
+		}
+	}
+}
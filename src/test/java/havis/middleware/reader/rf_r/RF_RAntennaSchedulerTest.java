@@ -0,0 +1,76 @@
+package havis.middleware.reader.rf_r;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+public class RF_RAntennaSchedulerTest {
+
+	@Test
+	public void probe() {
+		RF_RAntennaScheduler scheduler = new RF_RAntennaScheduler(4);
+		assertEquals(4, scheduler.getProbeInterval());
+		for (int round = 1; round <= 12; round++) {
+			byte selected = scheduler.next((byte) 0x03, (byte) 0x00);
+			// the antenna without tags is only used every fourth round
+			assertEquals("Round " + round, round % 4 == 1 ? 0x03 : 0x01, selected);
+			scheduler.seen("A", 1);
+			scheduler.complete();
+		}
+		assertEquals(0, scheduler.getYield(2), 0);
+	}
+
+	@Test
+	public void yield() {
+		RF_RAntennaScheduler scheduler = new RF_RAntennaScheduler(4);
+		scheduler.next((byte) 0x01, (byte) 0x00);
+		scheduler.seen("A", 1);
+		scheduler.complete();
+		// new tags count three times
+		assertEquals(0.75, scheduler.getYield(1), 0.0001);
+
+		scheduler.next((byte) 0x01, (byte) 0x00);
+		scheduler.seen("A", 1);
+		scheduler.complete();
+		assertEquals(0.8125, scheduler.getYield(1), 0.0001);
+	}
+
+	@Test
+	public void unknownAntenna() {
+		RF_RAntennaScheduler scheduler = new RF_RAntennaScheduler(4);
+		// the only antenna used is assumed
+		scheduler.next((byte) 0x02, (byte) 0x00);
+		scheduler.seen("A", 0);
+		scheduler.complete();
+		assertEquals(0.75, scheduler.getYield(2), 0.0001);
+
+		// not assigned if more than one antenna was used
+		scheduler = new RF_RAntennaScheduler(4);
+		scheduler.next((byte) 0x03, (byte) 0x00);
+		scheduler.seen("A", 0);
+		scheduler.complete();
+		assertEquals(0, scheduler.getYield(1), 0);
+		assertEquals(0, scheduler.getYield(2), 0);
+	}
+
+	@Test
+	public void pinnedAndDisabled() {
+		RF_RAntennaScheduler scheduler = new RF_RAntennaScheduler(4);
+		for (int round = 1; round <= 8; round++) {
+			// antenna 2 is pinned, antenna 4 is disabled
+			assertEquals((byte) 0x03, scheduler.next((byte) 0x03, (byte) 0x02) & 0x0B);
+			scheduler.seen("A", 1);
+			scheduler.complete();
+		}
+	}
+
+	@Test
+	public void invalidArguments() {
+		try {
+			new RF_RAntennaScheduler(0);
+			fail("Expected IllegalArgumentException");
+		} catch (IllegalArgumentException e) {
+		}
+	}
+}
@@ -0,0 +1,82 @@
+package havis.middleware.reader.rf_r;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.List;
+
+import org.junit.Test;
+
+public class RF_RBlockWriteCacheTest {
+
+	private static final String MODEL = "001-105";
+
+	@Test
+	public void model() {
+		assertEquals(MODEL, RF_RBlockWriteCache.getModel(new byte[] { (byte) 0xE2, (byte) 0x00, 0x11, 0x05 }));
+		assertEquals("00B-807", RF_RBlockWriteCache.getModel(new byte[] { (byte) 0xE2, (byte) 0x00, (byte) 0xB8, 0x07, 0x00 }));
+		assertNull(RF_RBlockWriteCache.getModel(null));
+		assertNull(RF_RBlockWriteCache.getModel(new byte[] { (byte) 0xE2, 0x00, 0x11 }));
+		// no Gen2 allocation class
+		assertNull(RF_RBlockWriteCache.getModel(new byte[] { (byte) 0xE0, 0x00, 0x11, 0x05 }));
+	}
+
+	@Test
+	public void unlimited() {
+		RF_RBlockWriteCache cache = new RF_RBlockWriteCache();
+		assertEquals(8, cache.getBlockSize(MODEL, 8));
+		assertEquals(8, cache.getBlockSize(null, 8));
+	}
+
+	@Test
+	public void halvesOnFailure() {
+		RF_RBlockWriteCache cache = new RF_RBlockWriteCache();
+		assertEquals(4, cache.failed(MODEL, 8));
+		assertEquals(4, cache.getBlockSize(MODEL, 8));
+		assertEquals(3, cache.getBlockSize(MODEL, 3));
+		assertEquals(2, cache.failed(MODEL, 4));
+		assertEquals(1, cache.failed(MODEL, 2));
+		assertEquals(1, cache.getBlockSize(MODEL, 8));
+		// other models are not affected
+		assertEquals(8, cache.getBlockSize("001-106", 8));
+	}
+
+	@Test
+	public void keepsSupportedSize() {
+		RF_RBlockWriteCache cache = new RF_RBlockWriteCache();
+		cache.written(MODEL, 3, 0);
+		// a transient error of a size written before
+		assertEquals(1, cache.failed(MODEL, 2));
+		assertEquals(8, cache.getBlockSize(MODEL, 8));
+		// not reduced below the size written before
+		assertEquals(3, cache.failed(MODEL, 4));
+		assertEquals(3, cache.getBlockSize(MODEL, 8));
+		assertEquals(3, cache.failed(MODEL, 8));
+	}
+
+	@Test
+	public void unknownModel() {
+		RF_RBlockWriteCache cache = new RF_RBlockWriteCache();
+		assertEquals(4, cache.failed(null, 8));
+		assertEquals(8, cache.getBlockSize(null, 8));
+		cache.written(null, 8, 0);
+		assertEquals(0, cache.getConfiguration().size());
+	}
+
+	@Test
+	public void configuration() {
+		RF_RBlockWriteCache cache = new RF_RBlockWriteCache();
+		cache.written(MODEL, 2, 2000000);
+		cache.failed(MODEL, 8);
+		List<RF_RMonitorConfiguration> configurations = cache.getConfiguration();
+		assertEquals(1, configurations.size());
+		RF_RMonitorConfiguration configuration = configurations.get(0);
+		assertEquals(RF_RMonitorConfiguration.Kind.BlockWrite, configuration.getKind());
+		assertEquals(MODEL, configuration.getName());
+		assertEquals(Integer.valueOf(4), configuration.get("blockSize"));
+		assertEquals(Integer.valueOf(2), configuration.get("supportedBlockSize"));
+		assertEquals(Long.valueOf(1), configuration.get("writes"));
+		assertEquals(Long.valueOf(1), configuration.get("fallbacks"));
+		assertEquals(Double.valueOf(1), configuration.get("averageWordDuration"));
+	}
+}
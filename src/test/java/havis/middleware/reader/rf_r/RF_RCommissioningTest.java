@@ -0,0 +1,295 @@
+package havis.middleware.reader.rf_r;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import havis.middleware.ale.base.operation.tag.Filter;
+import havis.middleware.ale.base.operation.tag.LockType;
+import havis.middleware.reader.rf_r500.HostRF_R500ReaderConnector;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import de.feig.FeHexConvert;
+import de.feig.FedmIsoTableItem;
+import de.feig.TagHandler.FedmIscTagHandler_EPC_Class1_Gen2;
+import de.feig.TagHandler.FedmIscTagHandler_Result;
+
+public class RF_RCommissioningTest {
+
+	private static final byte[] TID = new byte[] { (byte) 0xE2, (byte) 0x80, 0x11, 0x05, 0, 0, 0, 1 };
+
+	/**
+	 * @return the EPC bank data with CRC and PC
+	 */
+	private static byte[] epcBank(byte[] epc) {
+		byte[] epcBank = new byte[4 + epc.length];
+		epcBank[2] = (byte) ((epc.length / 2) << 3);
+		System.arraycopy(epc, 0, epcBank, 4, epc.length);
+		return epcBank;
+	}
+
+	private static byte[] unprogrammed(int serial) {
+		return new byte[] { (byte) 0xE2, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, (byte) serial };
+	}
+
+	private static RF_RCommissioning commissioning(int count) {
+		byte[] template = new byte[12];
+		template[0] = 0x30;
+		return new RF_RCommissioning(new RF_RCommissioningJob(RF_RSerialRange.sgtin96(template, 1, count)));
+	}
+
+	@Test
+	public void acceptsFilter() {
+		RF_RCommissioningJob job = new RF_RCommissioningJob(RF_RSerialRange.sgtin96(new byte[12], 1, 1));
+		job.setFilter(Arrays.asList(new Filter(1, 8, 32, new byte[] { (byte) 0xE2 })));
+		RF_RCommissioning commissioning = new RF_RCommissioning(job);
+		assertTrue(commissioning.accepts(epcBank(unprogrammed(1)), TID));
+		assertFalse(commissioning.accepts(epcBank(new byte[] { 0x30, 0, 0, 0 }), TID));
+	}
+
+	@Test
+	public void success() {
+		RF_RCommissioning commissioning = commissioning(2);
+		byte[] epcBank = epcBank(unprogrammed(1));
+		assertTrue(commissioning.accepts(epcBank, TID));
+
+		byte[] epc = commissioning.next();
+		RF_RCommissioningResult result = commissioning.complete(epcBank, TID, epc, RF_RCommissioningResult.State.Success, 1000000);
+		assertEquals(RF_RCommissioningResult.State.Success, result.getState());
+		assertArrayEquals(epc, result.getEpc());
+		assertArrayEquals(unprogrammed(1), result.getPreviousEpc());
+
+		// the tag is skipped by its TID
+		assertFalse(commissioning.accepts(epcBank, TID));
+		assertFalse(commissioning.accepts(epcBank(epc), TID));
+		assertFalse(commissioning.isFinished());
+		assertEquals(Long.valueOf(1), commissioning.getConfiguration().get("commissioned"));
+	}
+
+	@Test
+	public void successWithoutTid() {
+		RF_RCommissioning commissioning = commissioning(2);
+		byte[] epc = commissioning.next();
+		commissioning.complete(epcBank(unprogrammed(1)), null, epc, RF_RCommissioningResult.State.Success, 0);
+		// the tag is skipped by its new EPC
+		assertFalse(commissioning.accepts(epcBank(epc), null));
+		assertTrue(commissioning.accepts(epcBank(unprogrammed(2)), null));
+	}
+
+	@Test
+	public void writeErrorReusesEpc() {
+		RF_RCommissioning commissioning = commissioning(1);
+		byte[] epc = commissioning.next();
+		commissioning.complete(epcBank(unprogrammed(1)), TID, epc, RF_RCommissioningResult.State.WriteError, 0);
+		assertFalse(commissioning.isFinished());
+		assertArrayEquals(epc, commissioning.next());
+		assertNull(commissioning.next());
+		assertTrue(commissioning.isFinished());
+	}
+
+	@Test
+	public void failureRetiresEpc() {
+		RF_RCommissioning commissioning = commissioning(2);
+		byte[] first = commissioning.next();
+		commissioning.complete(epcBank(unprogrammed(1)), TID, first, RF_RCommissioningResult.State.VerifyError, 0);
+		byte[] second = commissioning.next();
+		assertFalse(Arrays.equals(first, second));
+		assertTrue(commissioning.isFinished());
+		assertEquals(Long.valueOf(1), commissioning.getConfiguration().get("failed"));
+	}
+
+	@Test
+	public void failureWithTidRetriesUpToMaxAttempts() {
+		RF_RCommissioning commissioning = commissioning(10);
+		assertEquals(3, commissioning.getJob().getMaxAttempts());
+		byte[] epcBank = epcBank(unprogrammed(1));
+
+		commissioning.complete(epcBank, TID, commissioning.next(), RF_RCommissioningResult.State.LockError, 0);
+		assertTrue(commissioning.accepts(epcBank, TID));
+		commissioning.complete(epcBank, TID, commissioning.next(), RF_RCommissioningResult.State.PasswordError, 0);
+		assertTrue(commissioning.accepts(epcBank, TID));
+		commissioning.complete(epcBank, TID, commissioning.next(), RF_RCommissioningResult.State.WriteError, 0);
+		assertFalse(commissioning.accepts(epcBank, TID));
+
+		// other tags are not affected
+		assertTrue(commissioning.accepts(epcBank, new byte[] { (byte) 0xE2, (byte) 0x80, 0x11, 0x05, 0, 0, 0, 2 }));
+	}
+
+	@Test
+	public void failureWithoutTid() {
+		RF_RCommissioning commissioning = commissioning(10);
+		byte[] epcBank = epcBank(unprogrammed(1));
+		byte[] epc = commissioning.next();
+		commissioning.complete(epcBank, null, epc, RF_RCommissioningResult.State.LockError, 0);
+		// the tag may carry the EPC and is skipped by it
+		assertFalse(commissioning.accepts(epcBank(epc), null));
+		// the previous EPC is retried until the maximum number of attempts
+		assertTrue(commissioning.accepts(epcBank, null));
+		commissioning.complete(epcBank, null, commissioning.next(), RF_RCommissioningResult.State.LockError, 0);
+		commissioning.complete(epcBank, null, commissioning.next(), RF_RCommissioningResult.State.LockError, 0);
+		assertFalse(commissioning.accepts(epcBank, null));
+	}
+
+	/**
+	 * Tag recording each command with the EPC it is addressed by
+	 */
+	private static class CommissioningTag extends FedmIscTagHandler_EPC_Class1_Gen2 {
+
+		private final FedmIsoTableItem tabItem;
+		private final byte[] epcMemory;
+		private final List<String> commands = new ArrayList<>();
+		private int writeStatus = RF_RStatus.OK.getValue();
+		private int maxWords = Integer.MAX_VALUE;
+
+		private CommissioningTag(FedmIsoTableItem tabItem, byte[] epcBank) {
+			super(null, tabItem);
+			this.tabItem = tabItem;
+			this.epcMemory = new byte[64];
+			// the words are stored with swapped bytes as given by the reader
+			for (int i = 0; i < epcBank.length; i += 2) {
+				epcMemory[i] = epcBank[i + 1];
+				epcMemory[i + 1] = epcBank[i];
+			}
+		}
+
+		private String address() {
+			return FeHexConvert.byteArrayToHexString(tabItem.uid);
+		}
+
+		@Override
+		public int writeMultipleBlocks(int bank, int address, int words, String password, byte[] data) {
+			commands.add("write " + bank + "/" + address + "+" + words + " " + address());
+			if (bank != BANK_EPC && words > maxWords)
+				return RF_RStatus.RF_communication_error.getValue();
+			if (writeStatus == RF_RStatus.OK.getValue() && bank == BANK_EPC)
+				System.arraycopy(data, 0, epcMemory, address * 2, words * 2);
+			return writeStatus;
+		}
+
+		@Override
+		public int readMultipleBlocks(int bank, int address, int words, String password, FedmIscTagHandler_Result result) {
+			commands.add("read " + bank + "/" + address + "+" + words + " " + address());
+			result.data = Arrays.copyOfRange(epcMemory, address * 2, address * 2 + words * 2);
+			return RF_RStatus.OK.getValue();
+		}
+
+		@Override
+		public int lock(String password, byte killMask, byte killAction, byte accessMask, byte accessAction, byte epcMask, byte epcAction,
+				byte tidMask, byte tidAction, byte userMask, byte userAction) {
+			commands.add(String.format("lock %d%d %d%d %d%d %s", killMask, killAction, accessMask, accessAction, epcMask, epcAction, address()));
+			return RF_RStatus.OK.getValue();
+		}
+	}
+
+	private static CommissioningTag tag(byte[] epcBank, byte[] uid) {
+		FedmIsoTableItem tabItem = new FedmIsoTableItem();
+		tabItem.uid = uid;
+		tabItem.class1Gen2PC = new byte[] { epcBank[2], epcBank[3] };
+		return new CommissioningTag(tabItem, epcBank);
+	}
+
+	private static RF_RCommissioningResult.State commission(RF_RCommissioningJob job, CommissioningTag tag, byte[] epcBank, byte[] epc) {
+		HostRF_RReaderConnector connector = new HostRF_R500ReaderConnector();
+		return connector.commission(job, tag, epcBank, TID, epc);
+	}
+
+	private static String hex(byte[] data) {
+		return FeHexConvert.byteArrayToHexString(data);
+	}
+
+	@Test
+	public void commandOrder() {
+		byte[] previous = unprogrammed(1);
+		byte[] epc = commissioning(1).next();
+		CommissioningTag tag = tag(epcBank(previous), previous.clone());
+		RF_RCommissioningJob job = new RF_RCommissioningJob(RF_RSerialRange.sgtin96(new byte[12], 1, 1));
+		job.setKillPassword(new byte[] { 1, 2, 3, 4 });
+		job.setAccessPassword(new byte[] { 5, 6, 7, 8 });
+		job.setEpcLock(LockType.LOCK);
+		job.setPasswordLock(LockType.PERMALOCK);
+
+		assertEquals(RF_RCommissioningResult.State.Success, commission(job, tag, epcBank(previous), epc));
+		// only the EPC write is addressed by the previous EPC
+		assertEquals(
+				Arrays.asList("write 1/2+6 " + hex(previous), "read 1/2+6 " + hex(epc), "write 0/0+4 " + hex(epc), "lock 33 33 22 " + hex(epc)),
+				tag.commands);
+	}
+
+	@Test
+	public void lockOnlyPasswordsWritten() {
+		byte[] previous = unprogrammed(1);
+		byte[] epc = commissioning(1).next();
+		CommissioningTag tag = tag(epcBank(previous), previous.clone());
+		RF_RCommissioningJob job = new RF_RCommissioningJob(RF_RSerialRange.sgtin96(new byte[12], 1, 1));
+		job.setAccessPassword(new byte[] { 5, 6, 7, 8 });
+		job.setPasswordLock(LockType.LOCK);
+
+		assertEquals(RF_RCommissioningResult.State.Success, commission(job, tag, epcBank(previous), epc));
+		assertEquals("write 0/2+2 " + hex(epc), tag.commands.get(2));
+		assertEquals("lock 00 22 00 " + hex(epc), tag.commands.get(3));
+	}
+
+	@Test
+	public void passwordWriteNegotiatesBlockSize() {
+		byte[] previous = unprogrammed(1);
+		byte[] epc = commissioning(1).next();
+		CommissioningTag tag = tag(epcBank(previous), previous.clone());
+		tag.maxWords = 2;
+		RF_RCommissioningJob job = new RF_RCommissioningJob(RF_RSerialRange.sgtin96(new byte[12], 1, 1));
+		job.setKillPassword(new byte[] { 1, 2, 3, 4 });
+		job.setAccessPassword(new byte[] { 5, 6, 7, 8 });
+
+		assertEquals(RF_RCommissioningResult.State.Success, commission(job, tag, epcBank(previous), epc));
+		assertEquals(Arrays.asList("write 0/0+4 " + hex(epc), "write 0/0+2 " + hex(epc), "write 0/2+2 " + hex(epc)), tag.commands.subList(2, 5));
+	}
+
+	@Test
+	public void reselectKeepsTidAndUpdatesPc() {
+		byte[] previous = new byte[] { (byte) 0xE2, 0, 0, 1 };
+		byte[] epc = commissioning(1).next();
+		// the UID of extended mode contains the TID
+		CommissioningTag tag = tag(epcBank(previous), concat(previous, TID));
+		RF_RCommissioningJob job = new RF_RCommissioningJob(RF_RSerialRange.sgtin96(new byte[12], 1, 1));
+
+		assertEquals(RF_RCommissioningResult.State.Success, commission(job, tag, epcBank(previous), epc));
+		// the PC is written with the EPC as the length changes
+		assertEquals("write 1/1+7 " + hex(previous) + hex(TID), tag.commands.get(0));
+		assertEquals("read 1/2+6 " + hex(epc) + hex(TID), tag.commands.get(1));
+		assertEquals((epc.length / 2) << 3, tag.tabItem.class1Gen2PC[0] & 0xFF);
+	}
+
+	@Test
+	public void writeNotReachingTag() {
+		byte[] previous = unprogrammed(1);
+		byte[] epc = commissioning(1).next();
+		CommissioningTag tag = tag(epcBank(previous), previous.clone());
+		tag.writeStatus = RF_RStatus.Tag_Error.getValue();
+		RF_RCommissioningJob job = new RF_RCommissioningJob(RF_RSerialRange.sgtin96(new byte[12], 1, 1));
+
+		assertEquals(RF_RCommissioningResult.State.WriteError, commission(job, tag, epcBank(previous), epc));
+		// the tag still answers to the previous EPC
+		assertEquals(Arrays.asList("write 1/2+6 " + hex(previous), "read 1/1+7 " + hex(previous)), tag.commands);
+		assertEquals(hex(previous), tag.address());
+	}
+
+	private static byte[] concat(byte[] first, byte[] second) {
+		byte[] result = Arrays.copyOf(first, first.length + second.length);
+		System.arraycopy(second, 0, result, first.length, second.length);
+		return result;
+	}
+
+	@Test
+	public void isValid() {
+		assertFalse(RF_RCommissioning.isValid(null));
+		assertFalse(RF_RCommissioning.isValid(new byte[3]));
+		assertFalse(RF_RCommissioning.isValid(new byte[64]));
+		assertTrue(RF_RCommissioning.isValid(new byte[62]));
+		assertTrue(RF_RCommissioning.isValid(new byte[12]));
+	}
+}
@@ -0,0 +1,134 @@
+package havis.middleware.reader.rf_r;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import havis.middleware.ale.base.operation.tag.result.ReadResult;
+import havis.middleware.ale.base.operation.tag.result.ResultState;
+
+import org.junit.Test;
+
+public class RF_RDuplicateFilterTest {
+
+	private static final long MS = 1000000;
+
+	private static final byte[] EPC = new byte[] { 0x30, 0x00, 0x00, 0x01 };
+	private static final byte[] TID = new byte[] { (byte) 0xE2, (byte) 0x80, 0x11, 0x05 };
+
+	@Test
+	public void window() {
+		RF_RDuplicateFilter filter = new RF_RDuplicateFilter(100, false, 0, false);
+		assertTrue(filter.accept(1, EPC, null, (short) 1, 0, 0));
+		assertFalse(filter.accept(1, EPC, null, (short) 1, 0, 99 * MS));
+		assertTrue(filter.accept(1, EPC, null, (short) 1, 0, 100 * MS));
+		// the window starts again with the last report
+		assertFalse(filter.accept(1, EPC, null, (short) 1, 0, 199 * MS));
+		assertEquals(2, filter.getSuppressed());
+	}
+
+	@Test
+	public void key() {
+		RF_RDuplicateFilter filter = new RF_RDuplicateFilter(100, false, 0, false);
+		assertTrue(filter.accept(1, EPC, null, (short) 1, 0, 0));
+		// other operations are reported independently
+		assertTrue(filter.accept(2, EPC, null, (short) 1, 0, 0));
+		assertTrue(filter.accept(1, new byte[] { 0x30, 0x00, 0x00, 0x02 }, null, (short) 1, 0, 0));
+		// the TID is part of the key
+		assertTrue(filter.accept(1, EPC, TID, (short) 1, 0, 0));
+		assertFalse(filter.accept(1, EPC, TID, (short) 1, 0, 0));
+		assertEquals(4, filter.size());
+	}
+
+	@Test
+	public void antennaChange() {
+		RF_RDuplicateFilter filter = new RF_RDuplicateFilter(100, true, 0, false);
+		assertTrue(filter.accept(1, EPC, null, (short) 1, 0, 0));
+		assertTrue(filter.accept(1, EPC, null, (short) 2, 0, MS));
+		assertFalse(filter.accept(1, EPC, null, (short) 2, 0, 2 * MS));
+
+		filter = new RF_RDuplicateFilter(100, false, 0, false);
+		assertTrue(filter.accept(1, EPC, null, (short) 1, 0, 0));
+		assertFalse(filter.accept(1, EPC, null, (short) 2, 0, MS));
+	}
+
+	@Test
+	public void rssiDelta() {
+		RF_RDuplicateFilter filter = new RF_RDuplicateFilter(100, false, 5, false);
+		assertTrue(filter.accept(1, EPC, null, (short) 1, -60, 0));
+		assertFalse(filter.accept(1, EPC, null, (short) 1, -56, MS));
+		assertTrue(filter.accept(1, EPC, null, (short) 1, -55, 2 * MS));
+	}
+
+	@Test
+	public void grow() {
+		for (boolean offHeap : new boolean[] { false, true }) {
+			RF_RDuplicateFilter filter = new RF_RDuplicateFilter(100, false, 0, offHeap);
+			for (int i = 0; i < 5000; i++)
+				assertTrue(filter.accept(1, new byte[] { 0x30, (byte) (i >> 16), (byte) (i >> 8), (byte) i }, TID, (short) 1, 0, 0));
+			for (int i = 0; i < 5000; i++)
+				assertFalse(filter.accept(1, new byte[] { 0x30, (byte) (i >> 16), (byte) (i >> 8), (byte) i }, TID, (short) 1, 0, MS));
+			assertEquals(5000, filter.size());
+			assertEquals(5000, filter.getSuppressed());
+		}
+	}
+
+	@Test
+	public void clear() {
+		RF_RDuplicateFilter filter = new RF_RDuplicateFilter(100, false, 0, false);
+		filter.accept(1, EPC, null, (short) 1, 0, 0);
+		filter.clear();
+		assertEquals(0, filter.size());
+		assertTrue(filter.accept(1, EPC, null, (short) 1, 0, MS));
+	}
+
+	@Test
+	public void failedRead() {
+		assertFalse(RF_RDuplicateFilter.hasFailedRead(null));
+		assertFalse(RF_RDuplicateFilter.hasFailedRead(new ReadResult[] { null, new ReadResult(ResultState.SUCCESS, EPC), null, null }));
+		assertTrue(RF_RDuplicateFilter.hasFailedRead(new ReadResult[] { new ReadResult(ResultState.MISC_ERROR_TOTAL, new byte[0]),
+				new ReadResult(ResultState.SUCCESS, EPC), null, null }));
+		assertTrue(RF_RDuplicateFilter.hasFailedRead(new ReadResult[] { new ReadResult(ResultState.PASSWORD_ERROR, new byte[0]), null, null,
+				null }));
+	}
+
+	@Test
+	public void filterRejectedTag() {
+		// the reserved bank is not read as the filters of the operation
+		// reject the tag, which is no failed read
+		ReadResult[] readResult = new ReadResult[] { new ReadResult(ResultState.OP_NOT_POSSIBLE_ERROR, new byte[0]),
+				new ReadResult(ResultState.SUCCESS, EPC), null, null };
+		assertFalse(RF_RDuplicateFilter.hasFailedRead(readResult));
+
+		RF_RDuplicateFilter filter = new RF_RDuplicateFilter(100, false, 0, false);
+		assertTrue(filter.accept(1, EPC, null, (short) 1, 0, 0));
+		assertFalse(filter.accept(1, EPC, null, (short) 1, 0, MS));
+		assertEquals(1, filter.getSuppressed());
+	}
+
+	@Test
+	public void configuration() {
+		RF_RDuplicateFilter filter = new RF_RDuplicateFilter(100, false, 0, false);
+		filter.accept(1, EPC, null, (short) 1, 0, 0);
+		filter.accept(1, EPC, null, (short) 1, 0, MS);
+		filter.accept(1, EPC, null, (short) 1, 0, 2 * MS);
+		RF_RMonitorConfiguration configuration = filter.getConfiguration();
+		assertEquals(RF_RMonitorConfiguration.Kind.Dedupe, configuration.getKind());
+		assertEquals(Integer.valueOf(1), configuration.get("tags"));
+		assertEquals(Long.valueOf(2), configuration.get("suppressed"));
+	}
+
+	@Test
+	public void invalidArguments() {
+		try {
+			new RF_RDuplicateFilter(0, false, 0, false);
+			fail("Expected IllegalArgumentException");
+		} catch (IllegalArgumentException e) {
+		}
+		try {
+			new RF_RDuplicateFilter(100, false, -1, false);
+			fail("Expected IllegalArgumentException");
+		} catch (IllegalArgumentException e) {
+		}
+	}
+}
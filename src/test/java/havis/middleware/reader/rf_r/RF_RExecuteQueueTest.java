@@ -0,0 +1,165 @@
+package havis.middleware.reader.rf_r;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import havis.middleware.ale.base.operation.tag.Filter;
+import havis.middleware.ale.base.operation.tag.Operation;
+import havis.middleware.ale.base.operation.tag.Tag;
+import havis.middleware.ale.base.operation.tag.TagOperation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+public class RF_RExecuteQueueTest {
+
+	private static TagOperation operation() {
+		return new TagOperation(Collections.<Operation> emptyList(), Arrays.asList(new Filter(1, 8, 32, new byte[] { (byte) 0xE2 })));
+	}
+
+	@Test
+	public void order() {
+		RF_RExecuteQueue queue = new RF_RExecuteQueue();
+		assertTrue(queue.isEmpty());
+		assertTrue(queue.add(2, operation()));
+		assertTrue(queue.add(1, operation(), 1, Long.MAX_VALUE));
+		assertEquals(2, queue.size());
+
+		List<RF_RExecuteQueue.Entry> entries = new ArrayList<>(queue.getEntries());
+		assertEquals(2, entries.get(0).getId());
+		assertFalse(entries.get(0).isMultiple());
+		assertEquals(1, entries.get(1).getId());
+		assertTrue(entries.get(1).isMultiple());
+		assertFalse(entries.get(0).getMatcher().isAny());
+	}
+
+	@Test
+	public void duplicateId() {
+		RF_RExecuteQueue queue = new RF_RExecuteQueue();
+		TagOperation operation = operation();
+		assertTrue(queue.add(1, operation));
+		long modifications = queue.getModifications();
+		// the pending operation is kept
+		assertFalse(queue.add(1, operation()));
+		assertFalse(queue.add(1, operation(), 1, Long.MAX_VALUE));
+		assertEquals(1, queue.size());
+		assertSame(operation, queue.getEntries().iterator().next().getOperation());
+		assertEquals(modifications, queue.getModifications());
+
+		// the id can be used again once the operation is removed
+		queue.executed(1);
+		assertTrue(queue.add(1, operation()));
+	}
+
+	@Test
+	public void attemptsExpire() {
+		RF_RExecuteQueue queue = new RF_RExecuteQueue();
+		queue.add(1, operation());
+		assertTrue(queue.complete(3, 0).isEmpty());
+		assertTrue(queue.complete(3, 0).isEmpty());
+		List<RF_RExecuteQueue.Entry> exhausted = queue.complete(3, 0);
+		assertEquals(1, exhausted.size());
+		assertEquals(1, exhausted.get(0).getId());
+		assertEquals(3, exhausted.get(0).getAttempts());
+		// the operation is removed by the caller
+		assertEquals(1, queue.size());
+	}
+
+	@Test
+	public void roundBudgetExpires() {
+		RF_RExecuteQueue queue = new RF_RExecuteQueue();
+		queue.add(1, operation(), 2, Long.MAX_VALUE);
+		// the number of attempts does not apply
+		assertTrue(queue.complete(1, 0).isEmpty());
+		assertEquals(1, queue.complete(1, 0).size());
+	}
+
+	@Test
+	public void timeBudgetExpires() {
+		RF_RExecuteQueue queue = new RF_RExecuteQueue();
+		queue.add(1, operation(), 0, 1000);
+		assertTrue(queue.complete(1, 0).isEmpty());
+		assertTrue(queue.complete(1, 999).isEmpty());
+		assertEquals(1, queue.complete(1, 1000).size());
+
+		// the deadline is compared overflow safe
+		queue = new RF_RExecuteQueue();
+		queue.add(1, operation(), 0, Long.MIN_VALUE + 10);
+		assertTrue(queue.complete(1, Long.MAX_VALUE - 10).isEmpty());
+		assertEquals(1, queue.complete(1, Long.MIN_VALUE + 10).size());
+	}
+
+	@Test
+	public void unlimitedBudget() {
+		RF_RExecuteQueue queue = new RF_RExecuteQueue();
+		queue.add(1, operation(), 0, Long.MAX_VALUE);
+		for (int i = 0; i < 100; i++)
+			assertTrue(queue.complete(1, i).isEmpty());
+	}
+
+	@Test
+	public void results() {
+		RF_RExecuteQueue queue = new RF_RExecuteQueue();
+		queue.add(1, operation(), 0, Long.MAX_VALUE);
+		RF_RExecuteQueue.Entry entry = queue.getEntries().iterator().next();
+		assertFalse(entry.isHandled("T01"));
+		Tag tag = new Tag(new byte[] { 0x01 });
+		entry.addResult("T01", tag);
+		assertTrue(entry.isHandled("T01"));
+		assertFalse(entry.isHandled("T02"));
+		assertEquals(Arrays.asList(tag), entry.getResults());
+
+		queue.add(2, operation());
+		for (RF_RExecuteQueue.Entry single : queue.getEntries())
+			if (!single.isMultiple())
+				assertTrue(single.getResults().isEmpty());
+	}
+
+	@Test
+	public void keys() {
+		RF_RExecuteQueue queue = new RF_RExecuteQueue();
+		queue.add(1, operation(), 0, Long.MAX_VALUE);
+		queue.add(2, operation(), 0, Long.MAX_VALUE);
+		assertNull(queue.getKey("3000"));
+		queue.putKey("3000", "TE280");
+		assertEquals("TE280", queue.getKey("3000"));
+		// kept while operations are pending
+		queue.executed(1);
+		assertEquals("TE280", queue.getKey("3000"));
+		queue.abort(2);
+		assertNull(queue.getKey("3000"));
+	}
+
+	@Test
+	public void remove() {
+		RF_RExecuteQueue queue = new RF_RExecuteQueue();
+		queue.add(1, operation());
+		queue.add(2, operation());
+		queue.add(3, operation());
+		long modifications = queue.getModifications();
+
+		queue.executed(1);
+		queue.failed(2);
+		assertEquals(3, queue.abort(3).getId());
+		assertNull(queue.abort(3));
+		// unknown ids are not counted
+		queue.executed(1);
+		queue.failed(4);
+		assertTrue(queue.isEmpty());
+		assertEquals(modifications + 3, queue.getModifications());
+
+		RF_RMonitorConfiguration configuration = queue.getConfiguration();
+		assertEquals(RF_RMonitorConfiguration.Kind.Execute, configuration.getKind());
+		assertEquals(Integer.valueOf(0), configuration.get("depth"));
+		assertEquals(Integer.valueOf(3), configuration.get("maxDepth"));
+		assertEquals(Long.valueOf(1), configuration.get("executed"));
+		assertEquals(Long.valueOf(1), configuration.get("failed"));
+		assertEquals(Long.valueOf(1), configuration.get("aborted"));
+	}
+}
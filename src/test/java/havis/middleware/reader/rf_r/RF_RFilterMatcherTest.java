@@ -0,0 +1,103 @@
+package havis.middleware.reader.rf_r;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import havis.middleware.ale.base.operation.tag.Filter;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Test;
+
+public class RF_RFilterMatcherTest {
+
+	/**
+	 * EPC bank with CRC, PC and the EPC E2 5A C3 00
+	 */
+	private static final byte[] EPC_BANK = new byte[] { 0x12, 0x34, 0x20, 0x00, (byte) 0xE2, 0x5A, (byte) 0xC3, 0x00 };
+
+	private static final byte[] TID = new byte[] { (byte) 0xE2, (byte) 0x80, 0x11, 0x05 };
+
+	private static RF_RFilterMatcher compile(Filter... filters) {
+		return RF_RFilterMatcher.compile(Arrays.asList(filters));
+	}
+
+	@Test
+	public void compileWithoutFilters() {
+		assertTrue(RF_RFilterMatcher.compile(null).isAny());
+		assertTrue(RF_RFilterMatcher.compile(Collections.<Filter> emptyList()).isAny());
+		assertTrue(RF_RFilterMatcher.compile(null).matches(EPC_BANK, TID));
+	}
+
+	@Test
+	public void compileIgnoresUndecidableFilters() {
+		// mask shorter than the length, negative offset, unknown bank
+		assertTrue(compile(new Filter(1, 16, 32, new byte[] { (byte) 0xE2 })).isAny());
+		assertTrue(compile(new Filter(1, 8, -1, new byte[] { (byte) 0xE2 })).isAny());
+		assertTrue(compile(new Filter(4, 8, 0, new byte[] { (byte) 0xE2 })).isAny());
+		assertFalse(compile(new Filter(1, 8, 32, new byte[] { (byte) 0xE2 })).isAny());
+	}
+
+	@Test
+	public void matchesByteAligned() {
+		assertTrue(compile(new Filter(1, 8, 32, new byte[] { (byte) 0xE2 })).matches(EPC_BANK, TID));
+		assertTrue(compile(new Filter(1, 24, 32, new byte[] { (byte) 0xE2, 0x5A, (byte) 0xC3 })).matches(EPC_BANK, TID));
+		assertFalse(compile(new Filter(1, 8, 32, new byte[] { 0x30 })).matches(EPC_BANK, TID));
+		assertFalse(compile(new Filter(1, 24, 32, new byte[] { (byte) 0xE2, 0x5A, (byte) 0xC2 })).matches(EPC_BANK, TID));
+	}
+
+	@Test
+	public void matchesBitOffsetWithinByte() {
+		// bits 35 to 39 of E2 are 00010
+		assertTrue(compile(new Filter(1, 5, 35, new byte[] { 0x10 })).matches(EPC_BANK, TID));
+		assertFalse(compile(new Filter(1, 5, 35, new byte[] { 0x18 })).matches(EPC_BANK, TID));
+	}
+
+	@Test
+	public void matchesBitOffsetAcrossBytes() {
+		// low nibble of E2 and high nibble of 5A
+		assertTrue(compile(new Filter(1, 8, 36, new byte[] { 0x25 })).matches(EPC_BANK, TID));
+		assertFalse(compile(new Filter(1, 8, 36, new byte[] { 0x24 })).matches(EPC_BANK, TID));
+
+		// bits 33 to 48 spanning three bytes
+		assertTrue(compile(new Filter(1, 16, 33, new byte[] { (byte) 0xC4, (byte) 0xB5 })).matches(EPC_BANK, TID));
+		assertFalse(compile(new Filter(1, 16, 33, new byte[] { (byte) 0xC4, (byte) 0xB4 })).matches(EPC_BANK, TID));
+	}
+
+	@Test
+	public void matchesRemainingBitsAcrossBytes() {
+		// bits 38 to 43 are 100101, the bits of the mask beyond the length
+		// are ignored
+		assertTrue(compile(new Filter(1, 6, 38, new byte[] { (byte) 0x94 })).matches(EPC_BANK, TID));
+		assertTrue(compile(new Filter(1, 6, 38, new byte[] { (byte) 0x97 })).matches(EPC_BANK, TID));
+		assertFalse(compile(new Filter(1, 6, 38, new byte[] { (byte) 0x98 })).matches(EPC_BANK, TID));
+	}
+
+	@Test
+	public void matchesBeyondData() {
+		assertFalse(compile(new Filter(1, 8, 60, new byte[] { 0x00 })).matches(EPC_BANK, TID));
+		assertTrue(compile(new Filter(1, 8, 56, new byte[] { 0x00 })).matches(EPC_BANK, TID));
+	}
+
+	@Test
+	public void matchesUnknownBank() {
+		RF_RFilterMatcher matcher = compile(new Filter(2, 12, 8, new byte[] { (byte) 0x80, 0x10 }));
+		assertTrue(matcher.matches(EPC_BANK, TID));
+		assertTrue(matcher.matches(EPC_BANK, null));
+		assertFalse(matcher.matches(EPC_BANK, new byte[] { (byte) 0xE2, (byte) 0x80, 0x21, 0x05 }));
+
+		// reserved and user bank are only known if given
+		RF_RFilterMatcher user = compile(new Filter(3, 8, 0, new byte[] { 0x01 }));
+		assertTrue(user.matches(EPC_BANK, TID));
+		assertTrue(user.matches(null, EPC_BANK, TID, new byte[] { 0x01, 0x02 }));
+		assertFalse(user.matches(null, EPC_BANK, TID, new byte[] { 0x02, 0x02 }));
+	}
+
+	@Test
+	public void matchesAllFilters() {
+		RF_RFilterMatcher matcher = compile(new Filter(1, 8, 32, new byte[] { (byte) 0xE2 }), new Filter(2, 8, 0, new byte[] { (byte) 0xE2 }));
+		assertTrue(matcher.matches(EPC_BANK, TID));
+		assertFalse(matcher.matches(EPC_BANK, new byte[] { (byte) 0xE0, 0x00 }));
+		assertFalse(matcher.matches(new byte[] { 0x12, 0x34, 0x20, 0x00, 0x30 }, TID));
+	}
+}
@@ -0,0 +1,108 @@
+package havis.middleware.reader.rf_r;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+public class RF_RMemoryCacheTest {
+
+	private static final long MS = 1000000;
+
+	private static final int RESERVED = 0;
+	private static final int TID = 2;
+	private static final int USER = 3;
+
+	private static final byte[] TID1 = new byte[] { (byte) 0xE2, (byte) 0x80, 0x11, 0x05 };
+	private static final byte[] TID2 = new byte[] { (byte) 0xE2, (byte) 0x80, 0x11, 0x06 };
+	private static final byte[] DATA = new byte[] { 0x01, 0x02 };
+
+	private static RF_RInventoryOperation inventoryOperation(boolean... userDataBlocks) {
+		RF_RInventoryOperation inventoryOperation = new RF_RInventoryOperation();
+		inventoryOperation.setUserDataBlocks(userDataBlocks);
+		return inventoryOperation;
+	}
+
+	@Test
+	public void tid() {
+		RF_RMemoryCache cache = new RF_RMemoryCache(10, 100);
+		RF_RInventoryOperation inventoryOperation = inventoryOperation();
+		assertNull(cache.getTid("1"));
+		cache.put("1", TID1, TID, inventoryOperation, TID1, 0);
+		// found by the UID alone and valid until evicted
+		assertArrayEquals(TID1, cache.getTid("1"));
+		assertArrayEquals(TID1, cache.get("1", TID1, TID, inventoryOperation, 1000 * MS));
+		assertNull(cache.getTid("2"));
+	}
+
+	@Test
+	public void keyedOnTid() {
+		RF_RMemoryCache cache = new RF_RMemoryCache(10, 100);
+		RF_RInventoryOperation inventoryOperation = inventoryOperation();
+		cache.put("1", TID1, RESERVED, inventoryOperation, DATA, 0);
+		assertArrayEquals(DATA, cache.get("1", TID1, RESERVED, inventoryOperation, 0));
+		assertNull(cache.get("1", null, RESERVED, inventoryOperation, 0));
+		// another tag with the same EPC
+		assertNull(cache.get("1", TID2, RESERVED, inventoryOperation, 0));
+		cache.put("1", TID2, RESERVED, inventoryOperation, DATA, 0);
+		assertNull(cache.get("1", TID1, RESERVED, inventoryOperation, 0));
+		// not cached without TID
+		cache.put("2", null, RESERVED, inventoryOperation, DATA, 0);
+		assertEquals(1, cache.size());
+	}
+
+	@Test
+	public void timeToLive() {
+		RF_RMemoryCache cache = new RF_RMemoryCache(10, 100);
+		RF_RInventoryOperation inventoryOperation = inventoryOperation(true);
+		cache.put("1", TID1, USER, inventoryOperation, DATA, 0);
+		assertArrayEquals(DATA, cache.get("1", TID1, USER, inventoryOperation, 99 * MS));
+		assertNull(cache.get("1", TID1, USER, inventoryOperation, 100 * MS));
+		// only valid for the same data blocks
+		assertNull(cache.get("1", TID1, USER, inventoryOperation(true, true), 0));
+	}
+
+	@Test
+	public void evict() {
+		RF_RMemoryCache cache = new RF_RMemoryCache(2, 100);
+		RF_RInventoryOperation inventoryOperation = inventoryOperation();
+		cache.put("1", TID1, TID, inventoryOperation, TID1, 0);
+		cache.put("2", TID2, TID, inventoryOperation, TID2, 0);
+		cache.getTid("1");
+		cache.put("3", TID2, TID, inventoryOperation, TID2, 0);
+		assertEquals(2, cache.size());
+		assertArrayEquals(TID1, cache.getTid("1"));
+		assertNull(cache.getTid("2"));
+
+		cache.invalidate("1");
+		assertNull(cache.getTid("1"));
+		cache.clear();
+		assertEquals(0, cache.size());
+	}
+
+	@Test
+	public void configuration() {
+		RF_RMemoryCache cache = new RF_RMemoryCache(10, 100);
+		RF_RInventoryOperation inventoryOperation = inventoryOperation();
+		cache.getTid("1");
+		cache.put("1", TID1, TID, inventoryOperation, TID1, 0);
+		cache.getTid("1");
+		cache.get("1", TID1, RESERVED, inventoryOperation, 0);
+		RF_RMonitorConfiguration configuration = cache.getConfiguration();
+		assertEquals(RF_RMonitorConfiguration.Kind.Cache, configuration.getKind());
+		assertEquals(Integer.valueOf(1), configuration.get("tags"));
+		assertEquals(Long.valueOf(1), configuration.get("hits"));
+		assertEquals(Long.valueOf(2), configuration.get("misses"));
+	}
+
+	@Test
+	public void invalidArguments() {
+		try {
+			new RF_RMemoryCache(0, 100);
+			fail("Expected IllegalArgumentException");
+		} catch (IllegalArgumentException e) {
+		}
+	}
+}
@@ -0,0 +1,74 @@
+package havis.middleware.reader.rf_r;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+public class RF_RReadPlanTest {
+
+	private static boolean[] blocks(String pattern) {
+		boolean[] blocks = new boolean[pattern.length()];
+		for (int i = 0; i < blocks.length; i++)
+			blocks[i] = pattern.charAt(i) == 'x';
+		return blocks;
+	}
+
+	@Test
+	public void empty() {
+		assertEquals("RF_RReadPlan []", RF_RReadPlan.create(null, 0, 1).toString());
+		assertEquals("RF_RReadPlan []", RF_RReadPlan.create(new boolean[0], 0, 1).toString());
+		assertEquals("RF_RReadPlan []", RF_RReadPlan.create(blocks("----"), 0, 1).toString());
+	}
+
+	@Test
+	public void runs() {
+		RF_RReadPlan readPlan = RF_RReadPlan.create(blocks("--xx-x"), 0, 8);
+		assertEquals(2, readPlan.size());
+		assertEquals(2, readPlan.getOffset(0));
+		assertEquals(2, readPlan.getLength(0));
+		assertEquals(5, readPlan.getOffset(1));
+		assertEquals(1, readPlan.getLength(1));
+	}
+
+	@Test
+	public void mergeGaps() {
+		assertEquals("RF_RReadPlan [0+4]", RF_RReadPlan.create(blocks("xx-x"), 1, 8).toString());
+		assertEquals("RF_RReadPlan [0+6]", RF_RReadPlan.create(blocks("x-x--x"), 2, 8).toString());
+		// gap too large
+		assertEquals("RF_RReadPlan [0+3, 5+1]", RF_RReadPlan.create(blocks("x-x--x"), 1, 8).toString());
+		// merged run would exceed the maximum number of blocks
+		assertEquals("RF_RReadPlan [0+1, 2+1]", RF_RReadPlan.create(blocks("x-x"), 1, 2).toString());
+	}
+
+	@Test
+	public void splitRuns() {
+		assertEquals("RF_RReadPlan [0+4, 4+4, 8+2]", RF_RReadPlan.create(blocks("xxxxxxxxxx"), 0, 4).toString());
+		assertEquals("RF_RReadPlan [1+1, 2+1, 3+1]", RF_RReadPlan.create(blocks("-xxx"), 5, 1).toString());
+	}
+
+	@Test
+	public void acrossWords() {
+		boolean[] blocks = new boolean[200];
+		blocks[63] = true;
+		blocks[64] = true;
+		blocks[130] = true;
+		blocks[199] = true;
+		assertEquals("RF_RReadPlan [63+2, 130+1, 199+1]", RF_RReadPlan.create(blocks, 0, 255).toString());
+		assertEquals("RF_RReadPlan [63+68, 199+1]", RF_RReadPlan.create(blocks, 65, 255).toString());
+	}
+
+	@Test
+	public void invalidArguments() {
+		try {
+			RF_RReadPlan.create(blocks("x"), -1, 1);
+			fail("Expected IllegalArgumentException");
+		} catch (IllegalArgumentException e) {
+		}
+		try {
+			RF_RReadPlan.create(blocks("x"), 0, 0);
+			fail("Expected IllegalArgumentException");
+		} catch (IllegalArgumentException e) {
+		}
+	}
+}
@@ -0,0 +1,105 @@
+package havis.middleware.reader.rf_r;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import havis.middleware.ale.base.operation.tag.Filter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import de.feig.ReaderConfig.Transponder.UHF.EPC_Class1Gen2.SelectionMask;
+
+public class RF_RSelectionTest {
+
+	private static final Filter EPC = new Filter(1, 8, 32, new byte[] { (byte) 0xE2 });
+	private static final Filter TID = new Filter(2, 12, 8, new byte[] { (byte) 0x80, 0x10 });
+	private static final Filter USER = new Filter(3, 16, 0, new byte[] { 0x01, 0x02 });
+	private static final Filter RESERVED = new Filter(0, 8, 0, new byte[] { 0x00 });
+
+	@SafeVarargs
+	private static RF_RSelection create(List<Filter>... filters) {
+		return RF_RSelection.create(Arrays.asList(filters));
+	}
+
+	@Test
+	public void none() {
+		assertSame(RF_RSelection.NONE, RF_RSelection.create(Collections.<List<Filter>> emptyList()));
+		assertTrue(RF_RSelection.NONE.isNone());
+		// an operation without filters requires all tags
+		assertSame(RF_RSelection.NONE, create(Arrays.asList(EPC), null));
+		assertSame(RF_RSelection.NONE, create(Arrays.asList(EPC), new ArrayList<Filter>()));
+		// the reserved bank can not be selected
+		assertSame(RF_RSelection.NONE, create(Arrays.asList(RESERVED)));
+	}
+
+	@Test
+	public void sameFilters() {
+		RF_RSelection selection = create(Arrays.asList(EPC, TID), Arrays.asList(TID, EPC));
+		assertFalse(selection.isNone());
+
+		Map<String, Object> configuration = selection.toConfiguration();
+		assertEquals(Integer.valueOf(1), configuration.get(SelectionMask.No1.BankNo));
+		assertEquals(Byte.valueOf((byte) 8), configuration.get(SelectionMask.No1.MaskLength));
+		assertEquals(Integer.valueOf(32), configuration.get(SelectionMask.No1.FirstBit));
+		assertArrayEquals(new byte[] { (byte) 0xE2 }, (byte[]) configuration.get(SelectionMask.No1.Mask));
+		assertEquals(Integer.valueOf(2), configuration.get(SelectionMask.No2.BankNo));
+		assertEquals(Byte.valueOf((byte) 12), configuration.get(SelectionMask.No2.MaskLength));
+		assertArrayEquals(new byte[] { (byte) 0x80, 0x10 }, (byte[]) configuration.get(SelectionMask.No2.Mask));
+		// the third mask is disabled, the masks are combined with AND
+		assertEquals(Byte.valueOf((byte) 0), configuration.get(SelectionMask.No3.MaskLength));
+		assertEquals(Byte.valueOf((byte) 0), configuration.get(SelectionMask.No2.Logic));
+		assertEquals(Byte.valueOf((byte) 0), configuration.get(SelectionMask.No3.Logic));
+	}
+
+	@Test
+	public void sameFiltersLimitedToMasks() {
+		Filter other = new Filter(1, 8, 40, new byte[] { 0x00 });
+		RF_RSelection selection = create(Arrays.asList(EPC, TID, USER, other));
+		assertEquals(create(Arrays.asList(EPC, TID, USER)), selection);
+		// reserved bank filters are skipped
+		assertEquals(create(Arrays.asList(EPC)), create(Arrays.asList(RESERVED, EPC)));
+	}
+
+	@Test
+	public void differentFilters() {
+		RF_RSelection selection = create(Arrays.asList(EPC, USER), Arrays.asList(TID));
+		Map<String, Object> configuration = selection.toConfiguration();
+		// the first filter of each operation, combined with OR
+		assertEquals(Integer.valueOf(1), configuration.get(SelectionMask.No1.BankNo));
+		assertEquals(Integer.valueOf(2), configuration.get(SelectionMask.No2.BankNo));
+		assertEquals(Byte.valueOf((byte) 0), configuration.get(SelectionMask.No3.MaskLength));
+		assertEquals(Byte.valueOf((byte) 1), configuration.get(SelectionMask.No2.Logic));
+		assertEquals(Byte.valueOf((byte) 1), configuration.get(SelectionMask.No3.Logic));
+	}
+
+	@Test
+	public void differentFiltersSharingFirstFilter() {
+		// both operations select by the same first filter
+		RF_RSelection selection = create(Arrays.asList(EPC, USER), Arrays.asList(EPC, TID));
+		assertEquals(create(Arrays.asList(EPC)), selection);
+	}
+
+	@Test
+	public void tooManyAlternatives() {
+		Filter other = new Filter(1, 8, 40, new byte[] { 0x00 });
+		assertSame(RF_RSelection.NONE, create(Arrays.asList(EPC), Arrays.asList(TID), Arrays.asList(USER), Arrays.asList(other)));
+	}
+
+	@Test
+	public void equality() {
+		Filter equal = new Filter(2, 12, 8, new byte[] { (byte) 0x80, 0x10 });
+		assertEquals(create(Arrays.asList(TID)), create(Arrays.asList(equal)));
+		assertEquals(create(Arrays.asList(TID)).hashCode(), create(Arrays.asList(equal)).hashCode());
+		assertFalse(create(Arrays.asList(TID)).equals(create(Arrays.asList(new Filter(2, 12, 8, new byte[] { (byte) 0x80, 0x20 })))));
+		assertFalse(create(Arrays.asList(TID)).equals(create(Arrays.asList(new Filter(2, 12, 12, new byte[] { (byte) 0x80, 0x10 })))));
+		assertFalse(create(Arrays.asList(EPC, TID)).equals(create(Arrays.asList(EPC), Arrays.asList(TID))));
+	}
+}
@@ -0,0 +1,96 @@
+package havis.middleware.reader.rf_r;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+import org.junit.Test;
+
+public class RF_RSerialRangeTest {
+
+	@Test
+	public void sgtin96() {
+		byte[] template = new byte[12];
+		template[0] = 0x30;
+		RF_RSerialRange range = RF_RSerialRange.sgtin96(template, 1000, 2);
+		assertArrayEquals(new byte[] { 0x30, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0x03, (byte) 0xE8 }, range.next());
+		assertArrayEquals(new byte[] { 0x30, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0x03, (byte) 0xE9 }, range.next());
+	}
+
+	@Test
+	public void sgtin96KeepsTemplateBits() {
+		byte[] template = new byte[12];
+		Arrays.fill(template, (byte) 0xFF);
+		RF_RSerialRange range = RF_RSerialRange.sgtin96(template, 0, 1);
+		// the serial number starts at bit 58 of byte 7
+		assertArrayEquals(new byte[] { (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xC0, 0, 0,
+				0, 0 }, range.next());
+		// the template is copied
+		assertEquals((byte) 0xFF, template[11]);
+	}
+
+	@Test
+	public void sgtin96MaximumSerial() {
+		long max = (1L << RF_RSerialRange.SGTIN_96_SERIAL_LENGTH) - 1;
+		RF_RSerialRange range = RF_RSerialRange.sgtin96(new byte[12], max, 1);
+		assertArrayEquals(new byte[] { 0, 0, 0, 0, 0, 0, 0, 0x3F, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF }, range.next());
+	}
+
+	@Test
+	public void unalignedField() {
+		// five bits at the end of the first byte
+		assertArrayEquals(new byte[] { 0x15, 0 }, new RF_RSerialRange(new byte[2], 3, 5, 0x15, 1).next());
+		// eight bits across both bytes
+		assertArrayEquals(new byte[] { 0x0A, 0x50 }, new RF_RSerialRange(new byte[2], 4, 8, 0xA5, 1).next());
+		// bits outside the field are kept
+		assertArrayEquals(new byte[] { (byte) 0xF0, 0x0F }, new RF_RSerialRange(new byte[] { (byte) 0xFF, (byte) 0xFF }, 4, 8, 0, 1).next());
+	}
+
+	@Test
+	public void iterate() {
+		RF_RSerialRange range = new RF_RSerialRange(new byte[2], 8, 8, 1, 3);
+		assertEquals(3, range.getRemaining());
+		assertTrue(range.hasNext());
+		assertEquals(1, range.next()[1]);
+		assertEquals(2, range.next()[1]);
+		assertEquals(3, range.next()[1]);
+		assertEquals(0, range.getRemaining());
+		assertFalse(range.hasNext());
+		try {
+			range.next();
+			fail("Expected NoSuchElementException");
+		} catch (NoSuchElementException e) {
+		}
+	}
+
+	@Test
+	public void emptyRange() {
+		assertFalse(new RF_RSerialRange(new byte[2], 8, 8, 256, 0).hasNext());
+	}
+
+	@Test
+	public void invalidArguments() {
+		assertInvalid(null, 0, 8, 0, 1);
+		// field beyond the template
+		assertInvalid(new byte[2], 9, 8, 0, 1);
+		// field too long
+		assertInvalid(new byte[12], 0, 63, 0, 1);
+		assertInvalid(new byte[12], 0, 0, 0, 1);
+		// serial numbers exceed the field
+		assertInvalid(new byte[2], 8, 8, 255, 2);
+		assertInvalid(new byte[2], 8, 8, -1, 1);
+	}
+
+	private static void assertInvalid(byte[] template, int offset, int length, long first, long count) {
+		try {
+			new RF_RSerialRange(template, offset, length, first, count);
+			fail("Expected IllegalArgumentException");
+		} catch (IllegalArgumentException e) {
+		}
+	}
+}
@@ -0,0 +1,99 @@
+package havis.middleware.reader.rf_r;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+public class RF_RTableSizerTest {
+
+	@Test
+	public void grow() {
+		RF_RTableSizer sizer = new RF_RTableSizer(16, 8, 4);
+		sizer.observe(11);
+		assertFalse(sizer.update(8));
+		// a round fills three quarters of the table
+		sizer.observe(12);
+		assertTrue(sizer.update(8));
+		assertEquals(32, sizer.getTags());
+		assertFalse(sizer.update(8));
+	}
+
+	@Test
+	public void growLimited() {
+		RF_RTableSizer sizer = new RF_RTableSizer(16, 8, 4);
+		sizer.observe(10000);
+		assertTrue(sizer.update(8));
+		assertEquals(8192, sizer.getTags());
+	}
+
+	@Test
+	public void shrink() {
+		RF_RTableSizer sizer = new RF_RTableSizer(256, 8, 4);
+		for (int i = 0; i < 63; i++)
+			sizer.observe(10);
+		// the table only shrinks after a full window of rounds
+		assertFalse(sizer.update(8));
+		sizer.observe(10);
+		assertEquals(10, sizer.getHighWater());
+		assertTrue(sizer.update(8));
+		assertEquals(32, sizer.getTags());
+	}
+
+	@Test
+	public void shrinkKeepsMinimum() {
+		RF_RTableSizer sizer = new RF_RTableSizer(64, 8, 4);
+		for (int i = 0; i < 64; i++)
+			sizer.observe(0);
+		assertTrue(sizer.update(8));
+		assertEquals(16, sizer.getTags());
+	}
+
+	@Test
+	public void dataBlocks() {
+		RF_RTableSizer sizer = new RF_RTableSizer(16, 8, 4);
+		assertEquals(8, sizer.getDataBlocks());
+		assertFalse(sizer.update(100));
+		assertEquals(8, sizer.getDataBlocks());
+		assertTrue(sizer.update(0));
+		assertEquals(1, sizer.getDataBlocks());
+		assertEquals(16, sizer.getTags());
+		assertEquals(4, sizer.getBlockSize());
+		assertEquals(8, sizer.getMaxDataBlocks());
+	}
+
+	@Test
+	public void getUserDataBlocks() {
+		assertEquals(1, RF_RTableSizer.getUserDataBlocks(null, 8));
+
+		RF_RInventoryOperation inventoryOperation = new RF_RInventoryOperation();
+		inventoryOperation.setUser(RF_RInventoryOperation.UserReadMode.OFF);
+		assertEquals(1, RF_RTableSizer.getUserDataBlocks(inventoryOperation, 8));
+
+		inventoryOperation.setUser(RF_RInventoryOperation.UserReadMode.ON_COMPLETE);
+		assertEquals(8, RF_RTableSizer.getUserDataBlocks(inventoryOperation, 8));
+
+		inventoryOperation.setUser(RF_RInventoryOperation.UserReadMode.ON);
+		assertEquals(8, RF_RTableSizer.getUserDataBlocks(inventoryOperation, 8));
+		// the table holds all blocks up to the last one read
+		inventoryOperation.setUserReadPlan(RF_RReadPlan.create(new boolean[] { false, false, true, true, false }, 0, 8));
+		assertEquals(4, RF_RTableSizer.getUserDataBlocks(inventoryOperation, 8));
+		assertEquals(3, RF_RTableSizer.getUserDataBlocks(inventoryOperation, 3));
+	}
+
+	@Test
+	public void invalidArguments() {
+		try {
+			new RF_RTableSizer(0, 8, 4);
+			fail("Expected IllegalArgumentException");
+		} catch (IllegalArgumentException e) {
+		}
+		try {
+			new RF_RTableSizer(16, 0, 4);
+			fail("Expected IllegalArgumentException");
+		} catch (IllegalArgumentException e) {
+		}
+	}
+}